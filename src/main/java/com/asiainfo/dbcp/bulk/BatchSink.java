@@ -0,0 +1,192 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+/**
+ * @Description: 写入线程持有的池化连接和语句，一批行在一个事务里executeBatch并提交，批量导入和后写写入器共用；
+ *             - 失败时回滚，瞬时错误（SQLTransientException、SQLRecoverableException、SQLState 40xxx/08xxx）按退避重试，
+ *               连接类错误重试前更换连接；
+ *             - commit时发生连接类错误，事务可能已经提交也可能已经回滚，不重试直接返回错误，避免重复写入；
+ *             - 只在一个线程中使用。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午1:55:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+final class BatchSink<T> {
+
+    private final DataSource dataSource;
+    private final String sql;
+    private final ParameterizedPreparedStatementSetter<T> setter;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    // 调用方的重试计数
+    private final AtomicLong retries;
+    private Connection conn;
+    private PreparedStatement ps;
+    private boolean autoCommit;
+
+    BatchSink(DataSource dataSource, String sql, ParameterizedPreparedStatementSetter<T> setter,
+            int maxRetries, long retryBackoffMillis, AtomicLong retries) {
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.setter = setter;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.retries = retries;
+    }
+
+    /**
+     * @Description: 提交一批，成功返回null，重试用尽、不能重试或者提交结果未知时返回最后的异常
+     * @author chenzq
+     * @date 2026年10月20日 下午1:57:40
+     * @param rows
+     * @return
+     * @throws InterruptedException
+     */
+    SQLException commit(List<? extends T> rows) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            boolean committing = false;
+            try {
+                if (conn == null) {
+                    open();
+                }
+                for (T row : rows) {
+                    setter.setValues(ps, row);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                committing = true;
+                conn.commit();
+                return null;
+            } catch (SQLException e) {
+                boolean broken = isConnectionError(e);
+                if (broken) {
+                    close();
+                } else {
+                    rollback();
+                }
+                // commit时连接断开，无法知道事务是否已经提交，重试可能重复写入
+                if (committing && broken) {
+                    return e;
+                }
+                if (attempt >= maxRetries || !(broken || isTransient(e))) {
+                    return e;
+                }
+                retries.incrementAndGet();
+                Thread.sleep(retryBackoffMillis * (1L << Math.min(attempt, 10)));
+            } catch (RuntimeException e) {
+                // 绑定参数时出错，按不能重试的错误处理
+                rollback();
+                return new SQLException("Cannot write row: " + e, e);
+            }
+        }
+    }
+
+    boolean isOpen() {
+        return conn != null;
+    }
+
+    private void open() throws SQLException {
+        conn = dataSource.getConnection();
+        try {
+            autoCommit = conn.getAutoCommit();
+            if (autoCommit) {
+                conn.setAutoCommit(false);
+            }
+            ps = conn.prepareStatement(sql);
+        } catch (SQLException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void rollback() {
+        try {
+            if (ps != null) {
+                ps.clearBatch();
+            }
+            if (conn != null) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            // 回滚失败时更换连接
+            close();
+        }
+    }
+
+    // 关闭语句，回滚未提交的行并恢复借出时的autoCommit后归还连接
+    void close() {
+        if (ps != null) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+            ps = null;
+        }
+        if (conn != null) {
+            try {
+                conn.rollback();
+                if (autoCommit) {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                // ignore
+            }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+            conn = null;
+        }
+    }
+
+    // 连接类错误：SQLRecoverableException或SQLState 08xxx，需要更换连接
+    static boolean isConnectionError(SQLException e) {
+        for (SQLException x : causes(e)) {
+            String state = x.getSQLState();
+            if (x instanceof SQLRecoverableException || (state != null && state.startsWith("08"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 瞬时错误：SQLTransientException，或SQLState 40xxx（死锁、序列化失败）
+    static boolean isTransient(SQLException e) {
+        for (SQLException x : causes(e)) {
+            String state = x.getSQLState();
+            if (x instanceof SQLTransientException || (state != null && state.startsWith("40"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 异常本身、getNextException链和BatchUpdateException的cause
+    private static List<SQLException> causes(SQLException e) {
+        List<SQLException> list = new ArrayList<>(2);
+        for (SQLException x = e; x != null && list.size() < 8; x = x.getNextException()) {
+            list.add(x);
+            if (x instanceof BatchUpdateException && x.getCause() instanceof SQLException) {
+                list.add((SQLException) x.getCause());
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,62 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * @Description: 二进制编码器，整数为大端字节序：
+ *             - 文件头：列数，然后每列的列标签（长度 + UTF-8）和java.sql.Types类型；
+ *             - 每行：每列一个长度加内容，null的长度为-1；二进制列为原始字节，其他列为getString()的UTF-8。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午12:54:40
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BinaryRowEncoder implements RowEncoder {
+
+    @Override
+    public void header(ResultSetMetaData md, ExportBuffer out) throws SQLException {
+        int count = md.getColumnCount();
+        out.writeInt(count);
+        for (int i = 1; i <= count; i++) {
+            string(md.getColumnLabel(i), out);
+            out.writeInt(md.getColumnType(i));
+        }
+    }
+
+    @Override
+    public void encode(ResultSet rs, ResultSetMetaData md, ExportBuffer out) throws SQLException {
+        int columnCount = md.getColumnCount();
+        for (int i = 1; i <= columnCount; i++) {
+            if (isBinary(md.getColumnType(i))) {
+                byte[] value = rs.getBytes(i);
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(value.length).write(value);
+                }
+            } else {
+                string(rs.getString(i), out);
+            }
+        }
+    }
+
+    // 先占位长度，写完内容后回填
+    private static void string(String value, ExportBuffer out) {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        int position = out.size();
+        out.writeInt(0);
+        out.setInt(position, out.writeUtf8(value));
+    }
+
+    private static boolean isBinary(int sqlType) {
+        return sqlType == Types.BINARY || sqlType == Types.VARBINARY 
+                || sqlType == Types.LONGVARBINARY || sqlType == Types.BLOB;
+    }
+}
@@ -0,0 +1,390 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import com.asiainfo.dbcp.delegate.DelegatingStatement;
+import com.asiainfo.dbcp.delegate.ResultSetMetaDataSnapshot;
+
+/**
+ * @Description: 按主键范围并行的批量导出，适合大表的全量导出；
+ *             - 键范围切成多个分块，parallelism个读取线程各自持有一个池化连接，从共享的分块序号里领取分块，快的线程多领，负载自动均衡；
+ *             - 读取线程用流式结果集逐行编码到本线程的缓冲区，攒够chunkBytes后交给有界队列，调用线程是唯一的写出线程，按块写入通道；
+ *             - 队列满时读取线程阻塞，读取速度受写出速度约束，内存占用不超过(queueCapacity + parallelism)个块；缓冲区数组循环使用；
+ *             - 输出按块交错，块内的行保持分块内的顺序，分块之间不保证主键顺序；
+ *             - 连接数上限由调用方控制，SimpleDataSource.createExporter()默认只用连接池一半的连接，给在线业务留出余量。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午1:05:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BulkExporter {
+
+    public static final int DEFAULT_CHUNK_BYTES = 256 * 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    // 自动分块时每个读取线程平均分到的分块数
+    private static final int CHUNKS_PER_WORKER = 8;
+    private static final AtomicInteger EXPORT_SEQUENCE = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final int parallelism;
+    // 每个分块的键个数，小于等于0时按parallelism自动计算
+    private long keysPerChunk = 0;
+    private int chunkBytes = DEFAULT_CHUNK_BYTES;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    // 是否使用连接池配置的流式读取，关闭时使用fetchSize
+    private boolean streamResults = true;
+    private int fetchSize = 0;
+
+    public BulkExporter(DataSource dataSource, int parallelism) {
+        this.dataSource = dataSource;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @Description: 导出整张表，先查询主键的最小值和最大值，再按范围并行导出；表名、列名直接拼入sql，不能来自外部输入
+     * @author chenzq
+     * @date 2026年10月20日 上午1:08:10
+     * @param table
+     * @param keyColumn 数值主键列
+     * @param columns 导出的列，如"*"或"id, name"
+     * @param encoder
+     * @param target
+     * @return
+     * @throws SQLException
+     * @throws IOException
+     */
+    public ExportResult exportTable(String table, String keyColumn, String columns, RowEncoder encoder, 
+            WritableByteChannel target) throws SQLException, IOException {
+        long lowKey = 0;
+        long highKey = 0;
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement("select min(" + keyColumn + "), max(" + keyColumn + ") from " + table);
+                ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                long min = rs.getLong(1);
+                if (!rs.wasNull()) {
+                    lowKey = min;
+                    highKey = Math.addExact(rs.getLong(2), 1L);
+                }
+            }
+        }
+        String sql = "select " + columns + " from " + table + " where " + keyColumn + " >= ? and " + keyColumn + " < ?";
+        return export(sql, lowKey, highKey, encoder, target);
+    }
+
+    /**
+     * @Description: 按键范围并行导出，sql的最后两个参数是范围的下界（包含）和上界（不包含），前面的参数按args绑定；
+     *             先用空范围执行一次取得元数据写入文件头，再并行导出；通道由调用方关闭
+     * @author chenzq
+     * @date 2026年10月20日 上午1:10:45
+     * @param sql
+     * @param lowKey 下界，包含
+     * @param highKey 上界，不包含
+     * @param encoder
+     * @param target
+     * @param args
+     * @return
+     * @throws SQLException
+     * @throws IOException
+     */
+    public ExportResult export(String sql, long lowKey, long highKey, RowEncoder encoder, WritableByteChannel target, 
+            Object... args) throws SQLException, IOException {
+        long span;
+        try {
+            span = Math.subtractExact(highKey, lowKey);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Key range too wide: [" + lowKey + ", " + highKey + ")");
+        }
+        if (span < 0) {
+            throw new IllegalArgumentException("lowKey " + lowKey + " > highKey " + highKey);
+        }
+        long start = System.nanoTime();
+        long bytes = writeHeader(sql, lowKey, encoder, target, args);
+        if (span == 0) {
+            return new ExportResult(0, bytes, 0, 0, (System.nanoTime() - start) / 1000000);
+        }
+        long keys = keysPerChunk > 0 ? keysPerChunk : Math.max(1L, span / ((long) parallelism * CHUNKS_PER_WORKER));
+        long chunkCount = span / keys + (span % keys == 0 ? 0 : 1);
+        int workers = (int) Math.min(parallelism, chunkCount);
+        Export export = new Export(sql, args, lowKey, highKey, keys, chunkCount, encoder, workers);
+        int id = EXPORT_SEQUENCE.incrementAndGet();
+        AtomicInteger threadSequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "mydbcp-export-" + id + "-" + threadSequence.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(export::read);
+            }
+            bytes += export.write(target);
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        export.rethrow();
+        return new ExportResult(export.rows.get(), bytes, chunkCount, workers, (System.nanoTime() - start) / 1000000);
+    }
+
+    // 空范围执行一次取得元数据，写入文件头
+    private long writeHeader(String sql, long lowKey, RowEncoder encoder, WritableByteChannel target, Object[] args) 
+            throws SQLException, IOException {
+        ExportBuffer out = new ExportBuffer(new byte[4096]);
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, args, lowKey, lowKey);
+            try (ResultSet rs = ps.executeQuery()) {
+                encoder.header(rs.getMetaData(), out);
+            }
+        }
+        ByteBuffer header = ByteBuffer.wrap(out.array(), 0, out.size());
+        while (header.hasRemaining()) {
+            target.write(header);
+        }
+        return out.size();
+    }
+
+    private static void bind(PreparedStatement ps, Object[] args, long lowKey, long highKey) throws SQLException {
+        int index = 1;
+        if (args != null) {
+            for (Object arg : args) {
+                ps.setObject(index++, arg);
+            }
+        }
+        ps.setLong(index++, lowKey);
+        ps.setLong(index, highKey);
+    }
+
+    /**
+     * @Description: 一次导出的共享状态：分块序号、块队列、空闲数组、第一个错误
+     *
+     * @author chenzq
+     * @date 2026年10月20日 上午1:14:20
+     * @version V1.0
+     * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+     */
+    private final class Export {
+
+        private final String sql;
+        private final Object[] args;
+        private final long lowKey;
+        private final long highKey;
+        private final long keys;
+        private final long chunkCount;
+        private final RowEncoder encoder;
+        private final AtomicLong nextChunk = new AtomicLong();
+        private final ArrayBlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicInteger running;
+        private final AtomicLong rows = new AtomicLong();
+
+        Export(String sql, Object[] args, long lowKey, long highKey, long keys, long chunkCount, 
+                RowEncoder encoder, int workers) {
+            this.sql = sql;
+            this.args = args;
+            this.lowKey = lowKey;
+            this.highKey = highKey;
+            this.keys = keys;
+            this.chunkCount = chunkCount;
+            this.encoder = encoder;
+            this.running = new AtomicInteger(workers);
+        }
+
+        // 读取线程：持有一个连接，循环领取分块直到领完或出错
+        void read() {
+            try (Connection conn = dataSource.getConnection()) {
+                boolean autoCommit = conn.getAutoCommit();
+                // 部分驱动（如PostgreSQL）只在事务内使用游标分批读取
+                if (autoCommit) {
+                    conn.setAutoCommit(false);
+                }
+                Throwable primary = null;
+                try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    if (streamResults && ps instanceof DelegatingStatement) {
+                        ((DelegatingStatement) ps).setStreamResults(true);
+                    } else if (fetchSize > 0) {
+                        ps.setFetchSize(fetchSize);
+                    }
+                    readChunks(ps);
+                } catch (Throwable e) {
+                    primary = e;
+                    throw e;
+                } finally {
+                    if (autoCommit) {
+                        try {
+                            conn.rollback();
+                            conn.setAutoCommit(true);
+                        } catch (SQLException e) {
+                            // 回滚失败不能覆盖读取时的错误
+                            if (primary == null) {
+                                throw e;
+                            }
+                            primary.addSuppressed(e);
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        private void readChunks(PreparedStatement ps) throws SQLException, InterruptedException {
+            ExportBuffer out = new ExportBuffer(array());
+            ResultSetMetaData md = null;
+            long chunk;
+            while (failure.get() == null && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                long low = lowKey + chunk * keys;
+                long high = chunk == chunkCount - 1 ? highKey : low + keys;
+                bind(ps, args, low, high);
+                long n = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (md == null) {
+                        md = new ResultSetMetaDataSnapshot(rs.getMetaData());
+                    }
+                    while (rs.next()) {
+                        encoder.encode(rs, md, out);
+                        n++;
+                        if (out.size() >= chunkBytes && !hand(out)) {
+                            return;
+                        }
+                    }
+                } finally {
+                    rows.addAndGet(n);
+                }
+            }
+            if (out.size() > 0) {
+                hand(out);
+            }
+        }
+
+        // 把缓冲区的内容交给写出线程，出错时返回false
+        private boolean hand(ExportBuffer out) throws InterruptedException {
+            int length = out.size();
+            ByteBuffer chunk = ByteBuffer.wrap(out.detach(array()), 0, length);
+            while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 优先复用写出线程归还的数组，留出余量使大多数块不需要扩容
+        private byte[] array() {
+            byte[] array = free.poll();
+            return array != null ? array : new byte[chunkBytes + (chunkBytes >>> 2)];
+        }
+
+        // 写出线程：按块写入通道直到所有读取线程结束且队列为空
+        long write(WritableByteChannel target) throws IOException {
+            long bytes = 0;
+            try {
+                while (failure.get() == null) {
+                    ByteBuffer chunk = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (chunk == null) {
+                        // 读取线程先入队再减计数，计数为0时队列里已经是全部数据
+                        if (running.get() == 0 && queue.isEmpty()) {
+                            break;
+                        }
+                        continue;
+                    }
+                    bytes += chunk.remaining();
+                    while (chunk.hasRemaining()) {
+                        target.write(chunk);
+                    }
+                    // 只回收默认大小的数组，超大行扩容出来的数组由GC回收
+                    if (chunk.array().length <= chunkBytes + (chunkBytes >>> 2)) {
+                        free.offer(chunk.array());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            }
+            return bytes;
+        }
+
+        void rethrow() throws SQLException, IOException {
+            Throwable e = failure.get();
+            if (e == null) {
+                return;
+            }
+            if (e instanceof SQLException) {
+                throw (SQLException) e;
+            }
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            throw new SQLException("Export failed", e);
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+    public long getKeysPerChunk() {
+        return keysPerChunk;
+    }
+    public void setKeysPerChunk(long keysPerChunk) {
+        this.keysPerChunk = keysPerChunk;
+    }
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+    public void setChunkBytes(int chunkBytes) {
+        this.chunkBytes = Math.max(1024, chunkBytes);
+    }
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+    public boolean isStreamResults() {
+        return streamResults;
+    }
+    public void setStreamResults(boolean streamResults) {
+        this.streamResults = streamResults;
+    }
+    public int getFetchSize() {
+        return fetchSize;
+    }
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+}
@@ -0,0 +1,279 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+/**
+ * @Description: 并行的批量导入，调用线程从迭代器或流读取行，按batchSize分块放入有界队列，parallelism个写入线程各自持有一个池化连接，
+ *             每个分块绑定参数后一次executeBatch并提交；
+ *             - 队列满时读取阻塞，内存中最多有(queueCapacity + parallelism)个分块；
+ *             - 分块失败时回滚，瞬时错误（SQLTransientException、SQLRecoverableException、SQLState 40xxx/08xxx）按退避重试maxRetries次，
+ *               连接类错误重试前更换连接；commit时连接断开的分块结果未知，不重试，按失败处理（可能已经提交）；
+ *             - failFast时第一个不能重试的失败终止导入并抛出，否则记入失败的行数和分块数后继续；
+ *             - 分块之间并行提交，不保证行的插入顺序；每个分块是一个事务，导入失败时已提交的分块不回滚；
+ *             - getProgress()可以在其他线程随时读取进度，progressListener在每个分块提交后由写入线程回调。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午1:43:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BulkImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final long DEFAULT_RETRY_BACKOFF_MILLIS = 100L;
+    private static final AtomicInteger IMPORT_SEQUENCE = new AtomicInteger();
+    // 写入线程的结束标记
+    private static final List<Object> END = Collections.emptyList();
+
+    private final DataSource dataSource;
+    private final int parallelism;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    // 等待写入的分块数，小于等于0时为parallelism的2倍
+    private int queueCapacity = 0;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long retryBackoffMillis = DEFAULT_RETRY_BACKOFF_MILLIS;
+    private boolean failFast = true;
+    private Consumer<ImportProgress> progressListener = null;
+    // 进度计数，每次导入开始时清零
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsCommitted = new AtomicLong();
+    private final AtomicLong chunksCommitted = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final AtomicLong chunksFailed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private volatile long startNanos = System.nanoTime();
+
+    public BulkImporter(DataSource dataSource, int parallelism) {
+        this.dataSource = dataSource;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @Description: 导入流中的全部行，流由调用方关闭
+     * @author chenzq
+     * @date 2026年10月20日 上午1:46:10
+     * @param sql 带参数的insert/update语句
+     * @param rows
+     * @param setter 把一行绑定到语句参数
+     * @return 最终进度
+     * @throws SQLException
+     */
+    public <T> ImportProgress importRows(String sql, Stream<? extends T> rows, 
+            ParameterizedPreparedStatementSetter<T> setter) throws SQLException {
+        return importRows(sql, rows.iterator(), setter);
+    }
+
+    /**
+     * @Description: 导入迭代器中的全部行，迭代器只在调用线程中访问
+     * @author chenzq
+     * @date 2026年10月20日 上午1:47:20
+     * @param sql 带参数的insert/update语句
+     * @param rows
+     * @param setter 把一行绑定到语句参数
+     * @return 最终进度
+     * @throws SQLException
+     */
+    public synchronized <T> ImportProgress importRows(String sql, Iterator<? extends T> rows, 
+            ParameterizedPreparedStatementSetter<T> setter) throws SQLException {
+        reset();
+        int capacity = queueCapacity > 0 ? queueCapacity : parallelism * 2;
+        ArrayBlockingQueue<List<? extends T>> queue = new ArrayBlockingQueue<>(capacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int id = IMPORT_SEQUENCE.incrementAndGet();
+        AtomicInteger threadSequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "mydbcp-import-" + id + "-" + threadSequence.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                executor.execute(() -> write(sql, setter, queue, failure));
+            }
+            try {
+                List<T> chunk = new ArrayList<>(batchSize);
+                while (failure.get() == null && rows.hasNext()) {
+                    chunk.add(rows.next());
+                    rowsRead.incrementAndGet();
+                    if (chunk.size() >= batchSize) {
+                        put(queue, chunk, failure);
+                        chunk = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    put(queue, chunk, failure);
+                }
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                for (int i = 0; i < parallelism; i++) {
+                    put(queue, END, null);
+                }
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // 等待写入线程提交剩余的分块
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdownNow();
+        }
+        rethrow(failure.get());
+        return getProgress();
+    }
+
+    // 放入队列，已经失败时放弃；结束标记总是放入
+    @SuppressWarnings("unchecked")
+    private static <T> void put(ArrayBlockingQueue<List<? extends T>> queue, List<?> chunk, AtomicReference<Throwable> failure) 
+            throws InterruptedException {
+        while (!queue.offer((List<? extends T>) chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (failure != null && failure.get() != null) {
+                return;
+            }
+        }
+    }
+
+    // 写入线程：持有一个连接，逐个提交分块，收到结束标记或出错时退出
+    private <T> void write(String sql, ParameterizedPreparedStatementSetter<T> setter, 
+            ArrayBlockingQueue<List<? extends T>> queue, AtomicReference<Throwable> failure) {
+        BatchSink<T> writer = new BatchSink<>(dataSource, sql, setter, maxRetries, retryBackoffMillis, retries);
+        try {
+            List<? extends T> chunk;
+            while ((chunk = queue.take()) != END) {
+                if (failure.get() != null) {
+                    // 已经失败，丢弃剩余的分块直到结束标记
+                    continue;
+                }
+                SQLException error = writer.commit(chunk);
+                if (error == null) {
+                    rowsCommitted.addAndGet(chunk.size());
+                    chunksCommitted.incrementAndGet();
+                    Consumer<ImportProgress> listener = progressListener;
+                    if (listener != null) {
+                        listener.accept(getProgress());
+                    }
+                } else if (failFast) {
+                    failure.compareAndSet(null, error);
+                } else {
+                    rowsFailed.addAndGet(chunk.size());
+                    chunksFailed.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+            // 继续取出队列直到结束标记，避免读取线程阻塞
+            drain(queue);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static <T> void drain(ArrayBlockingQueue<List<? extends T>> queue) {
+        try {
+            while (queue.take() != END) {
+                // discard
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrow(Throwable e) throws SQLException {
+        if (e == null) {
+            return;
+        }
+        if (e instanceof SQLException) {
+            throw (SQLException) e;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new SQLException("Import failed", e);
+    }
+
+    private void reset() {
+        rowsRead.set(0);
+        rowsCommitted.set(0);
+        chunksCommitted.set(0);
+        rowsFailed.set(0);
+        chunksFailed.set(0);
+        retries.set(0);
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * @Description: 当前进度，可以在其他线程中调用
+     * @author chenzq
+     * @date 2026年10月20日 上午1:58:05
+     * @return
+     */
+    public ImportProgress getProgress() {
+        return new ImportProgress(rowsRead.get(), rowsCommitted.get(), chunksCommitted.get(), rowsFailed.get(), 
+                chunksFailed.get(), retries.get(), (System.nanoTime() - startNanos) / 1000000);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+    public void setRetryBackoffMillis(long retryBackoffMillis) {
+        this.retryBackoffMillis = Math.max(0L, retryBackoffMillis);
+    }
+    public boolean isFailFast() {
+        return failFast;
+    }
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+    public Consumer<ImportProgress> getProgressListener() {
+        return progressListener;
+    }
+    public void setProgressListener(Consumer<ImportProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+}
@@ -0,0 +1,85 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * @Description: CSV编码器，UTF-8，按RFC 4180处理引号：包含分隔符、引号、回车换行的值加引号，内部引号重复一次；
+ *             - null写为空值，行尾为\n；可选输出列标签作为表头。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午12:51:05
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class CsvRowEncoder implements RowEncoder {
+
+    private final char delimiter;
+    private final boolean header;
+
+    public CsvRowEncoder() {
+        this(',', true);
+    }
+
+    public CsvRowEncoder(char delimiter, boolean header) {
+        this.delimiter = delimiter;
+        this.header = header;
+    }
+
+    @Override
+    public void header(ResultSetMetaData md, ExportBuffer out) throws SQLException {
+        if (!header) {
+            return;
+        }
+        int count = md.getColumnCount();
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                out.write(delimiter);
+            }
+            value(md.getColumnLabel(i), out);
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void encode(ResultSet rs, ResultSetMetaData md, ExportBuffer out) throws SQLException {
+        int columnCount = md.getColumnCount();
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                out.write(delimiter);
+            }
+            String value = rs.getString(i);
+            if (value != null) {
+                value(value, out);
+            }
+        }
+        out.write('\n');
+    }
+
+    private void value(String value, ExportBuffer out) {
+        if (!needsQuote(value)) {
+            out.writeUtf8(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = value.indexOf('"'); i >= 0; i = value.indexOf('"', start)) {
+            out.writeUtf8(value.substring(start, i + 1));
+            out.write('"');
+            start = i + 1;
+        }
+        out.writeUtf8(value.substring(start));
+        out.write('"');
+    }
+
+    private boolean needsQuote(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @Description: 导出行的编码缓冲区，可增长的字节数组，编码器把一行或多行追加进来，导出器按块交给写出线程；
+ *             - 字符串按UTF-8编码，纯ASCII字符串直接逐字节写入，不创建中间字节数组；
+ *             - 数值按大端字节序写入。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午12:45:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class ExportBuffer {
+
+    private byte[] bytes;
+    private int size;
+
+    ExportBuffer(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    private void ensure(int n) {
+        if (size + n > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + n));
+        }
+    }
+
+    public ExportBuffer write(int b) {
+        ensure(1);
+        bytes[size++] = (byte) b;
+        return this;
+    }
+
+    public ExportBuffer write(byte[] src, int offset, int length) {
+        ensure(length);
+        System.arraycopy(src, offset, bytes, size, length);
+        size += length;
+        return this;
+    }
+
+    public ExportBuffer write(byte[] src) {
+        return write(src, 0, src.length);
+    }
+
+    public ExportBuffer writeInt(int value) {
+        ensure(4);
+        bytes[size++] = (byte) (value >>> 24);
+        bytes[size++] = (byte) (value >>> 16);
+        bytes[size++] = (byte) (value >>> 8);
+        bytes[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * @Description: 按UTF-8写入字符串，返回写入的字节数
+     * @author chenzq
+     * @date 2026年10月20日 上午12:46:30
+     * @param s
+     * @return
+     */
+    public int writeUtf8(CharSequence s) {
+        int length = s.length();
+        ensure(length);
+        int start = size;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                // 非ASCII字符串整体编码
+                size = start;
+                return write(s.toString().getBytes(StandardCharsets.UTF_8)).size - start;
+            }
+            bytes[size++] = (byte) c;
+        }
+        return length;
+    }
+
+    // 在指定位置回填int，用于先占位后写长度
+    public void setInt(int position, int value) {
+        bytes[position] = (byte) (value >>> 24);
+        bytes[position + 1] = (byte) (value >>> 16);
+        bytes[position + 2] = (byte) (value >>> 8);
+        bytes[position + 3] = (byte) value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    // 换上新的底层数组，返回旧数组交给写出线程
+    byte[] detach(byte[] fresh) {
+        byte[] old = bytes;
+        bytes = fresh;
+        size = 0;
+        return old;
+    }
+}
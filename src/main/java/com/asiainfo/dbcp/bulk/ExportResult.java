@@ -0,0 +1,48 @@
+package com.asiainfo.dbcp.bulk;
+
+/**
+ * @Description: 一次导出的统计：行数、写出的字节数、键范围分块数、使用的连接数、耗时
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午1:02:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class ExportResult {
+
+    private final long rows;
+    private final long bytes;
+    private final long chunks;
+    private final int connections;
+    private final long elapsedMillis;
+
+    ExportResult(long rows, long bytes, long chunks, int connections, long elapsedMillis) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.chunks = chunks;
+        this.connections = connections;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+    public long getBytes() {
+        return bytes;
+    }
+    public long getChunks() {
+        return chunks;
+    }
+    public int getConnections() {
+        return connections;
+    }
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportResult [rows=" + rows + ", bytes=" + bytes + ", chunks=" + chunks 
+                + ", connections=" + connections + ", elapsedMillis=" + elapsedMillis + "]";
+    }
+}
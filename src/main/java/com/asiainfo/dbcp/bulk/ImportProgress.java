@@ -0,0 +1,65 @@
+package com.asiainfo.dbcp.bulk;
+
+/**
+ * @Description: 批量导入的进度快照：已读取、已提交、失败的行数和分块数，重试次数，耗时和提交速率
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午1:40:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class ImportProgress {
+
+    private final long rowsRead;
+    private final long rowsCommitted;
+    private final long chunksCommitted;
+    private final long rowsFailed;
+    private final long chunksFailed;
+    private final long retries;
+    private final long elapsedMillis;
+
+    ImportProgress(long rowsRead, long rowsCommitted, long chunksCommitted, long rowsFailed, long chunksFailed,
+            long retries, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.rowsCommitted = rowsCommitted;
+        this.chunksCommitted = chunksCommitted;
+        this.rowsFailed = rowsFailed;
+        this.chunksFailed = chunksFailed;
+        this.retries = retries;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    public long getRowsCommitted() {
+        return rowsCommitted;
+    }
+    public long getChunksCommitted() {
+        return chunksCommitted;
+    }
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+    public long getChunksFailed() {
+        return chunksFailed;
+    }
+    public long getRetries() {
+        return retries;
+    }
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // 每秒提交的行数
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0D : rowsCommitted * 1000D / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportProgress [rowsRead=" + rowsRead + ", rowsCommitted=" + rowsCommitted + ", chunksCommitted=" + chunksCommitted
+                + ", rowsFailed=" + rowsFailed + ", chunksFailed=" + chunksFailed + ", retries=" + retries 
+                + ", elapsedMillis=" + elapsedMillis + ", rowsPerSecond=" + (long) getRowsPerSecond() + "]";
+    }
+}
@@ -0,0 +1,38 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * @Description: 导出行的编码器，决定导出文件的格式；
+ *             - header在导出开始时调用一次，encode在读取线程中逐行调用，同一个编码器会被多个读取线程同时使用，实现必须无状态或线程安全。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午12:48:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public interface RowEncoder {
+
+    /**
+     * @Description: 写入文件头，没有文件头时不写
+     * @author chenzq
+     * @date 2026年10月20日 上午12:48:50
+     * @param md
+     * @param out
+     * @throws SQLException
+     */
+    void header(ResultSetMetaData md, ExportBuffer out) throws SQLException;
+
+    /**
+     * @Description: 把结果集的当前行编码追加到缓冲区，一行必须完整写入
+     * @author chenzq
+     * @date 2026年10月20日 上午12:49:20
+     * @param rs
+     * @param md 读取线程缓存的元数据快照，逐行访问没有驱动开销
+     * @param out
+     * @throws SQLException
+     */
+    void encode(ResultSet rs, ResultSetMetaData md, ExportBuffer out) throws SQLException;
+}
@@ -0,0 +1,332 @@
+package com.asiainfo.dbcp.bulk;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+/**
+ * @Description: 后写（write-behind）的批量写入器，替代高并发下每个请求借一个连接执行一条insert：
+ *             - 任意多个线程调用write()把行放入有界队列，立即返回一个future，队列满时等待offerTimeoutMillis，超时时future以SQLTransientException失败；
+ *             - connections个写入线程各自持有一个专用的池化连接，从队列取出的行凑满batchSize行，或者最早的一行已经等待了maxDelayMillis时，
+ *               在一个事务里executeBatch并提交，提交后完成这一批所有行的future；
+ *             - 瞬时错误和连接类错误按退避重试maxRetries次，连接类错误重试前更换连接；其他错误（如重复主键）逐行重新提交，只有出错的行失败；
+ *             - commit时连接断开无法知道这一批是否已经提交，不重试，这一批的future以该异常失败，行可能已经写入；
+ *             - future在写入线程中完成，调用方的后续处理应使用*Async方法，避免占用写入线程；
+ *             - 写入线程在第一次write时启动，设置需要在此之前完成；写入线程空闲超过IDLE_RELEASE_MILLIS时把连接还给连接池；
+ *             - close()不再接受新的行，等待队列中已有的行全部提交后退出。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午10:20:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class WriteBehindWriter<T> implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 2L;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    public static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 1000L;
+    // 写入线程空闲多久之后归还连接
+    static final long IDLE_RELEASE_MILLIS = 30000L;
+    private static final AtomicInteger WRITER_SEQUENCE = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final String sql;
+    private final ParameterizedPreparedStatementSetter<T> setter;
+    private final int connections;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private long offerTimeoutMillis = DEFAULT_OFFER_TIMEOUT_MILLIS;
+    private int maxRetries = BulkImporter.DEFAULT_MAX_RETRIES;
+    private long retryBackoffMillis = BulkImporter.DEFAULT_RETRY_BACKOFF_MILLIS;
+    // 第一次write时创建
+    private volatile ArrayBlockingQueue<Pending<T>> queue;
+    private Thread[] threads;
+    private volatile boolean closed = false;
+    // 统计
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final AtomicLong batchesCommitted = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    public WriteBehindWriter(DataSource dataSource, String sql, ParameterizedPreparedStatementSetter<T> setter, int connections) {
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.setter = setter;
+        this.connections = Math.max(1, connections);
+    }
+
+    /**
+     * @Description: 放入一行，返回的future在这一行所在的批次提交后完成，失败时以SQLException完成；
+     *             - 最多写入一次：提交时连接断开的批次不重试，future失败但行可能已经提交，调用方需要按业务键核对或者幂等写入
+     * @author chenzq
+     * @date 2026年10月20日 上午10:24:15
+     * @param row
+     * @return
+     */
+    public CompletableFuture<Void> write(T row) {
+        Pending<T> pending = new Pending<>(row);
+        ArrayBlockingQueue<Pending<T>> q;
+        try {
+            q = start();
+            if (!q.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                pending.future.completeExceptionally(new SQLTransientException(
+                        "Write-behind queue is full after " + offerTimeoutMillis + " ms"));
+                return pending.future;
+            }
+        } catch (SQLException e) {
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+        // 与close()并发时，写入线程可能已经退出，取回未被取走的行
+        if (closed && q.remove(pending)) {
+            pending.future.completeExceptionally(new SQLException("Write-behind writer is closed"));
+        }
+        return pending.future;
+    }
+
+    // 第一次写入时创建队列并启动写入线程
+    private ArrayBlockingQueue<Pending<T>> start() throws SQLException {
+        ArrayBlockingQueue<Pending<T>> q = queue;
+        if (q != null && !closed) {
+            return q;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new SQLException("Write-behind writer is closed");
+            }
+            if (queue == null) {
+                q = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+                int id = WRITER_SEQUENCE.incrementAndGet();
+                threads = new Thread[connections];
+                for (int i = 0; i < connections; i++) {
+                    ArrayBlockingQueue<Pending<T>> source = q;
+                    Thread t = new Thread(() -> run(source), "mydbcp-write-behind-" + id + "-" + (i + 1));
+                    t.setDaemon(true);
+                    threads[i] = t;
+                }
+                queue = q;
+                for (Thread t : threads) {
+                    t.start();
+                }
+            }
+            return queue;
+        }
+    }
+
+    // 写入线程：凑批、提交，关闭后提交完队列中剩余的行再退出
+    private void run(ArrayBlockingQueue<Pending<T>> q) {
+        BatchSink<Pending<T>> sink = new BatchSink<>(dataSource, sql, 
+                (ps, pending) -> setter.setValues(ps, pending.row), maxRetries, retryBackoffMillis, retries);
+        List<Pending<T>> batch = new ArrayList<>(batchSize);
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        long idleSince = System.nanoTime();
+        try {
+            while (true) {
+                Pending<T> first = q.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        break;
+                    }
+                    if (sink.isOpen() && System.nanoTime() - idleSince > TimeUnit.MILLISECONDS.toNanos(IDLE_RELEASE_MILLIS)) {
+                        sink.close();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                // 从最早的一行放入队列开始计时，写入线程忙时积压的行直接凑批
+                long deadline = first.enqueuedNanos + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    if (q.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0 || closed) {
+                        break;
+                    }
+                    Pending<T> next = q.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(sink, batch);
+                batch.clear();
+                idleSince = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            fail(batch, new SQLException("Write-behind writer interrupted", e));
+        } finally {
+            sink.close();
+        }
+    }
+
+    /**
+     * @Description: 提交一批，不能重试的错误逐行重新提交，只有出错的行失败
+     * @author chenzq
+     * @date 2026年10月20日 上午10:31:50
+     * @param sink
+     * @param batch
+     * @throws InterruptedException
+     */
+    private void flush(BatchSink<Pending<T>> sink, List<Pending<T>> batch) throws InterruptedException {
+        SQLException error = sink.commit(batch);
+        if (error == null) {
+            complete(batch);
+            return;
+        }
+        if (batch.size() == 1 || BatchSink.isConnectionError(error) || BatchSink.isTransient(error)) {
+            // 重试用尽的瞬时错误、连接类错误（包括提交结果未知）与具体的行无关，不逐行重新提交
+            fail(batch, error);
+            return;
+        }
+        for (Pending<T> pending : batch) {
+            List<Pending<T>> single = Collections.singletonList(pending);
+            SQLException e = sink.commit(single);
+            if (e == null) {
+                complete(single);
+            } else {
+                fail(single, e);
+            }
+        }
+    }
+
+    private void complete(List<Pending<T>> batch) {
+        rowsWritten.addAndGet(batch.size());
+        batchesCommitted.incrementAndGet();
+        for (Pending<T> pending : batch) {
+            pending.future.complete(null);
+        }
+    }
+
+    private void fail(List<Pending<T>> batch, SQLException e) {
+        rowsFailed.addAndGet(batch.size());
+        for (Pending<T> pending : batch) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * @Description: 不再接受新的行，等待队列中的行提交完成；等待被中断时队列中剩余的行以SQLException失败
+     * @author chenzq
+     * @date 2026年10月20日 上午10:35:20
+     */
+    @Override
+    public void close() {
+        Thread[] running;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = threads;
+        }
+        if (running != null) {
+            try {
+                for (Thread t : running) {
+                    t.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Thread t : running) {
+                    t.interrupt();
+                }
+            }
+        }
+        ArrayBlockingQueue<Pending<T>> q = queue;
+        if (q != null) {
+            List<Pending<T>> rest = new ArrayList<>();
+            q.drainTo(rest);
+            fail(rest, new SQLException("Write-behind writer is closed"));
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // 等待写入的行数
+    public int getQueueSize() {
+        ArrayBlockingQueue<Pending<T>> q = queue;
+        return q == null ? 0 : q.size();
+    }
+
+    // 等待写入的一行，以及调用方持有的future
+    private static final class Pending<T> {
+        final T row;
+        final long enqueuedNanos = System.nanoTime();
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Pending(T row) {
+            this.row = row;
+        }
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+    public long getBatchesCommitted() {
+        return batchesCommitted.get();
+    }
+    public long getRetries() {
+        return retries.get();
+    }
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+    public void setMaxDelayMillis(long maxDelayMillis) {
+        this.maxDelayMillis = Math.max(0L, maxDelayMillis);
+    }
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    public long getOfferTimeoutMillis() {
+        return offerTimeoutMillis;
+    }
+    public void setOfferTimeoutMillis(long offerTimeoutMillis) {
+        this.offerTimeoutMillis = Math.max(0L, offerTimeoutMillis);
+    }
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+    public void setRetryBackoffMillis(long retryBackoffMillis) {
+        this.retryBackoffMillis = Math.max(0L, retryBackoffMillis);
+    }
+}
@@ -0,0 +1,55 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @Description: 二进制列，按变长字节保存在堆外
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:19:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BytesColumn extends Column {
+
+    private static final int EXPECTED_VALUE_BYTES = 32;
+
+    private final VarWidthBuffer values;
+
+    BytesColumn(String name, int sqlType, int expectedRows) {
+        super(name, sqlType);
+        this.values = new VarWidthBuffer(expectedRows, (int) Math.min(Integer.MAX_VALUE, (long) expectedRows * EXPECTED_VALUE_BYTES));
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        byte[] value = rs.getBytes(column);
+        if (value == null) {
+            setNull(size);
+        }
+        values.append(value);
+        size++;
+    }
+
+    @Override
+    public byte[] getBytes(int row) {
+        checkRow(row);
+        return isNull(row) ? null : values.get(row);
+    }
+    @Override
+    public Object getObject(int row) {
+        return getBytes(row);
+    }
+
+    @Override
+    void free() {
+        super.free();
+        values.free();
+    }
+
+    @Override
+    long bytes() {
+        return super.bytes() + values.bytes();
+    }
+}
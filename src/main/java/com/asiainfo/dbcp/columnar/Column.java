@@ -0,0 +1,190 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * @Description: 列式结果的一列，值按行号保存在堆外缓冲区里，null用位图标记（第一次出现null时才分配位图）；
+ *             - 子类按类型特化存储，取值方法按行号访问，行号从0开始；
+ *             - 类型不支持的取值方法抛出UnsupportedOperationException；
+ *             - 释放后取值方法和缓冲区视图方法抛出IllegalStateException。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午9:50:05
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public abstract class Column {
+
+    // 列标签和JDBC类型
+    protected final String name;
+    protected final int sqlType;
+    // 已经读取的行数
+    protected int size;
+    // null位图，没有null时为null
+    private OffHeapBuffer nulls;
+    // 是否已经释放
+    private boolean closed;
+
+    protected Column(String name, int sqlType) {
+        this.name = name;
+        this.sqlType = sqlType;
+    }
+
+    /**
+     * @Description: 按结果集的列类型创建特化的列
+     * @author chenzq
+     * @date 2026年10月19日 下午9:52:40
+     * @param name 列标签
+     * @param sqlType JDBC类型
+     * @param precision 精度
+     * @param scale 小数位数
+     * @param expectedRows 预计行数，用于分配初始容量
+     * @return
+     */
+    static Column create(String name, int sqlType, int precision, int scale, int expectedRows) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return new IntColumn(name, sqlType, expectedRows);
+            case Types.BIGINT:
+                return new LongColumn(name, sqlType, expectedRows);
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return new DoubleColumn(name, sqlType, expectedRows);
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                // 18位以内的定点数按未缩放的long保存，否则按字符串保存
+                if (precision > 0 && precision <= DecimalColumn.MAX_PRECISION && scale >= 0) {
+                    return new DecimalColumn(name, sqlType, scale, expectedRows);
+                }
+                return new StringColumn(name, sqlType, expectedRows);
+            case Types.DATE:
+                return new DateColumn(name, sqlType, expectedRows);
+            case Types.TIMESTAMP:
+                return new TimestampColumn(name, sqlType, expectedRows);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return new StringColumn(name, sqlType, expectedRows);
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return new BytesColumn(name, sqlType, expectedRows);
+            default:
+                return new ObjectColumn(name, sqlType);
+        }
+    }
+
+    /**
+     * @Description: 读取结果集当前行的列值，追加到列尾
+     * @author chenzq
+     * @date 2026年10月19日 下午9:55:12
+     * @param rs
+     * @param column 结果集的列序号，从1开始
+     * @throws SQLException
+     */
+    abstract void read(ResultSet rs, int column) throws SQLException;
+
+    // 标记行为null
+    protected void setNull(int row) {
+        if (nulls == null) {
+            nulls = new OffHeapBuffer((size >>> 3) + 1);
+        }
+        int index = row >>> 3;
+        nulls.putByte(index, (byte) (nulls.getByteOrZero(index) | (1 << (row & 7))));
+    }
+
+    public boolean isNull(int row) {
+        checkRow(row);
+        return nulls != null && (nulls.getByteOrZero(row >>> 3) & (1 << (row & 7))) != 0;
+    }
+
+    protected void checkRow(int row) {
+        checkOpen();
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + ", size " + size);
+        }
+    }
+
+    protected void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Column " + name + " is closed");
+        }
+    }
+
+    public boolean getBoolean(int row) {
+        return getLong(row) != 0;
+    }
+    public int getInt(int row) {
+        return (int) getLong(row);
+    }
+    public long getLong(int row) {
+        throw unsupported("long");
+    }
+    public double getDouble(int row) {
+        return getLong(row);
+    }
+    public BigDecimal getBigDecimal(int row) {
+        return isNull(row) ? null : BigDecimal.valueOf(getLong(row));
+    }
+    public String getString(int row) {
+        Object value = getObject(row);
+        return value == null ? null : value.toString();
+    }
+    public byte[] getBytes(int row) {
+        throw unsupported("byte[]");
+    }
+    public Date getDate(int row) {
+        throw unsupported("Date");
+    }
+    public Timestamp getTimestamp(int row) {
+        throw unsupported("Timestamp");
+    }
+    public abstract Object getObject(int row);
+
+    protected UnsupportedOperationException unsupported(String type) {
+        return new UnsupportedOperationException("Column " + name + " (" + getClass().getSimpleName() + ") cannot be read as " + type);
+    }
+
+    // 释放堆外缓冲区
+    void free() {
+        closed = true;
+        if (nulls != null) {
+            nulls.free();
+            nulls = null;
+        }
+    }
+
+    // 估算占用的字节数
+    long bytes() {
+        return nulls == null ? 0 : nulls.capacity();
+    }
+
+    public String getName() {
+        return name;
+    }
+    public int getSqlType() {
+        return sqlType;
+    }
+    public int size() {
+        return size;
+    }
+    public boolean hasNulls() {
+        return nulls != null;
+    }
+}
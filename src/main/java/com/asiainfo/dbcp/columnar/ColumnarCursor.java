@@ -0,0 +1,131 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * @Description: 列式结果的行游标，初始位置在第一行之前，取值方法与ResultSet一致：列序号从1开始，wasNull()判断最近一次取值是否为null；
+ *             - 游标只保存当前行号，可以为同一个结果创建多个游标，在多个线程中分别使用。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:30:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class ColumnarCursor {
+
+    private final ColumnarResult result;
+    private final int rowCount;
+    private int row = -1;
+    private boolean wasNull;
+
+    ColumnarCursor(ColumnarResult result) {
+        this.result = result;
+        this.rowCount = result.getRowCount();
+    }
+
+    public boolean next() {
+        if (row < rowCount) {
+            row++;
+        }
+        return row < rowCount;
+    }
+
+    /**
+     * @Description: 移动到指定行，行号从1开始，负数从最后一行倒数
+     * @author chenzq
+     * @date 2026年10月19日 下午10:31:40
+     * @param row
+     * @return 是否在结果内
+     */
+    public boolean absolute(int row) {
+        int target = row >= 0 ? row - 1 : rowCount + row;
+        this.row = Math.max(-1, Math.min(rowCount, target));
+        return this.row >= 0 && this.row < rowCount;
+    }
+
+    public void beforeFirst() {
+        row = -1;
+    }
+
+    // 当前行号，从1开始，不在结果内时为0
+    public int getRow() {
+        return row >= 0 && row < rowCount ? row + 1 : 0;
+    }
+
+    private Column column(int column) {
+        if (row < 0 || row >= rowCount) {
+            throw new IllegalStateException("Cursor is not on a row");
+        }
+        Column c = result.column(column);
+        wasNull = c.isNull(row);
+        return c;
+    }
+
+    public boolean wasNull() {
+        return wasNull;
+    }
+
+    public boolean getBoolean(int column) {
+        return column(column).getBoolean(row);
+    }
+    public int getInt(int column) {
+        return column(column).getInt(row);
+    }
+    public long getLong(int column) {
+        return column(column).getLong(row);
+    }
+    public double getDouble(int column) {
+        return column(column).getDouble(row);
+    }
+    public BigDecimal getBigDecimal(int column) {
+        return column(column).getBigDecimal(row);
+    }
+    public String getString(int column) {
+        return column(column).getString(row);
+    }
+    public byte[] getBytes(int column) {
+        return column(column).getBytes(row);
+    }
+    public Date getDate(int column) {
+        return column(column).getDate(row);
+    }
+    public Timestamp getTimestamp(int column) {
+        return column(column).getTimestamp(row);
+    }
+    public Object getObject(int column) {
+        return column(column).getObject(row);
+    }
+
+    public boolean getBoolean(String label) {
+        return getBoolean(result.findColumn(label));
+    }
+    public int getInt(String label) {
+        return getInt(result.findColumn(label));
+    }
+    public long getLong(String label) {
+        return getLong(result.findColumn(label));
+    }
+    public double getDouble(String label) {
+        return getDouble(result.findColumn(label));
+    }
+    public BigDecimal getBigDecimal(String label) {
+        return getBigDecimal(result.findColumn(label));
+    }
+    public String getString(String label) {
+        return getString(result.findColumn(label));
+    }
+    public byte[] getBytes(String label) {
+        return getBytes(result.findColumn(label));
+    }
+    public Date getDate(String label) {
+        return getDate(result.findColumn(label));
+    }
+    public Timestamp getTimestamp(String label) {
+        return getTimestamp(result.findColumn(label));
+    }
+    public Object getObject(String label) {
+        return getObject(result.findColumn(label));
+    }
+}
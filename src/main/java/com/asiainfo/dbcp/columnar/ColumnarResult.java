@@ -0,0 +1,163 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @Description: 列式结果，把结果集一次读完并按列保存在堆外缓冲区里，百万行的结果只占用少量大块的直接内存，不产生逐行的对象；
+ *             - 按列访问：column(i)返回特化的列，数值列可以通过buffer()直接批量计算；
+ *             - 按行访问：cursor()返回游标，取值方法与ResultSet类似；
+ *             - 读取完成后与连接无关，可以在连接归还后继续使用；不再使用时调用close()释放直接内存，
+ *               没有取过buffer()视图的列立即释放，取过视图的列在视图不可达后由GC回收，已经取得的视图在close()之后仍然可以读取；
+ *             - close()之后列的取值方法和buffer()抛出IllegalStateException；close()不能与读取并发执行。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:23:15
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class ColumnarResult implements AutoCloseable {
+
+    // 没有预计行数时的初始容量
+    static final int DEFAULT_EXPECTED_ROWS = 1024;
+
+    private final Column[] columns;
+    private final int rowCount;
+    // 列标签（小写）到列序号（从1开始）的索引，同名列取第一个
+    private final Map<String, Integer> labelIndex;
+
+    private ColumnarResult(Column[] columns, int rowCount) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.labelIndex = new HashMap<>(columns.length * 2);
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].getName() != null) {
+                labelIndex.putIfAbsent(columns[i].getName().toLowerCase(Locale.ENGLISH), i + 1);
+            }
+        }
+    }
+
+    /**
+     * @Description: 读取结果集的全部剩余行，不关闭结果集
+     * @author chenzq
+     * @date 2026年10月19日 下午10:25:40
+     * @param rs
+     * @return
+     * @throws SQLException
+     */
+    public static ColumnarResult read(ResultSet rs) throws SQLException {
+        return read(rs, DEFAULT_EXPECTED_ROWS, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @Description: 读取结果集，最多读取maxRows行
+     * @author chenzq
+     * @date 2026年10月19日 下午10:26:30
+     * @param rs
+     * @param expectedRows 预计行数，用于分配初始容量，不准确时按2倍扩容
+     * @param maxRows 最多读取的行数
+     * @return
+     * @throws SQLException
+     */
+    public static ColumnarResult read(ResultSet rs, int expectedRows, int maxRows) throws SQLException {
+        ResultSetMetaData md = rs.getMetaData();
+        int count = md.getColumnCount();
+        int initial = Math.max(1, Math.min(expectedRows, maxRows));
+        Column[] columns = new Column[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                int column = i + 1;
+                String label = md.getColumnLabel(column);
+                if (label == null || label.isEmpty()) {
+                    label = md.getColumnName(column);
+                }
+                columns[i] = Column.create(label, md.getColumnType(column), md.getPrecision(column),
+                        md.getScale(column), initial);
+            }
+            int rows = 0;
+            while (rows < maxRows && rs.next()) {
+                for (int i = 0; i < count; i++) {
+                    columns[i].read(rs, i + 1);
+                }
+                rows++;
+            }
+            return new ColumnarResult(columns, rows);
+        } catch (SQLException | RuntimeException e) {
+            free(columns);
+            throw e;
+        }
+    }
+
+    private static void free(Column[] columns) {
+        for (Column column : columns) {
+            if (column != null) {
+                column.free();
+            }
+        }
+    }
+
+    /**
+     * @Description: 按列序号获取列，从1开始
+     * @author chenzq
+     * @date 2026年10月19日 下午10:28:05
+     * @param column
+     * @return
+     */
+    public Column column(int column) {
+        if (column < 1 || column > columns.length) {
+            throw new IndexOutOfBoundsException("Invalid column index: " + column);
+        }
+        return columns[column - 1];
+    }
+
+    // 按列标签获取列，忽略大小写
+    public Column column(String label) {
+        return column(findColumn(label));
+    }
+
+    // 按列标签查找列序号，忽略大小写
+    public int findColumn(String label) {
+        Integer index = labelIndex.get(label.toLowerCase(Locale.ENGLISH));
+        if (index == null) {
+            throw new IllegalArgumentException("Invalid column label: " + label);
+        }
+        return index;
+    }
+
+    // 行游标
+    public ColumnarCursor cursor() {
+        return new ColumnarCursor(this);
+    }
+
+    public List<Column> columns() {
+        return Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    // 估算占用的缓冲区字节数
+    public long bytes() {
+        long total = 0;
+        for (Column column : columns) {
+            total += column.bytes();
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        free(columns);
+    }
+}
@@ -0,0 +1,51 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * @Description: 日期列，按纪元日（1970-01-01起的天数）保存为int
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:07:25
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class DateColumn extends IntColumn {
+
+    DateColumn(String name, int sqlType, int expectedRows) {
+        super(name, sqlType, expectedRows);
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        Date value = rs.getDate(column);
+        if (value == null) {
+            setNull(size);
+            append(0);
+        } else {
+            append((int) value.toLocalDate().toEpochDay());
+        }
+    }
+
+    @Override
+    public Date getDate(int row) {
+        return isNull(row) ? null : Date.valueOf(LocalDate.ofEpochDay(values.getInt(row)));
+    }
+    @Override
+    public Timestamp getTimestamp(int row) {
+        return isNull(row) ? null : Timestamp.valueOf(LocalDate.ofEpochDay(values.getInt(row)).atStartOfDay());
+    }
+    @Override
+    public Object getObject(int row) {
+        return getDate(row);
+    }
+
+    // 纪元日
+    public int getEpochDay(int row) {
+        return getInt(row);
+    }
+}
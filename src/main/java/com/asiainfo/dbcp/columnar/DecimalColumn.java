@@ -0,0 +1,66 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @Description: 18位以内的定点数列，按列的小数位数缩放后保存为long，读取时还原为BigDecimal
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:05:50
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class DecimalColumn extends LongColumn {
+
+    // long可以无损保存的最大十进制位数
+    static final int MAX_PRECISION = 18;
+
+    private final int scale;
+
+    DecimalColumn(String name, int sqlType, int scale, int expectedRows) {
+        super(name, sqlType, expectedRows);
+        this.scale = scale;
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(column);
+        if (value == null) {
+            appendNull();
+        } else {
+            // 驱动返回的小数位数可能与列定义不同，按列定义对齐，精度内不会丢失
+            append(value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        }
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int row) {
+        return isNull(row) ? null : BigDecimal.valueOf(values.getLong(row), scale);
+    }
+    @Override
+    public long getLong(int row) {
+        checkRow(row);
+        return scale == 0 ? values.getLong(row) : getBigDecimal(row).longValue();
+    }
+    @Override
+    public double getDouble(int row) {
+        checkRow(row);
+        return scale == 0 ? values.getLong(row) : values.getLong(row) / Math.pow(10, scale);
+    }
+    @Override
+    public Object getObject(int row) {
+        return getBigDecimal(row);
+    }
+
+    // 未缩放值，即getLong(row) * 10^scale
+    public long getUnscaled(int row) {
+        checkRow(row);
+        return values.getLong(row);
+    }
+    public int getScale() {
+        return scale;
+    }
+}
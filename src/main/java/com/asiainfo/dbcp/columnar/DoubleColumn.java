@@ -0,0 +1,73 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.math.BigDecimal;
+import java.nio.DoubleBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @Description: double列，保存REAL、FLOAT、DOUBLE，null行的值为0
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:03:40
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class DoubleColumn extends Column {
+
+    private final OffHeapBuffer values;
+
+    DoubleColumn(String name, int sqlType, int expectedRows) {
+        super(name, sqlType);
+        this.values = new OffHeapBuffer(expectedRows << 3);
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        if (value == 0D && rs.wasNull()) {
+            setNull(size);
+        }
+        values.putDouble(size++, value);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        checkRow(row);
+        return values.getDouble(row);
+    }
+    @Override
+    public long getLong(int row) {
+        return (long) getDouble(row);
+    }
+    @Override
+    public BigDecimal getBigDecimal(int row) {
+        return isNull(row) ? null : BigDecimal.valueOf(values.getDouble(row));
+    }
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : Double.valueOf(values.getDouble(row));
+    }
+
+    /**
+     * @Description: 列值的只读视图，null行为0，需要结合isNull判断
+     * @author chenzq
+     * @date 2026年10月19日 下午10:04:30
+     * @return
+     */
+    public DoubleBuffer buffer() {
+        checkOpen();
+        return values.view(size << 3).asDoubleBuffer();
+    }
+
+    @Override
+    void free() {
+        super.free();
+        values.free();
+    }
+
+    @Override
+    long bytes() {
+        return super.bytes() + values.capacity();
+    }
+}
@@ -0,0 +1,78 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.nio.IntBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * @Description: int列，保存BIT、BOOLEAN、TINYINT、SMALLINT、INTEGER，null行的值为0
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午9:58:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class IntColumn extends Column {
+
+    protected final OffHeapBuffer values;
+
+    IntColumn(String name, int sqlType, int expectedRows) {
+        super(name, sqlType);
+        this.values = new OffHeapBuffer(expectedRows << 2);
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        if (value == 0 && rs.wasNull()) {
+            setNull(size);
+        }
+        values.putInt(size++, value);
+    }
+
+    // 追加一个值，供子类按自己的编码写入
+    protected void append(int value) {
+        values.putInt(size++, value);
+    }
+
+    @Override
+    public int getInt(int row) {
+        checkRow(row);
+        return values.getInt(row);
+    }
+    @Override
+    public long getLong(int row) {
+        return getInt(row);
+    }
+    @Override
+    public Object getObject(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        int value = values.getInt(row);
+        return sqlType == Types.BIT || sqlType == Types.BOOLEAN ? Boolean.valueOf(value != 0) : Integer.valueOf(value);
+    }
+
+    /**
+     * @Description: 列值的只读视图，可以直接按下标批量计算，null行为0，需要结合isNull判断
+     * @author chenzq
+     * @date 2026年10月19日 下午9:59:40
+     * @return
+     */
+    public IntBuffer buffer() {
+        checkOpen();
+        return values.view(size << 2).asIntBuffer();
+    }
+
+    @Override
+    void free() {
+        super.free();
+        values.free();
+    }
+
+    @Override
+    long bytes() {
+        return super.bytes() + values.capacity();
+    }
+}
@@ -0,0 +1,75 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.nio.LongBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @Description: long列，保存BIGINT，null行的值为0；子类按自己的编码复用long存储
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:01:15
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class LongColumn extends Column {
+
+    protected final OffHeapBuffer values;
+
+    LongColumn(String name, int sqlType, int expectedRows) {
+        super(name, sqlType);
+        this.values = new OffHeapBuffer(expectedRows << 3);
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        if (value == 0L && rs.wasNull()) {
+            setNull(size);
+        }
+        values.putLong(size++, value);
+    }
+
+    // 追加一个值，供子类按自己的编码写入
+    protected void append(long value) {
+        values.putLong(size++, value);
+    }
+
+    // 追加一个null
+    protected void appendNull() {
+        setNull(size);
+        values.putLong(size++, 0L);
+    }
+
+    @Override
+    public long getLong(int row) {
+        checkRow(row);
+        return values.getLong(row);
+    }
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : Long.valueOf(values.getLong(row));
+    }
+
+    /**
+     * @Description: 列值的只读视图，null行为0，需要结合isNull判断
+     * @author chenzq
+     * @date 2026年10月19日 下午10:02:20
+     * @return
+     */
+    public LongBuffer buffer() {
+        checkOpen();
+        return values.view(size << 3).asLongBuffer();
+    }
+
+    @Override
+    void free() {
+        super.free();
+        values.free();
+    }
+
+    @Override
+    long bytes() {
+        return super.bytes() + values.capacity();
+    }
+}
@@ -0,0 +1,90 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Description: 没有特化存储的类型（TIME、ARRAY、驱动自定义类型等），按驱动返回的对象保存在堆上
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:20:35
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class ObjectColumn extends Column {
+
+    private final List<Object> values = new ArrayList<>();
+
+    ObjectColumn(String name, int sqlType) {
+        super(name, sqlType);
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            setNull(size);
+        }
+        values.add(value);
+        size++;
+    }
+
+    @Override
+    public long getLong(int row) {
+        Object value = getObject(row);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value == null ? 0L : Long.parseLong(value.toString().trim());
+    }
+    @Override
+    public double getDouble(int row) {
+        Object value = getObject(row);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return value == null ? 0D : Double.parseDouble(value.toString().trim());
+    }
+    @Override
+    public BigDecimal getBigDecimal(int row) {
+        Object value = getObject(row);
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+    @Override
+    public byte[] getBytes(int row) {
+        Object value = getObject(row);
+        if (value == null || value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        throw unsupported("byte[]");
+    }
+    @Override
+    public Date getDate(int row) {
+        Object value = getObject(row);
+        if (value == null || value instanceof Date) {
+            return (Date) value;
+        }
+        throw unsupported("Date");
+    }
+    @Override
+    public Timestamp getTimestamp(int row) {
+        Object value = getObject(row);
+        if (value == null || value instanceof Timestamp) {
+            return (Timestamp) value;
+        }
+        throw unsupported("Timestamp");
+    }
+    @Override
+    public Object getObject(int row) {
+        checkRow(row);
+        return values.get(row);
+    }
+}
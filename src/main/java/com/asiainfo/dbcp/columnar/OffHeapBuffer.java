@@ -0,0 +1,136 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.asiainfo.dbcp.util.DirectBuffers;
+
+/**
+ * @Description: 可增长的堆外缓冲区，按元素下标读写int、long、double和字节，容量不足时按2倍扩容并复制；
+ *             - 单个缓冲区最大2GB（ByteBuffer的下标限制）；
+ *             - 没有取过视图时，扩容后旧的缓冲区、free()时当前的缓冲区立即释放直接内存（DirectBuffers.free），不等待GC；
+ *             - 取过视图后调用方可能在free()之后仍持有视图，显式释放会让视图读取已经释放的内存导致JVM崩溃，
+ *               因此只释放引用，直接内存在缓冲区和所有视图都不可达后由Cleaner回收；
+ *             - free()之后view()抛出IllegalStateException。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午9:45:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+final class OffHeapBuffer {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private ByteBuffer buf;
+    // 是否已经通过view()把缓冲区交给调用方，交出后不再显式释放
+    private volatile boolean viewed;
+
+    OffHeapBuffer(int initialBytes) {
+        this.buf = allocate(Math.max(MIN_CAPACITY, initialBytes));
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    // 保证容量不小于指定字节数
+    void ensure(long bytes) {
+        int capacity = buf.capacity();
+        if (bytes <= capacity) {
+            return;
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Column buffer exceeds 2GB: " + bytes + " bytes");
+        }
+        long grown = Math.max(bytes, (long) capacity << 1);
+        ByteBuffer larger = allocate((int) Math.min(Integer.MAX_VALUE, grown));
+        ByteBuffer src = buf.duplicate();
+        src.clear();
+        larger.put(src);
+        larger.clear();
+        ByteBuffer old = buf;
+        buf = larger;
+        if (!viewed) {
+            DirectBuffers.free(old);
+        }
+    }
+
+    void putByte(int index, byte value) {
+        ensure(index + 1L);
+        buf.put(index, value);
+    }
+    byte getByte(int index) {
+        return buf.get(index);
+    }
+    // 超出容量的位置按0处理，直接内存分配时已经清零
+    byte getByteOrZero(int index) {
+        return index < buf.capacity() ? buf.get(index) : 0;
+    }
+
+    void putInt(int index, int value) {
+        ensure(((long) index + 1) << 2);
+        buf.putInt(index << 2, value);
+    }
+    int getInt(int index) {
+        return buf.getInt(index << 2);
+    }
+
+    void putLong(int index, long value) {
+        ensure(((long) index + 1) << 3);
+        buf.putLong(index << 3, value);
+    }
+    long getLong(int index) {
+        return buf.getLong(index << 3);
+    }
+
+    void putDouble(int index, double value) {
+        ensure(((long) index + 1) << 3);
+        buf.putDouble(index << 3, value);
+    }
+    double getDouble(int index) {
+        return buf.getDouble(index << 3);
+    }
+
+    // 在指定字节偏移写入字节数组
+    void put(int offset, byte[] src) {
+        ensure((long) offset + src.length);
+        ByteBuffer dst = buf.duplicate();
+        dst.position(offset);
+        dst.put(src);
+    }
+    // 从指定字节偏移读取字节数组
+    byte[] get(int offset, int length) {
+        byte[] dst = new byte[length];
+        ByteBuffer src = buf.duplicate();
+        src.position(offset);
+        src.get(dst);
+        return dst;
+    }
+
+    // 前length字节的只读视图，字节序为本机字节序
+    ByteBuffer view(int length) {
+        ByteBuffer b = buf;
+        if (b == null) {
+            throw new IllegalStateException("Buffer has been freed");
+        }
+        viewed = true;
+        ByteBuffer view = b.asReadOnlyBuffer();
+        view.clear();
+        view.limit(length);
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+
+    int capacity() {
+        return buf == null ? 0 : buf.capacity();
+    }
+
+    // 释放直接内存，取过视图时只释放引用，可以重复调用
+    void free() {
+        ByteBuffer old = buf;
+        buf = null;
+        if (!viewed) {
+            DirectBuffers.free(old);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.math.BigDecimal;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: 字符串列，默认按字典编码保存：每行一个int编码保存在堆外，不同的字符串只在堆上保存一份；
+ *             - 字典过大（不同值超过65536个，或者读取4096行以后不同值超过行数的一半）时转为UTF-8字节的变长存储，取值时再解码；
+ *             - 低基数的列（状态、类型、地区等）可以直接按编码分组统计，不需要解码字符串。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:13:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class StringColumn extends Column {
+
+    static final int MAX_DICTIONARY_SIZE = 65536;
+    static final int DICTIONARY_SAMPLE_ROWS = 4096;
+    // 字典编码时null行的编码
+    public static final int NULL_CODE = -1;
+    // 变长存储时按每个值16字节预估初始容量
+    private static final int EXPECTED_VALUE_BYTES = 16;
+
+    private final int expectedRows;
+    // 字典编码的存储，转为变长存储后为null
+    private OffHeapBuffer codes;
+    private Map<String, Integer> dictionary;
+    private List<String> values;
+    // 变长存储
+    private VarWidthBuffer plain;
+
+    StringColumn(String name, int sqlType, int expectedRows) {
+        super(name, sqlType);
+        this.expectedRows = expectedRows;
+        this.codes = new OffHeapBuffer(expectedRows << 2);
+        this.dictionary = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        String s;
+        if (sqlType == Types.NUMERIC || sqlType == Types.DECIMAL) {
+            // 超出long精度的定点数
+            BigDecimal value = rs.getBigDecimal(column);
+            s = value == null ? null : value.toPlainString();
+        } else {
+            s = rs.getString(column);
+        }
+        if (s == null) {
+            setNull(size);
+        }
+        if (codes != null) {
+            if (s != null && !dictionary.containsKey(s) && dictionaryTooLarge()) {
+                toPlain();
+            } else {
+                codes.putInt(size++, s == null ? NULL_CODE : code(s));
+                return;
+            }
+        }
+        plain.append(s == null ? null : s.getBytes(StandardCharsets.UTF_8));
+        size++;
+    }
+
+    private int code(String s) {
+        Integer code = dictionary.get(s);
+        if (code == null) {
+            code = values.size();
+            dictionary.put(s, code);
+            values.add(s);
+        }
+        return code;
+    }
+
+    private boolean dictionaryTooLarge() {
+        int distinct = values.size();
+        return distinct >= MAX_DICTIONARY_SIZE || (size >= DICTIONARY_SAMPLE_ROWS && distinct > size >>> 1);
+    }
+
+    // 字典编码转为变长存储
+    private void toPlain() {
+        int rows = Math.max(expectedRows, size);
+        VarWidthBuffer buffer = new VarWidthBuffer(rows, (int) Math.min(Integer.MAX_VALUE, (long) rows * EXPECTED_VALUE_BYTES));
+        byte[][] encoded = new byte[values.size()][];
+        for (int i = 0; i < values.size(); i++) {
+            encoded[i] = values.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        for (int row = 0; row < size; row++) {
+            int code = codes.getInt(row);
+            buffer.append(code == NULL_CODE ? null : encoded[code]);
+        }
+        plain = buffer;
+        codes.free();
+        codes = null;
+        dictionary = null;
+        values = null;
+    }
+
+    @Override
+    public String getString(int row) {
+        checkRow(row);
+        if (codes != null) {
+            int code = codes.getInt(row);
+            return code == NULL_CODE ? null : values.get(code);
+        }
+        return isNull(row) ? null : new String(plain.get(row), StandardCharsets.UTF_8);
+    }
+    @Override
+    public long getLong(int row) {
+        String s = getString(row);
+        return s == null ? 0L : new BigDecimal(s.trim()).longValue();
+    }
+    @Override
+    public double getDouble(int row) {
+        String s = getString(row);
+        return s == null ? 0D : Double.parseDouble(s.trim());
+    }
+    @Override
+    public BigDecimal getBigDecimal(int row) {
+        String s = getString(row);
+        return s == null ? null : new BigDecimal(s.trim());
+    }
+    @Override
+    public byte[] getBytes(int row) {
+        String s = getString(row);
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+    @Override
+    public Object getObject(int row) {
+        return getString(row);
+    }
+
+    // 是否按字典编码保存
+    public boolean isDictionaryEncoded() {
+        return codes != null;
+    }
+
+    /**
+     * @Description: 行的字典编码，null行为NULL_CODE
+     * @author chenzq
+     * @date 2026年10月19日 下午10:17:40
+     * @param row
+     * @return
+     */
+    public int getCode(int row) {
+        checkRow(row);
+        if (codes == null) {
+            throw new IllegalStateException("Column " + name + " is not dictionary encoded");
+        }
+        return codes.getInt(row);
+    }
+
+    // 字典编码的只读视图
+    public IntBuffer codes() {
+        checkOpen();
+        if (codes == null) {
+            throw new IllegalStateException("Column " + name + " is not dictionary encoded");
+        }
+        return codes.view(size << 2).asIntBuffer();
+    }
+
+    // 字典，下标即编码
+    public List<String> dictionary() {
+        return values == null ? Collections.<String>emptyList() : Collections.unmodifiableList(values);
+    }
+
+    @Override
+    void free() {
+        super.free();
+        if (codes != null) {
+            codes.free();
+        }
+        if (plain != null) {
+            plain.free();
+        }
+    }
+
+    @Override
+    long bytes() {
+        return super.bytes() + (codes != null ? codes.capacity() : plain.bytes());
+    }
+}
@@ -0,0 +1,90 @@
+package com.asiainfo.dbcp.columnar;
+
+import java.nio.IntBuffer;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * @Description: 时间戳列，纪元秒保存为long，秒内的纳秒另外保存为int，可以表示Timestamp的全部取值（包括9999-12-31）；
+ *             - getLong和buffer()返回纪元秒，纳秒通过getNanos和nanosBuffer()读取。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:08:50
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class TimestampColumn extends LongColumn {
+
+    // 秒内的纳秒，0到999999999
+    private final OffHeapBuffer nanos;
+
+    TimestampColumn(String name, int sqlType, int expectedRows) {
+        super(name, sqlType, expectedRows);
+        this.nanos = new OffHeapBuffer(expectedRows << 2);
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        if (value == null) {
+            nanos.putInt(size, 0);
+            appendNull();
+        } else {
+            nanos.putInt(size, value.getNanos());
+            append(Math.floorDiv(value.getTime(), 1000L));
+        }
+    }
+
+    @Override
+    public Timestamp getTimestamp(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        Timestamp ts = new Timestamp(values.getLong(row) * 1000L);
+        ts.setNanos(nanos.getInt(row));
+        return ts;
+    }
+    @Override
+    public Date getDate(int row) {
+        Timestamp ts = getTimestamp(row);
+        return ts == null ? null : Date.valueOf(ts.toLocalDateTime().toLocalDate());
+    }
+    @Override
+    public Object getObject(int row) {
+        return getTimestamp(row);
+    }
+
+    // 纪元秒
+    public long getEpochSeconds(int row) {
+        return getLong(row);
+    }
+    // 秒内的纳秒
+    public int getNanos(int row) {
+        checkRow(row);
+        return nanos.getInt(row);
+    }
+
+    /**
+     * @Description: 秒内纳秒的只读视图，与buffer()的纪元秒按行对应，null行为0
+     * @author chenzq
+     * @date 2026年10月19日 下午10:10:12
+     * @return
+     */
+    public IntBuffer nanosBuffer() {
+        checkOpen();
+        return nanos.view(size << 2).asIntBuffer();
+    }
+
+    @Override
+    void free() {
+        super.free();
+        nanos.free();
+    }
+
+    @Override
+    long bytes() {
+        return super.bytes() + nanos.capacity();
+    }
+}
@@ -0,0 +1,53 @@
+package com.asiainfo.dbcp.columnar;
+
+/**
+ * @Description: 变长值的堆外存储，数据连续保存在一个缓冲区里，另一个缓冲区保存每个值的结束偏移
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:11:05
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+final class VarWidthBuffer {
+
+    // 第i个值的结束偏移，开始偏移为第i-1个值的结束偏移
+    private final OffHeapBuffer ends;
+    private final OffHeapBuffer data;
+    private int count;
+    private int length;
+
+    VarWidthBuffer(int expectedValues, int expectedBytes) {
+        this.ends = new OffHeapBuffer(expectedValues << 2);
+        this.data = new OffHeapBuffer(expectedBytes);
+    }
+
+    // 追加一个值，null按空值保存，由列的null位图区分
+    void append(byte[] value) {
+        if (value != null && value.length > 0) {
+            if ((long) length + value.length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Column data exceeds 2GB");
+            }
+            data.put(length, value);
+            length += value.length;
+        }
+        ends.putInt(count++, length);
+    }
+
+    byte[] get(int index) {
+        int start = index == 0 ? 0 : ends.getInt(index - 1);
+        return data.get(start, ends.getInt(index) - start);
+    }
+
+    int count() {
+        return count;
+    }
+
+    long bytes() {
+        return (long) ends.capacity() + data.capacity();
+    }
+
+    void free() {
+        ends.free();
+        data.free();
+    }
+}
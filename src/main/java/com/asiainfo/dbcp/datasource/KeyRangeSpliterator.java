@@ -0,0 +1,89 @@
+package com.asiainfo.dbcp.datasource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * @Description: 按数值主键范围拆分的Spliterator，sql的最后两个参数是范围的下界（包含）和上界（不包含）；
+ *             - 并行流拆分时把当前范围对半分，最多拆成partitions个分区，每个分区首次取行时才借出自己的连接执行查询；
+ *             - 已经开始取行的分区不再拆分；顺序流不拆分，整个范围用一个查询完成；
+ *             - 所有分区登记在同一个队列里，流关闭时统一关闭，提前结束（findFirst、limit等）的分区也会归还连接。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午11:52:40
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+class KeyRangeSpliterator<T> extends ResultSetSpliterator<T> {
+
+    private final Object[] args;
+    private final Queue<KeyRangeSpliterator<T>> partitions;
+    private long lowKey;
+    private final long highKey;
+    // 范围长度按无符号数处理，覆盖整个long范围时不会溢出；还可以拆出的分区个数（包含自己）
+    private int budget;
+
+    KeyRangeSpliterator(DataSource dataSource, String sql, RowMapper<T> mapper, Object[] args, 
+            long lowKey, long highKey, int partitions) {
+        this(dataSource, sql, mapper, args, lowKey, highKey, partitions, new ConcurrentLinkedQueue<>());
+    }
+
+    private KeyRangeSpliterator(DataSource dataSource, String sql, RowMapper<T> mapper, Object[] args, 
+            long lowKey, long highKey, int budget, Queue<KeyRangeSpliterator<T>> partitions) {
+        super(dataSource, sql, mapper, null);
+        this.args = args;
+        this.lowKey = lowKey;
+        this.highKey = highKey;
+        this.budget = budget;
+        this.partitions = partitions;
+        partitions.add(this);
+    }
+
+    @Override
+    protected void bind(PreparedStatement ps) throws SQLException {
+        int index = 1;
+        if (args != null) {
+            for (Object arg : args) {
+                ps.setObject(index++, arg);
+            }
+        }
+        ps.setLong(index++, lowKey);
+        ps.setLong(index, highKey);
+    }
+
+    @Override
+    public synchronized Spliterator<T> trySplit() {
+        if (isOpened() || budget < 2 || Long.compareUnsigned(highKey - lowKey, 2L) < 0) {
+            return null;
+        }
+        // 前一半交给新分区，当前分区保留后一半
+        long mid = lowKey + ((highKey - lowKey) >>> 1);
+        int half = budget / 2;
+        KeyRangeSpliterator<T> prefix = new KeyRangeSpliterator<>(dataSource, sql, mapper, args, 
+                lowKey, mid, half, partitions);
+        lowKey = mid;
+        budget -= half;
+        return prefix;
+    }
+
+    @Override
+    public synchronized long estimateSize() {
+        long size = highKey - lowKey;
+        return size < 0 ? Long.MAX_VALUE : size;
+    }
+
+    // 关闭所有分区
+    void closeAll() {
+        KeyRangeSpliterator<T> partition;
+        while ((partition = partitions.poll()) != null) {
+            partition.close();
+        }
+    }
+}
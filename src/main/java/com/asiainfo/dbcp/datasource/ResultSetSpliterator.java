@@ -0,0 +1,169 @@
+package com.asiainfo.dbcp.datasource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * @Description: 按需从结果集取行的Spliterator，每次tryAdvance调用一次next()并用RowMapper映射当前行；
+ *             - 首次取行时借出连接并执行查询（也可以由调用方提前open()），取完最后一行或close()时关闭结果集、语句并归还连接；
+ *             - 取行过程中的SQLException包装为UncategorizedSQLException抛出，抛出前已经归还连接；
+ *             - 本身不拆分，子类按键范围拆分。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午11:45:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+class ResultSetSpliterator<T> implements Spliterator<T>, AutoCloseable {
+
+    protected final DataSource dataSource;
+    protected final String sql;
+    protected final RowMapper<T> mapper;
+    private final Object[] args;
+    private Connection conn;
+    private PreparedStatement ps;
+    private ResultSet rs;
+    private int rowNum;
+    private boolean opened;
+    private boolean closed;
+
+    ResultSetSpliterator(DataSource dataSource, String sql, RowMapper<T> mapper, Object[] args) {
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.mapper = mapper;
+        this.args = args;
+    }
+
+    // 绑定查询参数，子类绑定自己的范围
+    protected void bind(PreparedStatement ps) throws SQLException {
+        if (args != null) {
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+        }
+    }
+
+    /**
+     * @Description: 借出连接并执行查询，失败时归还连接
+     * @author chenzq
+     * @date 2026年10月19日 下午11:47:10
+     * @throws SQLException
+     */
+    synchronized void open() throws SQLException {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        try {
+            conn = dataSource.getConnection();
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            bind(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    protected boolean isOpened() {
+        return opened;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        try {
+            open();
+            if (!rs.next()) {
+                close();
+                return false;
+            }
+            T row = mapper.mapRow(rs, rowNum++);
+            action.accept(row);
+            return true;
+        } catch (SQLException e) {
+            close();
+            throw new UncategorizedSQLException("ResultSet stream", sql, e);
+        } catch (RuntimeException | Error e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        if (closed) {
+            return;
+        }
+        try {
+            open();
+            while (rs.next()) {
+                action.accept(mapper.mapRow(rs, rowNum++));
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("ResultSet stream", sql, e);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    // 关闭结果集、语句并归还连接，可以重复调用
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        opened = true;
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+            rs = null;
+        }
+        if (ps != null) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+            ps = null;
+        }
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+            conn = null;
+        }
+    }
+}
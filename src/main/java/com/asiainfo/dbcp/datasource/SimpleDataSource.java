@@ -1,457 +1,1022 @@
-package com.asiainfo.dbcp.datasource;
-
-import java.io.PrintWriter;
-import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
-import java.util.Properties;
-import java.util.logging.Logger;
-
-import javax.sql.DataSource;
-
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.pool2.PooledObjectFactory;
-import org.apache.commons.pool2.impl.GenericObjectPool;
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
-
-import com.asiainfo.dbcp.factory.ConnectionFactory;
-import com.asiainfo.dbcp.factory.DriverConnectionFactory;
-import com.asiainfo.dbcp.poolable.PoolableConnection;
-import com.asiainfo.dbcp.poolable.PoolableConnectionFactory;
-
-/**
- * @Description: 数据库连接池简单实现，构建GenericObjectPool对象池、GenericObjectPoolConfig对象池配置、DriverConnectionFactory驱动连接工厂、
- *             - PooledObjectFactory池化的连接工厂。
- *             - 提供create() 方法返回池化数据源SimpleDataSource实现。
- * 
- * @author chenzq  
- * @date 2019年5月2日 下午4:55:24
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
- */
-public class SimpleDataSource implements DataSource {
-
-    public static final int UNKNOWN_TRANSACTIONISOLATION = -1;
-    
-    // 对象池
-    protected volatile GenericObjectPool<PoolableConnection> connectionPool = null;
-    protected volatile boolean closed = false;
-    // 对象构建工厂配置
-    protected String driverClassName = null;
-    protected String url = null;
-    protected String username = null;
-    protected String password = null;
-    // 对象属性配置
-    protected int transactionIsolation = UNKNOWN_TRANSACTIONISOLATION;
-    protected boolean readOnly = false;
-	protected boolean autoCommit = true;
-	protected String catalog = null;
-    // 对象校验配置
-    protected String validationQuery = null;
-    protected int validationQueryTimeout = -1;
-	// 池参数配置
-	protected int initialSize = 0;
-	protected int maxTotal = GenericObjectPoolConfig.DEFAULT_MAX_TOTAL;
-	protected int maxIdle = GenericObjectPoolConfig.DEFAULT_MAX_IDLE;
-	protected int minIdle = GenericObjectPoolConfig.DEFAULT_MIN_IDLE;
-	protected long maxWaitMillis = GenericObjectPoolConfig.DEFAULT_MAX_WAIT_MILLIS;
-	protected boolean testOnBorrow = GenericObjectPoolConfig.DEFAULT_TEST_ON_BORROW;
-	protected boolean testOnReturn = GenericObjectPoolConfig.DEFAULT_TEST_ON_RETURN;
-	protected boolean testWhileIdle = GenericObjectPoolConfig.DEFAULT_TEST_WHILE_IDLE;
-	protected long timeBetweenEvictionRunsMillis = GenericObjectPoolConfig.DEFAULT_TIME_BETWEEN_EVICTION_RUNS_MILLIS;
-	protected int numTestsPerEvictionRun = GenericObjectPoolConfig.DEFAULT_NUM_TESTS_PER_EVICTION_RUN;
-	protected long minEvictableIdleTimeMillis = GenericObjectPoolConfig.DEFAULT_MIN_EVICTABLE_IDLE_TIME_MILLIS;
-	// 日志
-	protected PrintWriter logWriter = new PrintWriter(System.out);
-  
-    @Override
-    public Connection getConnection() throws SQLException {
-        try {
-            PoolableConnection conn = createConnectionPool().borrowObject();
-            // 返回连接时，注入连接池，用于close时返还到池中
-            conn.setPool(this.connectionPool);
-            return conn;
-        } catch (Exception e) {
-            logWriter.println("error on getConnection: " + e);
-            throw new SQLException("error on getConnection!", e);
-        }
-    }
-    
-	/**
-	 * @Description: 双重检查初始化GenericObjectPool
-	 * @author chenzq
-	 * @date 2019年5月2日 下午6:07:51
-	 * @return
-	 * @throws SQLException
-	 */
-	protected GenericObjectPool<PoolableConnection> createConnectionPool() throws SQLException {
-	    if (closed) {
-            throw new SQLException("Data source is closed");
-        }
-	    if (connectionPool != null) {
-            return connectionPool;
-        }
-	    synchronized (this) {
-            if (connectionPool != null) {
-                return connectionPool;
-            }
-    	    // 连接工厂
-    	    ConnectionFactory connFactory = createConnectionFactory();
-    	    // pooled 对象工厂
-    	    PooledObjectFactory<PoolableConnection> factory = createPoolableConnectionFactory(connFactory);
-    	    // PoolConfig
-    	    GenericObjectPoolConfig<PoolableConnection> poolConfig = createPoolConfig();
-    	    // 构建池对象
-    	    GenericObjectPool<PoolableConnection> pool = new GenericObjectPool<>(factory, poolConfig);
-    	    // 初始化最小连接数
-    	    try {
-    	        for (int i = 0 ; i < initialSize ; i++) {
-    	            pool.addObject();
-    	        }
-    	    } catch (Exception e) {
-    	        throw new SQLException("Error preloading the connection pool", e);
-    	    }
-    	    connectionPool = pool;
-	    }
-	    return connectionPool;
-	}
-
-    @Override
-    public Connection getConnection(String username, String password) throws SQLException {
-        throw new UnsupportedOperationException("Not supported by BasicDataSource");
-    }
-    
-    @Override
-    public PrintWriter getLogWriter() throws SQLException {
-        return this.logWriter;
-    }
-    @Override
-    public void setLogWriter(PrintWriter out) throws SQLException {
-        this.logWriter = out;
-    }
-    @Override
-    public void setLoginTimeout(int seconds) throws SQLException {
-        throw new UnsupportedOperationException("Not supported by BasicDataSource");
-    }
-    @Override
-    public int getLoginTimeout() throws SQLException {
-        throw new UnsupportedOperationException("Not supported by BasicDataSource");
-    }
-    @Override
-    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
-        return null;
-    }
-    @Override
-    public <T> T unwrap(Class<T> iface) throws SQLException {
-        throw new SQLException("BasicDataSource is not a wrapper.");
-    }
-    @Override
-    public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return false;
-    }
-    
-	/**
-	 * @Description: 判断数据源是否关闭
-	 * @author chenzq
-	 * @date 2019年5月2日 下午2:37:29
-	 * @return
-	 */
-    public boolean isClosed() {
-        return closed;
-    }
-
-    /**
-     * @Description: 关闭数据源
-     * @author chenzq
-     * @date 2019年5月2日 下午2:38:36
-     * @throws SQLException
-     */
-    public synchronized void close() throws SQLException {
-        closed = true;
-        GenericObjectPool<PoolableConnection> oldpool = connectionPool;
-        connectionPool = null;
-        try {
-            if (oldpool != null) {
-                oldpool.close();
-            }
-        } catch (Exception e) {
-            throw new SQLException("Cannot close connection pool", e);
-        }
-    }
-    
-    public String getUrl() {
-        return this.url;
-    }
-    public void setUrl(String url) {
-        this.url = url;
-    }
-    public String getUsername() {
-        return this.username;
-    }
-    public void setUsername(String username) {
-        this.username = username;
-    }
-    public String getPassword() {
-        return this.password;
-    }
-    public void setPassword(String password) {
-        this.password = password;
-    }
-    public String getDriverClassName() {
-        return this.driverClassName;
-    }
-    public void setDriverClassName(String driverClassName) {
-        if (StringUtils.isNotEmpty(driverClassName)) {
-            this.driverClassName = driverClassName;
-        }
-    }
-    
-    public int getTransactionIsolation() {
-        return transactionIsolation;
-    }
-    public void setTransactionIsolation(int transactionIsolation) {
-        this.transactionIsolation = transactionIsolation;
-    }
-    public boolean isReadOnly() {
-        return readOnly;
-    }
-    public void setReadOnly(boolean readOnly) {
-        this.readOnly = readOnly;
-    }
-    public boolean isAutoCommit() {
-        return autoCommit;
-    }
-    public void setAutoCommit(boolean autoCommit) {
-        this.autoCommit = autoCommit;
-    }
-    public String getCatalog() {
-        return catalog;
-    }
-    public void setCatalog(String catalog) {
-        this.catalog = catalog;
-    }
-
-    public boolean getTestOnBorrow() {
-        return this.testOnBorrow;
-    }
-    public void setTestOnBorrow(boolean testOnBorrow) {
-        this.testOnBorrow = testOnBorrow;
-        if (connectionPool != null) {
-            connectionPool.setTestOnBorrow(testOnBorrow);
-        }
-    }
-    public boolean getTestOnReturn() {
-        return this.testOnReturn;
-    }
-    public void setTestOnReturn(boolean testOnReturn) {
-        this.testOnReturn = testOnReturn;
-        if (connectionPool != null) {
-            connectionPool.setTestOnReturn(testOnReturn);
-        }
-    }
-    public boolean getTestWhileIdle() {
-        return this.testWhileIdle;
-    }
-    public void setTestWhileIdle(boolean testWhileIdle) {
-        this.testWhileIdle = testWhileIdle;
-        if (connectionPool != null) {
-            connectionPool.setTestWhileIdle(testWhileIdle);
-        }
-    }
-    public int getInitialSize() {
-        return this.initialSize;
-    }
-    public void setInitialSize(int initialSize) {
-        this.initialSize = initialSize;
-    }
-    public int getMaxTotal() {
-        return maxTotal;
-    }
-    public void setMaxTotal(int maxTotal) {
-        this.maxTotal = maxTotal;
-        if (connectionPool != null) {
-            connectionPool.setMaxTotal(maxTotal);
-        }
-    }
-    public int getMaxIdle() {
-        return this.maxIdle;
-    }
-    public void setMaxIdle(int maxIdle) {
-        this.maxIdle = maxIdle;
-        if (connectionPool != null) {
-            connectionPool.setMaxIdle(maxIdle);
-        }
-    }
-    public int getMinIdle() {
-        return this.minIdle;
-    }
-    public void setMinIdle(int minIdle) {
-       this.minIdle = minIdle;
-       if (connectionPool != null) {
-           connectionPool.setMinIdle(minIdle);
-       }
-    }
-    public long getMaxWaitMillis() {
-        return this.maxWaitMillis;
-    }
-    public void setMaxWaitMillis(long maxWaitMillis) {
-        this.maxWaitMillis = maxWaitMillis;
-        if (connectionPool != null) {
-            connectionPool.setMaxWaitMillis(maxWaitMillis);
-        }
-    }
-    public long getTimeBetweenEvictionRunsMillis() {
-        return this.timeBetweenEvictionRunsMillis;
-    }
-    public void setTimeBetweenEvictionRunsMillis(long timeBetweenEvictionRunsMillis) {
-        this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
-        if (connectionPool != null) {
-            connectionPool.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
-        }
-    }
-    public int getNumTestsPerEvictionRun() {
-        return this.numTestsPerEvictionRun;
-    }
-    public void setNumTestsPerEvictionRun(int numTestsPerEvictionRun) {
-        this.numTestsPerEvictionRun = numTestsPerEvictionRun;
-        if (connectionPool != null) {
-            connectionPool.setNumTestsPerEvictionRun(numTestsPerEvictionRun);
-        }
-    }
-    public long getMinEvictableIdleTimeMillis() {
-        return this.minEvictableIdleTimeMillis;
-    }
-    public void setMinEvictableIdleTimeMillis(long minEvictableIdleTimeMillis) {
-        this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
-        if (connectionPool != null) {
-            connectionPool.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
-        }
-    }
-    public String getValidationQuery() {
-        return this.validationQuery;
-    }
-    public void setValidationQuery(String validationQuery) {
-        if (StringUtils.isNotEmpty(validationQuery)) {
-            this.validationQuery = validationQuery;
-        }
-    }
-    public int getValidationQueryTimeout() {
-        return validationQueryTimeout;
-    }
-    public void setValidationQueryTimeout(int validationQueryTimeout) {
-        this.validationQueryTimeout = validationQueryTimeout;
-    }
-
-    /**
-     * @Description: 创建连接工厂
-     * @author chenzq
-     * @date 2019年5月2日 下午3:24:07
-     * @return
-     * @throws SQLException
-     */
-	protected ConnectionFactory createConnectionFactory() throws SQLException {
-            
-		// Load the JDBC driver class
-		Class<?> driverFromCCL = null;
-		if (StringUtils.isNotEmpty(driverClassName)) {
-			try {
-				try {
-				    driverFromCCL = Class.forName(driverClassName);
-				} catch (ClassNotFoundException cnfe) {
-					driverFromCCL = Thread.currentThread().getContextClassLoader().loadClass(driverClassName);
-				}
-			} catch (Throwable t) {
-                String message = "Cannot load JDBC driver class '" + driverClassName + "'";
-                getLogWriter().println(message);
-				throw new SQLException(message, t);
-			}
-		}
-
-		// Create a JDBC driver instance
-		Driver driver = null;
-		try {
-			if (driverFromCCL == null) {
-				driver = DriverManager.getDriver(url);
-			} else {
-				// Usage of DriverManager is not possible, as it does not
-				// respect the ContextClassLoader
-				driver = (Driver) driverFromCCL.newInstance();
-				if (!driver.acceptsURL(url)) {
-					throw new SQLException("No suitable driver", "08001");
-				}
-			}
-		} catch (Throwable t) {
-			String message = "Cannot create JDBC driver of class '" +
-					(driverClassName != null ? driverClassName : "") +
-					"' for connect URL '" + url + "'";
-			getLogWriter().println(message);
-            throw new SQLException(message, t);
-		}
-		
-		// Can't test without a validationQuery
-		if (StringUtils.isEmpty(validationQuery)) {
-			setTestOnBorrow(false);
-			setTestOnReturn(false);
-			setTestWhileIdle(false);
-		}
-
-		Properties props = new Properties();
-		// Set up the driver connection factory we will use
-		String user = username;
-		if (user != null) {
-		    props.put("user", user);
-		} else {
-			getLogWriter().println("DBCP DataSource configured without a 'username'");
-		}
-		String pwd = password;
-		if (pwd != null) {
-		    props.put("password", pwd);
-		} else {
-			getLogWriter().println("DBCP DataSource configured without a 'password'");
-		}
-		return new DriverConnectionFactory(driver, url, props);
-	}
-
-	/**
-	 * @Description: 创建PooledObjectFactory
-	 * @author chenzq
-	 * @date 2019年5月2日 下午3:35:53
-	 * @param connFactory
-	 * @return
-	 */
-	protected PooledObjectFactory<PoolableConnection> createPoolableConnectionFactory(ConnectionFactory connFactory) {
-	    
-	    PooledObjectFactory<PoolableConnection> pooledFactory = new PoolableConnectionFactory(
-	            connFactory, 
-	            validationQuery, 
-	            validationQueryTimeout, 
-	            readOnly, 
-	            autoCommit, 
-	            catalog, 
-	            transactionIsolation);
-	    return pooledFactory;
-	}
-	
-	/**
-	 * @Description: 连接池配置
-	 * @author chenzq
-	 * @date 2019年5月2日 下午4:51:20
-	 * @return
-	 */
-	protected GenericObjectPoolConfig<PoolableConnection> createPoolConfig() {
-	    GenericObjectPoolConfig<PoolableConnection> config = new GenericObjectPoolConfig<>();
-	    config.setMaxTotal(maxTotal);
-	    config.setMaxIdle(maxIdle);
-	    config.setMinIdle(minIdle);
-	    config.setMaxWaitMillis(maxWaitMillis);
-	    config.setTestOnBorrow(testOnBorrow);
-	    config.setTestOnReturn(testOnReturn);
-	    config.setTestWhileIdle(testWhileIdle);
-	    config.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
-	    config.setNumTestsPerEvictionRun(numTestsPerEvictionRun);
-	    config.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
-        return config;
-	}
-}
+package com.asiainfo.dbcp.datasource;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.reactivestreams.Publisher;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.asiainfo.dbcp.bulk.BulkExporter;
+import com.asiainfo.dbcp.bulk.BulkImporter;
+import com.asiainfo.dbcp.bulk.WriteBehindWriter;
+import com.asiainfo.dbcp.delegate.FetchSizeAdvisor;
+import com.asiainfo.dbcp.delegate.SqlMetadataCache;
+import com.asiainfo.dbcp.delegate.StatementCacheBudget;
+import com.asiainfo.dbcp.factory.ConnectionFactory;
+import com.asiainfo.dbcp.factory.DriverConnectionFactory;
+import com.asiainfo.dbcp.poolable.PoolableConnection;
+import com.asiainfo.dbcp.poolable.PoolableConnectionFactory;
+import com.asiainfo.dbcp.poolable.StatementWarmup;
+import com.asiainfo.dbcp.reactive.ResultSetPublisher;
+
+/**
+ * @Description: 数据库连接池简单实现，构建GenericObjectPool对象池、GenericObjectPoolConfig对象池配置、DriverConnectionFactory驱动连接工厂、
+ *             - PooledObjectFactory池化的连接工厂。
+ *             - 提供create() 方法返回池化数据源SimpleDataSource实现。
+ * 
+ * @author chenzq  
+ * @date 2019年5月2日 下午4:55:24
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class SimpleDataSource implements DataSource {
+
+    public static final int UNKNOWN_TRANSACTIONISOLATION = -1;
+    
+    // 对象池
+    protected volatile GenericObjectPool<PoolableConnection> connectionPool = null;
+    protected volatile boolean closed = false;
+    // 对象构建工厂配置
+    protected String driverClassName = null;
+    protected String url = null;
+    protected String username = null;
+    protected String password = null;
+    // 对象属性配置
+    protected int transactionIsolation = UNKNOWN_TRANSACTIONISOLATION;
+    protected boolean readOnly = false;
+	protected boolean autoCommit = true;
+	protected String catalog = null;
+	// 延迟恢复会话状态，借出时不立即重置autoCommit、隔离级别等，首次使用连接时再合并下发；
+	// 连接记住已知的会话状态以跳过重复设置，通过sql（SET autocommit、USE db等）直接修改会话状态时记录会过期，不能开启
+	protected boolean lazyStateRestore = false;
+	// 是否跟踪statement、resultset，调用方确保自行关闭时可以关闭跟踪以减少开销
+	protected boolean traceStatements = true;
+	// 是否在运行时为驱动具体类型生成特化的PreparedStatement、ResultSet代理类
+	protected boolean generateProxies = false;
+	// PreparedStatement缓存配置：是否缓存、每个连接缓存的最大数量
+	protected boolean poolPreparedStatements = false;
+	protected int maxOpenPreparedStatements = 50;
+	// CallableStatement缓存配置：每个连接缓存的最大数量、复用时是否保留registerOutParameter注册
+	protected int maxOpenCallableStatements = 20;
+	protected boolean retainOutParameters = false;
+	// statement缓存预热配置：热点sql列表、学习到的热点sql保存文件、是否学习运行中的热点sql、单个连接预热的最长时间；
+	// 只预热initialSize和minIdle补充的连接，借出时新建的连接不预热
+	protected List<String> warmupStatements = null;
+	protected String warmupFile = null;
+	protected boolean learnWarmupStatements = false;
+	protected long warmupTimeoutMillis = 5000L;
+	protected StatementWarmup statementWarmup = null;
+	// 定期保存学习到的热点sql的间隔，进程被强制结束时不会丢失整个运行期间的学习结果，小于等于0表示只在关闭时保存
+	protected long warmupSaveIntervalMillis = 10 * 60 * 1000L;
+	protected ScheduledExecutorService warmupSaver = null;
+	// 是否在连接池级别缓存sql的参数个数、结果集元数据和nativeSQL结果，以及缓存的最大sql数
+	protected boolean cacheSqlMetadata = false;
+	protected int maxSqlMetadataEntries = 1000;
+	// statement默认的fetchSize，0表示使用驱动的默认值
+	protected int defaultFetchSize = 0;
+	// 是否默认流式读取结果集（大结果集不在堆内全部缓存），以及流式读取使用的fetchSize，MySQL为Integer.MIN_VALUE，游标读取时配置为正数
+	protected boolean streamResults = false;
+	protected int streamingFetchSize = Integer.MIN_VALUE;
+	// 逐行流式读取（Integer.MIN_VALUE）的结果集未读完就关闭时是否先取消执行，驱动不用读完剩余的数据；
+	// 默认关闭，PostgreSQL的cancel是异步的，MySQL的KILL QUERY可能与同一连接的下一条sql竞争，都可能误取消下一条sql
+	protected boolean cancelAbandonedStreams = false;
+	// 批处理的分段大小（加入批处理的条数达到时提前执行，小于等于0表示不分段），以及是否把简单insert的批处理改写为多行insert（不依赖驱动的改写开关）
+	protected int maxBatchSize = 0;
+	protected boolean rewriteBatchedInserts = false;
+	// 改写的多行insert每条sql的参数个数上限，小于等于0时按数据库类型取默认值（SQL Server 2100，MySQL 65535，其他32767）；
+	// 以及每条sql参数的估算字节数上限，需要小于MySQL的max_allowed_packet，小于等于0表示不限制
+	protected int rewriteMaxParameters = 0;
+	protected int rewriteMaxBytes = 1024 * 1024;
+	// 是否按sql的执行记录自适应选择fetchSize，单次fetch的估算字节数预算，以及fetchSize上限；记录的最大sql数与maxSqlMetadataEntries相同
+	protected boolean adaptiveFetchSize = false;
+	protected long adaptiveFetchBudgetBytes = 4 * 1024 * 1024L;
+	protected int maxAdaptiveFetchSize = 10000;
+	// 查询结果发布者：执行阻塞驱动调用的线程数（小于等于0时与maxTotal相同），以及需求无界时的fetchSize上限
+	protected int publisherThreads = 0;
+	protected int publisherMaxFetchSize = ResultSetPublisher.DEFAULT_MAX_FETCH_SIZE;
+	protected ExecutorService publisherExecutor = null;
+	// 批量导出最多使用的连接数，小于等于0时为maxTotal的一半，给在线业务留出余量
+	protected int maxExportConnections = 0;
+	// 批量导入最多使用的连接数，小于等于0时为maxTotal的一半
+	protected int maxImportConnections = 0;
+	// 每个后写写入器持有的专用连接数，以及已经创建的写入器，数据源关闭时先提交写入器中剩余的行
+	protected int writeBehindConnections = 2;
+	protected final List<WriteBehindWriter<?>> writeBehindWriters = new CopyOnWriteArrayList<>();
+	// 连接池所有连接共享的statement缓存预算：缓存的statement总数、估算字节数，小于等于0表示不限制
+	protected int maxTotalPreparedStatements = 1000;
+	protected long maxPreparedStatementBytes = 16 * 1024 * 1024L;
+    // 对象校验配置
+    protected String validationQuery = null;
+    protected int validationQueryTimeout = -1;
+	// 池参数配置
+	protected int initialSize = 0;
+	protected int maxTotal = GenericObjectPoolConfig.DEFAULT_MAX_TOTAL;
+	protected int maxIdle = GenericObjectPoolConfig.DEFAULT_MAX_IDLE;
+	protected int minIdle = GenericObjectPoolConfig.DEFAULT_MIN_IDLE;
+	protected long maxWaitMillis = GenericObjectPoolConfig.DEFAULT_MAX_WAIT_MILLIS;
+	protected boolean testOnBorrow = GenericObjectPoolConfig.DEFAULT_TEST_ON_BORROW;
+	protected boolean testOnReturn = GenericObjectPoolConfig.DEFAULT_TEST_ON_RETURN;
+	protected boolean testWhileIdle = GenericObjectPoolConfig.DEFAULT_TEST_WHILE_IDLE;
+	protected long timeBetweenEvictionRunsMillis = GenericObjectPoolConfig.DEFAULT_TIME_BETWEEN_EVICTION_RUNS_MILLIS;
+	protected int numTestsPerEvictionRun = GenericObjectPoolConfig.DEFAULT_NUM_TESTS_PER_EVICTION_RUN;
+	protected long minEvictableIdleTimeMillis = GenericObjectPoolConfig.DEFAULT_MIN_EVICTABLE_IDLE_TIME_MILLIS;
+	// 废弃连接回收配置：借出连接时回收、空闲检测线程回收、超时时间（秒）
+	protected boolean removeAbandonedOnBorrow = false;
+	protected boolean removeAbandonedOnMaintenance = false;
+	protected int removeAbandonedTimeout = 300;
+	// 是否记录废弃连接的借出调用栈，以及采样比例（每N次借出采样一次，1表示每次都记录）；
+	// 生成调用栈需要遍历线程栈，默认每100次借出采样一次，排查泄漏时可以调小
+	protected boolean logAbandoned = false;
+	protected int abandonedStackSampleRate = 100;
+	// 日志
+	protected PrintWriter logWriter = new PrintWriter(System.out);
+  
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            // 先初始化连接池，initialSize的连接在借出标记之外创建并预热
+            GenericObjectPool<PoolableConnection> pool = createConnectionPool();
+            PoolableConnection conn;
+            PoolableConnectionFactory.setBorrowing(true);
+            try {
+                conn = pool.borrowObject();
+            } finally {
+                PoolableConnectionFactory.setBorrowing(false);
+            }
+            // 返回连接时，注入连接池，用于close时返还到池中
+            conn.setPool(this.connectionPool);
+            if (logAbandoned) {
+                // 按比例采样借出调用栈，避免每次借出都生成调用栈
+                conn.setBorrowStackTrace(abandonedStackSampleRate <= 1 
+                        || ThreadLocalRandom.current().nextInt(abandonedStackSampleRate) == 0 
+                        ? new Throwable("connection borrowed here") : null);
+            }
+            return conn;
+        } catch (Exception e) {
+            logWriter.println("error on getConnection: " + e);
+            throw new SQLException("error on getConnection!", e);
+        }
+    }
+    
+	/**
+	 * @Description: 双重检查初始化GenericObjectPool
+	 * @author chenzq
+	 * @date 2019年5月2日 下午6:07:51
+	 * @return
+	 * @throws SQLException
+	 */
+	protected GenericObjectPool<PoolableConnection> createConnectionPool() throws SQLException {
+	    if (closed) {
+            throw new SQLException("Data source is closed");
+        }
+	    if (connectionPool != null) {
+            return connectionPool;
+        }
+	    synchronized (this) {
+            if (connectionPool != null) {
+                return connectionPool;
+            }
+    	    // 连接工厂
+    	    ConnectionFactory connFactory = createConnectionFactory();
+    	    // pooled 对象工厂
+    	    PooledObjectFactory<PoolableConnection> factory = createPoolableConnectionFactory(connFactory);
+    	    // PoolConfig
+    	    GenericObjectPoolConfig<PoolableConnection> poolConfig = createPoolConfig();
+    	    // 构建池对象
+    	    GenericObjectPool<PoolableConnection> pool = new GenericObjectPool<>(factory, poolConfig);
+    	    // 废弃连接回收配置
+    	    if (removeAbandonedOnBorrow || removeAbandonedOnMaintenance) {
+    	        pool.setAbandonedConfig(createAbandonedConfig());
+    	    }
+    	    // 初始化最小连接数
+    	    try {
+    	        for (int i = 0 ; i < initialSize ; i++) {
+    	            pool.addObject();
+    	        }
+    	    } catch (Exception e) {
+    	        throw new SQLException("Error preloading the connection pool", e);
+    	    }
+    	    connectionPool = pool;
+	    }
+	    return connectionPool;
+	}
+
+    /**
+     * @Description: 执行查询并返回按需取行的流，每个元素由mapper映射一行；
+     *             查询在调用时执行，取行在流消费时进行，流关闭或取完最后一行时关闭语句并归还连接，
+     *             调用方必须使用try-with-resources或显式close()，提前结束的流不关闭会一直占用连接；
+     *             fetchSize、streamResults等按数据源的默认配置生效
+     * @author chenzq
+     * @date 2026年10月19日 下午11:56:10
+     * @param sql
+     * @param mapper
+     * @param args 按顺序绑定的参数
+     * @return
+     * @throws SQLException
+     */
+    public <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... args) throws SQLException {
+        ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(this, sql, mapper, args);
+        spliterator.open();
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * @Description: 按数值主键范围查询，返回可以并行拆分的流；
+     *             sql的最后两个参数是主键的下界（包含）和上界（不包含），如"select ... where id >= ? and id < ?"，前面的参数按args绑定；
+     *             parallel()时范围最多拆成min(maxTotal的一半, CPU核数)个分区，每个分区使用自己的连接，给在线业务留出余量；顺序流用一个查询完成整个范围；
+     *             - 并行流在公共ForkJoinPool上执行，分区的线程在执行查询和取行时阻塞在JDBC的网络I/O上，
+     *               期间同一个JVM里其他使用公共池的并行流、CompletableFuture异步任务都会排队；
+     *               需要隔离时在自己的ForkJoinPool里提交终止操作（pool.submit(() -> stream.parallel().forEach(...)).get()）
+     * @author chenzq
+     * @date 2026年10月19日 下午11:58:30
+     * @param sql
+     * @param lowKey 下界，包含
+     * @param highKey 上界，不包含
+     * @param mapper
+     * @param args
+     * @return
+     */
+    public <T> Stream<T> streamByKeyRange(String sql, long lowKey, long highKey, RowMapper<T> mapper, Object... args) {
+        int partitions = Math.min(maxTotal > 0 ? Math.max(1, maxTotal / 2) : Integer.MAX_VALUE, 
+                Runtime.getRuntime().availableProcessors());
+        return streamByKeyRange(sql, lowKey, highKey, partitions, mapper, args);
+    }
+
+    /**
+     * @Description: 按数值主键范围查询，parallel()时最多拆成partitions个分区；分区数超过maxTotal时多出的分区等待空闲连接
+     * @author chenzq
+     * @date 2026年10月19日 下午11:59:40
+     * @param sql
+     * @param lowKey 下界，包含
+     * @param highKey 上界，不包含
+     * @param partitions 最大分区数
+     * @param mapper
+     * @param args
+     * @return
+     */
+    public <T> Stream<T> streamByKeyRange(String sql, long lowKey, long highKey, int partitions, 
+            RowMapper<T> mapper, Object... args) {
+        if (lowKey > highKey) {
+            throw new IllegalArgumentException("lowKey " + lowKey + " > highKey " + highKey);
+        }
+        KeyRangeSpliterator<T> spliterator = new KeyRangeSpliterator<>(this, sql, mapper, args, 
+                lowKey, highKey, Math.max(1, partitions));
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::closeAll);
+    }
+
+    /**
+     * @Description: 返回查询结果的发布者，每次订阅借出一个连接执行一次查询，按订阅者的需求推送映射后的行；
+     *             阻塞的驱动调用在数据源内部有界的线程池上执行，取消订阅时立即关闭结果集并归还连接
+     * @author chenzq
+     * @date 2026年10月20日 上午12:30:20
+     * @param sql
+     * @param mapper
+     * @param args 按顺序绑定的参数
+     * @return
+     * @throws SQLException
+     */
+    public <T> Publisher<T> publish(String sql, RowMapper<T> mapper, Object... args) throws SQLException {
+        return new ResultSetPublisher<>(this, sql, mapper, args, publisherExecutor(), publisherMaxFetchSize);
+    }
+
+    // 定期保存学习到的热点sql的守护线程
+    protected ScheduledExecutorService warmupSaver(StatementWarmup warmup) {
+        ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mydbcp-warmup-saver");
+            t.setDaemon(true);
+            return t;
+        });
+        saver.scheduleWithFixedDelay(warmup::save, warmupSaveIntervalMillis, warmupSaveIntervalMillis, TimeUnit.MILLISECONDS);
+        return saver;
+    }
+
+    // 懒加载发布者线程池，线程数有上限，多余的订阅排队等待
+    protected synchronized ExecutorService publisherExecutor() throws SQLException {
+        if (closed) {
+            throw new SQLException("Data source is closed");
+        }
+        if (publisherExecutor == null) {
+            int threads = publisherThreads > 0 ? publisherThreads : (maxTotal > 0 ? maxTotal : Runtime.getRuntime().availableProcessors());
+            AtomicInteger sequence = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, 
+                    new LinkedBlockingQueue<Runnable>(), r -> {
+                        Thread t = new Thread(r, "mydbcp-publisher-" + sequence.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            publisherExecutor = executor;
+        }
+        return publisherExecutor;
+    }
+
+    /**
+     * @Description: 创建按主键范围并行的批量导出器，并行度为maxExportConnections，没有配置时为maxTotal的一半
+     * @author chenzq
+     * @date 2026年10月20日 上午1:20:40
+     * @return
+     */
+    public BulkExporter createExporter() {
+        int connections = maxExportConnections > 0 ? maxExportConnections : Math.max(1, maxTotal / 2);
+        if (maxTotal > 0) {
+            connections = Math.min(connections, maxTotal);
+        }
+        return new BulkExporter(this, connections);
+    }
+
+    /**
+     * @Description: 创建分块并行提交的批量导入器，并行度为maxImportConnections，没有配置时为maxTotal的一半
+     * @author chenzq
+     * @date 2026年10月20日 上午2:02:15
+     * @return
+     */
+    public BulkImporter createImporter() {
+        int connections = maxImportConnections > 0 ? maxImportConnections : Math.max(1, maxTotal / 2);
+        if (maxTotal > 0) {
+            connections = Math.min(connections, maxTotal);
+        }
+        return new BulkImporter(this, connections);
+    }
+
+    /**
+     * @Description: 创建后写的批量写入器，高并发的单行insert放入队列后由writeBehindConnections个专用连接凑批提交，
+     *             - 写入器在数据源关闭时自动关闭，也可以提前调用close()。
+     * @author chenzq
+     * @date 2026年10月20日 上午10:40:15
+     * @param sql 带参数的insert语句
+     * @param setter 把一行绑定到语句参数
+     * @return
+     * @throws SQLException
+     */
+    public <T> WriteBehindWriter<T> createWriteBehindWriter(String sql, 
+            ParameterizedPreparedStatementSetter<T> setter) throws SQLException {
+        if (closed) {
+            throw new SQLException("Data source is closed");
+        }
+        int connections = Math.max(1, writeBehindConnections);
+        if (maxTotal > 0) {
+            connections = Math.min(connections, maxTotal);
+        }
+        WriteBehindWriter<T> writer = new WriteBehindWriter<>(this, sql, setter, connections);
+        writeBehindWriters.removeIf(WriteBehindWriter::isClosed);
+        writeBehindWriters.add(writer);
+        return writer;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Not supported by BasicDataSource");
+    }
+    
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.logWriter;
+    }
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        throw new UnsupportedOperationException("Not supported by BasicDataSource");
+    }
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        throw new UnsupportedOperationException("Not supported by BasicDataSource");
+    }
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return null;
+    }
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        throw new SQLException("BasicDataSource is not a wrapper.");
+    }
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return false;
+    }
+    
+	/**
+	 * @Description: 判断数据源是否关闭
+	 * @author chenzq
+	 * @date 2019年5月2日 下午2:37:29
+	 * @return
+	 */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @Description: 关闭数据源
+     * @author chenzq
+     * @date 2019年5月2日 下午2:38:36
+     * @throws SQLException
+     */
+    public synchronized void close() throws SQLException {
+        // 标记关闭之前提交后写写入器中剩余的行，写入线程可能需要重新借出连接
+        for (WriteBehindWriter<?> writer : writeBehindWriters) {
+            writer.close();
+        }
+        writeBehindWriters.clear();
+        closed = true;
+        GenericObjectPool<PoolableConnection> oldpool = connectionPool;
+        connectionPool = null;
+        if (publisherExecutor != null) {
+            publisherExecutor.shutdown();
+            publisherExecutor = null;
+        }
+        if (warmupSaver != null) {
+            warmupSaver.shutdown();
+            warmupSaver = null;
+        }
+        // 保存学习到的热点sql，下次启动时预热
+        if (statementWarmup != null) {
+            statementWarmup.save();
+        }
+        try {
+            if (oldpool != null) {
+                oldpool.close();
+            }
+        } catch (Exception e) {
+            throw new SQLException("Cannot close connection pool", e);
+        }
+    }
+    
+    public String getUrl() {
+        return this.url;
+    }
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    public String getUsername() {
+        return this.username;
+    }
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    public String getPassword() {
+        return this.password;
+    }
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    public String getDriverClassName() {
+        return this.driverClassName;
+    }
+    public void setDriverClassName(String driverClassName) {
+        if (StringUtils.isNotEmpty(driverClassName)) {
+            this.driverClassName = driverClassName;
+        }
+    }
+    
+    public int getTransactionIsolation() {
+        return transactionIsolation;
+    }
+    public void setTransactionIsolation(int transactionIsolation) {
+        this.transactionIsolation = transactionIsolation;
+    }
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+    public boolean isAutoCommit() {
+        return autoCommit;
+    }
+    public void setAutoCommit(boolean autoCommit) {
+        this.autoCommit = autoCommit;
+    }
+    public String getCatalog() {
+        return catalog;
+    }
+    public void setCatalog(String catalog) {
+        this.catalog = catalog;
+    }
+    public boolean isLazyStateRestore() {
+        return lazyStateRestore;
+    }
+    public void setLazyStateRestore(boolean lazyStateRestore) {
+        this.lazyStateRestore = lazyStateRestore;
+    }
+    public boolean isTraceStatements() {
+        return traceStatements;
+    }
+    public void setTraceStatements(boolean traceStatements) {
+        this.traceStatements = traceStatements;
+    }
+    public boolean isGenerateProxies() {
+        return generateProxies;
+    }
+    public void setGenerateProxies(boolean generateProxies) {
+        this.generateProxies = generateProxies;
+    }
+    public boolean isPoolPreparedStatements() {
+        return poolPreparedStatements;
+    }
+    public void setPoolPreparedStatements(boolean poolPreparedStatements) {
+        this.poolPreparedStatements = poolPreparedStatements;
+    }
+    public int getMaxOpenPreparedStatements() {
+        return maxOpenPreparedStatements;
+    }
+    public void setMaxOpenPreparedStatements(int maxOpenPreparedStatements) {
+        this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+    }
+    public int getMaxOpenCallableStatements() {
+        return maxOpenCallableStatements;
+    }
+    public void setMaxOpenCallableStatements(int maxOpenCallableStatements) {
+        this.maxOpenCallableStatements = maxOpenCallableStatements;
+    }
+    public boolean isRetainOutParameters() {
+        return retainOutParameters;
+    }
+    public void setRetainOutParameters(boolean retainOutParameters) {
+        this.retainOutParameters = retainOutParameters;
+    }
+    public List<String> getWarmupStatements() {
+        return warmupStatements;
+    }
+    public void setWarmupStatements(List<String> warmupStatements) {
+        this.warmupStatements = warmupStatements;
+    }
+    public String getWarmupFile() {
+        return warmupFile;
+    }
+    public void setWarmupFile(String warmupFile) {
+        this.warmupFile = warmupFile;
+    }
+    public boolean isLearnWarmupStatements() {
+        return learnWarmupStatements;
+    }
+    public void setLearnWarmupStatements(boolean learnWarmupStatements) {
+        this.learnWarmupStatements = learnWarmupStatements;
+    }
+    public long getWarmupTimeoutMillis() {
+        return warmupTimeoutMillis;
+    }
+    public void setWarmupTimeoutMillis(long warmupTimeoutMillis) {
+        this.warmupTimeoutMillis = warmupTimeoutMillis;
+    }
+    public long getWarmupSaveIntervalMillis() {
+        return warmupSaveIntervalMillis;
+    }
+    public void setWarmupSaveIntervalMillis(long warmupSaveIntervalMillis) {
+        this.warmupSaveIntervalMillis = warmupSaveIntervalMillis;
+    }
+    public boolean isCacheSqlMetadata() {
+        return cacheSqlMetadata;
+    }
+    public void setCacheSqlMetadata(boolean cacheSqlMetadata) {
+        this.cacheSqlMetadata = cacheSqlMetadata;
+    }
+    public int getMaxSqlMetadataEntries() {
+        return maxSqlMetadataEntries;
+    }
+    public void setMaxSqlMetadataEntries(int maxSqlMetadataEntries) {
+        this.maxSqlMetadataEntries = maxSqlMetadataEntries;
+    }
+    public int getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+    public void setDefaultFetchSize(int defaultFetchSize) {
+        this.defaultFetchSize = defaultFetchSize;
+    }
+    public boolean isStreamResults() {
+        return streamResults;
+    }
+    public void setStreamResults(boolean streamResults) {
+        this.streamResults = streamResults;
+    }
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+    public void setStreamingFetchSize(int streamingFetchSize) {
+        this.streamingFetchSize = streamingFetchSize;
+    }
+    public boolean isCancelAbandonedStreams() {
+        return cancelAbandonedStreams;
+    }
+    public void setCancelAbandonedStreams(boolean cancelAbandonedStreams) {
+        this.cancelAbandonedStreams = cancelAbandonedStreams;
+    }
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+    public boolean isRewriteBatchedInserts() {
+        return rewriteBatchedInserts;
+    }
+    public void setRewriteBatchedInserts(boolean rewriteBatchedInserts) {
+        this.rewriteBatchedInserts = rewriteBatchedInserts;
+    }
+    public int getRewriteMaxParameters() {
+        return rewriteMaxParameters;
+    }
+    public void setRewriteMaxParameters(int rewriteMaxParameters) {
+        this.rewriteMaxParameters = rewriteMaxParameters;
+    }
+    public int getRewriteMaxBytes() {
+        return rewriteMaxBytes;
+    }
+    public void setRewriteMaxBytes(int rewriteMaxBytes) {
+        this.rewriteMaxBytes = rewriteMaxBytes;
+    }
+    public boolean isAdaptiveFetchSize() {
+        return adaptiveFetchSize;
+    }
+    public void setAdaptiveFetchSize(boolean adaptiveFetchSize) {
+        this.adaptiveFetchSize = adaptiveFetchSize;
+    }
+    public long getAdaptiveFetchBudgetBytes() {
+        return adaptiveFetchBudgetBytes;
+    }
+    public void setAdaptiveFetchBudgetBytes(long adaptiveFetchBudgetBytes) {
+        this.adaptiveFetchBudgetBytes = adaptiveFetchBudgetBytes;
+    }
+    public int getMaxAdaptiveFetchSize() {
+        return maxAdaptiveFetchSize;
+    }
+    public void setMaxAdaptiveFetchSize(int maxAdaptiveFetchSize) {
+        this.maxAdaptiveFetchSize = maxAdaptiveFetchSize;
+    }
+    public int getPublisherThreads() {
+        return publisherThreads;
+    }
+    public void setPublisherThreads(int publisherThreads) {
+        this.publisherThreads = publisherThreads;
+    }
+    public int getPublisherMaxFetchSize() {
+        return publisherMaxFetchSize;
+    }
+    public void setPublisherMaxFetchSize(int publisherMaxFetchSize) {
+        this.publisherMaxFetchSize = publisherMaxFetchSize;
+    }
+    public int getMaxExportConnections() {
+        return maxExportConnections;
+    }
+    public void setMaxExportConnections(int maxExportConnections) {
+        this.maxExportConnections = maxExportConnections;
+    }
+    public int getMaxImportConnections() {
+        return maxImportConnections;
+    }
+    public void setMaxImportConnections(int maxImportConnections) {
+        this.maxImportConnections = maxImportConnections;
+    }
+    public int getWriteBehindConnections() {
+        return writeBehindConnections;
+    }
+    public void setWriteBehindConnections(int writeBehindConnections) {
+        this.writeBehindConnections = writeBehindConnections;
+    }
+    public int getMaxTotalPreparedStatements() {
+        return maxTotalPreparedStatements;
+    }
+    public void setMaxTotalPreparedStatements(int maxTotalPreparedStatements) {
+        this.maxTotalPreparedStatements = maxTotalPreparedStatements;
+    }
+    public long getMaxPreparedStatementBytes() {
+        return maxPreparedStatementBytes;
+    }
+    public void setMaxPreparedStatementBytes(long maxPreparedStatementBytes) {
+        this.maxPreparedStatementBytes = maxPreparedStatementBytes;
+    }
+
+    public boolean getTestOnBorrow() {
+        return this.testOnBorrow;
+    }
+    public void setTestOnBorrow(boolean testOnBorrow) {
+        this.testOnBorrow = testOnBorrow;
+        if (connectionPool != null) {
+            connectionPool.setTestOnBorrow(testOnBorrow);
+        }
+    }
+    public boolean getTestOnReturn() {
+        return this.testOnReturn;
+    }
+    public void setTestOnReturn(boolean testOnReturn) {
+        this.testOnReturn = testOnReturn;
+        if (connectionPool != null) {
+            connectionPool.setTestOnReturn(testOnReturn);
+        }
+    }
+    public boolean getTestWhileIdle() {
+        return this.testWhileIdle;
+    }
+    public void setTestWhileIdle(boolean testWhileIdle) {
+        this.testWhileIdle = testWhileIdle;
+        if (connectionPool != null) {
+            connectionPool.setTestWhileIdle(testWhileIdle);
+        }
+    }
+    public int getInitialSize() {
+        return this.initialSize;
+    }
+    public void setInitialSize(int initialSize) {
+        this.initialSize = initialSize;
+    }
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+        if (connectionPool != null) {
+            connectionPool.setMaxTotal(maxTotal);
+        }
+    }
+    public int getMaxIdle() {
+        return this.maxIdle;
+    }
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+        if (connectionPool != null) {
+            connectionPool.setMaxIdle(maxIdle);
+        }
+    }
+    public int getMinIdle() {
+        return this.minIdle;
+    }
+    public void setMinIdle(int minIdle) {
+       this.minIdle = minIdle;
+       if (connectionPool != null) {
+           connectionPool.setMinIdle(minIdle);
+       }
+    }
+    public long getMaxWaitMillis() {
+        return this.maxWaitMillis;
+    }
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+        if (connectionPool != null) {
+            connectionPool.setMaxWaitMillis(maxWaitMillis);
+        }
+    }
+    public long getTimeBetweenEvictionRunsMillis() {
+        return this.timeBetweenEvictionRunsMillis;
+    }
+    public void setTimeBetweenEvictionRunsMillis(long timeBetweenEvictionRunsMillis) {
+        this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+        if (connectionPool != null) {
+            connectionPool.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
+        }
+    }
+    public int getNumTestsPerEvictionRun() {
+        return this.numTestsPerEvictionRun;
+    }
+    public void setNumTestsPerEvictionRun(int numTestsPerEvictionRun) {
+        this.numTestsPerEvictionRun = numTestsPerEvictionRun;
+        if (connectionPool != null) {
+            connectionPool.setNumTestsPerEvictionRun(numTestsPerEvictionRun);
+        }
+    }
+    public long getMinEvictableIdleTimeMillis() {
+        return this.minEvictableIdleTimeMillis;
+    }
+    public void setMinEvictableIdleTimeMillis(long minEvictableIdleTimeMillis) {
+        this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
+        if (connectionPool != null) {
+            connectionPool.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
+        }
+    }
+    public boolean getRemoveAbandonedOnBorrow() {
+        return removeAbandonedOnBorrow;
+    }
+    public void setRemoveAbandonedOnBorrow(boolean removeAbandonedOnBorrow) {
+        this.removeAbandonedOnBorrow = removeAbandonedOnBorrow;
+    }
+    public boolean getRemoveAbandonedOnMaintenance() {
+        return removeAbandonedOnMaintenance;
+    }
+    public void setRemoveAbandonedOnMaintenance(boolean removeAbandonedOnMaintenance) {
+        this.removeAbandonedOnMaintenance = removeAbandonedOnMaintenance;
+    }
+    public int getRemoveAbandonedTimeout() {
+        return removeAbandonedTimeout;
+    }
+    public void setRemoveAbandonedTimeout(int removeAbandonedTimeout) {
+        this.removeAbandonedTimeout = removeAbandonedTimeout;
+    }
+    public boolean getLogAbandoned() {
+        return logAbandoned;
+    }
+    public void setLogAbandoned(boolean logAbandoned) {
+        this.logAbandoned = logAbandoned;
+    }
+    public int getAbandonedStackSampleRate() {
+        return abandonedStackSampleRate;
+    }
+    public void setAbandonedStackSampleRate(int abandonedStackSampleRate) {
+        this.abandonedStackSampleRate = abandonedStackSampleRate;
+    }
+    public String getValidationQuery() {
+        return this.validationQuery;
+    }
+    public void setValidationQuery(String validationQuery) {
+        if (StringUtils.isNotEmpty(validationQuery)) {
+            this.validationQuery = validationQuery;
+        }
+    }
+    public int getValidationQueryTimeout() {
+        return validationQueryTimeout;
+    }
+    public void setValidationQueryTimeout(int validationQueryTimeout) {
+        this.validationQueryTimeout = validationQueryTimeout;
+    }
+
+    /**
+     * @Description: 创建连接工厂
+     * @author chenzq
+     * @date 2019年5月2日 下午3:24:07
+     * @return
+     * @throws SQLException
+     */
+	protected ConnectionFactory createConnectionFactory() throws SQLException {
+            
+		// Load the JDBC driver class
+		Class<?> driverFromCCL = null;
+		if (StringUtils.isNotEmpty(driverClassName)) {
+			try {
+				try {
+				    driverFromCCL = Class.forName(driverClassName);
+				} catch (ClassNotFoundException cnfe) {
+					driverFromCCL = Thread.currentThread().getContextClassLoader().loadClass(driverClassName);
+				}
+			} catch (Throwable t) {
+                String message = "Cannot load JDBC driver class '" + driverClassName + "'";
+                getLogWriter().println(message);
+				throw new SQLException(message, t);
+			}
+		}
+
+		// Create a JDBC driver instance
+		Driver driver = null;
+		try {
+			if (driverFromCCL == null) {
+				driver = DriverManager.getDriver(url);
+			} else {
+				// Usage of DriverManager is not possible, as it does not
+				// respect the ContextClassLoader
+				driver = (Driver) driverFromCCL.newInstance();
+				if (!driver.acceptsURL(url)) {
+					throw new SQLException("No suitable driver", "08001");
+				}
+			}
+		} catch (Throwable t) {
+			String message = "Cannot create JDBC driver of class '" +
+					(driverClassName != null ? driverClassName : "") +
+					"' for connect URL '" + url + "'";
+			getLogWriter().println(message);
+            throw new SQLException(message, t);
+		}
+		
+		// Can't test without a validationQuery
+		if (StringUtils.isEmpty(validationQuery)) {
+			setTestOnBorrow(false);
+			setTestOnReturn(false);
+			setTestWhileIdle(false);
+		}
+
+		Properties props = new Properties();
+		// Set up the driver connection factory we will use
+		String user = username;
+		if (user != null) {
+		    props.put("user", user);
+		} else {
+			getLogWriter().println("DBCP DataSource configured without a 'username'");
+		}
+		String pwd = password;
+		if (pwd != null) {
+		    props.put("password", pwd);
+		} else {
+			getLogWriter().println("DBCP DataSource configured without a 'password'");
+		}
+		return new DriverConnectionFactory(driver, url, props);
+	}
+
+	/**
+	 * @Description: 创建PooledObjectFactory
+	 * @author chenzq
+	 * @date 2019年5月2日 下午3:35:53
+	 * @param connFactory
+	 * @return
+	 */
+	protected PooledObjectFactory<PoolableConnection> createPoolableConnectionFactory(ConnectionFactory connFactory) {
+	    
+	    PoolableConnectionFactory pooledFactory = new PoolableConnectionFactory(
+	            connFactory, 
+	            validationQuery, 
+	            validationQueryTimeout, 
+	            readOnly, 
+	            autoCommit, 
+	            catalog, 
+	            transactionIsolation);
+	    pooledFactory.setLazyStateRestore(lazyStateRestore);
+	    pooledFactory.setTraceStatements(traceStatements);
+	    pooledFactory.setGenerateProxies(generateProxies);
+	    pooledFactory.setPoolPreparedStatements(poolPreparedStatements);
+	    pooledFactory.setMaxOpenPreparedStatements(maxOpenPreparedStatements);
+	    pooledFactory.setMaxOpenCallableStatements(maxOpenCallableStatements);
+	    pooledFactory.setRetainOutParameters(retainOutParameters);
+	    pooledFactory.setDefaultFetchSize(defaultFetchSize);
+	    pooledFactory.setStreamResults(streamResults);
+	    pooledFactory.setStreamingFetchSize(streamingFetchSize);
+	    pooledFactory.setCancelAbandonedStreams(cancelAbandonedStreams);
+	    pooledFactory.setMaxBatchSize(maxBatchSize);
+	    pooledFactory.setRewriteBatchedInserts(rewriteBatchedInserts);
+	    pooledFactory.setRewriteMaxParameters(rewriteMaxParameters);
+	    pooledFactory.setRewriteMaxBytes(rewriteMaxBytes);
+	    if (adaptiveFetchSize) {
+	        pooledFactory.setFetchSizeAdvisor(
+	                new FetchSizeAdvisor(adaptiveFetchBudgetBytes, 1, maxAdaptiveFetchSize, maxSqlMetadataEntries));
+	    }
+	    if (cacheSqlMetadata) {
+	        pooledFactory.setSqlMetadataCache(new SqlMetadataCache(maxSqlMetadataEntries));
+	    }
+	    if (poolPreparedStatements) {
+	        StatementCacheBudget budget = new StatementCacheBudget(maxTotalPreparedStatements, maxPreparedStatementBytes);
+	        pooledFactory.setStatementCacheBudget(budget);
+	        if ((warmupStatements != null && !warmupStatements.isEmpty()) 
+	                || StringUtils.isNotEmpty(warmupFile) || learnWarmupStatements) {
+	            statementWarmup = new StatementWarmup(warmupStatements, warmupFile, learnWarmupStatements, 
+	                    maxOpenPreparedStatements, warmupTimeoutMillis, budget);
+	            statementWarmup.load();
+	            pooledFactory.setStatementWarmup(statementWarmup);
+	            if (StringUtils.isNotEmpty(warmupFile) && warmupSaveIntervalMillis > 0) {
+	                warmupSaver = warmupSaver(statementWarmup);
+	            }
+	        }
+	    }
+	    if (removeAbandonedOnBorrow || removeAbandonedOnMaintenance) {
+	        pooledFactory.setRemoveAbandonedTimeoutMillis(removeAbandonedTimeout * 1000L);
+	    }
+	    return pooledFactory;
+	}
+	
+	/**
+	 * @Description: 连接池配置
+	 * @author chenzq
+	 * @date 2019年5月2日 下午4:51:20
+	 * @return
+	 */
+	protected GenericObjectPoolConfig<PoolableConnection> createPoolConfig() {
+	    GenericObjectPoolConfig<PoolableConnection> config = new GenericObjectPoolConfig<>();
+	    config.setMaxTotal(maxTotal);
+	    config.setMaxIdle(maxIdle);
+	    config.setMinIdle(minIdle);
+	    config.setMaxWaitMillis(maxWaitMillis);
+	    config.setTestOnBorrow(testOnBorrow);
+	    config.setTestOnReturn(testOnReturn);
+	    config.setTestWhileIdle(testWhileIdle);
+	    config.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
+	    config.setNumTestsPerEvictionRun(numTestsPerEvictionRun);
+	    config.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
+        return config;
+	}
+	
+	/**
+	 * @Description: 废弃连接回收配置，调用栈由getConnection按比例采样记录，不使用commons-pool每次借出都生成调用栈的logAbandoned
+	 * @author chenzq
+	 * @date 2026年10月19日 下午4:02:37
+	 * @return
+	 */
+	protected AbandonedConfig createAbandonedConfig() {
+	    AbandonedConfig config = new AbandonedConfig();
+	    config.setRemoveAbandonedOnBorrow(removeAbandonedOnBorrow);
+	    config.setRemoveAbandonedOnMaintenance(removeAbandonedOnMaintenance);
+	    config.setRemoveAbandonedTimeout(removeAbandonedTimeout);
+	    config.setLogAbandoned(false);
+	    config.setUseUsageTracking(false);
+	    return config;
+	}
+}
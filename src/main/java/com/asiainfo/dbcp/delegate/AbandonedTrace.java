@@ -1,103 +1,116 @@
-package com.asiainfo.dbcp.delegate;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-/**
- * @Description: Trace, 用于缓存连接打开的statement、resultset，以便在连接失效时关闭已打开的statement、resultset
- * 
- * @author chenzq  
- * @date 2019年5月1日 下午9:04:48
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
- */
-public class AbandonedTrace {
-	
-	protected final Logger logger = LoggerFactory.getLogger(getClass());
-	
-	// 保存Connection的所有trace信息
-	private final List<AbandonedTrace> traceList = new ArrayList<AbandonedTrace>();
-    private final Lock lock = new ReentrantLock();
-    private long lastUsed = 0;
-    
-    protected long getLastUsed() {
-		return lastUsed;
-	}
-	
-	protected void setLastUsed() {
-	    setLastUsed(System.currentTimeMillis());
-	}
-	
-	protected void setLastUsed(long lastUsed) {
-		this.lastUsed = lastUsed;
-		logger.debug("setLastUsed={} ......", this.lastUsed);
-	}
-	
-	/**
-	 * @Description: 返回所有的trace记录
-	 * @author chenzq
-	 * @date 2019年5月1日 下午9:10:40
-	 * @return
-	 */
-    protected List<AbandonedTrace> getTrace() {
-        lock.lock();
-        try {
-            return new ArrayList<AbandonedTrace>(traceList);
-        } finally {
-            lock.unlock();
-        }
-    }
-	
-    /**
-     * @Description: 增加一个trace记录
-     * @author chenzq
-     * @date 2019年5月1日 下午9:12:41
-     * @param trace
-     */
-    protected void addTrace(AbandonedTrace trace) {
-    	logger.debug("addTrace={} ......", trace);
-        lock.lock();
-    	try {
-            this.traceList.add(trace);
-            setLastUsed();
-        } finally {
-            lock.unlock();
-        }
-    }
-	
-    /**
-     * @Description: 删除一个trace
-     * @author chenzq
-     * @date 2019年5月1日 下午9:13:00
-     * @param trace
-     */
-    protected void removeTrace(AbandonedTrace trace) {
-    	logger.debug("removeTrace={} ......", trace);
-    	lock.lock();
-        try {
-            this.traceList.remove(trace);
-        } finally {
-            lock.unlock();
-        }
-    }
-	
-    /**
-     * @Description: 清空所有trace记录
-     * @author chenzq
-     * @date 2019年5月1日 下午9:13:13
-     */
-	protected void clearTrace() {
-		logger.debug("clearTrace ......");
-		lock.lock();
-        try {
-            this.traceList.clear();
-        } finally {
-            lock.unlock();
-        }
-    }
-}
+package com.asiainfo.dbcp.delegate;
+
+import com.asiainfo.dbcp.util.CoarseClock;
+
+/**
+ * @Description: Trace, 用于缓存连接打开的statement、resultset，以便在连接失效时关闭已打开的statement、resultset
+ *             - 子trace保存在侵入式双向链表中，节点即trace对象本身（TraceNode），按引用识别，addTrace/removeTrace/pollTrace均为O(1)且不分配对象。
+ *             - 链表由父trace对象自身的监视器保护，从不在持有子对象监视器时获取父对象监视器，不会死锁。
+ * 
+ * @author chenzq  
+ * @date 2019年5月1日 下午9:04:48
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class AbandonedTrace extends TraceNode {
+	
+	// 子trace链表表头
+	private TraceNode traceHead;
+    // 最后使用时间，会被连接池的废弃连接检测线程读取
+    private volatile long lastUsed = 0;
+    
+    protected long getLastUsed() {
+		return lastUsed;
+	}
+	
+	protected void setLastUsed() {
+	    long now = CoarseClock.currentTimeMillis();
+	    // 同一个时钟周期内只写一次volatile字段
+	    if (lastUsed != now) {
+	        lastUsed = now;
+	    }
+	}
+	
+	protected void setLastUsed(long lastUsed) {
+		this.lastUsed = lastUsed;
+	}
+	
+    /**
+     * @Description: 增加一个trace记录
+     * @author chenzq
+     * @date 2019年5月1日 下午9:12:41
+     * @param trace
+     */
+    protected void addTrace(TraceNode trace) {
+    	synchronized (this) {
+    	    trace.traceParent = this;
+    	    trace.tracePrev = null;
+    	    trace.traceNext = traceHead;
+    	    if (traceHead != null) {
+    	        traceHead.tracePrev = trace;
+    	    }
+    	    traceHead = trace;
+        }
+    	setLastUsed();
+    }
+	
+    /**
+     * @Description: 删除一个trace，不属于当前对象的trace直接忽略
+     * @author chenzq
+     * @date 2019年5月1日 下午9:13:00
+     * @param trace
+     */
+    protected void removeTrace(TraceNode trace) {
+    	synchronized (this) {
+    	    if (trace.traceParent == this) {
+    	        unlink(trace);
+    	    }
+        }
+    }
+    
+    /**
+     * @Description: 取出并删除一个trace记录，没有记录时返回null；用于关闭时逐个清理子trace，不需要复制整个列表
+     * @author chenzq
+     * @date 2026年10月19日 上午10:55:06
+     * @return
+     */
+    protected TraceNode pollTrace() {
+        synchronized (this) {
+            TraceNode trace = traceHead;
+            if (trace != null) {
+                unlink(trace);
+            }
+            return trace;
+        }
+    }
+	
+    /**
+     * @Description: 清空所有trace记录
+     * @author chenzq
+     * @date 2019年5月1日 下午9:13:13
+     */
+	protected void clearTrace() {
+		synchronized (this) {
+		    while (traceHead != null) {
+		        unlink(traceHead);
+		    }
+        }
+    }
+	
+	// 从当前链表中摘除节点，调用方需持有当前对象的监视器
+	private void unlink(TraceNode trace) {
+	    TraceNode prev = trace.tracePrev;
+	    TraceNode next = trace.traceNext;
+	    if (prev == null) {
+	        traceHead = next;
+	    } else {
+	        prev.traceNext = next;
+	    }
+	    if (next != null) {
+	        next.tracePrev = prev;
+	    }
+	    trace.traceParent = null;
+	    trace.tracePrev = null;
+	    trace.traceNext = null;
+	}
+}
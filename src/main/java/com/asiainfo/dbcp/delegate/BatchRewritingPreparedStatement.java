@@ -0,0 +1,522 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.BatchUpdateException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * @Description: 把简单insert的批处理改写为多行insert执行的PreparedStatement代理，不依赖驱动的改写开关（如MySQL的rewriteBatchedStatements）；
+ *             - setXxx只记录参数，直接执行时再下发给驱动，addBatch保存当前参数，不加入驱动的批处理；
+ *             - 每条多行insert的行数受参数个数上限（按数据库类型或者rewriteMaxParameters配置）、数据库的VALUES行数上限和估算字节数（rewriteMaxBytes）限制；
+ *             - 多行insert的行数向下取整为2的幂（最少MIN_REWRITE_ROWS行），每条insert语句只会产生少数几种多行sql，通过连接的statement缓存复用；
+ *               不足MIN_REWRITE_ROWS的剩余行使用驱动的批处理在原statement上执行，不会为任意行数各自缓存一条sql；
+ *             - 每行插入1条记录，更新总数与行数一致时每行的更新计数为1，否则为SUCCESS_NO_INFO；
+ *             - 一条多行insert失败时整条语句不生效，BatchUpdateException的更新计数只包含之前已经成功的行。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午9:36:15
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BatchRewritingPreparedStatement extends DelegatingPreparedStatement {
+
+    // 改写为多行insert的最少行数，剩余行数更少时使用驱动的批处理
+    static final int MIN_REWRITE_ROWS = 8;
+    // 定长参数的估算字节数，以及长度未知的流、LOB参数的估算字节数
+    private static final int FIXED_BYTES = 16;
+    private static final int UNKNOWN_BYTES = 64 * 1024;
+
+    private final MultiRowInsert insert;
+    // 当前设置的参数，下标为参数序号-1
+    private final ParameterBinder[] current;
+    // 当前参数的估算字节数
+    private final int[] currentBytes;
+    // 加入批处理、尚未执行的行，以及每行的估算字节数（包括sql里的一组值）
+    private final List<ParameterBinder[]> rows = new ArrayList<>();
+    private int[] rowBytes = new int[16];
+
+    BatchRewritingPreparedStatement(DelegatingConnection conn, PreparedStatement stmt, MultiRowInsert insert) {
+        super(conn, stmt);
+        this.insert = insert;
+        this.current = new ParameterBinder[insert.getParameterCount()];
+        this.currentBytes = new int[current.length];
+    }
+
+    // 记录定长参数，参数序号越界时与驱动一样抛出异常
+    private void record(int parameterIndex, ParameterBinder binder) throws SQLException {
+        record(parameterIndex, binder, 0);
+    }
+
+    // 记录参数和参数的估算字节数
+    private void record(int parameterIndex, ParameterBinder binder, long bytes) throws SQLException {
+        if (parameterIndex < 1 || parameterIndex > current.length) {
+            throw new SQLException("Invalid parameter index: " + parameterIndex + ", parameter count: " + current.length);
+        }
+        current[parameterIndex - 1] = binder;
+        currentBytes[parameterIndex - 1] = (int) Math.min(Integer.MAX_VALUE, FIXED_BYTES + Math.max(0L, bytes));
+    }
+
+    // 字符按UTF-8最多3字节估算
+    private static long chars(long length) {
+        return length < 0 ? UNKNOWN_BYTES : length * 3;
+    }
+    private static long chars(String x) {
+        return x == null ? 0 : chars(x.length());
+    }
+    // 二进制在文本协议里转义后最多2倍
+    private static long binary(long length) {
+        return length < 0 ? UNKNOWN_BYTES : length * 2;
+    }
+
+    // setObject参数的估算字节数
+    private static long objectBytes(Object x) {
+        if (x instanceof String) {
+            return chars((String) x);
+        } else if (x instanceof byte[]) {
+            return binary(((byte[]) x).length);
+        } else if (x instanceof BigDecimal) {
+            return ((BigDecimal) x).precision();
+        } else if (x instanceof InputStream || x instanceof Reader || x instanceof Blob || x instanceof Clob) {
+            return UNKNOWN_BYTES;
+        }
+        return 0;
+    }
+
+    // 把一行参数绑定到ps，offset为这一行之前的参数个数
+    private static void bind(PreparedStatement ps, ParameterBinder[] row, int offset) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] == null) {
+                throw new SQLException("No value specified for parameter " + (i + 1));
+            }
+            row[i].bind(ps, offset + i + 1);
+        }
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        bind((PreparedStatement) stmt, current, 0);
+        return super.executeQuery();
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        bind((PreparedStatement) stmt, current, 0);
+        return super.executeUpdate();
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        bind((PreparedStatement) stmt, current, 0);
+        return super.execute();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        if (closed) {
+            throw new SQLException("Statement is closed.");
+        }
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == null) {
+                throw new SQLException("No value specified for parameter " + (i + 1));
+            }
+        }
+        int n = rows.size();
+        if (n == rowBytes.length) {
+            rowBytes = Arrays.copyOf(rowBytes, n << 1);
+        }
+        int bytes = insert.getTupleLength() + 2;
+        for (int b : currentBytes) {
+            bytes = (int) Math.min(Integer.MAX_VALUE, (long) bytes + b);
+        }
+        rowBytes[n] = bytes;
+        rows.add(current.clone());
+        batchAdded();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        rows.clear();
+        super.clearBatch();
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        Arrays.fill(current, null);
+        super.clearParameters();
+    }
+
+    @Override
+    protected DelegatingPreparedStatement newCachedCopy(DelegatingConnection c) {
+        return new BatchRewritingPreparedStatement(c, (PreparedStatement) stmt, insert);
+    }
+
+    @Override
+    protected void clearForReuse() throws SQLException {
+        rows.clear();
+        Arrays.fill(current, null);
+        super.clearForReuse();
+    }
+
+    /**
+     * @Description: 按多行insert执行尚未执行的行，每条的行数为不超过限制的2的幂，不足MIN_REWRITE_ROWS的剩余行使用驱动的批处理
+     * @author chenzq
+     * @date 2026年10月20日 上午9:42:30
+     * @return
+     * @throws SQLException
+     */
+    @Override
+    protected int[] executeBatchChunk() throws SQLException {
+        int n = rows.size();
+        int[] counts = new int[n];
+        int done = 0;
+        try {
+            int maxRows = insert.maxRows(conn.rewriteMaxParameters(), conn.rewriteMaxRows());
+            long maxBytes = conn.rewriteMaxBytes;
+            while (done < n) {
+                int k = Integer.highestOneBit(fit(done, maxRows, maxBytes));
+                if (k < MIN_REWRITE_ROWS) {
+                    // 剩余行（或者单行估算字节数过大的行）逐行加入驱动的批处理
+                    k = Math.max(1, Math.min(n - done, MIN_REWRITE_ROWS - 1));
+                    executeDriverBatch(done, k, counts);
+                } else {
+                    int updated = executeRows(done, k);
+                    Arrays.fill(counts, done, done + k, updated == k ? 1 : Statement.SUCCESS_NO_INFO);
+                }
+                done += k;
+            }
+        } catch (SQLException e) {
+            throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), 
+                    Arrays.copyOf(counts, done), e);
+        } finally {
+            rows.clear();
+        }
+        return counts;
+    }
+
+    // 从from开始，行数和估算字节数都不超过限制的行数，至少1行
+    private int fit(int from, int maxRows, long maxBytes) {
+        int limit = Math.min(maxRows, rows.size() - from);
+        long bytes = insert.getPrefixLength();
+        int k = 0;
+        while (k < limit) {
+            bytes += rowBytes[from + k];
+            if (maxBytes > 0 && bytes > maxBytes && k > 0) {
+                break;
+            }
+            k++;
+        }
+        return Math.max(1, k);
+    }
+
+    // 使用驱动的批处理在原statement上执行从from开始的k行，单行时直接执行
+    private void executeDriverBatch(int from, int k, int[] counts) throws SQLException {
+        PreparedStatement ps = (PreparedStatement) stmt;
+        if (k == 1) {
+            bind(ps, rows.get(from), 0);
+            counts[from] = ps.executeUpdate();
+            return;
+        }
+        try {
+            for (int r = 0; r < k; r++) {
+                bind(ps, rows.get(from + r), 0);
+                ps.addBatch();
+            }
+            int[] driverCounts = ps.executeBatch();
+            System.arraycopy(driverCounts, 0, counts, from, Math.min(k, driverCounts.length));
+        } finally {
+            ps.clearBatch();
+        }
+    }
+
+    // 按多行insert执行从from开始的k行，返回更新总数
+    private int executeRows(int from, int k) throws SQLException {
+        int count = insert.getParameterCount();
+        int timeout = stmt.getQueryTimeout();
+        try (PreparedStatement ps = conn.prepareStatement(insert.sql(k))) {
+            if (timeout > 0) {
+                ps.setQueryTimeout(timeout);
+            }
+            for (int r = 0; r < k; r++) {
+                bind(ps, rows.get(from + r), r * count);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    @Override
+    protected void discardBatchChunk() throws SQLException {
+        rows.clear();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNull(i, sqlType));
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBoolean(i, x));
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setByte(i, x));
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setShort(i, x));
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setInt(i, x));
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setLong(i, x));
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setFloat(i, x));
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setDouble(i, x));
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBigDecimal(i, x), x == null ? 0 : x.precision());
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setString(i, x), chars(x));
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBytes(i, x), x == null ? 0 : binary(x.length));
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setDate(i, x));
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setTime(i, x));
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setTimestamp(i, x));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setAsciiStream(i, x, length), binary(length));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setUnicodeStream(i, x, length), binary(length));
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBinaryStream(i, x, length), binary(length));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setObject(i, x, targetSqlType), objectBytes(x));
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setObject(i, x), objectBytes(x));
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setCharacterStream(i, reader, length), chars(length));
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setRef(i, x));
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBlob(i, x), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setClob(i, x), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setArray(i, x));
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setDate(i, x, cal));
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setTime(i, x, cal));
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setTimestamp(i, x, cal));
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNull(i, sqlType, typeName));
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setURL(i, x));
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setRowId(i, x));
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNString(i, value), chars(value));
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNCharacterStream(i, value, length), chars(length));
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNClob(i, value), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setClob(i, reader, length), chars(length));
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBlob(i, inputStream, length), binary(length));
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNClob(i, reader, length), chars(length));
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setSQLXML(i, xmlObject), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setObject(i, x, targetSqlType, scaleOrLength), objectBytes(x));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setAsciiStream(i, x, length), binary(length));
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBinaryStream(i, x, length), binary(length));
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setCharacterStream(i, reader, length), chars(length));
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setAsciiStream(i, x), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBinaryStream(i, x), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setCharacterStream(i, reader), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNCharacterStream(i, value), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setClob(i, reader), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setBlob(i, inputStream), UNKNOWN_BYTES);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        record(parameterIndex, (ps, i) -> ps.setNClob(i, reader), UNKNOWN_BYTES);
+    }
+
+    /**
+     * @Description: 记录的参数设置，执行时按参数序号下发给驱动
+     *
+     * @author chenzq
+     * @date 2026年10月20日 上午9:38:05
+     */
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(PreparedStatement ps, int parameterIndex) throws SQLException;
+    }
+}
@@ -0,0 +1,91 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * @Description: 参数元数据代理，参数个数来自SqlMetadataCache，其他方法第一次调用时才获取驱动的ParameterMetaData
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午7:12:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class CachedParameterMetaData implements ParameterMetaData {
+
+    private final int parameterCount;
+    private final PreparedStatement ps;
+    private ParameterMetaData delegate;
+
+    public CachedParameterMetaData(int parameterCount, PreparedStatement ps) {
+        this.parameterCount = parameterCount;
+        this.ps = ps;
+    }
+
+    // 驱动的参数元数据
+    private ParameterMetaData delegate() throws SQLException {
+        if (delegate == null) {
+            delegate = ps.getParameterMetaData();
+        }
+        return delegate;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return delegate().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate().isWrapperFor(iface);
+    }
+
+    @Override
+    public int getParameterCount() throws SQLException {
+        return parameterCount;
+    }
+
+    @Override
+    public int isNullable(int param) throws SQLException {
+        return delegate().isNullable(param);
+    }
+
+    @Override
+    public boolean isSigned(int param) throws SQLException {
+        return delegate().isSigned(param);
+    }
+
+    @Override
+    public int getPrecision(int param) throws SQLException {
+        return delegate().getPrecision(param);
+    }
+
+    @Override
+    public int getScale(int param) throws SQLException {
+        return delegate().getScale(param);
+    }
+
+    @Override
+    public int getParameterType(int param) throws SQLException {
+        return delegate().getParameterType(param);
+    }
+
+    @Override
+    public String getParameterTypeName(int param) throws SQLException {
+        return delegate().getParameterTypeName(param);
+    }
+
+    @Override
+    public String getParameterClassName(int param) throws SQLException {
+        return delegate().getParameterClassName(param);
+    }
+
+    @Override
+    public int getParameterMode(int param) throws SQLException {
+        return delegate().getParameterMode(param);
+    }
+}
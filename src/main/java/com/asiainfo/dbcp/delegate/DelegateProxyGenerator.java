@@ -0,0 +1,264 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+/**
+ * @Description: 运行时为具体的驱动类生成final的代理子类，
+ *             - DelegatingResultSet按列序号取值的getXxx(int)、wasNull()，以及DelegatingPreparedStatement的setXxx(int, ...)，
+ *             - 在生成的子类中直接以驱动具体类型invokevirtual调用，每个生成类的调用点只会看到一种驱动类型，
+ *             - 同时使用多种驱动时也不会让Delegating*中的调用点变成megamorphic，C2可以去虚化并内联整条调用链。
+ *             - trace、归还连接池、checkOpen等语义仍由父类实现，生成类只覆盖纯转发的方法。
+ *             - 驱动类不是public或者生成失败时，退回到普通的Delegating*代理。
+ *             - 字节码使用spring-core中重新打包的ASM生成，不引入额外依赖。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午3:05:26
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class DelegateProxyGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DelegateProxyGenerator.class);
+
+    // 生成类所在的包
+    private static final String PROXY_PACKAGE = "com.asiainfo.dbcp.delegate.proxy.";
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private static final MethodType RESULTSET_FACTORY_TYPE =
+            MethodType.methodType(DelegatingResultSet.class, DelegatingStatement.class, ResultSet.class);
+    private static final MethodType STATEMENT_FACTORY_TYPE =
+            MethodType.methodType(DelegatingPreparedStatement.class, DelegatingConnection.class, PreparedStatement.class);
+
+    private static final MethodHandle DEFAULT_RESULTSET_FACTORY;
+    private static final MethodHandle DEFAULT_STATEMENT_FACTORY;
+
+    // 驱动具体类型 -> 生成类的构造方法
+    private static final ConcurrentMap<Class<?>, MethodHandle> RESULTSET_FACTORIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, MethodHandle> STATEMENT_FACTORIES = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            DEFAULT_RESULTSET_FACTORY = lookup.findConstructor(DelegatingResultSet.class,
+                    MethodType.methodType(void.class, DelegatingStatement.class, ResultSet.class));
+            DEFAULT_STATEMENT_FACTORY = lookup.findConstructor(DelegatingPreparedStatement.class,
+                    MethodType.methodType(void.class, DelegatingConnection.class, PreparedStatement.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private DelegateProxyGenerator() {}
+
+    /**
+     * @Description: 创建特化于rs具体类型的ResultSet代理
+     * @author chenzq
+     * @date 2026年10月19日 下午3:08:12
+     * @param stmt
+     * @param rs
+     * @return
+     */
+    public static DelegatingResultSet newResultSet(DelegatingStatement stmt, ResultSet rs) {
+        MethodHandle factory = RESULTSET_FACTORIES.get(rs.getClass());
+        if (factory == null) {
+            factory = RESULTSET_FACTORIES.computeIfAbsent(rs.getClass(),
+                    c -> generate(DelegatingResultSet.class, c, RESULTSET_FACTORY_TYPE, DEFAULT_RESULTSET_FACTORY));
+        }
+        try {
+            return (DelegatingResultSet) factory.invokeExact(stmt, rs);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * @Description: 创建特化于stmt具体类型的PreparedStatement代理
+     * @author chenzq
+     * @date 2026年10月19日 下午3:09:40
+     * @param conn
+     * @param stmt
+     * @return
+     */
+    public static DelegatingPreparedStatement newPreparedStatement(DelegatingConnection conn, PreparedStatement stmt) {
+        MethodHandle factory = STATEMENT_FACTORIES.get(stmt.getClass());
+        if (factory == null) {
+            factory = STATEMENT_FACTORIES.computeIfAbsent(stmt.getClass(),
+                    c -> generate(DelegatingPreparedStatement.class, c, STATEMENT_FACTORY_TYPE, DEFAULT_STATEMENT_FACTORY));
+        }
+        try {
+            return (DelegatingPreparedStatement) factory.invokeExact(conn, stmt);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // 生成代理子类并返回其构造方法，失败时返回缺省代理的构造方法
+    private static MethodHandle generate(Class<?> superClass, Class<?> driverClass,
+            MethodType factoryType, MethodHandle defaultFactory) {
+
+        if (!Modifier.isPublic(driverClass.getModifiers())) {
+            logger.info("driver class {} is not public, fallback to {}", driverClass.getName(), superClass.getSimpleName());
+            return defaultFactory;
+        }
+        try {
+            List<Method> methods = proxyMethods(superClass, driverClass);
+            String className = PROXY_PACKAGE + superClass.getSimpleName() + "$"
+                    + driverClass.getSimpleName() + "$" + SEQUENCE.incrementAndGet();
+            byte[] bytes = generateClass(className, superClass, driverClass, factoryType, methods);
+            Class<?> proxyClass = new ProxyClassLoader(superClass.getClassLoader(), driverClass.getClassLoader())
+                    .define(className, bytes);
+            MethodHandle ctor = MethodHandles.publicLookup().findConstructor(proxyClass,
+                    MethodType.methodType(void.class, factoryType.parameterArray()));
+            logger.info("generated {} with {} specialized methods for {}", className, methods.size(), driverClass.getName());
+            return ctor.asType(factoryType);
+        } catch (Throwable t) {
+            logger.warn("cannot generate proxy for driver class {}, fallback to {}: {}",
+                    driverClass.getName(), superClass.getSimpleName(), t.toString());
+            return defaultFactory;
+        }
+    }
+
+    // 选出需要特化的纯转发方法：ResultSet的getXxx(int)、wasNull()，PreparedStatement的setXxx(int, ...)
+    private static List<Method> proxyMethods(Class<?> superClass, Class<?> driverClass) {
+        List<Method> result = new ArrayList<>();
+        for (Method m : superClass.getDeclaredMethods()) {
+            int mod = m.getModifiers();
+            if (!Modifier.isPublic(mod) || Modifier.isFinal(mod) || Modifier.isStatic(mod) || m.isBridge() || m.isSynthetic()) {
+                continue;
+            }
+            Class<?>[] params = m.getParameterTypes();
+            String name = m.getName();
+            boolean candidate;
+            if (superClass == DelegatingResultSet.class) {
+                candidate = ("wasNull".equals(name) && params.length == 0)
+                        || (name.startsWith("get") && params.length > 0 && params[0] == int.class);
+            } else {
+                candidate = name.startsWith("set") && params.length > 1 && params[0] == int.class;
+            }
+            if (!candidate) {
+                continue;
+            }
+            try {
+                Method target = driverClass.getMethod(name, params);
+                if (target.getDeclaringClass().isInterface() || target.getReturnType() != m.getReturnType()) {
+                    continue;
+                }
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            result.add(m);
+        }
+        return result;
+    }
+
+    private static byte[] generateClass(String className, Class<?> superClass, Class<?> driverClass,
+            MethodType factoryType, List<Method> methods) {
+
+        String internalName = className.replace('.', '/');
+        String superName = Type.getInternalName(superClass);
+        String driverName = Type.getInternalName(driverClass);
+        // ResultSet代理持有的字段为rs，Statement代理持有的字段为stmt
+        String fieldName = superClass == DelegatingResultSet.class ? "rs" : "stmt";
+        String fieldDesc = superClass == DelegatingResultSet.class
+                ? Type.getDescriptor(ResultSet.class) : Type.getDescriptor(java.sql.Statement.class);
+        String fieldOwner = superClass == DelegatingResultSet.class
+                ? superName : Type.getInternalName(DelegatingStatement.class);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object";
+            }
+        };
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                internalName, null, superName, null);
+
+        // 构造方法，直接调用父类构造方法
+        Class<?>[] ctorParams = factoryType.parameterArray();
+        String ctorDesc = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(ctorParams[0]), Type.getType(ctorParams[1]));
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", ctorDesc, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", ctorDesc, false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // 特化的转发方法：((DriverClass) field).method(args)
+        for (Method m : methods) {
+            String desc = Type.getMethodDescriptor(m);
+            String[] exceptions = new String[m.getExceptionTypes().length];
+            for (int i = 0; i < exceptions.length; i++) {
+                exceptions[i] = Type.getInternalName(m.getExceptionTypes()[i]);
+            }
+            mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, m.getName(), desc, null, exceptions);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, fieldOwner, fieldName, fieldDesc);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, driverName);
+            int slot = 1;
+            for (Type arg : Type.getArgumentTypes(desc)) {
+                mv.visitVarInsn(arg.getOpcode(Opcodes.ILOAD), slot);
+                slot += arg.getSize();
+            }
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, driverName, m.getName(), desc, false);
+            mv.visitInsn(Type.getReturnType(desc).getOpcode(Opcodes.IRETURN));
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * @Description: 生成类的类加载器，先从连接池所在的类加载器加载，找不到时再从驱动的类加载器加载
+     *
+     * @author chenzq
+     * @date 2026年10月19日 下午3:14:51
+     */
+    private static final class ProxyClassLoader extends ClassLoader {
+
+        private final ClassLoader driverLoader;
+
+        ProxyClassLoader(ClassLoader parent, ClassLoader driverLoader) {
+            super(parent);
+            this.driverLoader = driverLoader;
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            if (driverLoader != null) {
+                return driverLoader.loadClass(name);
+            }
+            throw new ClassNotFoundException(name);
+        }
+    }
+}
@@ -1,849 +1,1352 @@
-package com.asiainfo.dbcp.delegate;
-
-import java.sql.Array;
-import java.sql.Blob;
-import java.sql.CallableStatement;
-import java.sql.ClientInfoStatus;
-import java.sql.Clob;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.NClob;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLClientInfoException;
-import java.sql.SQLException;
-import java.sql.SQLWarning;
-import java.sql.SQLXML;
-import java.sql.Savepoint;
-import java.sql.Statement;
-import java.sql.Struct;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Properties;
-import java.util.concurrent.Executor;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-/**
- * @Description: 连接代理，持有真正的数据库连接，用于跟踪statement和resultset，在连接关闭时，会调用passivate方法，关闭Trace缓存的Statement；
- *             - 如果不需要跟踪Statement，则可以直接返回原始的Statement，也不需要继承AbandonedTrace。
- * 
- * @author chenzq  
- * @date 2019年5月1日 下午9:13:58
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
- */
-public class DelegatingConnection extends AbandonedTrace implements Connection {
-
-	protected final Logger logger = LoggerFactory.getLogger(getClass());
-	// 真正的数据库连接
-	protected Connection conn = null;
-	// 连接是否关闭
-	protected boolean closed = false;
-	
-	public DelegatingConnection(Connection conn) {
-		logger.debug("new DelegatingConnection() ......");
-        this.conn = conn;
-    }
-
-	@Override
-	public <T> T unwrap(Class<T> iface) throws SQLException {
-        if (iface.isAssignableFrom(getClass())) {
-            return iface.cast(this);
-        } else if (iface.isAssignableFrom(conn.getClass())) {
-            return iface.cast(conn);
-        } else {
-            return conn.unwrap(iface);
-        }
-	}
-
-	@Override
-	public boolean isWrapperFor(Class<?> iface) throws SQLException {
-		return iface.isAssignableFrom(getClass()) || conn.isWrapperFor(iface);
-	}
-
-	@Override
-	public Statement createStatement() throws SQLException {
-		checkOpen();
-        try {
-        	logger.debug("createStatement() ......");
-        	return new DelegatingStatement(this, conn.createStatement());
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("prepareStatement(), sql={} ......", sql);
-        	return new DelegatingPreparedStatement(this, conn.prepareStatement(sql));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public CallableStatement prepareCall(String sql) throws SQLException {
-
-        checkOpen();
-        try {
-        	logger.debug("prepareCall(), sql={} ......", sql);
-            return new DelegatingCallableStatement(this, conn.prepareCall(sql));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public String nativeSQL(String sql) throws SQLException {
-		checkOpen();
-		try {
-		    logger.debug("nativeSQL(), sql={} ......", sql);
-			return conn.nativeSQL(sql);
-		} catch (SQLException e) {
-			handleException(e);
-			throw e;
-		}
-	}
-
-	@Override
-	public void setAutoCommit(boolean autoCommit) throws SQLException {
-		checkOpen();
-		try {
-			logger.debug("setAutoCommit(), autoCommit={} ......", autoCommit);
-			conn.setAutoCommit(autoCommit);
-		} catch (SQLException e) {
-			handleException(e);
-			throw e;
-		}
-	}
-
-	@Override
-	public boolean getAutoCommit() throws SQLException {
-		checkOpen();
-		try {
-			return conn.getAutoCommit();
-		} catch (SQLException e) {
-			handleException(e);
-			throw e;
-		}
-	}
-
-	@Override
-	public void commit() throws SQLException {
-		checkOpen();
-		try {
-			logger.debug("commit() ......");
-			conn.commit();
-		} catch (SQLException e) {
-			handleException(e);
-			throw e;
-		}
-	}
-
-	@Override
-	public void rollback() throws SQLException {
-		checkOpen(); 
-		try {
-			logger.debug("rollback() ......");
-			conn.rollback();
-		} catch (SQLException e) {
-			handleException(e);
-			throw e;
-		}
-	}
-
-	@Override
-	public void close() throws SQLException {
-		logger.debug("close() ......");
-		closed = true;
-		// 连接关闭时，清理连接缓存的Statemment trace
-		passivate();
-		// 关闭连接，这里是真正的关闭，Pooling对象的关闭是返还连接池
-		conn.close();
-	}
-
-	@Override
-	public boolean isClosed() throws SQLException {
-		return closed || conn.isClosed();
-	}
-
-	@Override
-	public DatabaseMetaData getMetaData() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getMetaData();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void setReadOnly(boolean readOnly) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("setReadOnly(), readOnly={} ......", readOnly);
-        	conn.setReadOnly(readOnly);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public boolean isReadOnly() throws SQLException {
-		checkOpen();
-		try {
-			return conn.isReadOnly();
-		} catch (SQLException e) {
-			handleException(e);
-			throw e;
-		}
-	}
-
-	@Override
-	public void setCatalog(String catalog) throws SQLException {
-		checkOpen();
-        try {
-        	logger.debug("setCatalog(), catalog={} ......", catalog);
-        	conn.setCatalog(catalog);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public String getCatalog() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getCatalog();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void setTransactionIsolation(int level) throws SQLException {
-		checkOpen();
-        try {
-        	logger.debug("setTransactionIsolation(), level={} ......", level);
-        	conn.setTransactionIsolation(level);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public int getTransactionIsolation() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getTransactionIsolation();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public SQLWarning getWarnings() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getWarnings();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void clearWarnings() throws SQLException {
-		checkOpen();
-        try {
-        	logger.debug("clearWarnings() ......");
-        	conn.clearWarnings();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("createStatement(), resultSetType={}, resultSetConcurrency={} ......", 
-        	        resultSetType, resultSetConcurrency);
-        	return new DelegatingStatement(this, conn.createStatement(resultSetType, resultSetConcurrency));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("prepareStatement(), sql={}, resultSetType={}, resultSetConcurrency={} ......", 
-        	        sql, resultSetType, resultSetConcurrency);
-        	return new DelegatingPreparedStatement(this, conn.prepareStatement(sql, resultSetType, resultSetConcurrency));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("prepareCall(), sql={}, resultSetType={}, resultSetConcurrency={} ......", 
-        	        sql, resultSetType, resultSetConcurrency);
-            return new DelegatingCallableStatement(this, conn.prepareCall(sql, resultSetType,resultSetConcurrency));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Map<String, Class<?>> getTypeMap() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getTypeMap();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
-		checkOpen();
-        try {
-        	logger.debug("setTypeMap(), map={} ......", map);
-        	conn.setTypeMap(map);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void setHoldability(int holdability) throws SQLException {
-		checkOpen();
-        try {
-        	conn.setHoldability(holdability);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public int getHoldability() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getHoldability();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-	
-	@Override
-	public Savepoint setSavepoint() throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("setSavepoint() ......");
-            return conn.setSavepoint();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Savepoint setSavepoint(String name) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("setSavepoint(), name={} ......", name);
-            return conn.setSavepoint(name);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void rollback(Savepoint savepoint) throws SQLException {
-		checkOpen();
-        try {
-        	logger.debug("rollback(), savepoint={} ......", savepoint);
-        	conn.rollback(savepoint);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void releaseSavepoint(Savepoint savepoint) throws SQLException {
-		checkOpen();
-        try {
-        	logger.debug("releaseSavepoint(), savepoint={} ......", savepoint);
-        	conn.releaseSavepoint(savepoint);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Statement createStatement(int resultSetType, int resultSetConcurrency, 
-	        int resultSetHoldability) throws SQLException {
-
-        checkOpen();
-        try {
-        	logger.debug("createStatement(), resultSetType={}, resultSetConcurrency={}, resultSetHoldability={} ......", 
-        			resultSetType, resultSetConcurrency, resultSetHoldability);
-            return new DelegatingStatement(this, 
-                    conn.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
-			int resultSetHoldability) throws SQLException {
-
-        checkOpen();
-        try {
-        	logger.debug("prepareStatement(), sql={}, resultSetType={}, resultSetConcurrency={}, resultSetHoldability={} ......", 
-        			resultSetType, resultSetConcurrency, resultSetHoldability);
-        	return new DelegatingPreparedStatement(this, conn.prepareStatement(sql, 
-        	        resultSetType, resultSetConcurrency, resultSetHoldability));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
-			int resultSetHoldability) throws SQLException {
-
-        checkOpen();
-        try {
-        	logger.debug("prepareCall(), sql={}, resultSetType={}, resultSetConcurrency={}, resultSetHoldability={} ......", 
-        			resultSetType, resultSetConcurrency, resultSetHoldability);
-        	return new DelegatingCallableStatement(this, conn.prepareCall(sql, 
-        	        resultSetType, resultSetConcurrency, resultSetHoldability));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("prepareStatement(), sql={}, autoGeneratedKeys={} ......", autoGeneratedKeys);
-        	return new DelegatingPreparedStatement(this, conn.prepareStatement(sql, autoGeneratedKeys));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("prepareStatement(), sql={}, columnIndexes={} ......", columnIndexes);
-        	return new DelegatingPreparedStatement(this, conn.prepareStatement(sql, columnIndexes));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("prepareStatement(), sql={}, columnNames={} ......", sql, columnNames);
-        	return new DelegatingPreparedStatement(this, conn.prepareStatement(sql, columnNames));
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Clob createClob() throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("createClob() ......");
-            return conn.createClob();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Blob createBlob() throws SQLException {
-
-        checkOpen();
-        try {
-        	logger.debug("createBlob() ......");
-            return conn.createBlob();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public NClob createNClob() throws SQLException {
-        checkOpen();
-        try {
-            logger.debug("createNClob() ......");
-            return conn.createNClob();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public SQLXML createSQLXML() throws SQLException {
-        checkOpen();
-        try {
-            logger.debug("createSQLXML() ......");
-            return conn.createSQLXML();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public boolean isValid(int timeout) throws SQLException {
-        checkOpen();
-        try {
-            return conn.isValid(timeout);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void setClientInfo(String name, String value) throws SQLClientInfoException {
-        try {
-            checkOpen();
-            logger.debug("setClientInfo(), name={}, value={} ......", name, value);
-            conn.setClientInfo(name, value);
-        } catch (SQLClientInfoException e) {
-            handleException(e);
-            throw e;
-        } catch (SQLException e) {
-            throw new SQLClientInfoException("Connection is closed.", 
-                    Collections.<String, ClientInfoStatus>emptyMap(), e);
-        }
-	}
-
-	@Override
-	public void setClientInfo(Properties properties) throws SQLClientInfoException {
-        try {
-            checkOpen();
-            logger.debug("setClientInfo(), properties={} ......", properties);
-            conn.setClientInfo(properties);
-        } catch (SQLClientInfoException e) {
-            handleException(e);
-            throw e;
-        } catch (SQLException e) {
-            throw new SQLClientInfoException("Connection is closed.", 
-                    Collections.<String, ClientInfoStatus>emptyMap(), e);
-        }
-	}
-
-	@Override
-	public String getClientInfo(String name) throws SQLException {
-        checkOpen();
-        try {
-            return conn.getClientInfo(name);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Properties getClientInfo() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getClientInfo();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
-        checkOpen();
-        try {
-            logger.debug("createArrayOf, typeName={} ......", typeName);
-            return conn.createArrayOf(typeName, elements);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
-        checkOpen();
-        try {
-            logger.debug("createStruct, typeName={} ......", typeName);
-            return conn.createStruct(typeName, attributes);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void setSchema(String schema) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("setSchema(), schema={} ......", schema);
-            conn.setSchema(schema);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public String getSchema() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getSchema();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void abort(Executor executor) throws SQLException {
-        checkOpen();
-        try {
-            logger.debug("abort ......");
-            conn.abort(executor);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
-        checkOpen();
-        try {
-        	logger.debug("setNetworkTimeout(), executor={}, milliseconds={} ......", executor, milliseconds);
-            conn.setNetworkTimeout(executor, milliseconds);
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	@Override
-	public int getNetworkTimeout() throws SQLException {
-        checkOpen();
-        try {
-            return conn.getNetworkTimeout();
-        } catch (SQLException e) {
-            handleException(e);
-            throw e;
-        }
-	}
-
-	/**
-	 * @Description: 处理sql异常，通常用于记录sql异常日志
-	 * @author chenzq
-	 * @date 2019年5月1日 下午9:21:33
-	 * @param e
-	 * @throws SQLException
-	 */
-	protected void handleException(SQLException e) {
-		logger.debug("handleException(), SQLException={} ......", e);
-    }
-	
-	/**
-     * @Description: 检查持有的数据库连接是否已关闭
-	 * @author chenzq
-	 * @date 2019年5月1日 下午9:20:02
-	 * @throws SQLException
-	 */
-	protected void checkOpen() throws SQLException {
-        if (closed) {
-            if (null != conn) {
-                String label = "";
-                try {
-                    label = conn.toString();
-                } catch (Exception ex) {
-                    // ignore, leave label empty
-                }
-                throw new SQLException("Connection " + label + " is closed.");
-            } else {
-                throw new SQLException("Connection is null.");
-            }      
-        }
-    }
-	
-	/**
-	 * @Description: 连接新建或者激活时，调用该方法，
-	 * @author chenzq
-	 * @date 2019年5月1日 下午9:36:22
-	 */
-    public void activate() {
-    	logger.debug("activate() ......");
-        closed = false;
-        setLastUsed();
-        // 递归调用Delegating对象的activate
-        if (conn instanceof DelegatingConnection) {
-            ((DelegatingConnection) conn).activate();
-        }
-    }
-    
-    /**
-     * @Description: 连接失效或者关闭时，调用该方法，以清理连接缓存的Statement trace
-     * @author chenzq
-     * @date 2019年5月1日 下午9:30:19
-     * @throws SQLException
-     */
-    public void passivate() throws SQLException {
-    	logger.debug("passivate() ......");
-        // The JDBC spec requires that a Connection close any open Statement's when it is closed.
-        // DBCP-288. Not all the traced objects will be statements
-        List<AbandonedTrace> traceList = getTrace();
-        if (traceList != null) {
-            for (AbandonedTrace trace : traceList) {
-                if (trace instanceof Statement) {
-                	// 关闭对应的statement
-                    ((Statement) trace).close();
-                } else if (trace instanceof ResultSet) {
-                    // DBCP-265: Need to close the result sets that are generated via DatabaseMetaData
-                    // 关闭对应的ResultSet
-                    ((ResultSet) trace).close();
-                }
-            }
-            // 清空trace 记录
-            clearTrace();
-        }
-        // 重置使用时间记录
-        setLastUsed(0);
-        // 如果连接还有一层代理，继续调用代理的passivate
-        if(conn instanceof DelegatingConnection) {
-            ((DelegatingConnection) conn).passivate();
-        }
-    }
-	
-    /**
-     * @Description: 返回代理的对象
-     * @author chenzq
-     * @date 2019年5月1日 下午9:34:04
-     * @return
-     */
-    protected final Connection getDelegateConnection() {
-        Connection c = conn;
-        while (c != null && c instanceof DelegatingConnection) {
-            c = ((DelegatingConnection) c).getDelegateConnection();
-            // 循环引用
-            if (this == c) {
-                return null;
-            }
-        }
-        return c;
-    }
-    
-	@Override
-    public boolean equals(Object obj) {
-        if (obj == null) {
-            return false;
-        }
-        if (obj == this) {
-            return true;
-        }
-        Connection delegate = getDelegateConnection();
-        if (delegate == null) {
-            return false;
-        }
-        if (obj instanceof DelegatingConnection) {
-            DelegatingConnection c = (DelegatingConnection) obj;
-            return delegate.equals(c);
-        } else {
-            return delegate.equals(obj);
-        }
-    }
-
-    @Override
-    public int hashCode() {
-        Object obj = getDelegateConnection();
-        if (obj == null) {
-            return 0;
-        }
-        return obj.hashCode();
-    }
-    
-	@Override
-    public String toString() {
-        String str = null;
-        Connection c = getDelegateConnection();
-        if (c != null) {
-            try {
-                if (c.isClosed()) {
-                    str = "connection is closed";
-                } else {
-                    DatabaseMetaData meta = c.getMetaData();
-                    if (meta != null) {
-                        StringBuilder sb = new StringBuilder();
-                        sb.append(meta.getURL());
-                        sb.append(", UserName=");
-                        sb.append(meta.getUserName());
-                        sb.append(", ");
-                        sb.append(meta.getDriverName());
-                        str = sb.toString();
-                    }
-                }
-            } catch (SQLException ex) {
-                // Ignore
-            }
-        }
-        
-        if (str == null) {
-            str = super.toString();
-        }
-        return str;
-    }
-}
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.ClientInfoStatus;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @Description: 连接代理，持有真正的数据库连接，用于跟踪statement和resultset，在连接关闭时，会调用passivate方法，关闭Trace缓存的Statement；
+ *             - 如果不需要跟踪Statement，则可以直接返回原始的Statement，也不需要继承AbandonedTrace。
+ * 
+ * @author chenzq  
+ * @date 2019年5月1日 下午9:13:58
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class DelegatingConnection extends AbandonedTrace implements Connection {
+
+	// 静态日志对象，避免每个连接代理实例查找Logger
+	protected static final Logger logger = LoggerFactory.getLogger(DelegatingConnection.class);
+	// 真正的数据库连接
+	protected Connection conn = null;
+	// 连接是否关闭
+	protected boolean closed = false;
+	// 是否跟踪创建的statement、resultset，关闭跟踪时只记录未关闭的statement数量
+	protected boolean traceStatements = true;
+	// 关闭跟踪时，尚未关闭的statement数量
+	private int untracedStatements = 0;
+	// 是否为驱动具体类型生成特化的PreparedStatement、ResultSet代理
+	protected boolean generateProxies = false;
+	// PreparedStatement缓存，为null时不缓存
+	protected StatementCache statementCache;
+	// CallableStatement缓存，为null时不缓存
+	protected StatementCache callableStatementCache;
+	// 缓存复用CallableStatement时是否保留registerOutParameter的注册
+	protected boolean retainOutParameters = false;
+	// 连接池共享的sql元数据缓存，为null时不缓存
+	protected SqlMetadataCache sqlMetadataCache;
+	// 当前会话的catalog/schema，区分sql元数据缓存的条目，null表示未知，切换catalog/schema或者归还连接时重置
+	private String metadataScope;
+	// 新建或者从缓存借出的statement默认的fetchSize，0表示使用驱动的默认值
+	protected int defaultFetchSize = 0;
+	// 是否默认流式读取结果集，以及流式读取使用的fetchSize（MySQL驱动为Integer.MIN_VALUE，使用游标读取时为正数）
+	protected boolean streamResults = false;
+	protected int streamingFetchSize = Integer.MIN_VALUE;
+	// 逐行流式读取（fetchSize为Integer.MIN_VALUE）的结果集未读完就关闭时是否先取消执行，默认关闭：
+	// PostgreSQL的cancel是异步的，可能取消掉同一连接上的下一条sql，MySQL的KILL QUERY也可能与下一条sql竞争
+	protected boolean cancelAbandonedStreams = false;
+	// 连接池共享的自适应fetchSize，为null时不开启
+	protected FetchSizeAdvisor fetchSizeAdvisor;
+	// 批处理的分段大小，加入批处理的条数达到分段大小时提前执行，小于等于0表示不分段
+	protected int maxBatchSize = 0;
+	// 是否把简单insert的批处理改写为多行insert执行
+	protected boolean rewriteBatchedInserts = false;
+	// 改写的多行insert每条sql的参数个数上限（小于等于0时按数据库类型取默认值）和估算字节数上限（小于等于0表示不限制）
+	protected int rewriteMaxParameters = 0;
+	protected int rewriteMaxBytes = 1024 * 1024;
+	// 物理连接的数据库产品名，第一次改写批处理时获取
+	private String databaseProductName;
+	
+	public DelegatingConnection(Connection conn) {
+        this.conn = conn;
+    }
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isAssignableFrom(getClass())) {
+            return iface.cast(this);
+        } else if (iface.isAssignableFrom(conn.getClass())) {
+            return iface.cast(conn);
+        } else {
+            return conn.unwrap(iface);
+        }
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isAssignableFrom(getClass()) || conn.isWrapperFor(iface);
+	}
+
+	@Override
+	public Statement createStatement() throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("createStatement() ......");
+        	return applyFetchDefaults(new DelegatingStatement(this, conn.createStatement()), 
+        	        StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("prepareStatement(), sql={} ......", sql);
+        	return prepareCachedStatement(sql, StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, 
+        	        StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, null, null);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException {
+
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("prepareCall(), sql={} ......", sql);
+            return prepareCachedCall(sql, StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public String nativeSQL(String sql) throws SQLException {
+		checkOpen();
+		try {
+		    beforeUse();
+		    logger.debug("nativeSQL(), sql={} ......", sql);
+		    if (sqlMetadataCache != null) {
+		        return sqlMetadataCache.nativeSql(metadataScope(), sql, conn);
+		    }
+			return conn.nativeSQL(sql);
+		} catch (SQLException e) {
+			handleException(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException {
+		checkOpen();
+		try {
+			beforeUse();
+			logger.debug("setAutoCommit(), autoCommit={} ......", autoCommit);
+			conn.setAutoCommit(autoCommit);
+		} catch (SQLException e) {
+			handleException(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean getAutoCommit() throws SQLException {
+		checkOpen();
+		try {
+			beforeUse();
+			return conn.getAutoCommit();
+		} catch (SQLException e) {
+			handleException(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public void commit() throws SQLException {
+		checkOpen();
+		try {
+			beforeUse();
+			logger.debug("commit() ......");
+			conn.commit();
+		} catch (SQLException e) {
+			handleException(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public void rollback() throws SQLException {
+		checkOpen(); 
+		try {
+			beforeUse();
+			logger.debug("rollback() ......");
+			conn.rollback();
+		} catch (SQLException e) {
+			handleException(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() throws SQLException {
+		logger.debug("close() ......");
+		closed = true;
+		try {
+		    // 连接关闭时，清理连接缓存的Statemment trace
+		    passivate();
+		} finally {
+		    // 关闭缓存的statement
+		    clearStatementCache();
+		    // 关闭连接，这里是真正的关闭，Pooling对象的关闭是返还连接池
+		    conn.close();
+		}
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed || conn.isClosed();
+	}
+
+	@Override
+	public DatabaseMetaData getMetaData() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getMetaData();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void setReadOnly(boolean readOnly) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("setReadOnly(), readOnly={} ......", readOnly);
+        	conn.setReadOnly(readOnly);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public boolean isReadOnly() throws SQLException {
+		checkOpen();
+		try {
+			beforeUse();
+			return conn.isReadOnly();
+		} catch (SQLException e) {
+			handleException(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public void setCatalog(String catalog) throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("setCatalog(), catalog={} ......", catalog);
+        	metadataScope = null;
+        	conn.setCatalog(catalog);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public String getCatalog() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getCatalog();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void setTransactionIsolation(int level) throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("setTransactionIsolation(), level={} ......", level);
+        	conn.setTransactionIsolation(level);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public int getTransactionIsolation() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getTransactionIsolation();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getWarnings();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("clearWarnings() ......");
+        	conn.clearWarnings();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("createStatement(), resultSetType={}, resultSetConcurrency={} ......", 
+        	            resultSetType, resultSetConcurrency);
+        	}
+        	return applyFetchDefaults(new DelegatingStatement(this, conn.createStatement(resultSetType, resultSetConcurrency)), 
+        	        resultSetType, resultSetConcurrency);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("prepareStatement(), sql={}, resultSetType={}, resultSetConcurrency={} ......", 
+        	            sql, resultSetType, resultSetConcurrency);
+        	}
+        	return prepareCachedStatement(sql, resultSetType, resultSetConcurrency, 
+        	        StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, null, null);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("prepareCall(), sql={}, resultSetType={}, resultSetConcurrency={} ......", 
+        	            sql, resultSetType, resultSetConcurrency);
+        	}
+            return prepareCachedCall(sql, resultSetType, resultSetConcurrency, StatementKey.UNSPECIFIED);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Map<String, Class<?>> getTypeMap() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getTypeMap();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("setTypeMap(), map={} ......", map);
+        	conn.setTypeMap(map);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void setHoldability(int holdability) throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	conn.setHoldability(holdability);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public int getHoldability() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getHoldability();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+	
+	@Override
+	public Savepoint setSavepoint() throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("setSavepoint() ......");
+            return conn.setSavepoint();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Savepoint setSavepoint(String name) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("setSavepoint(), name={} ......", name);
+            return conn.setSavepoint(name);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void rollback(Savepoint savepoint) throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("rollback(), savepoint={} ......", savepoint);
+        	conn.rollback(savepoint);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+		checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("releaseSavepoint(), savepoint={} ......", savepoint);
+        	conn.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency, 
+	        int resultSetHoldability) throws SQLException {
+
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("createStatement(), resultSetType={}, resultSetConcurrency={}, resultSetHoldability={} ......", 
+        	            resultSetType, resultSetConcurrency, resultSetHoldability);
+        	}
+            return applyFetchDefaults(new DelegatingStatement(this, 
+                    conn.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability)), 
+                    resultSetType, resultSetConcurrency);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+			int resultSetHoldability) throws SQLException {
+
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("prepareStatement(), sql={}, resultSetType={}, resultSetConcurrency={}, resultSetHoldability={} ......", 
+        	            sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        	}
+        	return prepareCachedStatement(sql, 
+        	        resultSetType, resultSetConcurrency, resultSetHoldability, StatementKey.UNSPECIFIED, null, null);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
+			int resultSetHoldability) throws SQLException {
+
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("prepareCall(), sql={}, resultSetType={}, resultSetConcurrency={}, resultSetHoldability={} ......", 
+        	            sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        	}
+        	return prepareCachedCall(sql, 
+        	        resultSetType, resultSetConcurrency, resultSetHoldability);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("prepareStatement(), sql={}, autoGeneratedKeys={} ......", sql, autoGeneratedKeys);
+        	}
+        	return prepareCachedStatement(sql, StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, 
+        	        StatementKey.UNSPECIFIED, autoGeneratedKeys, null, null);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("prepareStatement(), sql={}, columnIndexes={} ......", sql, columnIndexes);
+        	return prepareCachedStatement(sql, StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, 
+        	        StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, columnIndexes, null);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("prepareStatement(), sql={}, columnNames={} ......", sql, columnNames);
+        	return prepareCachedStatement(sql, StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, 
+        	        StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, null, columnNames);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Clob createClob() throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("createClob() ......");
+            return conn.createClob();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Blob createBlob() throws SQLException {
+
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("createBlob() ......");
+            return conn.createBlob();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public NClob createNClob() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            logger.debug("createNClob() ......");
+            return conn.createNClob();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public SQLXML createSQLXML() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            logger.debug("createSQLXML() ......");
+            return conn.createSQLXML();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public boolean isValid(int timeout) throws SQLException {
+        checkOpen();
+        try {
+            return conn.isValid(timeout);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        try {
+            checkOpen();
+            beforeUse();
+            logger.debug("setClientInfo(), name={}, value={} ......", name, value);
+            conn.setClientInfo(name, value);
+        } catch (SQLClientInfoException e) {
+            handleException(e);
+            throw e;
+        } catch (SQLException e) {
+            throw new SQLClientInfoException(e.getMessage(), 
+                    Collections.<String, ClientInfoStatus>emptyMap(), e);
+        }
+	}
+
+	@Override
+	public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        try {
+            checkOpen();
+            beforeUse();
+            logger.debug("setClientInfo(), properties={} ......", properties);
+            conn.setClientInfo(properties);
+        } catch (SQLClientInfoException e) {
+            handleException(e);
+            throw e;
+        } catch (SQLException e) {
+            throw new SQLClientInfoException(e.getMessage(), 
+                    Collections.<String, ClientInfoStatus>emptyMap(), e);
+        }
+	}
+
+	@Override
+	public String getClientInfo(String name) throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getClientInfo(name);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Properties getClientInfo() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getClientInfo();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            logger.debug("createArrayOf, typeName={} ......", typeName);
+            return conn.createArrayOf(typeName, elements);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            logger.debug("createStruct, typeName={} ......", typeName);
+            return conn.createStruct(typeName, attributes);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void setSchema(String schema) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	logger.debug("setSchema(), schema={} ......", schema);
+        	metadataScope = null;
+            conn.setSchema(schema);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public String getSchema() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getSchema();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void abort(Executor executor) throws SQLException {
+        checkOpen();
+        try {
+            logger.debug("abort ......");
+            conn.abort(executor);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        checkOpen();
+        try {
+        	beforeUse();
+        	if (logger.isDebugEnabled()) {
+        	    logger.debug("setNetworkTimeout(), executor={}, milliseconds={} ......", executor, milliseconds);
+        	}
+            conn.setNetworkTimeout(executor, milliseconds);
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	@Override
+	public int getNetworkTimeout() throws SQLException {
+        checkOpen();
+        try {
+            beforeUse();
+            return conn.getNetworkTimeout();
+        } catch (SQLException e) {
+            handleException(e);
+            throw e;
+        }
+	}
+
+	/**
+	 * @Description: 处理sql异常，通常用于记录sql异常日志
+	 * @author chenzq
+	 * @date 2019年5月1日 下午9:21:33
+	 * @param e
+	 * @throws SQLException
+	 */
+	protected void handleException(SQLException e) {
+		logger.debug("handleException(), SQLException={} ......", e);
+    }
+	
+	/**
+     * @Description: 检查持有的数据库连接是否已关闭
+	 * @author chenzq
+	 * @date 2019年5月1日 下午9:20:02
+	 * @throws SQLException
+	 */
+	protected void checkOpen() throws SQLException {
+        if (closed) {
+            if (null != conn) {
+                String label = "";
+                try {
+                    label = conn.toString();
+                } catch (Exception ex) {
+                    // ignore, leave label empty
+                }
+                throw new SQLException("Connection " + label + " is closed.");
+            } else {
+                throw new SQLException("Connection is null.");
+            }      
+        }
+    }
+	
+	/**
+	 * @Description: 创建statement、提交/回滚、读写会话属性、获取元数据、创建LOB等使用物理连接之前调用，子类可以在此下发延迟的会话状态；
+	 *             - isValid、abort、close、isClosed不依赖会话状态，不调用，连接校验不会触发延迟状态的下发
+	 * @author chenzq
+	 * @date 2026年10月19日 上午10:12:30
+	 * @throws SQLException
+	 */
+	protected void beforeUse() throws SQLException {
+	    // 缺省不做任何处理
+	}
+
+	/**
+	 * @Description: 连接新建或者激活时，调用该方法，
+	 * @author chenzq
+	 * @date 2019年5月1日 下午9:36:22
+	 */
+    public void activate() {
+    	logger.debug("activate() ......");
+        closed = false;
+        setLastUsed();
+        // 递归调用Delegating对象的activate
+        if (conn instanceof DelegatingConnection) {
+            ((DelegatingConnection) conn).activate();
+        }
+    }
+    
+    /**
+     * @Description: 连接失效或者关闭时，调用该方法，以清理连接缓存的Statement trace
+     * @author chenzq
+     * @date 2019年5月1日 下午9:30:19
+     * @throws SQLException
+     */
+    public void passivate() throws SQLException {
+    	logger.debug("passivate() ......");
+        // The JDBC spec requires that a Connection close any open Statement's when it is closed.
+        // DBCP-288. Not all the traced objects will be statements
+        // 逐个取出trace记录并关闭，不复制trace列表
+        TraceNode trace;
+        while ((trace = pollTrace()) != null) {
+            if (trace instanceof Statement) {
+            	// 关闭对应的statement
+                ((Statement) trace).close();
+            } else if (trace instanceof ResultSet) {
+                // DBCP-265: Need to close the result sets that are generated via DatabaseMetaData
+                // 关闭对应的ResultSet
+                ((ResultSet) trace).close();
+            }
+        }
+        // 关闭其他连接淘汰的缓存statement，物理statement只在所属连接上关闭
+        if (statementCache != null) {
+            statementCache.closeEvicted();
+        }
+        if (callableStatementCache != null) {
+            callableStatementCache.closeEvicted();
+        }
+        // 未跟踪的statement没有关闭，无法逐个清理，抛出异常由连接池销毁物理连接（驱动关闭连接时会关闭其所有statement）
+        int leaked = resetUntracedStatements();
+        // 重置使用时间记录
+        setLastUsed(0);
+        // 如果连接还有一层代理，继续调用代理的passivate
+        if(conn instanceof DelegatingConnection) {
+            ((DelegatingConnection) conn).passivate();
+        }
+        if (leaked > 0) {
+            logger.warn("{} untraced statement(s) not closed, connection will be discarded: {}", leaked, this);
+            throw new SQLException(leaked + " untraced statement(s) were not closed");
+        }
+    }
+    
+    // 改写的多行insert每条sql的参数个数上限，未配置时按数据库类型取默认值
+    int rewriteMaxParameters() throws SQLException {
+        return rewriteMaxParameters > 0 ? rewriteMaxParameters : MultiRowInsert.defaultMaxParameters(databaseProductName());
+    }
+    
+    // 数据库的VALUES行数上限
+    int rewriteMaxRows() throws SQLException {
+        return MultiRowInsert.defaultMaxRows(databaseProductName());
+    }
+    
+    private String databaseProductName() throws SQLException {
+        String name = databaseProductName;
+        if (name == null) {
+            name = conn.getMetaData().getDatabaseProductName();
+            if (name == null) {
+                name = "";
+            }
+            databaseProductName = name;
+        }
+        return name;
+    }
+    
+    /**
+     * @Description: 当前会话的catalog/schema，作为sql元数据缓存的scope，第一次使用时从物理连接获取
+     * @author chenzq
+     * @date 2026年10月19日 下午7:12:36
+     * @return
+     * @throws SQLException
+     */
+    String metadataScope() throws SQLException {
+        String scope = metadataScope;
+        if (scope == null) {
+            String schema;
+            try {
+                schema = conn.getSchema();
+            } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+                // JDBC 4.1之前的驱动没有schema
+                schema = null;
+            }
+            scope = conn.getCatalog() + '/' + schema;
+            metadataScope = scope;
+        }
+        return scope;
+    }
+    
+    // 执行的sql或者延迟下发的会话状态切换了catalog/schema（USE db、SET search_path等），下次使用时重新获取
+    protected void resetMetadataScope() {
+        metadataScope = null;
+    }
+    
+    /**
+     * @Description: 包装驱动的PreparedStatement
+     * @author chenzq
+     * @date 2026年10月19日 下午3:22:18
+     * @param stmt
+     * @return
+     */
+    protected DelegatingPreparedStatement newPreparedStatement(PreparedStatement stmt) {
+        if (generateProxies) {
+            return DelegateProxyGenerator.newPreparedStatement(this, stmt);
+        }
+        return new DelegatingPreparedStatement(this, stmt);
+    }
+    
+    /**
+     * @Description: 开启rewriteBatchedInserts时，简单insert使用改写批处理的代理，
+     *             - 需要返回自增主键的statement不改写，多行insert的主键返回行为依赖驱动。
+     * @author chenzq
+     * @date 2026年10月20日 上午9:50:20
+     * @return
+     */
+    private DelegatingPreparedStatement wrapPreparedStatement(PreparedStatement stmt, String sql, 
+            int autoGeneratedKeys, int[] columnIndexes, String[] columnNames) {
+        if (rewriteBatchedInserts && columnIndexes == null && columnNames == null
+                && (autoGeneratedKeys == StatementKey.UNSPECIFIED || autoGeneratedKeys == Statement.NO_GENERATED_KEYS)) {
+            MultiRowInsert insert = MultiRowInsert.parse(sql);
+            if (insert != null) {
+                return new BatchRewritingPreparedStatement(this, stmt, insert);
+            }
+        }
+        return newPreparedStatement(stmt);
+    }
+    
+    /**
+     * @Description: 开启缓存时先从缓存中借出匹配的statement，未命中时创建新的statement，申请到缓存预算后记录缓存key
+     * @author chenzq
+     * @date 2026年10月19日 下午4:31:25
+     * @return
+     * @throws SQLException
+     */
+    private DelegatingPreparedStatement prepareCachedStatement(String sql, int resultSetType, int resultSetConcurrency,
+            int resultSetHoldability, int autoGeneratedKeys, int[] columnIndexes, String[] columnNames) throws SQLException {
+        StatementCache cache = statementCache;
+        if (cache == null) {
+            DelegatingPreparedStatement ps = wrapPreparedStatement(StatementKey.prepareStatement(conn, sql, resultSetType, 
+                    resultSetConcurrency, resultSetHoldability, autoGeneratedKeys, columnIndexes, columnNames), 
+                    sql, autoGeneratedKeys, columnIndexes, columnNames);
+            ps.sql = sql;
+            return applyFetchDefaults(ps, resultSetType, resultSetConcurrency);
+        }
+        DelegatingPreparedStatement ps = cache.take(sql, resultSetType, resultSetConcurrency, 
+                resultSetHoldability, autoGeneratedKeys, columnIndexes, columnNames);
+        if (ps != null) {
+            ps.reopen();
+            return applyFetchDefaults(ps, resultSetType, resultSetConcurrency);
+        }
+        ps = wrapPreparedStatement(StatementKey.prepareStatement(conn, sql, resultSetType, resultSetConcurrency, 
+                resultSetHoldability, autoGeneratedKeys, columnIndexes, columnNames), 
+                sql, autoGeneratedKeys, columnIndexes, columnNames);
+        ps.sql = sql;
+        StatementKey key = StatementKey.of(sql, resultSetType, resultSetConcurrency, 
+                resultSetHoldability, autoGeneratedKeys, columnIndexes, columnNames);
+        // 申请不到缓存预算的statement不缓存，关闭时直接关闭
+        if (cache.admit(key)) {
+            ps.setStatementKey(key);
+        }
+        return applyFetchDefaults(ps, resultSetType, resultSetConcurrency);
+    }
+    
+    /**
+     * @Description: 与prepareCachedStatement相同，使用独立的CallableStatement缓存
+     * @author chenzq
+     * @date 2026年10月19日 下午5:48:31
+     * @return
+     * @throws SQLException
+     */
+    private DelegatingCallableStatement prepareCachedCall(String sql, int resultSetType, int resultSetConcurrency,
+            int resultSetHoldability) throws SQLException {
+        StatementCache cache = callableStatementCache;
+        if (cache == null) {
+            DelegatingCallableStatement cs = newCallableStatement(
+                    StatementKey.prepareCall(conn, sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+            cs.sql = sql;
+            return applyFetchDefaults(cs, resultSetType, resultSetConcurrency);
+        }
+        DelegatingCallableStatement cs = (DelegatingCallableStatement) cache.take(sql, resultSetType, resultSetConcurrency, 
+                resultSetHoldability, StatementKey.UNSPECIFIED, null, null);
+        if (cs != null) {
+            cs.reopen();
+            return applyFetchDefaults(cs, resultSetType, resultSetConcurrency);
+        }
+        cs = newCallableStatement(StatementKey.prepareCall(conn, sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+        cs.sql = sql;
+        StatementKey key = StatementKey.of(sql, resultSetType, resultSetConcurrency, 
+                resultSetHoldability, StatementKey.UNSPECIFIED, null, null);
+        if (cache.admit(key)) {
+            cs.setStatementKey(key);
+        }
+        return applyFetchDefaults(cs, resultSetType, resultSetConcurrency);
+    }
+    
+    /**
+     * @Description: 预先准备statement并放入缓存，用于新建连接的预热，不计入sql使用频率；
+     *             - 存储过程调用放入CallableStatement缓存，未开启对应缓存或者申请不到缓存预算时不做处理。
+     * @author chenzq
+     * @date 2026年10月19日 下午6:15:40
+     * @param sql
+     * @return 是否放入了缓存
+     * @throws SQLException
+     */
+    public boolean warmStatement(String sql) throws SQLException {
+        checkOpen();
+        boolean callable = StatementKey.isCall(sql);
+        StatementCache cache = callable ? callableStatementCache : statementCache;
+        if (cache == null) {
+            return false;
+        }
+        StatementKey key = StatementKey.of(sql, StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, 
+                StatementKey.UNSPECIFIED, StatementKey.UNSPECIFIED, null, null);
+        if (!cache.admit(key)) {
+            return false;
+        }
+        DelegatingPreparedStatement ps;
+        try {
+            ps = callable ? newCallableStatement(conn.prepareCall(sql)) 
+                    : wrapPreparedStatement(conn.prepareStatement(sql), sql, StatementKey.UNSPECIFIED, null, null);
+        } catch (SQLException e) {
+            cache.release(key);
+            throw e;
+        }
+        ps.sql = sql;
+        ps.setStatementKey(key);
+        // 逻辑关闭，放回缓存
+        ps.close();
+        return true;
+    }
+    
+    /**
+     * @Description: 按连接池的默认值设置statement的fetchSize，缓存复用的statement同时恢复调用方修改过的fetchSize；
+     *             - 只有TYPE_FORWARD_ONLY、CONCUR_READ_ONLY的结果集可以流式读取，其他结果集使用defaultFetchSize；
+     *             - 设置失败时关闭statement，避免statement泄漏。
+     * @author chenzq
+     * @date 2026年10月19日 下午8:55:40
+     * @param st
+     * @param resultSetType
+     * @param resultSetConcurrency
+     * @return
+     * @throws SQLException
+     */
+    protected <S extends DelegatingStatement> S applyFetchDefaults(S st, int resultSetType, 
+            int resultSetConcurrency) throws SQLException {
+        boolean stream = streamResults 
+                && (resultSetType == StatementKey.UNSPECIFIED || resultSetType == ResultSet.TYPE_FORWARD_ONLY)
+                && (resultSetConcurrency == StatementKey.UNSPECIFIED || resultSetConcurrency == ResultSet.CONCUR_READ_ONLY);
+        try {
+            st.applyFetchSize(stream ? streamingFetchSize : defaultFetchSize, stream);
+            st.fetchSizeFixed = false;
+        } catch (SQLException e) {
+            st.close();
+            throw e;
+        }
+        return st;
+    }
+    
+    // 包装驱动的CallableStatement
+    protected DelegatingCallableStatement newCallableStatement(CallableStatement stmt) {
+        DelegatingCallableStatement cs = new DelegatingCallableStatement(this, stmt);
+        cs.setRetainOutParameters(retainOutParameters);
+        return cs;
+    }
+    
+    // 关闭并清空statement缓存，物理连接关闭前调用
+    protected void clearStatementCache() {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+        if (callableStatementCache != null) {
+            callableStatementCache.clear();
+        }
+    }
+    
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+    
+    /**
+     * @Description: 设置连接的PreparedStatement缓存，缓存的statement在物理连接关闭前一直保持打开
+     * @author chenzq
+     * @date 2026年10月19日 下午4:33:02
+     * @param statementCache
+     */
+    public void setStatementCache(StatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+    public StatementCache getCallableStatementCache() {
+        return callableStatementCache;
+    }
+    public void setCallableStatementCache(StatementCache callableStatementCache) {
+        this.callableStatementCache = callableStatementCache;
+    }
+    public int getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+    public void setDefaultFetchSize(int defaultFetchSize) {
+        this.defaultFetchSize = defaultFetchSize;
+    }
+    public boolean isStreamResults() {
+        return streamResults;
+    }
+    public void setStreamResults(boolean streamResults) {
+        this.streamResults = streamResults;
+    }
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+    public void setStreamingFetchSize(int streamingFetchSize) {
+        this.streamingFetchSize = streamingFetchSize;
+    }
+    public boolean isCancelAbandonedStreams() {
+        return cancelAbandonedStreams;
+    }
+    public void setCancelAbandonedStreams(boolean cancelAbandonedStreams) {
+        this.cancelAbandonedStreams = cancelAbandonedStreams;
+    }
+    public FetchSizeAdvisor getFetchSizeAdvisor() {
+        return fetchSizeAdvisor;
+    }
+    public void setFetchSizeAdvisor(FetchSizeAdvisor fetchSizeAdvisor) {
+        this.fetchSizeAdvisor = fetchSizeAdvisor;
+    }
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+    public boolean isRewriteBatchedInserts() {
+        return rewriteBatchedInserts;
+    }
+    public void setRewriteBatchedInserts(boolean rewriteBatchedInserts) {
+        this.rewriteBatchedInserts = rewriteBatchedInserts;
+    }
+    public int getRewriteMaxParameters() {
+        return rewriteMaxParameters;
+    }
+    public void setRewriteMaxParameters(int rewriteMaxParameters) {
+        this.rewriteMaxParameters = rewriteMaxParameters;
+    }
+    public int getRewriteMaxBytes() {
+        return rewriteMaxBytes;
+    }
+    public void setRewriteMaxBytes(int rewriteMaxBytes) {
+        this.rewriteMaxBytes = rewriteMaxBytes;
+    }
+    public SqlMetadataCache getSqlMetadataCache() {
+        return sqlMetadataCache;
+    }
+    public void setSqlMetadataCache(SqlMetadataCache sqlMetadataCache) {
+        this.sqlMetadataCache = sqlMetadataCache;
+    }
+    public boolean isRetainOutParameters() {
+        return retainOutParameters;
+    }
+    
+    /**
+     * @Description: 设置新建的CallableStatement是否保留输出参数注册，放回缓存时重新应用已注册的输出参数，
+     *             - 复用时调用方可以不再调用registerOutParameter，重复的相同注册也不会再下发给驱动。
+     * @author chenzq
+     * @date 2026年10月19日 下午5:50:12
+     * @param retainOutParameters
+     */
+    public void setRetainOutParameters(boolean retainOutParameters) {
+        this.retainOutParameters = retainOutParameters;
+    }
+    
+    public boolean isGenerateProxies() {
+        return generateProxies;
+    }
+    public void setGenerateProxies(boolean generateProxies) {
+        this.generateProxies = generateProxies;
+    }
+    
+    public boolean isTraceStatements() {
+        return traceStatements;
+    }
+    
+    /**
+     * @Description: 设置是否跟踪statement、resultset，关闭跟踪时不再注册到trace链表，调用方需自行关闭（如try-with-resources），
+     *             - 钝化时如果发现有未关闭的statement，连接会被连接池销毁。
+     * @author chenzq
+     * @date 2026年10月19日 上午11:32:08
+     * @param traceStatements
+     */
+    public void setTraceStatements(boolean traceStatements) {
+        this.traceStatements = traceStatements;
+    }
+    
+    // 未跟踪的statement创建时计数
+    synchronized void untracedStatementOpened() {
+        untracedStatements++;
+        setLastUsed();
+    }
+    
+    // 未跟踪的statement关闭时计数
+    synchronized void untracedStatementClosed() {
+        untracedStatements--;
+    }
+    
+    // 返回并清零未关闭的statement数量
+    private synchronized int resetUntracedStatements() {
+        int count = untracedStatements;
+        untracedStatements = 0;
+        return count;
+    }
+	
+    /**
+     * @Description: 返回代理的对象
+     * @author chenzq
+     * @date 2019年5月1日 下午9:34:04
+     * @return
+     */
+    protected final Connection getDelegateConnection() {
+        Connection c = conn;
+        while (c != null && c instanceof DelegatingConnection) {
+            c = ((DelegatingConnection) c).getDelegateConnection();
+            // 循环引用
+            if (this == c) {
+                return null;
+            }
+        }
+        return c;
+    }
+    
+	@Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (obj == this) {
+            return true;
+        }
+        Connection delegate = getDelegateConnection();
+        if (delegate == null) {
+            return false;
+        }
+        if (obj instanceof DelegatingConnection) {
+            DelegatingConnection c = (DelegatingConnection) obj;
+            return delegate.equals(c);
+        } else {
+            return delegate.equals(obj);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        Object obj = getDelegateConnection();
+        if (obj == null) {
+            return 0;
+        }
+        return obj.hashCode();
+    }
+    
+	@Override
+    public String toString() {
+        String str = null;
+        Connection c = getDelegateConnection();
+        if (c != null) {
+            try {
+                if (c.isClosed()) {
+                    str = "connection is closed";
+                } else {
+                    DatabaseMetaData meta = c.getMetaData();
+                    if (meta != null) {
+                        StringBuilder sb = new StringBuilder();
+                        sb.append(meta.getURL());
+                        sb.append(", UserName=");
+                        sb.append(meta.getUserName());
+                        sb.append(", ");
+                        sb.append(meta.getDriverName());
+                        str = sb.toString();
+                    }
+                }
+            } catch (SQLException ex) {
+                // Ignore
+            }
+        }
+        
+        if (str == null) {
+            str = super.toString();
+        }
+        return str;
+    }
+}
@@ -1,314 +1,440 @@
-package com.asiainfo.dbcp.delegate;
-
-import java.io.InputStream;
-import java.io.Reader;
-import java.math.BigDecimal;
-import java.net.URL;
-import java.sql.Array;
-import java.sql.Blob;
-import java.sql.Clob;
-import java.sql.Date;
-import java.sql.NClob;
-import java.sql.ParameterMetaData;
-import java.sql.PreparedStatement;
-import java.sql.Ref;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
-import java.sql.RowId;
-import java.sql.SQLException;
-import java.sql.SQLXML;
-import java.sql.Time;
-import java.sql.Timestamp;
-import java.util.Calendar;
-
-/**
- * @Description: PreparedStatement代理，构建时将PreparedStatement加入连接的Trace队列里
- * 
- * @author chenzq  
- * @date 2019年5月1日 下午10:09:45
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
- */
-public class DelegatingPreparedStatement extends DelegatingStatement implements PreparedStatement {
-	
-	public DelegatingPreparedStatement(DelegatingConnection conn, PreparedStatement stmt) {
-		super(conn, stmt);
-	}
-
-	@Override
-	public ResultSet executeQuery() throws SQLException {
-		return new DelegatingResultSet(this, ((PreparedStatement) stmt).executeQuery());
-	}
-
-	@Override
-	public int executeUpdate() throws SQLException {
-		return ((PreparedStatement) stmt).executeUpdate();
-	}
-
-	@Override
-	public void setNull(int parameterIndex, int sqlType) throws SQLException {
-		((PreparedStatement) stmt).setNull(parameterIndex, sqlType);
-	}
-
-	@Override
-	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
-		((PreparedStatement) stmt).setBoolean(parameterIndex, x);
-	}
-
-	@Override
-	public void setByte(int parameterIndex, byte x) throws SQLException {
-		((PreparedStatement) stmt).setByte(parameterIndex, x);
-	}
-
-	@Override
-	public void setShort(int parameterIndex, short x) throws SQLException {
-		((PreparedStatement) stmt).setShort(parameterIndex, x);
-	}
-
-	@Override
-	public void setInt(int parameterIndex, int x) throws SQLException {
-		((PreparedStatement) stmt).setInt(parameterIndex, x);
-	}
-
-	@Override
-	public void setLong(int parameterIndex, long x) throws SQLException {
-		((PreparedStatement) stmt).setLong(parameterIndex, x);
-	}
-
-	@Override
-	public void setFloat(int parameterIndex, float x) throws SQLException {
-		((PreparedStatement) stmt).setFloat(parameterIndex, x);
-	}
-
-	@Override
-	public void setDouble(int parameterIndex, double x) throws SQLException {
-		((PreparedStatement) stmt).setDouble(parameterIndex, x);
-	}
-
-	@Override
-	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
-		((PreparedStatement) stmt).setBigDecimal(parameterIndex, x);
-	}
-
-	@Override
-	public void setString(int parameterIndex, String x) throws SQLException {
-		((PreparedStatement) stmt).setString(parameterIndex, x);
-	}
-
-	@Override
-	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
-		((PreparedStatement) stmt).setBytes(parameterIndex, x);
-	}
-
-	@Override
-	public void setDate(int parameterIndex, Date x) throws SQLException {
-		((PreparedStatement) stmt).setDate(parameterIndex, x);
-	}
-
-	@Override
-	public void setTime(int parameterIndex, Time x) throws SQLException {
-		((PreparedStatement) stmt).setTime(parameterIndex, x);
-	}
-
-	@Override
-	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
-		((PreparedStatement) stmt).setTimestamp(parameterIndex, x);
-	}
-
-	@Override
-	public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
-		((PreparedStatement) stmt).setAsciiStream(parameterIndex, x, length);
-	}
-
-	@SuppressWarnings("deprecation")
-	@Override
-	public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
-		((PreparedStatement) stmt).setUnicodeStream(parameterIndex, x, length);
-	}
-
-	@Override
-	public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
-		((PreparedStatement) stmt).setBinaryStream(parameterIndex, x, length);
-	}
-
-	@Override
-	public void clearParameters() throws SQLException {
-		((PreparedStatement) stmt).clearParameters();
-	}
-
-	@Override
-	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
-		((PreparedStatement) stmt).setObject(parameterIndex, x, targetSqlType);
-	}
-
-	@Override
-	public void setObject(int parameterIndex, Object x) throws SQLException {
-		((PreparedStatement) stmt).setObject(parameterIndex, x);
-	}
-
-	@Override
-	public boolean execute() throws SQLException {
-		return ((PreparedStatement) stmt).execute();
-	}
-
-	@Override
-	public void addBatch() throws SQLException {
-		((PreparedStatement) stmt).addBatch();
-
-	}
-
-	@Override
-	public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
-		((PreparedStatement) stmt).setCharacterStream(parameterIndex, reader, length);
-	}
-
-	@Override
-	public void setRef(int parameterIndex, Ref x) throws SQLException {
-		((PreparedStatement) stmt).setRef(parameterIndex, x);
-	}
-
-	@Override
-	public void setBlob(int parameterIndex, Blob x) throws SQLException {
-		((PreparedStatement) stmt).setBlob(parameterIndex, x);
-	}
-
-	@Override
-	public void setClob(int parameterIndex, Clob x) throws SQLException {
-		((PreparedStatement) stmt).setClob(parameterIndex, x);
-	}
-
-	@Override
-	public void setArray(int parameterIndex, Array x) throws SQLException {
-		((PreparedStatement) stmt).setArray(parameterIndex, x);
-	}
-
-	@Override
-	public ResultSetMetaData getMetaData() throws SQLException {
-		return ((PreparedStatement) stmt).getMetaData();
-	}
-
-	@Override
-	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
-		((PreparedStatement) stmt).setDate(parameterIndex, x, cal);
-	}
-
-	@Override
-	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
-		((PreparedStatement) stmt).setTime(parameterIndex, x, cal);
-	}
-
-	@Override
-	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
-		((PreparedStatement) stmt).setTimestamp(parameterIndex, x, cal);
-	}
-
-	@Override
-	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
-		((PreparedStatement) stmt).setNull(parameterIndex, sqlType, typeName);
-	}
-
-	@Override
-	public void setURL(int parameterIndex, URL x) throws SQLException {
-		((PreparedStatement) stmt).setURL(parameterIndex, x);
-	}
-
-	@Override
-	public ParameterMetaData getParameterMetaData() throws SQLException {
-		return ((PreparedStatement) stmt).getParameterMetaData();
-	}
-
-	@Override
-	public void setRowId(int parameterIndex, RowId x) throws SQLException {
-		((PreparedStatement) stmt).setRowId(parameterIndex, x);
-	}
-
-	@Override
-	public void setNString(int parameterIndex, String value) throws SQLException {
-		((PreparedStatement) stmt).setNString(parameterIndex, value);
-	}
-
-	@Override
-	public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
-		((PreparedStatement) stmt).setNCharacterStream(parameterIndex, value, length);
-	}
-
-	@Override
-	public void setNClob(int parameterIndex, NClob value) throws SQLException {
-		((PreparedStatement) stmt).setNClob(parameterIndex, value);
-	}
-
-	@Override
-	public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
-		((PreparedStatement) stmt).setClob(parameterIndex, reader, length);
-	}
-
-	@Override
-	public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
-		((PreparedStatement) stmt).setBlob(parameterIndex, inputStream, length);
-	}
-
-	@Override
-	public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
-		((PreparedStatement) stmt).setNClob(parameterIndex, reader, length);
-	}
-
-	@Override
-	public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
-		((PreparedStatement) stmt).setSQLXML(parameterIndex, xmlObject);
-	}
-
-	@Override
-	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
-		((PreparedStatement) stmt).setObject(parameterIndex, x, targetSqlType, scaleOrLength);
-	}
-
-	@Override
-	public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
-		((PreparedStatement) stmt).setAsciiStream(parameterIndex, x, length);
-	}
-
-	@Override
-	public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
-		((PreparedStatement) stmt).setBinaryStream(parameterIndex, x, length);
-	}
-
-	@Override
-	public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
-		((PreparedStatement) stmt).setCharacterStream(parameterIndex, reader, length);
-	}
-
-	@Override
-	public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
-		((PreparedStatement) stmt).setAsciiStream(parameterIndex, x);
-	}
-
-	@Override
-	public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
-		((PreparedStatement) stmt).setBinaryStream(parameterIndex, x);
-	}
-
-	@Override
-	public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
-		((PreparedStatement) stmt).setCharacterStream(parameterIndex, reader);
-	}
-
-	@Override
-	public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
-		((PreparedStatement) stmt).setNCharacterStream(parameterIndex, value);
-	}
-
-	@Override
-	public void setClob(int parameterIndex, Reader reader) throws SQLException {
-		((PreparedStatement) stmt).setClob(parameterIndex, reader);
-	}
-
-	@Override
-	public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
-		((PreparedStatement) stmt).setBlob(parameterIndex, inputStream);
-	}
-
-	@Override
-	public void setNClob(int parameterIndex, Reader reader) throws SQLException {
-		((PreparedStatement) stmt).setNClob(parameterIndex, reader);
-	}
+package com.asiainfo.dbcp.delegate;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * @Description: PreparedStatement代理，构建时将PreparedStatement加入连接的Trace队列里
+ *             - setXxx(int, ...)参数设置方法必须保持直接转发，DelegateProxyGenerator会为具体驱动类型生成特化的覆盖实现
+ * 
+ * @author chenzq  
+ * @date 2019年5月1日 下午10:09:45
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class DelegatingPreparedStatement extends DelegatingStatement implements PreparedStatement {
+	
+	// 连接开启statement缓存时的缓存key，为null时不缓存
+	private StatementKey statementKey;
+	
+	public DelegatingPreparedStatement(DelegatingConnection conn, PreparedStatement stmt) {
+		super(conn, stmt);
+	}
+	
+	/**
+	 * @Description: 开启缓存时关闭只是清理参数、批处理和修改过的设置后放回连接的statement缓存，物理statement保持打开；
+	 *             - 放回缓存的是包装同一个物理statement的新代理，当前代理与关闭普通statement一样不再可用，
+	 *               调用方保留的旧引用不会影响下一次借出的statement，再次关闭也不会关闭下一个使用者的statement；
+	 *             - 取消过执行、设置过游标名或者poolable=false的statement不放回缓存，直接关闭。
+	 * @author chenzq
+	 * @date 2026年10月19日 下午4:26:10
+	 * @throws SQLException
+	 */
+	@Override
+	public void close() throws SQLException {
+	    DelegatingConnection c = conn;
+	    StatementCache cache = c == null ? null : getStatementCache(c);
+	    if (closed || statementKey == null || cache == null) {
+	        super.close();
+	        return;
+	    }
+	    if (c.closed) {
+	        // 连接已经真正关闭，statement直接关闭并释放缓存预算
+	        StatementKey key = statementKey;
+	        statementKey = null;
+	        try {
+	            super.close();
+	        } finally {
+	            cache.release(key);
+	        }
+	        return;
+	    }
+	    closed = true;
+	    try {
+	        detach();
+	        closeResultSets();
+	        if (cancelled || (changedSettings & (CHANGED_CURSOR_NAME | CHANGED_NOT_POOLABLE)) != 0) {
+	            // 取消过执行的statement状态依赖驱动实现，游标名无法恢复，调用方要求不缓存的statement直接关闭
+	            cache.discard(this);
+	            return;
+	        }
+	        clearForReuse();
+	    } catch (SQLException e) {
+	        // 清理失败的statement不再缓存
+	        cache.discard(this);
+	        return;
+	    }
+	    cache.offer(handOver(c));
+	}
+	
+	// 清理参数、批处理和修改过的设置，下一次借出时不会带上本次的参数和设置，同时释放参数对象的引用
+	protected void clearForReuse() throws SQLException {
+	    PreparedStatement ps = (PreparedStatement) stmt;
+	    ps.clearParameters();
+	    ps.clearBatch();
+	    ps.clearWarnings();
+	    resetSettings();
+	    resetBatch();
+	}
+	
+	// 把物理statement和缓存key交给新的代理放回缓存，当前代理与关闭普通statement一样释放引用
+	private DelegatingPreparedStatement handOver(DelegatingConnection c) {
+	    DelegatingPreparedStatement next = newCachedCopy(c);
+	    // 构造时注册到了connection，借出时reopen再注册
+	    next.detach();
+	    next.closed = true;
+	    next.sql = sql;
+	    next.fetchSize = fetchSize;
+	    next.streaming = streaming;
+	    next.statementKey = statementKey;
+	    statementKey = null;
+	    stmt = null;
+	    conn = null;
+	    return next;
+	}
+	
+	/**
+	 * @Description: 创建包装同一个物理statement的新代理，子类按自己的类型创建并复制需要跨借出保留的状态
+	 * @author chenzq
+	 * @date 2026年10月20日 下午4:45:30
+	 * @param c
+	 * @return
+	 */
+	protected DelegatingPreparedStatement newCachedCopy(DelegatingConnection c) {
+	    return c.newPreparedStatement((PreparedStatement) stmt);
+	}
+	
+	// 当前statement所属的缓存
+	protected StatementCache getStatementCache(DelegatingConnection c) {
+	    return c.statementCache;
+	}
+	
+	// 从statement缓存借出时重新打开并注册到connection
+	void reopen() {
+	    closed = false;
+	    cancelled = false;
+	    attach();
+	}
+	
+	StatementKey getStatementKey() {
+	    return statementKey;
+	}
+	void setStatementKey(StatementKey statementKey) {
+	    this.statementKey = statementKey;
+	}
+
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		markUsed();
+		adviseFetchSize();
+		return wrapResultSet(((PreparedStatement) stmt).executeQuery());
+	}
+
+	@Override
+	public int executeUpdate() throws SQLException {
+		markUsed();
+		// DDL也可能通过PreparedStatement执行
+		executing(sql);
+		return ((PreparedStatement) stmt).executeUpdate();
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType) throws SQLException {
+		((PreparedStatement) stmt).setNull(parameterIndex, sqlType);
+	}
+
+	@Override
+	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+		((PreparedStatement) stmt).setBoolean(parameterIndex, x);
+	}
+
+	@Override
+	public void setByte(int parameterIndex, byte x) throws SQLException {
+		((PreparedStatement) stmt).setByte(parameterIndex, x);
+	}
+
+	@Override
+	public void setShort(int parameterIndex, short x) throws SQLException {
+		((PreparedStatement) stmt).setShort(parameterIndex, x);
+	}
+
+	@Override
+	public void setInt(int parameterIndex, int x) throws SQLException {
+		((PreparedStatement) stmt).setInt(parameterIndex, x);
+	}
+
+	@Override
+	public void setLong(int parameterIndex, long x) throws SQLException {
+		((PreparedStatement) stmt).setLong(parameterIndex, x);
+	}
+
+	@Override
+	public void setFloat(int parameterIndex, float x) throws SQLException {
+		((PreparedStatement) stmt).setFloat(parameterIndex, x);
+	}
+
+	@Override
+	public void setDouble(int parameterIndex, double x) throws SQLException {
+		((PreparedStatement) stmt).setDouble(parameterIndex, x);
+	}
+
+	@Override
+	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		((PreparedStatement) stmt).setBigDecimal(parameterIndex, x);
+	}
+
+	@Override
+	public void setString(int parameterIndex, String x) throws SQLException {
+		((PreparedStatement) stmt).setString(parameterIndex, x);
+	}
+
+	@Override
+	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+		((PreparedStatement) stmt).setBytes(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x) throws SQLException {
+		((PreparedStatement) stmt).setDate(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x) throws SQLException {
+		((PreparedStatement) stmt).setTime(parameterIndex, x);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+		((PreparedStatement) stmt).setTimestamp(parameterIndex, x);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		((PreparedStatement) stmt).setAsciiStream(parameterIndex, x, length);
+	}
+
+	@SuppressWarnings("deprecation")
+	@Override
+	public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		((PreparedStatement) stmt).setUnicodeStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		((PreparedStatement) stmt).setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void clearParameters() throws SQLException {
+		((PreparedStatement) stmt).clearParameters();
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+		((PreparedStatement) stmt).setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x) throws SQLException {
+		((PreparedStatement) stmt).setObject(parameterIndex, x);
+	}
+
+	@Override
+	public boolean execute() throws SQLException {
+		markUsed();
+		executing(sql);
+		adviseFetchSize();
+		return ((PreparedStatement) stmt).execute();
+	}
+
+	@Override
+	public void addBatch() throws SQLException {
+		((PreparedStatement) stmt).addBatch();
+		batchAdded();
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+		((PreparedStatement) stmt).setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setRef(int parameterIndex, Ref x) throws SQLException {
+		((PreparedStatement) stmt).setRef(parameterIndex, x);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, Blob x) throws SQLException {
+		((PreparedStatement) stmt).setBlob(parameterIndex, x);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Clob x) throws SQLException {
+		((PreparedStatement) stmt).setClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setArray(int parameterIndex, Array x) throws SQLException {
+		((PreparedStatement) stmt).setArray(parameterIndex, x);
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+	    SqlMetadataCache cache = conn != null ? conn.sqlMetadataCache : null;
+	    if (cache != null && sql != null) {
+	        ResultSetMetaDataSnapshot snapshot = cache.resultSetMetaData(conn.metadataScope(), sql, (PreparedStatement) stmt);
+	        if (snapshot != null) {
+	            return snapshot;
+	        }
+	    }
+		return ((PreparedStatement) stmt).getMetaData();
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+		((PreparedStatement) stmt).setDate(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+		((PreparedStatement) stmt).setTime(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+		((PreparedStatement) stmt).setTimestamp(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		((PreparedStatement) stmt).setNull(parameterIndex, sqlType, typeName);
+	}
+
+	@Override
+	public void setURL(int parameterIndex, URL x) throws SQLException {
+		((PreparedStatement) stmt).setURL(parameterIndex, x);
+	}
+
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+	    SqlMetadataCache cache = conn != null ? conn.sqlMetadataCache : null;
+	    if (cache != null && sql != null) {
+	        PreparedStatement ps = (PreparedStatement) stmt;
+	        return new CachedParameterMetaData(cache.parameterCount(conn.metadataScope(), sql, ps), ps);
+	    }
+		return ((PreparedStatement) stmt).getParameterMetaData();
+	}
+
+	@Override
+	public void setRowId(int parameterIndex, RowId x) throws SQLException {
+		((PreparedStatement) stmt).setRowId(parameterIndex, x);
+	}
+
+	@Override
+	public void setNString(int parameterIndex, String value) throws SQLException {
+		((PreparedStatement) stmt).setNString(parameterIndex, value);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+		((PreparedStatement) stmt).setNCharacterStream(parameterIndex, value, length);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, NClob value) throws SQLException {
+		((PreparedStatement) stmt).setNClob(parameterIndex, value);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		((PreparedStatement) stmt).setClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		((PreparedStatement) stmt).setBlob(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		((PreparedStatement) stmt).setNClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+		((PreparedStatement) stmt).setSQLXML(parameterIndex, xmlObject);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+		((PreparedStatement) stmt).setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		((PreparedStatement) stmt).setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		((PreparedStatement) stmt).setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		((PreparedStatement) stmt).setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+		((PreparedStatement) stmt).setAsciiStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+		((PreparedStatement) stmt).setBinaryStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		((PreparedStatement) stmt).setCharacterStream(parameterIndex, reader);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+		((PreparedStatement) stmt).setNCharacterStream(parameterIndex, value);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader) throws SQLException {
+		((PreparedStatement) stmt).setClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+		((PreparedStatement) stmt).setBlob(parameterIndex, inputStream);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+		((PreparedStatement) stmt).setNClob(parameterIndex, reader);
+	}
 }
\ No newline at end of file
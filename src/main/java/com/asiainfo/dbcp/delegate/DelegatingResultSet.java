@@ -1,1023 +1,1128 @@
-package com.asiainfo.dbcp.delegate;
-
-import java.io.InputStream;
-import java.io.Reader;
-import java.math.BigDecimal;
-import java.net.URL;
-import java.sql.Array;
-import java.sql.Blob;
-import java.sql.Clob;
-import java.sql.Date;
-import java.sql.NClob;
-import java.sql.Ref;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
-import java.sql.RowId;
-import java.sql.SQLException;
-import java.sql.SQLWarning;
-import java.sql.SQLXML;
-import java.sql.Statement;
-import java.sql.Time;
-import java.sql.Timestamp;
-import java.util.Calendar;
-import java.util.Map;
-
-/**   
- * @Description: ResultSet代理，构建时将ResultSet加入statement的Trace队列里
- * 
- * @author chenzq  
- * @date 2019年5月1日 下午10:37:22
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved. 
- */
-public class DelegatingResultSet extends AbandonedTrace implements ResultSet {
-
-    // 真正的ResultSet
-    protected ResultSet rs;
-    // 创建resultset的statement
-    protected DelegatingStatement stmt;
-    
-    public DelegatingResultSet(DelegatingStatement stmt, ResultSet rs) {
-        this.stmt = stmt;
-        this.rs = rs;
-        this.stmt.addTrace(this);
-    }
-    
-    @Override
-    public <T> T unwrap(Class<T> iface) throws SQLException {
-        if (iface.isAssignableFrom(getClass())) {
-            return iface.cast(this);
-        } else if (iface.isAssignableFrom(rs.getClass())) {
-            return iface.cast(rs);
-        } else {
-            return rs.unwrap(iface);
-        }
-    }
-
-    @Override
-    public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return iface.isAssignableFrom(getClass()) || rs.isWrapperFor(iface);
-    }
-
-    @Override
-    public boolean next() throws SQLException {
-        return rs.next();
-    }
-
-    @Override
-    public void close() throws SQLException {
-        try {
-            // 从connection trace里删除statement trace
-            if (stmt != null) {
-                stmt.removeTrace(this);
-                stmt = null;
-            }
-            // 关闭持有的ResultSet
-            rs.close();
-        } catch (SQLException e) {
-            throw e;
-        } finally {
-            stmt = null;
-            rs = null;
-        }
-
-    }
-
-    @Override
-    public boolean wasNull() throws SQLException {
-        return rs.wasNull();
-    }
-
-    @Override
-    public String getString(int columnIndex) throws SQLException {
-        return rs.getString(columnIndex);
-    }
-
-    @Override
-    public boolean getBoolean(int columnIndex) throws SQLException {
-        return rs.getBoolean(columnIndex);
-    }
-
-    @Override
-    public byte getByte(int columnIndex) throws SQLException {
-        return rs.getByte(columnIndex);
-    }
-
-    @Override
-    public short getShort(int columnIndex) throws SQLException {
-        return rs.getShort(columnIndex);
-    }
-
-    @Override
-    public int getInt(int columnIndex) throws SQLException {
-        return rs.getInt(columnIndex);
-    }
-
-    @Override
-    public long getLong(int columnIndex) throws SQLException {
-        return rs.getLong(columnIndex);
-    }
-
-    @Override
-    public float getFloat(int columnIndex) throws SQLException {
-        return rs.getFloat(columnIndex);
-    }
-
-    @Override
-    public double getDouble(int columnIndex) throws SQLException {
-        return rs.getDouble(columnIndex);
-    }
-
-    @SuppressWarnings("deprecation")
-    @Override
-    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
-        return rs.getBigDecimal(columnIndex, scale);
-    }
-
-    @Override
-    public byte[] getBytes(int columnIndex) throws SQLException {
-        return rs.getBytes(columnIndex);
-    }
-
-    @Override
-    public Date getDate(int columnIndex) throws SQLException {
-        return rs.getDate(columnIndex);
-    }
-
-    @Override
-    public Time getTime(int columnIndex) throws SQLException {
-        return rs.getTime(columnIndex);
-    }
-
-    @Override
-    public Timestamp getTimestamp(int columnIndex) throws SQLException {
-        return rs.getTimestamp(columnIndex);
-    }
-
-    @Override
-    public InputStream getAsciiStream(int columnIndex) throws SQLException {
-        return rs.getAsciiStream(columnIndex);
-    }
-
-    @SuppressWarnings("deprecation")
-    @Override
-    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
-        return rs.getUnicodeStream(columnIndex);
-    }
-
-    @Override
-    public InputStream getBinaryStream(int columnIndex) throws SQLException {
-        return rs.getBinaryStream(columnIndex);
-    }
-
-    @Override
-    public String getString(String columnLabel) throws SQLException {
-        return rs.getString(columnLabel);
-    }
-
-    @Override
-    public boolean getBoolean(String columnLabel) throws SQLException {
-        return rs.getBoolean(columnLabel);
-    }
-
-    @Override
-    public byte getByte(String columnLabel) throws SQLException {
-        return rs.getByte(columnLabel);
-    }
-
-    @Override
-    public short getShort(String columnLabel) throws SQLException {
-        return rs.getShort(columnLabel);
-    }
-
-    @Override
-    public int getInt(String columnLabel) throws SQLException {
-        return rs.getInt(columnLabel);
-    }
-
-    @Override
-    public long getLong(String columnLabel) throws SQLException {
-        return rs.getLong(columnLabel);
-    }
-
-    @Override
-    public float getFloat(String columnLabel) throws SQLException {
-        return rs.getFloat(columnLabel);
-    }
-
-    @Override
-    public double getDouble(String columnLabel) throws SQLException {
-        return rs.getDouble(columnLabel);
-    }
-
-    @Override
-    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
-        return rs.getBigDecimal(columnLabel);
-    }
-
-    @Override
-    public byte[] getBytes(String columnLabel) throws SQLException {
-        return rs.getBytes(columnLabel);
-    }
-
-    @Override
-    public Date getDate(String columnLabel) throws SQLException {
-        return rs.getDate(columnLabel);
-    }
-
-    @Override
-    public Time getTime(String columnLabel) throws SQLException {
-        return rs.getTime(columnLabel);
-    }
-
-    @Override
-    public Timestamp getTimestamp(String columnLabel) throws SQLException {
-        return rs.getTimestamp(columnLabel);
-    }
-
-    @Override
-    public InputStream getAsciiStream(String columnLabel) throws SQLException {
-        return rs.getAsciiStream(columnLabel);
-    }
-
-    @SuppressWarnings("deprecation")
-    @Override
-    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
-        return rs.getUnicodeStream(columnLabel);
-    }
-
-    @Override
-    public InputStream getBinaryStream(String columnLabel) throws SQLException {
-        return rs.getBinaryStream(columnLabel);
-    }
-
-    @Override
-    public SQLWarning getWarnings() throws SQLException {
-        return rs.getWarnings();
-    }
-
-    @Override
-    public void clearWarnings() throws SQLException {
-        rs.clearWarnings();
-    }
-
-    @Override
-    public String getCursorName() throws SQLException {
-        return rs.getCursorName();
-    }
-
-    @Override
-    public ResultSetMetaData getMetaData() throws SQLException {
-        return rs.getMetaData();
-    }
-
-    @Override
-    public Object getObject(int columnIndex) throws SQLException {
-        return rs.getObject(columnIndex);
-    }
-
-    @Override
-    public Object getObject(String columnLabel) throws SQLException {
-        return rs.getObject(columnLabel);
-    }
-
-    @Override
-    public int findColumn(String columnLabel) throws SQLException {
-        return rs.findColumn(columnLabel);
-    }
-
-    @Override
-    public Reader getCharacterStream(int columnIndex) throws SQLException {
-        return rs.getCharacterStream(columnIndex);
-    }
-
-    @Override
-    public Reader getCharacterStream(String columnLabel) throws SQLException {
-        return rs.getCharacterStream(columnLabel);
-    }
-
-    @Override
-    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
-        return rs.getBigDecimal(columnIndex);
-    }
-
-    @Override
-    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
-        return rs.getBigDecimal(columnLabel);
-    }
-
-    @Override
-    public boolean isBeforeFirst() throws SQLException {
-        return rs.isBeforeFirst();
-    }
-
-    @Override
-    public boolean isAfterLast() throws SQLException {
-        return rs.isAfterLast();
-    }
-
-    @Override
-    public boolean isFirst() throws SQLException {
-        return rs.isFirst();
-    }
-
-    @Override
-    public boolean isLast() throws SQLException {
-        return rs.isLast();
-    }
-
-    @Override
-    public void beforeFirst() throws SQLException {
-        rs.beforeFirst();
-    }
-
-    @Override
-    public void afterLast() throws SQLException {
-        rs.afterLast();
-    }
-
-    @Override
-    public boolean first() throws SQLException {
-        return rs.first();
-    }
-
-    @Override
-    public boolean last() throws SQLException {
-        return rs.last();
-    }
-
-    @Override
-    public int getRow() throws SQLException {
-        return rs.getRow();
-    }
-
-    @Override
-    public boolean absolute(int row) throws SQLException {
-        return rs.absolute(row);
-    }
-
-    @Override
-    public boolean relative(int rows) throws SQLException {
-        return rs.relative(rows);
-    }
-
-    @Override
-    public boolean previous() throws SQLException {
-        return rs.previous();
-    }
-
-    @Override
-    public void setFetchDirection(int direction) throws SQLException {
-        rs.setFetchDirection(direction);
-    }
-
-    @Override
-    public int getFetchDirection() throws SQLException {
-        return rs.getFetchDirection();
-    }
-
-    @Override
-    public void setFetchSize(int rows) throws SQLException {
-        rs.setFetchSize(rows);
-    }
-
-    @Override
-    public int getFetchSize() throws SQLException {
-        return rs.getFetchSize();
-    }
-
-    @Override
-    public int getType() throws SQLException {
-        return rs.getType();
-    }
-
-    @Override
-    public int getConcurrency() throws SQLException {
-        return rs.getConcurrency();
-    }
-
-    @Override
-    public boolean rowUpdated() throws SQLException {
-        return rs.rowUpdated();
-    }
-
-    @Override
-    public boolean rowInserted() throws SQLException {
-        return rs.rowInserted();
-    }
-
-    @Override
-    public boolean rowDeleted() throws SQLException {
-        return rs.rowDeleted();
-    }
-
-    @Override
-    public void updateNull(int columnIndex) throws SQLException {
-        rs.updateNull(columnIndex);
-    }
-
-    @Override
-    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
-        rs.updateBoolean(columnIndex, x);
-    }
-
-    @Override
-    public void updateByte(int columnIndex, byte x) throws SQLException {
-        rs.updateByte(columnIndex, x);
-    }
-
-    @Override
-    public void updateShort(int columnIndex, short x) throws SQLException {
-        rs.updateShort(columnIndex, x);
-    }
-
-    @Override
-    public void updateInt(int columnIndex, int x) throws SQLException {
-        rs.updateInt(columnIndex, x);
-    }
-
-    @Override
-    public void updateLong(int columnIndex, long x) throws SQLException {
-        rs.updateLong(columnIndex, x);
-    }
-
-    @Override
-    public void updateFloat(int columnIndex, float x) throws SQLException {
-        rs.updateFloat(columnIndex, x);
-    }
-
-    @Override
-    public void updateDouble(int columnIndex, double x) throws SQLException {
-        rs.updateDouble(columnIndex, x);
-    }
-
-    @Override
-    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
-        rs.updateBigDecimal(columnIndex, x);
-    }
-
-    @Override
-    public void updateString(int columnIndex, String x) throws SQLException {
-        rs.updateString(columnIndex, x);
-    }
-
-    @Override
-    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
-        rs.updateBytes(columnIndex, x);
-    }
-
-    @Override
-    public void updateDate(int columnIndex, Date x) throws SQLException {
-        rs.updateDate(columnIndex, x);
-    }
-
-    @Override
-    public void updateTime(int columnIndex, Time x) throws SQLException {
-        rs.updateTime(columnIndex, x);
-    }
-
-    @Override
-    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
-        rs.updateTimestamp(columnIndex, x);
-    }
-
-    @Override
-    public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
-        rs.updateAsciiStream(columnIndex, x, length);
-    }
-
-    @Override
-    public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
-        rs.updateBinaryStream(columnIndex, x, length);
-    }
-
-    @Override
-    public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
-        rs.updateCharacterStream(columnIndex, x, length);
-    }
-
-    @Override
-    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
-        rs.updateObject(columnIndex, x, scaleOrLength);
-    }
-
-    @Override
-    public void updateObject(int columnIndex, Object x) throws SQLException {
-        rs.updateObject(columnIndex, x);
-    }
-
-    @Override
-    public void updateNull(String columnLabel) throws SQLException {
-        rs.updateNull(columnLabel);
-    }
-
-    @Override
-    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
-        rs.updateBoolean(columnLabel, x);
-    }
-
-    @Override
-    public void updateByte(String columnLabel, byte x) throws SQLException {
-        rs.updateByte(columnLabel, x);
-    }
-
-    @Override
-    public void updateShort(String columnLabel, short x) throws SQLException {
-        rs.updateShort(columnLabel, x);
-    }
-
-    @Override
-    public void updateInt(String columnLabel, int x) throws SQLException {
-        rs.updateInt(columnLabel, x);
-    }
-
-    @Override
-    public void updateLong(String columnLabel, long x) throws SQLException {
-        rs.updateLong(columnLabel, x);
-    }
-
-    @Override
-    public void updateFloat(String columnLabel, float x) throws SQLException {
-        rs.updateFloat(columnLabel, x);
-    }
-
-    @Override
-    public void updateDouble(String columnLabel, double x) throws SQLException {
-        rs.updateDouble(columnLabel, x);
-    }
-
-    @Override
-    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
-        rs.updateBigDecimal(columnLabel, x);
-    }
-
-    @Override
-    public void updateString(String columnLabel, String x) throws SQLException {
-        rs.updateString(columnLabel, x);
-    }
-
-    @Override
-    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
-        rs.updateBytes(columnLabel, x);
-    }
-
-    @Override
-    public void updateDate(String columnLabel, Date x) throws SQLException {
-        rs.updateDate(columnLabel, x);
-    }
-
-    @Override
-    public void updateTime(String columnLabel, Time x) throws SQLException {
-        rs.updateTime(columnLabel, x);
-    }
-
-    @Override
-    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
-        rs.updateTimestamp(columnLabel, x);
-    }
-
-    @Override
-    public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
-        rs.updateAsciiStream(columnLabel, x, length);
-    }
-
-    @Override
-    public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
-        rs.updateBinaryStream(columnLabel, x, length);
-    }
-
-    @Override
-    public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
-        rs.updateCharacterStream(columnLabel, reader, length);
-    }
-
-    @Override
-    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
-        rs.updateObject(columnLabel, x, scaleOrLength);
-    }
-
-    @Override
-    public void updateObject(String columnLabel, Object x) throws SQLException {
-        rs.updateObject(columnLabel, x);
-    }
-
-    @Override
-    public void insertRow() throws SQLException {
-        rs.insertRow();
-    }
-
-    @Override
-    public void updateRow() throws SQLException {
-        rs.updateRow();
-    }
-
-    @Override
-    public void deleteRow() throws SQLException {
-        rs.deleteRow();
-    }
-
-    @Override
-    public void refreshRow() throws SQLException {
-        rs.refreshRow();
-    }
-
-    @Override
-    public void cancelRowUpdates() throws SQLException {
-        rs.cancelRowUpdates();
-    }
-
-    @Override
-    public void moveToInsertRow() throws SQLException {
-        rs.moveToInsertRow();
-    }
-
-    @Override
-    public void moveToCurrentRow() throws SQLException {
-        rs.moveToCurrentRow();
-    }
-
-    @Override
-    public Statement getStatement() throws SQLException {
-        return stmt;
-    }
-
-    @Override
-    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
-        return rs.getObject(columnIndex, map);
-    }
-
-    @Override
-    public Ref getRef(int columnIndex) throws SQLException {
-        return rs.getRef(columnIndex);
-    }
-
-    @Override
-    public Blob getBlob(int columnIndex) throws SQLException {
-        return rs.getBlob(columnIndex);
-    }
-
-    @Override
-    public Clob getClob(int columnIndex) throws SQLException {
-        return rs.getClob(columnIndex);
-    }
-
-    @Override
-    public Array getArray(int columnIndex) throws SQLException {
-        return rs.getArray(columnIndex);
-    }
-
-    @Override
-    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
-        return rs.getObject(columnLabel, map);
-    }
-
-    @Override
-    public Ref getRef(String columnLabel) throws SQLException {
-        return rs.getRef(columnLabel);
-    }
-
-    @Override
-    public Blob getBlob(String columnLabel) throws SQLException {
-        return rs.getBlob(columnLabel);
-    }
-
-    @Override
-    public Clob getClob(String columnLabel) throws SQLException {
-        return rs.getClob(columnLabel);
-    }
-
-    @Override
-    public Array getArray(String columnLabel) throws SQLException {
-        return rs.getArray(columnLabel);
-    }
-
-    @Override
-    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
-        return rs.getDate(columnIndex, cal);
-    }
-
-    @Override
-    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
-        return rs.getDate(columnLabel, cal);
-    }
-
-    @Override
-    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
-        return rs.getTime(columnIndex, cal);
-    }
-
-    @Override
-    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
-        return rs.getTime(columnLabel, cal);
-    }
-
-    @Override
-    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
-        return rs.getTimestamp(columnIndex, cal);
-    }
-
-    @Override
-    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
-        return rs.getTimestamp(columnLabel, cal);
-    }
-
-    @Override
-    public URL getURL(int columnIndex) throws SQLException {
-        return rs.getURL(columnIndex);
-    }
-
-    @Override
-    public URL getURL(String columnLabel) throws SQLException {
-        return rs.getURL(columnLabel);
-    }
-
-    @Override
-    public void updateRef(int columnIndex, Ref x) throws SQLException {
-        rs.updateRef(columnIndex, x);
-    }
-
-    @Override
-    public void updateRef(String columnLabel, Ref x) throws SQLException {
-        rs.updateRef(columnLabel, x);
-    }
-
-    @Override
-    public void updateBlob(int columnIndex, Blob x) throws SQLException {
-        rs.updateBlob(columnIndex, x);
-    }
-
-    @Override
-    public void updateBlob(String columnLabel, Blob x) throws SQLException {
-        rs.updateBlob(columnLabel, x);
-    }
-
-    @Override
-    public void updateClob(int columnIndex, Clob x) throws SQLException {
-        rs.updateClob(columnIndex, x);
-    }
-
-    @Override
-    public void updateClob(String columnLabel, Clob x) throws SQLException {
-        rs.updateClob(columnLabel, x);
-    }
-
-    @Override
-    public void updateArray(int columnIndex, Array x) throws SQLException {
-        rs.updateArray(columnIndex, x);
-    }
-
-    @Override
-    public void updateArray(String columnLabel, Array x) throws SQLException {
-        rs.updateArray(columnLabel, x);
-    }
-
-    @Override
-    public RowId getRowId(int columnIndex) throws SQLException {
-        return rs.getRowId(columnIndex);
-    }
-
-    @Override
-    public RowId getRowId(String columnLabel) throws SQLException {
-        return rs.getRowId(columnLabel);
-    }
-
-    @Override
-    public void updateRowId(int columnIndex, RowId x) throws SQLException {
-        rs.updateRowId(columnIndex, x);
-    }
-
-    @Override
-    public void updateRowId(String columnLabel, RowId x) throws SQLException {
-        rs.updateRowId(columnLabel, x);
-    }
-
-    @Override
-    public int getHoldability() throws SQLException {
-        return rs.getHoldability();
-    }
-
-    @Override
-    public boolean isClosed() throws SQLException {
-        return rs.isClosed();
-    }
-
-    @Override
-    public void updateNString(int columnIndex, String nString) throws SQLException {
-        rs.updateNString(columnIndex, nString);
-    }
-
-    @Override
-    public void updateNString(String columnLabel, String nString) throws SQLException {
-        rs.updateNString(columnLabel, nString);
-    }
-
-    @Override
-    public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
-        rs.updateNClob(columnIndex, nClob);
-    }
-
-    @Override
-    public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
-        rs.updateNClob(columnLabel, nClob);
-    }
-
-    @Override
-    public NClob getNClob(int columnIndex) throws SQLException {
-        return rs.getNClob(columnIndex);
-    }
-
-    @Override
-    public NClob getNClob(String columnLabel) throws SQLException {
-        return rs.getNClob(columnLabel);
-    }
-
-    @Override
-    public SQLXML getSQLXML(int columnIndex) throws SQLException {
-        return rs.getSQLXML(columnIndex);
-    }
-
-    @Override
-    public SQLXML getSQLXML(String columnLabel) throws SQLException {
-        return rs.getSQLXML(columnLabel);
-    }
-
-    @Override
-    public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
-        rs.updateSQLXML(columnIndex, xmlObject);
-    }
-
-    @Override
-    public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
-        rs.updateSQLXML(columnLabel, xmlObject);
-    }
-
-    @Override
-    public String getNString(int columnIndex) throws SQLException {
-        return rs.getNString(columnIndex);
-    }
-
-    @Override
-    public String getNString(String columnLabel) throws SQLException {
-        return rs.getNString(columnLabel);
-    }
-
-    @Override
-    public Reader getNCharacterStream(int columnIndex) throws SQLException {
-        return rs.getNCharacterStream(columnIndex);
-    }
-
-    @Override
-    public Reader getNCharacterStream(String columnLabel) throws SQLException {
-        return rs.getNCharacterStream(columnLabel);
-    }
-
-    @Override
-    public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
-        rs.updateNCharacterStream(columnIndex, x, length);
-    }
-
-    @Override
-    public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
-        rs.updateNCharacterStream(columnLabel, reader, length);
-    }
-
-    @Override
-    public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
-        rs.updateAsciiStream(columnIndex, x, length);
-    }
-
-    @Override
-    public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
-        rs.updateBinaryStream(columnIndex, x, length);
-    }
-
-    @Override
-    public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
-        rs.updateCharacterStream(columnIndex, x, length);
-    }
-
-    @Override
-    public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
-        rs.updateAsciiStream(columnLabel, x, length);
-    }
-
-    @Override
-    public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
-        rs.updateBinaryStream(columnLabel, x, length);
-    }
-
-    @Override
-    public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
-        rs.updateCharacterStream(columnLabel, reader, length);
-    }
-
-    @Override
-    public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
-        rs.updateBlob(columnIndex, inputStream, length);
-    }
-
-    @Override
-    public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
-        rs.updateBlob(columnLabel, inputStream, length);
-    }
-
-    @Override
-    public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
-        rs.updateClob(columnIndex, reader, length);
-    }
-
-    @Override
-    public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
-        rs.updateClob(columnLabel, reader, length);
-    }
-
-    @Override
-    public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
-        rs.updateNClob(columnIndex, reader, length);
-    }
-
-    @Override
-    public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
-        rs.updateNClob(columnLabel, reader, length);
-    }
-
-    @Override
-    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
-        rs.updateNCharacterStream(columnIndex, x);
-    }
-
-    @Override
-    public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
-        rs.updateNCharacterStream(columnLabel, reader);
-    }
-
-    @Override
-    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
-        rs.updateAsciiStream(columnIndex, x);
-    }
-
-    @Override
-    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
-        rs.updateBinaryStream(columnIndex, x);
-    }
-
-    @Override
-    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
-        rs.updateCharacterStream(columnIndex, x);
-    }
-
-    @Override
-    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
-        rs.updateAsciiStream(columnLabel, x);
-    }
-
-    @Override
-    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
-        rs.updateBinaryStream(columnLabel, x);
-    }
-
-    @Override
-    public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
-        rs.updateCharacterStream(columnLabel, reader);
-    }
-
-    @Override
-    public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
-        rs.updateBlob(columnIndex, inputStream);
-    }
-
-    @Override
-    public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
-        rs.updateBlob(columnLabel, inputStream);
-    }
-
-    @Override
-    public void updateClob(int columnIndex, Reader reader) throws SQLException {
-        rs.updateClob(columnIndex, reader);
-    }
-
-    @Override
-    public void updateClob(String columnLabel, Reader reader) throws SQLException {
-        rs.updateClob(columnLabel, reader);
-    }
-
-    @Override
-    public void updateNClob(int columnIndex, Reader reader) throws SQLException {
-        rs.updateNClob(columnIndex, reader);
-    }
-
-    @Override
-    public void updateNClob(String columnLabel, Reader reader) throws SQLException {
-        rs.updateNClob(columnLabel, reader);
-    }
-
-    @Override
-    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
-        return rs.getObject(columnIndex, type);
-    }
-
-    @Override
-    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
-        return rs.getObject(columnLabel, type);
-    }
+package com.asiainfo.dbcp.delegate;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**   
+ * @Description: ResultSet代理，构建时将ResultSet加入statement的Trace队列里；ResultSet不会产生子trace，只继承TraceNode
+ *             - 按列序号取值的getXxx(int)及wasNull()必须保持直接转发，DelegateProxyGenerator会为具体驱动类型生成特化的覆盖实现
+ * 
+ * @author chenzq  
+ * @date 2019年5月1日 下午10:37:22
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved. 
+ */
+public class DelegatingResultSet extends TraceNode implements ResultSet {
+
+    // 真正的ResultSet
+    protected ResultSet rs;
+    // 创建resultset的statement
+    protected DelegatingStatement stmt;
+    // 共享缓存的结果集元数据快照，每个结果集第一次使用时获取
+    protected ResultSetMetaDataSnapshot metaData;
+    // 是否已经获取过快照，未开启缓存时不再重复获取
+    private boolean metaDataResolved;
+    // 是否流式读取，以及是否已经读到结果集末尾
+    private boolean streaming;
+    private boolean exhausted;
+    // 调用方读取的行数，关闭时记录到自适应fetchSize
+    private long rows;
+    
+    public DelegatingResultSet(DelegatingStatement stmt, ResultSet rs) {
+        this.stmt = stmt;
+        this.rs = rs;
+        this.streaming = stmt.streaming;
+        if (stmt.isTraced()) {
+            this.stmt.addTrace(this);
+        }
+    }
+    
+    // 产生当前结果集的sql，未知时返回null
+    public String getSql() {
+        DelegatingStatement st = stmt;
+        return st == null ? null : st.sql;
+    }
+    
+    // 代理对象是否已关闭
+    boolean isReleased() {
+        return rs == null;
+    }
+    
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isAssignableFrom(getClass())) {
+            return iface.cast(this);
+        } else if (iface.isAssignableFrom(rs.getClass())) {
+            return iface.cast(rs);
+        } else {
+            return rs.unwrap(iface);
+        }
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isAssignableFrom(getClass()) || rs.isWrapperFor(iface);
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        boolean more = rs.next();
+        if (more) {
+            rows++;
+        } else {
+            exhausted = true;
+        }
+        return more;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (rs == null) {
+            // 已经关闭
+            return;
+        }
+        boolean cancelled = false;
+        try {
+            // 从connection trace里删除statement trace
+            if (stmt != null) {
+                stmt.removeTrace(this);
+                stmt.recordFetch(rows, this);
+                // 逐行流式读取的结果集没有读完（包括连接归还时被放弃的结果集），按配置先取消执行，避免关闭时读完剩余的数据
+                if (streaming && !exhausted) {
+                    cancelled = stmt.cancelStreaming();
+                }
+                stmt = null;
+            }
+            // 关闭持有的ResultSet
+            rs.close();
+        } catch (SQLException e) {
+            // 取消执行后驱动可能报告查询被中断，结果集已经不可用，忽略
+            if (!cancelled) {
+                throw e;
+            }
+        } finally {
+            stmt = null;
+            rs = null;
+        }
+
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        return rs.wasNull();
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        return rs.getString(columnIndex);
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        return rs.getBoolean(columnIndex);
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        return rs.getByte(columnIndex);
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        return rs.getShort(columnIndex);
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        return rs.getInt(columnIndex);
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        return rs.getLong(columnIndex);
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        return rs.getFloat(columnIndex);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        return rs.getDouble(columnIndex);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        return rs.getBigDecimal(columnIndex, scale);
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        return rs.getBytes(columnIndex);
+    }
+
+    @Override
+    public Date getDate(int columnIndex) throws SQLException {
+        return rs.getDate(columnIndex);
+    }
+
+    @Override
+    public Time getTime(int columnIndex) throws SQLException {
+        return rs.getTime(columnIndex);
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        return rs.getTimestamp(columnIndex);
+    }
+
+    @Override
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        return rs.getAsciiStream(columnIndex);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        return rs.getUnicodeStream(columnIndex);
+    }
+
+    @Override
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        return rs.getBinaryStream(columnIndex);
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getString(column) : rs.getString(columnLabel);
+    }
+
+    @Override
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getBoolean(column) : rs.getBoolean(columnLabel);
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getByte(column) : rs.getByte(columnLabel);
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getShort(column) : rs.getShort(columnLabel);
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getInt(column) : rs.getInt(columnLabel);
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getLong(column) : rs.getLong(columnLabel);
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getFloat(column) : rs.getFloat(columnLabel);
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getDouble(column) : rs.getDouble(columnLabel);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getBigDecimal(column, scale) : rs.getBigDecimal(columnLabel, scale);
+    }
+
+    @Override
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getBytes(column) : rs.getBytes(columnLabel);
+    }
+
+    @Override
+    public Date getDate(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getDate(column) : rs.getDate(columnLabel);
+    }
+
+    @Override
+    public Time getTime(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getTime(column) : rs.getTime(columnLabel);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getTimestamp(column) : rs.getTimestamp(columnLabel);
+    }
+
+    @Override
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getAsciiStream(column) : rs.getAsciiStream(columnLabel);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getUnicodeStream(column) : rs.getUnicodeStream(columnLabel);
+    }
+
+    @Override
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getBinaryStream(column) : rs.getBinaryStream(columnLabel);
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return rs.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        rs.clearWarnings();
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        return rs.getCursorName();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        ResultSetMetaDataSnapshot snapshot = metaData();
+        return snapshot != null ? snapshot : rs.getMetaData();
+    }
+    
+    // 从连接池的sql元数据缓存获取快照，未开启缓存时返回null
+    protected ResultSetMetaDataSnapshot metaData() throws SQLException {
+        if (!metaDataResolved && stmt != null) {
+            metaData = stmt.resultSetMetaData(rs);
+            metaDataResolved = true;
+        }
+        return metaData;
+    }
+    
+    /**
+     * @Description: 通过共享的元数据快照把列标签转换为列序号，标签取值方法转为调用序号取值方法，避免驱动每次按名称查找列；
+     *             - 共享的快照在每个结果集第一次使用时与驱动的元数据逐列比较标签和类型（O(列数)），不一致时重建，不会按旧的索引返回错误的列；
+     *             - 未开启元数据缓存或者找不到列时返回-1，由驱动按标签处理（包括报错）。
+     * @author chenzq
+     * @date 2026年10月19日 下午7:32:08
+     * @param columnLabel
+     * @return
+     * @throws SQLException
+     */
+    protected int column(String columnLabel) throws SQLException {
+        ResultSetMetaDataSnapshot snapshot = metaDataResolved ? metaData : metaData();
+        return snapshot == null ? -1 : snapshot.findColumn(columnLabel);
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        return rs.getObject(columnIndex);
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getObject(column) : rs.getObject(columnLabel);
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? column : rs.findColumn(columnLabel);
+    }
+
+    @Override
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        return rs.getCharacterStream(columnIndex);
+    }
+
+    @Override
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getCharacterStream(column) : rs.getCharacterStream(columnLabel);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        return rs.getBigDecimal(columnIndex);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getBigDecimal(column) : rs.getBigDecimal(columnLabel);
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        return rs.isBeforeFirst();
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        return rs.isAfterLast();
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        return rs.isFirst();
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        return rs.isLast();
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        rs.beforeFirst();
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        rs.afterLast();
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        return rs.first();
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        return rs.last();
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        return rs.getRow();
+    }
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        return rs.absolute(row);
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        return rs.relative(rows);
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        return rs.previous();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        rs.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return rs.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        rs.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return rs.getFetchSize();
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        return rs.getType();
+    }
+
+    @Override
+    public int getConcurrency() throws SQLException {
+        return rs.getConcurrency();
+    }
+
+    @Override
+    public boolean rowUpdated() throws SQLException {
+        return rs.rowUpdated();
+    }
+
+    @Override
+    public boolean rowInserted() throws SQLException {
+        return rs.rowInserted();
+    }
+
+    @Override
+    public boolean rowDeleted() throws SQLException {
+        return rs.rowDeleted();
+    }
+
+    @Override
+    public void updateNull(int columnIndex) throws SQLException {
+        rs.updateNull(columnIndex);
+    }
+
+    @Override
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+        rs.updateBoolean(columnIndex, x);
+    }
+
+    @Override
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+        rs.updateByte(columnIndex, x);
+    }
+
+    @Override
+    public void updateShort(int columnIndex, short x) throws SQLException {
+        rs.updateShort(columnIndex, x);
+    }
+
+    @Override
+    public void updateInt(int columnIndex, int x) throws SQLException {
+        rs.updateInt(columnIndex, x);
+    }
+
+    @Override
+    public void updateLong(int columnIndex, long x) throws SQLException {
+        rs.updateLong(columnIndex, x);
+    }
+
+    @Override
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+        rs.updateFloat(columnIndex, x);
+    }
+
+    @Override
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+        rs.updateDouble(columnIndex, x);
+    }
+
+    @Override
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+        rs.updateBigDecimal(columnIndex, x);
+    }
+
+    @Override
+    public void updateString(int columnIndex, String x) throws SQLException {
+        rs.updateString(columnIndex, x);
+    }
+
+    @Override
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+        rs.updateBytes(columnIndex, x);
+    }
+
+    @Override
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+        rs.updateDate(columnIndex, x);
+    }
+
+    @Override
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+        rs.updateTime(columnIndex, x);
+    }
+
+    @Override
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+        rs.updateTimestamp(columnIndex, x);
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+        rs.updateAsciiStream(columnIndex, x, length);
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+        rs.updateBinaryStream(columnIndex, x, length);
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+        rs.updateCharacterStream(columnIndex, x, length);
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+        rs.updateObject(columnIndex, x, scaleOrLength);
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+        rs.updateObject(columnIndex, x);
+    }
+
+    @Override
+    public void updateNull(String columnLabel) throws SQLException {
+        rs.updateNull(columnLabel);
+    }
+
+    @Override
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+        rs.updateBoolean(columnLabel, x);
+    }
+
+    @Override
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+        rs.updateByte(columnLabel, x);
+    }
+
+    @Override
+    public void updateShort(String columnLabel, short x) throws SQLException {
+        rs.updateShort(columnLabel, x);
+    }
+
+    @Override
+    public void updateInt(String columnLabel, int x) throws SQLException {
+        rs.updateInt(columnLabel, x);
+    }
+
+    @Override
+    public void updateLong(String columnLabel, long x) throws SQLException {
+        rs.updateLong(columnLabel, x);
+    }
+
+    @Override
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+        rs.updateFloat(columnLabel, x);
+    }
+
+    @Override
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+        rs.updateDouble(columnLabel, x);
+    }
+
+    @Override
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+        rs.updateBigDecimal(columnLabel, x);
+    }
+
+    @Override
+    public void updateString(String columnLabel, String x) throws SQLException {
+        rs.updateString(columnLabel, x);
+    }
+
+    @Override
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+        rs.updateBytes(columnLabel, x);
+    }
+
+    @Override
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+        rs.updateDate(columnLabel, x);
+    }
+
+    @Override
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+        rs.updateTime(columnLabel, x);
+    }
+
+    @Override
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+        rs.updateTimestamp(columnLabel, x);
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+        rs.updateAsciiStream(columnLabel, x, length);
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+        rs.updateBinaryStream(columnLabel, x, length);
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+        rs.updateCharacterStream(columnLabel, reader, length);
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+        rs.updateObject(columnLabel, x, scaleOrLength);
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+        rs.updateObject(columnLabel, x);
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+        rs.insertRow();
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+        rs.updateRow();
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+        rs.deleteRow();
+    }
+
+    @Override
+    public void refreshRow() throws SQLException {
+        rs.refreshRow();
+    }
+
+    @Override
+    public void cancelRowUpdates() throws SQLException {
+        rs.cancelRowUpdates();
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+        rs.moveToInsertRow();
+    }
+
+    @Override
+    public void moveToCurrentRow() throws SQLException {
+        rs.moveToCurrentRow();
+    }
+
+    @Override
+    public Statement getStatement() throws SQLException {
+        return stmt;
+    }
+
+    @Override
+    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+        return rs.getObject(columnIndex, map);
+    }
+
+    @Override
+    public Ref getRef(int columnIndex) throws SQLException {
+        return rs.getRef(columnIndex);
+    }
+
+    @Override
+    public Blob getBlob(int columnIndex) throws SQLException {
+        return rs.getBlob(columnIndex);
+    }
+
+    @Override
+    public Clob getClob(int columnIndex) throws SQLException {
+        return rs.getClob(columnIndex);
+    }
+
+    @Override
+    public Array getArray(int columnIndex) throws SQLException {
+        return rs.getArray(columnIndex);
+    }
+
+    @Override
+    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getObject(column, map) : rs.getObject(columnLabel, map);
+    }
+
+    @Override
+    public Ref getRef(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getRef(column) : rs.getRef(columnLabel);
+    }
+
+    @Override
+    public Blob getBlob(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getBlob(column) : rs.getBlob(columnLabel);
+    }
+
+    @Override
+    public Clob getClob(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getClob(column) : rs.getClob(columnLabel);
+    }
+
+    @Override
+    public Array getArray(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getArray(column) : rs.getArray(columnLabel);
+    }
+
+    @Override
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        return rs.getDate(columnIndex, cal);
+    }
+
+    @Override
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getDate(column, cal) : rs.getDate(columnLabel, cal);
+    }
+
+    @Override
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        return rs.getTime(columnIndex, cal);
+    }
+
+    @Override
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getTime(column, cal) : rs.getTime(columnLabel, cal);
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        return rs.getTimestamp(columnIndex, cal);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getTimestamp(column, cal) : rs.getTimestamp(columnLabel, cal);
+    }
+
+    @Override
+    public URL getURL(int columnIndex) throws SQLException {
+        return rs.getURL(columnIndex);
+    }
+
+    @Override
+    public URL getURL(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getURL(column) : rs.getURL(columnLabel);
+    }
+
+    @Override
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+        rs.updateRef(columnIndex, x);
+    }
+
+    @Override
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+        rs.updateRef(columnLabel, x);
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+        rs.updateBlob(columnIndex, x);
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+        rs.updateBlob(columnLabel, x);
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+        rs.updateClob(columnIndex, x);
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+        rs.updateClob(columnLabel, x);
+    }
+
+    @Override
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        rs.updateArray(columnIndex, x);
+    }
+
+    @Override
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        rs.updateArray(columnLabel, x);
+    }
+
+    @Override
+    public RowId getRowId(int columnIndex) throws SQLException {
+        return rs.getRowId(columnIndex);
+    }
+
+    @Override
+    public RowId getRowId(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getRowId(column) : rs.getRowId(columnLabel);
+    }
+
+    @Override
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+        rs.updateRowId(columnIndex, x);
+    }
+
+    @Override
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+        rs.updateRowId(columnLabel, x);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return rs.getHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        ResultSet r = rs;
+        return r == null || r.isClosed();
+    }
+
+    @Override
+    public void updateNString(int columnIndex, String nString) throws SQLException {
+        rs.updateNString(columnIndex, nString);
+    }
+
+    @Override
+    public void updateNString(String columnLabel, String nString) throws SQLException {
+        rs.updateNString(columnLabel, nString);
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
+        rs.updateNClob(columnIndex, nClob);
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
+        rs.updateNClob(columnLabel, nClob);
+    }
+
+    @Override
+    public NClob getNClob(int columnIndex) throws SQLException {
+        return rs.getNClob(columnIndex);
+    }
+
+    @Override
+    public NClob getNClob(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getNClob(column) : rs.getNClob(columnLabel);
+    }
+
+    @Override
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        return rs.getSQLXML(columnIndex);
+    }
+
+    @Override
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getSQLXML(column) : rs.getSQLXML(columnLabel);
+    }
+
+    @Override
+    public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
+        rs.updateSQLXML(columnIndex, xmlObject);
+    }
+
+    @Override
+    public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
+        rs.updateSQLXML(columnLabel, xmlObject);
+    }
+
+    @Override
+    public String getNString(int columnIndex) throws SQLException {
+        return rs.getNString(columnIndex);
+    }
+
+    @Override
+    public String getNString(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getNString(column) : rs.getNString(columnLabel);
+    }
+
+    @Override
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        return rs.getNCharacterStream(columnIndex);
+    }
+
+    @Override
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getNCharacterStream(column) : rs.getNCharacterStream(columnLabel);
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        rs.updateNCharacterStream(columnIndex, x, length);
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        rs.updateNCharacterStream(columnLabel, reader, length);
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+        rs.updateAsciiStream(columnIndex, x, length);
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+        rs.updateBinaryStream(columnIndex, x, length);
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        rs.updateCharacterStream(columnIndex, x, length);
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+        rs.updateAsciiStream(columnLabel, x, length);
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+        rs.updateBinaryStream(columnLabel, x, length);
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        rs.updateCharacterStream(columnLabel, reader, length);
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+        rs.updateBlob(columnIndex, inputStream, length);
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+        rs.updateBlob(columnLabel, inputStream, length);
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+        rs.updateClob(columnIndex, reader, length);
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+        rs.updateClob(columnLabel, reader, length);
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+        rs.updateNClob(columnIndex, reader, length);
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+        rs.updateNClob(columnLabel, reader, length);
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+        rs.updateNCharacterStream(columnIndex, x);
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        rs.updateNCharacterStream(columnLabel, reader);
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+        rs.updateAsciiStream(columnIndex, x);
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+        rs.updateBinaryStream(columnIndex, x);
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+        rs.updateCharacterStream(columnIndex, x);
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+        rs.updateAsciiStream(columnLabel, x);
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+        rs.updateBinaryStream(columnLabel, x);
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        rs.updateCharacterStream(columnLabel, reader);
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+        rs.updateBlob(columnIndex, inputStream);
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+        rs.updateBlob(columnLabel, inputStream);
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader) throws SQLException {
+        rs.updateClob(columnIndex, reader);
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader) throws SQLException {
+        rs.updateClob(columnLabel, reader);
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+        rs.updateNClob(columnIndex, reader);
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+        rs.updateNClob(columnLabel, reader);
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        return rs.getObject(columnIndex, type);
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        int column = column(columnLabel);
+        return column > 0 ? getObject(column, type) : rs.getObject(columnLabel, type);
+    }
 }
\ No newline at end of file
@@ -1,307 +1,696 @@
-package com.asiainfo.dbcp.delegate;
-
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.SQLWarning;
-import java.sql.Statement;
-import java.util.List;
-
-/**
- * @Description: Statement代理，构建时将Statement加入连接的Trace队列里
- * 
- * @author chenzq  
- * @date 2019年5月1日 下午10:09:55
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
- */
-public class DelegatingStatement extends AbandonedTrace implements Statement {
-
-    // 真正的statement
-	protected Statement stmt;
-	// 创建statement的connection
-	protected DelegatingConnection conn;
-	
-	public DelegatingStatement(DelegatingConnection conn, Statement stmt) {
-	    this.conn = conn;
-		this.stmt = stmt;
-		// 添加当前statement到connection的trace里
-		this.conn.addTrace(this);
-	}
-
-	@Override
-	public <T> T unwrap(Class<T> iface) throws SQLException {
-        if (iface.isAssignableFrom(getClass())) {
-            return iface.cast(this);
-        } else if (iface.isAssignableFrom(stmt.getClass())) {
-            return iface.cast(stmt);
-        } else {
-            return stmt.unwrap(iface);
-        }
-	}
-
-	@Override
-	public boolean isWrapperFor(Class<?> iface) throws SQLException {
-		return iface.isAssignableFrom(getClass()) || stmt.isWrapperFor(iface);
-	}
-
-	@Override
-	public ResultSet executeQuery(String sql) throws SQLException {
-	    return new DelegatingResultSet(this, stmt.executeQuery(sql));
-	}
-
-	@Override
-	public int executeUpdate(String sql) throws SQLException {
-	    return stmt.executeUpdate(sql);
-	}
-
-	// 关闭时清理Result trace
-	@Override
-	public void close() throws SQLException {
-        try {
-            // 从connection trace里删除statement trace
-            if (conn != null) {
-                conn.removeTrace(this);
-                conn = null;
-            }
-            // The JDBC spec requires that a statment close any open ResultSet's when it is closed.
-            // FIXME The PreparedStatement we're wrapping should handle this for us.
-            // See bug 17301 for what could happen when ResultSets are closed twice.
-            List<AbandonedTrace> resultSets = getTrace();
-            if( resultSets != null) {
-                for (AbandonedTrace trace : resultSets) {
-                    ((ResultSet) trace).close();;
-                }
-            }
-            // 关闭持有的stmt
-            stmt.close();
-            stmt = null;
-        } finally {
-            if (null != stmt) {
-                closeSilently(stmt);
-            }
-            conn = null;
-            stmt = null;
-            // 清空statement trace缓存
-            clearTrace();
-        }
-	}
-
-	@Override
-	public int getMaxFieldSize() throws SQLException {
-	    return stmt.getMaxFieldSize();
-	}
-
-	@Override
-	public void setMaxFieldSize(int max) throws SQLException {
-	    stmt.setMaxFieldSize(max);
-	}
-
-	@Override
-	public int getMaxRows() throws SQLException {
-	    return stmt.getMaxRows();
-	}
-
-	@Override
-	public void setMaxRows(int max) throws SQLException {
-	    stmt.setMaxRows(max);
-	}
-
-	@Override
-	public void setEscapeProcessing(boolean enable) throws SQLException {
-		stmt.setEscapeProcessing(enable);
-	}
-
-	@Override
-	public int getQueryTimeout() throws SQLException {
-		return stmt.getQueryTimeout();
-	}
-
-	@Override
-	public void setQueryTimeout(int seconds) throws SQLException {
-		stmt.setQueryTimeout(seconds);
-	}
-
-	@Override
-	public void cancel() throws SQLException {
-		stmt.cancel();
-	}
-
-	@Override
-	public SQLWarning getWarnings() throws SQLException {
-		return stmt.getWarnings();
-	}
-
-	@Override
-	public void clearWarnings() throws SQLException {
-		stmt.clearWarnings();
-	}
-
-	@Override
-	public void setCursorName(String name) throws SQLException {
-		stmt.setCursorName(name);
-	}
-
-	@Override
-	public boolean execute(String sql) throws SQLException {
-		return stmt.execute(sql);
-	}
-
-	@Override
-	public ResultSet getResultSet() throws SQLException {
-		return new DelegatingResultSet(this, stmt.getResultSet());
-	}
-
-	@Override
-	public int getUpdateCount() throws SQLException {
-		return stmt.getUpdateCount();
-	}
-
-	@Override
-	public boolean getMoreResults() throws SQLException {
-		return stmt.getMoreResults();
-	}
-
-	@Override
-	public void setFetchDirection(int direction) throws SQLException {
-		stmt.setFetchDirection(direction);
-	}
-
-	@Override
-	public int getFetchDirection() throws SQLException {
-		return stmt.getFetchDirection();
-	}
-
-	@Override
-	public void setFetchSize(int rows) throws SQLException {
-		stmt.setFetchSize(rows);
-	}
-
-	@Override
-	public int getFetchSize() throws SQLException {
-		return stmt.getFetchSize();
-	}
-
-	@Override
-	public int getResultSetConcurrency() throws SQLException {
-		return stmt.getResultSetConcurrency();
-	}
-
-	@Override
-	public int getResultSetType() throws SQLException {
-		return stmt.getResultSetType();
-	}
-
-	@Override
-	public void addBatch(String sql) throws SQLException {
-		stmt.addBatch(sql);
-	}
-
-	@Override
-	public void clearBatch() throws SQLException {
-		stmt.clearBatch();
-	}
-
-	@Override
-	public int[] executeBatch() throws SQLException {
-		return stmt.executeBatch();
-	}
-
-	@Override
-	public Connection getConnection() throws SQLException {
-		return conn;
-	}
-
-	@Override
-	public boolean getMoreResults(int current) throws SQLException {
-		return stmt.getMoreResults(current);
-	}
-
-	@Override
-	public ResultSet getGeneratedKeys() throws SQLException {
-		return new DelegatingResultSet(this, stmt.getGeneratedKeys());
-	}
-
-	@Override
-	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
-		return stmt.executeUpdate(sql, autoGeneratedKeys);
-	}
-
-	@Override
-	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
-		return stmt.executeUpdate(sql, columnIndexes);
-	}
-
-	@Override
-	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
-		return stmt.executeUpdate(sql, columnNames);
-	}
-
-	@Override
-	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
-		return stmt.execute(sql, autoGeneratedKeys);
-	}
-
-	@Override
-	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
-		return stmt.execute(sql, columnIndexes);
-	}
-
-	@Override
-	public boolean execute(String sql, String[] columnNames) throws SQLException {
-		return stmt.execute(sql, columnNames);
-	}
-
-	@Override
-	public int getResultSetHoldability() throws SQLException {
-		return stmt.getResultSetHoldability();
-	}
-
-	@Override
-	public boolean isClosed() throws SQLException {
-		return conn.isClosed() || stmt.isClosed();
-	}
-
-	@Override
-	public void setPoolable(boolean poolable) throws SQLException {
-		stmt.setPoolable(poolable);
-	}
-
-	@Override
-	public boolean isPoolable() throws SQLException {
-		return stmt.isPoolable();
-	}
-
-	@Override
-	public void closeOnCompletion() throws SQLException {
-		stmt.closeOnCompletion();
-	}
-
-	@Override
-	public boolean isCloseOnCompletion() throws SQLException {
-		return stmt.isCloseOnCompletion();
-	}
-
-	@Override
-	public String toString() {
-	    return stmt.toString();
-	}
-	
-	/**
-	 * @Description: AutoCloseable关闭工具
-	 * @author chenzq
-	 * @date 2019年5月2日 上午10:37:22
-	 * @param autoCloseables
-	 */
-	protected void closeSilently(AutoCloseable... autoCloseables) {
-	    if (null != autoCloseables) {
-	        for (AutoCloseable closeable : autoCloseables) {
-	            try {
-	                closeable.close();
-	            } catch(Exception ex) {
-	                // ignore
-	            }
-	        }
-	    }
-	}
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * @Description: Statement代理，构建时将Statement加入连接的Trace队列里
+ * 
+ * @author chenzq  
+ * @date 2019年5月1日 下午10:09:55
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class DelegatingStatement extends AbandonedTrace implements Statement {
+
+    // 调用方修改过的statement设置，缓存复用前按位恢复
+    static final int CHANGED_QUERY_TIMEOUT = 1;
+    static final int CHANGED_MAX_ROWS = 1 << 1;
+    static final int CHANGED_MAX_FIELD_SIZE = 1 << 2;
+    static final int CHANGED_FETCH_DIRECTION = 1 << 3;
+    static final int CHANGED_ESCAPE_PROCESSING = 1 << 4;
+    // 设置过游标名或者poolable=false的statement不再缓存
+    static final int CHANGED_CURSOR_NAME = 1 << 5;
+    static final int CHANGED_NOT_POOLABLE = 1 << 6;
+
+    // 真正的statement
+	protected Statement stmt;
+	// 创建statement的connection
+	protected DelegatingConnection conn;
+	// 最近一次创建的ResultSet代理，未跟踪模式下关闭statement时关闭
+	private DelegatingResultSet lastResultSet;
+	// 是否已经(逻辑)关闭，缓存的statement关闭后物理statement仍然打开
+	protected boolean closed = false;
+	// 执行的sql，PreparedStatement为创建时的sql，用于从共享缓存获取元数据
+	protected String sql;
+	// 当前设置的fetchSize，用于缓存复用时恢复连接池的默认值
+	protected int fetchSize = 0;
+	// 是否流式读取结果集，流式结果集未读完就关闭时先取消statement，避免驱动读完剩余的数据
+	protected boolean streaming = false;
+	// 是否因为流式结果集提前关闭而取消过执行，取消过的statement不再放回缓存
+	protected boolean cancelled = false;
+	// 调用方是否自己设置过fetchSize，设置过时不使用自适应的fetchSize
+	protected boolean fetchSizeFixed = false;
+	// 已加入批处理、尚未执行的条数，以及分段执行时已经执行的分段的更新计数
+	protected int pendingBatch = 0;
+	private int[] batchCounts;
+	private int batchCountSize = 0;
+	// 当前sql的指纹，sql变化时重新计算
+	private String fingerprint;
+	private String fingerprintSql;
+	// 调用方修改过的设置，CHANGED_*按位组合
+	protected byte changedSettings;
+	
+	public DelegatingStatement(DelegatingConnection conn, Statement stmt) {
+	    this.conn = conn;
+		this.stmt = stmt;
+		attach();
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isAssignableFrom(getClass())) {
+            return iface.cast(this);
+        } else if (iface.isAssignableFrom(stmt.getClass())) {
+            return iface.cast(stmt);
+        } else {
+            return stmt.unwrap(iface);
+        }
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isAssignableFrom(getClass()) || stmt.isWrapperFor(iface);
+	}
+
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+	    markUsed();
+	    executing(sql);
+	    adviseFetchSize();
+	    return wrapResultSet(stmt.executeQuery(sql));
+	}
+
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+	    markUsed();
+	    executing(sql);
+	    return stmt.executeUpdate(sql);
+	}
+
+	// 关闭时清理Result trace
+	@Override
+	public void close() throws SQLException {
+	    if (closed) {
+	        return;
+	    }
+	    closed = true;
+        try {
+            // 从connection trace里删除statement trace
+            if (conn != null) {
+                detach();
+                conn = null;
+            }
+            // The JDBC spec requires that a statment close any open ResultSet's when it is closed.
+            // FIXME The PreparedStatement we're wrapping should handle this for us.
+            // See bug 17301 for what could happen when ResultSets are closed twice.
+            closeResultSets();
+            // 关闭持有的stmt
+            stmt.close();
+            stmt = null;
+        } finally {
+            if (null != stmt) {
+                closeSilently(stmt);
+            }
+            conn = null;
+            stmt = null;
+            // 清空statement trace缓存
+            clearTrace();
+        }
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+	    return stmt.getMaxFieldSize();
+	}
+
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException {
+	    stmt.setMaxFieldSize(max);
+	    changedSettings |= CHANGED_MAX_FIELD_SIZE;
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException {
+	    return stmt.getMaxRows();
+	}
+
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+	    stmt.setMaxRows(max);
+	    changedSettings |= CHANGED_MAX_ROWS;
+	}
+
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException {
+		stmt.setEscapeProcessing(enable);
+		changedSettings |= CHANGED_ESCAPE_PROCESSING;
+	}
+
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return stmt.getQueryTimeout();
+	}
+
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		stmt.setQueryTimeout(seconds);
+		changedSettings |= CHANGED_QUERY_TIMEOUT;
+	}
+
+	@Override
+	public void cancel() throws SQLException {
+		stmt.cancel();
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return stmt.getWarnings();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		stmt.clearWarnings();
+	}
+
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		stmt.setCursorName(name);
+		changedSettings |= CHANGED_CURSOR_NAME;
+	}
+
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		markUsed();
+		executing(sql);
+		adviseFetchSize();
+		return stmt.execute(sql);
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return wrapResultSet(stmt.getResultSet());
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return stmt.getUpdateCount();
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		return stmt.getMoreResults();
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		stmt.setFetchDirection(direction);
+		changedSettings |= CHANGED_FETCH_DIRECTION;
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return stmt.getFetchDirection();
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		stmt.setFetchSize(rows);
+		fetchSize = rows;
+		fetchSizeFixed = true;
+		// Integer.MIN_VALUE是MySQL驱动约定的逐行流式读取
+		streaming = rows == Integer.MIN_VALUE;
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return stmt.getFetchSize();
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return stmt.getResultSetConcurrency();
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException {
+		return stmt.getResultSetType();
+	}
+
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		executing(sql);
+		stmt.addBatch(sql);
+		batchAdded();
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		stmt.clearBatch();
+		resetBatch();
+	}
+
+	/**
+	 * @Description: 执行批处理，连接配置了maxBatchSize时之前已经按分段提前执行过的部分不再执行，
+	 *             - 返回的更新计数按加入批处理的顺序包含所有分段。
+	 * @author chenzq
+	 * @date 2026年10月20日 上午9:12:20
+	 * @return
+	 * @throws SQLException
+	 */
+	@Override
+	public int[] executeBatch() throws SQLException {
+		markUsed();
+		if (batchCountSize == 0) {
+		    // 没有提前执行的分段，与驱动的行为完全一致
+		    pendingBatch = 0;
+		    return executeBatchChunk();
+		}
+		try {
+		    if (pendingBatch > 0) {
+		        flushBatch();
+		    }
+		    return Arrays.copyOf(batchCounts, batchCountSize);
+		} finally {
+		    resetBatch();
+		}
+	}
+	
+	// 执行当前分段，子类可以改写执行方式（如改写为多行insert）
+	protected int[] executeBatchChunk() throws SQLException {
+	    return stmt.executeBatch();
+	}
+	
+	// 丢弃尚未执行的分段
+	protected void discardBatchChunk() throws SQLException {
+	    stmt.clearBatch();
+	}
+	
+	/**
+	 * @Description: 加入批处理后调用，未执行的条数达到连接的maxBatchSize时提前执行这一段，
+	 *             - 驱动内存里只保留一段的参数，单次发送的数据包和锁持有时间都以分段为上限；
+	 *             - 分段执行失败时在addBatch中抛出BatchUpdateException，更新计数包含之前已经执行的分段，未执行的批处理被丢弃。
+	 * @author chenzq
+	 * @date 2026年10月20日 上午9:15:40
+	 * @throws SQLException
+	 */
+	protected void batchAdded() throws SQLException {
+	    pendingBatch++;
+	    DelegatingConnection c = conn;
+	    if (c != null && c.maxBatchSize > 0 && pendingBatch >= c.maxBatchSize) {
+	        markUsed();
+	        flushBatch();
+	    }
+	}
+	
+	// 执行当前分段并累计更新计数，失败时抛出包含全部已执行更新计数的BatchUpdateException
+	private void flushBatch() throws SQLException {
+	    pendingBatch = 0;
+	    int[] counts;
+	    try {
+	        counts = executeBatchChunk();
+	    } catch (SQLException e) {
+	        if (e instanceof BatchUpdateException) {
+	            appendCounts(((BatchUpdateException) e).getUpdateCounts());
+	        }
+	        BatchUpdateException bue = new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), 
+	                batchCounts == null ? new int[0] : Arrays.copyOf(batchCounts, batchCountSize), e);
+	        resetBatch();
+	        try {
+	            discardBatchChunk();
+	        } catch (SQLException ex) {
+	            bue.addSuppressed(ex);
+	        }
+	        throw bue;
+	    }
+	    appendCounts(counts);
+	}
+	
+	private void appendCounts(int[] counts) {
+	    if (counts == null || counts.length == 0) {
+	        return;
+	    }
+	    if (batchCounts == null) {
+	        batchCounts = new int[Math.max(counts.length << 2, 64)];
+	    } else if (batchCountSize + counts.length > batchCounts.length) {
+	        batchCounts = Arrays.copyOf(batchCounts, Math.max(batchCountSize + counts.length, batchCounts.length << 1));
+	    }
+	    System.arraycopy(counts, 0, batchCounts, batchCountSize, counts.length);
+	    batchCountSize += counts.length;
+	}
+	
+	/**
+	 * @Description: 把调用方修改过的设置恢复为JDBC默认值（queryTimeout、maxRows、maxFieldSize为0，FETCH_FORWARD，开启转义处理），
+	 *             - 只恢复修改过的设置，没有修改时不调用驱动；fetchSize由借出时的applyFetchDefaults恢复。
+	 * @author chenzq
+	 * @date 2026年10月20日 下午4:40:15
+	 * @throws SQLException
+	 */
+	protected void resetSettings() throws SQLException {
+	    int changed = changedSettings;
+	    if ((changed & CHANGED_QUERY_TIMEOUT) != 0) {
+	        stmt.setQueryTimeout(0);
+	    }
+	    if ((changed & CHANGED_MAX_ROWS) != 0) {
+	        stmt.setMaxRows(0);
+	    }
+	    if ((changed & CHANGED_MAX_FIELD_SIZE) != 0) {
+	        stmt.setMaxFieldSize(0);
+	    }
+	    if ((changed & CHANGED_FETCH_DIRECTION) != 0) {
+	        stmt.setFetchDirection(ResultSet.FETCH_FORWARD);
+	    }
+	    if ((changed & CHANGED_ESCAPE_PROCESSING) != 0) {
+	        stmt.setEscapeProcessing(true);
+	    }
+	    changedSettings = 0;
+	}
+	
+	// 清空批处理计数，已经提前执行的分段不会回滚
+	protected void resetBatch() {
+	    pendingBatch = 0;
+	    batchCounts = null;
+	    batchCountSize = 0;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return conn;
+	}
+
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		return stmt.getMoreResults(current);
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return wrapResultSet(stmt.getGeneratedKeys());
+	}
+
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		markUsed();
+		executing(sql);
+		return stmt.executeUpdate(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		markUsed();
+		executing(sql);
+		return stmt.executeUpdate(sql, columnIndexes);
+	}
+
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		markUsed();
+		executing(sql);
+		return stmt.executeUpdate(sql, columnNames);
+	}
+
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		markUsed();
+		executing(sql);
+		return stmt.execute(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		markUsed();
+		executing(sql);
+		return stmt.execute(sql, columnIndexes);
+	}
+
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		markUsed();
+		executing(sql);
+		return stmt.execute(sql, columnNames);
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return stmt.getResultSetHoldability();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed || conn.isClosed() || stmt.isClosed();
+	}
+
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException {
+		stmt.setPoolable(poolable);
+		if (poolable) {
+		    changedSettings &= ~CHANGED_NOT_POOLABLE;
+		} else {
+		    changedSettings |= CHANGED_NOT_POOLABLE;
+		}
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return stmt.isPoolable();
+	}
+
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		stmt.closeOnCompletion();
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return stmt.isCloseOnCompletion();
+	}
+
+	/**
+	 * @Description: 包装真正的ResultSet，每次执行都创建新的代理对象；
+	 *             - 不复用已关闭的代理：调用方可能仍持有旧的引用，复用后旧引用的isClosed()会返回false并读到新的数据，
+	 *               再次close()还会关闭正在使用的结果集。
+	 * @author chenzq
+	 * @date 2026年10月19日 下午2:31:47
+	 * @param rs
+	 * @return
+	 */
+	protected ResultSet wrapResultSet(ResultSet rs) {
+	    if (rs == null) {
+	        return null;
+	    }
+	    DelegatingResultSet drs = conn != null && conn.generateProxies 
+	            ? DelegateProxyGenerator.newResultSet(this, rs) : new DelegatingResultSet(this, rs);
+	    lastResultSet = drs;
+	    return drs;
+	}
+	
+	// 执行sql时检查statement是否已关闭，并刷新连接的最后使用时间，用于废弃连接检测
+	protected void markUsed() throws SQLException {
+	    if (closed) {
+	        throw new SQLException("Statement is closed.");
+	    }
+	    DelegatingConnection c = conn;
+	    if (c != null) {
+	        c.setLastUsed();
+	    }
+	}
+	
+	/**
+	 * @Description: 按statement覆盖连接池的流式读取设置，开启时使用连接池配置的streamingFetchSize，关闭时恢复defaultFetchSize；
+	 *             - 流式读取要求结果集为TYPE_FORWARD_ONLY和CONCUR_READ_ONLY。
+	 * @author chenzq
+	 * @date 2026年10月19日 下午8:52:16
+	 * @param streamResults
+	 * @throws SQLException
+	 */
+	public void setStreamResults(boolean streamResults) throws SQLException {
+	    DelegatingConnection c = conn;
+	    if (c == null) {
+	        throw new SQLException("Statement is closed.");
+	    }
+	    applyFetchSize(streamResults ? c.streamingFetchSize : c.defaultFetchSize, streamResults);
+	    fetchSizeFixed = true;
+	}
+	
+	public boolean isStreamResults() {
+	    return streaming;
+	}
+	
+	// 设置fetchSize，与当前值相同时不访问驱动
+	void applyFetchSize(int rows, boolean streamResults) throws SQLException {
+	    if (fetchSize != rows) {
+	        stmt.setFetchSize(rows);
+	        fetchSize = rows;
+	    }
+	    streaming = streamResults;
+	}
+	
+	// 开启自适应fetchSize时按sql的执行记录设置fetchSize，流式读取或者调用方自己设置过fetchSize时不处理
+	protected void adviseFetchSize() throws SQLException {
+	    DelegatingConnection c = conn;
+	    if (c == null || c.fetchSizeAdvisor == null || streaming || fetchSizeFixed || sql == null) {
+	        return;
+	    }
+	    applyFetchSize(c.fetchSizeAdvisor.fetchSize(fingerprint(), c.defaultFetchSize), false);
+	}
+	
+	/**
+	 * @Description: 结果集关闭时记录读取的行数，第一次记录时同时提供元数据用于估算行宽
+	 * @author chenzq
+	 * @date 2026年10月19日 下午9:30:42
+	 * @param rows
+	 * @param drs
+	 */
+	void recordFetch(long rows, DelegatingResultSet drs) {
+	    DelegatingConnection c = conn;
+	    if (c == null || c.fetchSizeAdvisor == null || sql == null) {
+	        return;
+	    }
+	    FetchSizeAdvisor advisor = c.fetchSizeAdvisor;
+	    String fp = fingerprint();
+	    ResultSetMetaData md = null;
+	    if (advisor.needsRowWidth(fp)) {
+	        try {
+	            md = drs.getMetaData();
+	        } catch (SQLException e) {
+	            // 不估算行宽
+	        }
+	    }
+	    advisor.record(fp, rows, md);
+	}
+	
+	// 当前sql的指纹，PreparedStatement的sql不变，只计算一次
+	String fingerprint() {
+	    String s = sql;
+	    if (s != fingerprintSql) {
+	        fingerprint = FetchSizeAdvisor.fingerprint(s);
+	        fingerprintSql = s;
+	    }
+	    return fingerprint;
+	}
+	
+	/**
+	 * @Description: 逐行流式读取的结果集未读完就关闭时取消执行，驱动不需要读取剩余的数据，取消失败时由驱动关闭结果集时读完；
+	 *             - 只在开启cancelAbandonedStreams并且fetchSize为Integer.MIN_VALUE时取消，游标读取（正数fetchSize）直接关闭结果集即可；
+	 *             - cancel在PostgreSQL上是异步的，MySQL的KILL QUERY也可能晚于下一条sql到达，因此默认不取消。
+	 * @author chenzq
+	 * @date 2026年10月19日 下午8:58:16
+	 * @return 是否已经取消执行
+	 */
+	boolean cancelStreaming() {
+	    Statement s = stmt;
+	    DelegatingConnection c = conn;
+	    if (s == null || c == null || !c.cancelAbandonedStreams || fetchSize != Integer.MIN_VALUE) {
+	        return false;
+	    }
+	    if (cancelled) {
+	        return true;
+	    }
+	    cancelled = true;
+	    try {
+	        s.cancel();
+	    } catch (SQLException e) {
+	        // ignore
+	    }
+	    return true;
+	}
+	
+	// 记录执行的sql，执行DDL时清空连接池的sql元数据缓存，切换catalog/schema的sql重置连接的缓存scope
+	protected void executing(String sql) {
+	    this.sql = sql;
+	    DelegatingConnection c = conn;
+	    if (c != null && c.sqlMetadataCache != null && sql != null && c.sqlMetadataCache.onExecute(sql)) {
+	        c.resetMetadataScope();
+	    }
+	}
+	
+	// 从连接池的sql元数据缓存获取结果集元数据快照，未开启缓存或者不支持时返回null
+	ResultSetMetaDataSnapshot resultSetMetaData(ResultSet rs) throws SQLException {
+	    DelegatingConnection c = conn;
+	    if (c == null || c.sqlMetadataCache == null || sql == null) {
+	        return null;
+	    }
+	    return c.sqlMetadataCache.resultSetMetaData(c.metadataScope(), sql, rs);
+	}
+	
+	// 注册到connection：跟踪模式加入trace链表，否则增加未跟踪statement计数
+	void attach() {
+	    if (conn.traceStatements) {
+	        // 添加当前statement到connection的trace里
+	        conn.addTrace(this);
+	    } else {
+	        conn.untracedStatementOpened();
+	    }
+	}
+	
+	// 从connection注销，与attach对应
+	void detach() {
+	    if (conn.traceStatements) {
+	        conn.removeTrace(this);
+	    } else {
+	        conn.untracedStatementClosed();
+	    }
+	}
+	
+	/**
+	 * @Description: 关闭当前statement打开的ResultSet，包括未跟踪模式下最近一次返回的ResultSet
+	 * @author chenzq
+	 * @date 2026年10月19日 下午4:21:36
+	 * @throws SQLException
+	 */
+	protected void closeResultSets() throws SQLException {
+	    TraceNode trace;
+	    while ((trace = pollTrace()) != null) {
+	        ((ResultSet) trace).close();
+	    }
+	    DelegatingResultSet drs = lastResultSet;
+	    if (drs != null && !drs.isReleased()) {
+	        drs.close();
+	    }
+	}
+	
+	// 直接关闭物理statement，不再访问connection的trace，用于缓存淘汰或清空
+	void reallyClose() {
+	    closed = true;
+	    clearTrace();
+	    if (stmt != null) {
+	        closeSilently(stmt);
+	    }
+	    conn = null;
+	    stmt = null;
+	}
+	
+	// 是否跟踪当前statement创建的resultset
+	boolean isTraced() {
+	    return conn != null && conn.traceStatements;
+	}
+	
+	@Override
+	public String toString() {
+	    return stmt.toString();
+	}
+	
+	/**
+	 * @Description: AutoCloseable关闭工具
+	 * @author chenzq
+	 * @date 2019年5月2日 上午10:37:22
+	 * @param autoCloseables
+	 */
+	protected void closeSilently(AutoCloseable... autoCloseables) {
+	    if (null != autoCloseables) {
+	        for (AutoCloseable closeable : autoCloseables) {
+	            try {
+	                closeable.close();
+	            } catch(Exception ex) {
+	                // ignore
+	            }
+	        }
+	    }
+	}
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Description: 连接池级别的自适应fetchSize，按sql指纹（字面量替换为?、空白合并后的sql）记录每次查询读取的行数和估算的每行字节数，
+ *             下一次执行同一条sql时按预计行数选择fetchSize，并限制单次读取的估算字节数不超过内存预算；
+ *             - 少量行的查询一次往返读完且不多占内存，大结果集在预算内尽量减少往返次数；
+ *             - 没有执行记录的sql使用连接池的defaultFetchSize；
+ *             - 超出最大条目数时淘汰任意一条，只保证总量有界。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午9:10:25
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class FetchSizeAdvisor {
+
+    // 行数的指数加权平均系数，新的执行记录占1/4
+    private static final double ALPHA = 0.25D;
+    // 每列的基础开销（对象头、长度、null标记等）
+    private static final int COLUMN_OVERHEAD_BYTES = 16;
+    // 变长列的最大估算长度，LOB按定位符估算
+    private static final int MAX_VARIABLE_BYTES = 4000;
+    private static final int LOB_LOCATOR_BYTES = 128;
+
+    // 单次fetch的估算字节数预算
+    private final long budgetBytes;
+    // fetchSize的上下限
+    private final int minFetchSize;
+    private final int maxFetchSize;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Stats> entries = new ConcurrentHashMap<>();
+
+    public FetchSizeAdvisor(long budgetBytes, int minFetchSize, int maxFetchSize, int maxEntries) {
+        this.budgetBytes = budgetBytes;
+        this.minFetchSize = Math.max(1, minFetchSize);
+        this.maxFetchSize = Math.max(this.minFetchSize, maxFetchSize);
+        this.maxEntries = maxEntries;
+    }
+
+    // 单条sql的执行记录
+    static final class Stats {
+        // 每次查询读取行数的加权平均，小于0表示还没有记录
+        volatile double rows = -1D;
+        // 估算的每行字节数，0表示未知
+        volatile int bytesPerRow;
+    }
+
+    /**
+     * @Description: 为下一次执行选择fetchSize
+     * @author chenzq
+     * @date 2026年10月19日 下午9:14:02
+     * @param fingerprint sql指纹
+     * @param defaultFetchSize 没有执行记录时使用的fetchSize
+     * @return
+     */
+    public int fetchSize(String fingerprint, int defaultFetchSize) {
+        Stats stats = entries.get(fingerprint);
+        if (stats == null || stats.rows < 0) {
+            return defaultFetchSize;
+        }
+        // 多取一行，驱动在同一次往返里就能确认结果集已经结束
+        long size = (long) Math.ceil(stats.rows) + 1;
+        int bytesPerRow = stats.bytesPerRow;
+        if (bytesPerRow > 0 && budgetBytes > 0) {
+            size = Math.min(size, budgetBytes / bytesPerRow);
+        }
+        return (int) Math.max(minFetchSize, Math.min(maxFetchSize, size));
+    }
+
+    /**
+     * @Description: 记录一次查询读取的行数，第一次记录时按结果集元数据估算每行字节数
+     * @author chenzq
+     * @date 2026年10月19日 下午9:16:30
+     * @param fingerprint sql指纹
+     * @param rows 调用方读取的行数
+     * @param md 结果集元数据，为null时不估算行宽
+     */
+    public void record(String fingerprint, long rows, ResultSetMetaData md) {
+        Stats stats = entry(fingerprint);
+        if (stats.bytesPerRow == 0 && md != null) {
+            stats.bytesPerRow = estimateBytesPerRow(md);
+        }
+        double avg = stats.rows;
+        stats.rows = avg < 0 ? rows : avg * (1 - ALPHA) + rows * ALPHA;
+    }
+
+    // 是否需要结果集元数据来估算行宽
+    boolean needsRowWidth(String fingerprint) {
+        Stats stats = entries.get(fingerprint);
+        return stats == null || stats.bytesPerRow == 0;
+    }
+
+    private Stats entry(String fingerprint) {
+        Stats stats = entries.get(fingerprint);
+        if (stats == null) {
+            if (entries.size() >= maxEntries) {
+                Iterator<String> it = entries.keySet().iterator();
+                if (it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+            stats = entries.computeIfAbsent(fingerprint, k -> new Stats());
+        }
+        return stats;
+    }
+
+    /**
+     * @Description: 按列类型和声明长度估算每行在客户端占用的字节数，变长列按声明长度估算（字符占2字节、平均填充一半）
+     * @author chenzq
+     * @date 2026年10月19日 下午9:18:45
+     * @param md
+     * @return 估算失败时返回0
+     */
+    static int estimateBytesPerRow(ResultSetMetaData md) {
+        try {
+            long total = 0;
+            int count = md.getColumnCount();
+            for (int i = 1; i <= count; i++) {
+                total += COLUMN_OVERHEAD_BYTES + columnBytes(md.getColumnType(i), md.getPrecision(i));
+            }
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(1, total));
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    private static int columnBytes(int type, int precision) {
+        switch (type) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+                return 1;
+            case Types.SMALLINT:
+                return 2;
+            case Types.INTEGER:
+            case Types.REAL:
+            case Types.FLOAT:
+                return 4;
+            case Types.BIGINT:
+            case Types.DOUBLE:
+                return 8;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+            case Types.TIME_WITH_TIMEZONE:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return 16;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return 16 + Math.max(0, Math.min(precision, 38)) / 2;
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.SQLXML:
+                return LOB_LOCATOR_BYTES;
+            default:
+                // 字符、二进制及未知类型按声明长度估算，未声明长度时按上限
+                return precision <= 0 ? MAX_VARIABLE_BYTES : Math.min(precision, MAX_VARIABLE_BYTES);
+        }
+    }
+
+    /**
+     * @Description: 计算sql指纹：字符串和数字字面量替换为?，连续空白合并为一个空格，带字面量拼接的sql与参数化的sql共享执行记录
+     * @author chenzq
+     * @date 2026年10月19日 下午9:22:10
+     * @param sql
+     * @return
+     */
+    public static String fingerprint(String sql) {
+        int n = sql.length();
+        StringBuilder sb = null;
+        boolean space = false;
+        for (int i = 0; i < n; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // 字符串字面量，''为转义的单引号
+                int j = i + 1;
+                while (j < n) {
+                    if (sql.charAt(j) == '\'') {
+                        if (j + 1 < n && sql.charAt(j + 1) == '\'') {
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    j++;
+                }
+                sb = builder(sb, sql, i);
+                sb.append('?');
+                i = j;
+                space = false;
+            } else if (c >= '0' && c <= '9' && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                int j = i + 1;
+                while (j < n && (Character.isDigit(sql.charAt(j)) || sql.charAt(j) == '.')) {
+                    j++;
+                }
+                sb = builder(sb, sql, i);
+                sb.append('?');
+                i = j - 1;
+                space = false;
+            } else if (Character.isWhitespace(c)) {
+                if (space || c != ' ') {
+                    // 连续空白或者非空格的空白字符需要改写
+                    sb = builder(sb, sql, i);
+                    if (!space) {
+                        sb.append(' ');
+                    }
+                } else if (sb != null) {
+                    sb.append(' ');
+                }
+                space = true;
+            } else {
+                if (sb != null) {
+                    sb.append(c);
+                }
+                space = false;
+            }
+        }
+        return sb == null ? sql : sb.toString().trim();
+    }
+
+    // 第一次需要改写时复制已经扫描过的部分
+    private static StringBuilder builder(StringBuilder sb, String sql, int end) {
+        if (sb != null) {
+            return sb;
+        }
+        sb = new StringBuilder(sql.length());
+        sb.append(sql, 0, end);
+        return sb;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    public int size() {
+        return entries.size();
+    }
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+    public int getMinFetchSize() {
+        return minFetchSize;
+    }
+    public int getMaxFetchSize() {
+        return maxFetchSize;
+    }
+}
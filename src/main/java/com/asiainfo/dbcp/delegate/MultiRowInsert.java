@@ -0,0 +1,167 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Description: 简单的单行insert语句：INSERT INTO table [(col, ...)] VALUES (...)，可以改写为一条多行insert，
+ *             - VALUES后只能有一组值，值里可以有常量、函数，引号内的?不算参数；
+ *             - 引号内有反斜杠的语句不改写：MySQL把反斜杠当作转义符，标准SQL不转义，无法确定引号在哪里结束；
+ *             - insert ... select、值里有子查询、带注释、VALUES之后还有其他子句（ON DUPLICATE KEY、RETURNING等）的语句不改写；
+ *             - 多行VALUES语法需要数据库支持（MySQL、PostgreSQL、H2、SQL Server、DB2等，Oracle 23c之前不支持）。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午9:25:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+final class MultiRowInsert {
+
+    // 单条sql的默认参数个数上限，PostgreSQL协议限制为32767（新版本65535），MySQL为65535，SQL Server为2100
+    static final int DEFAULT_MAX_PARAMETERS = 32767;
+    private static final int MYSQL_MAX_PARAMETERS = 65535;
+    private static final int SQLSERVER_MAX_PARAMETERS = 2100;
+    // SQL Server的VALUES最多1000行
+    private static final int SQLSERVER_MAX_ROWS = 1000;
+
+    // insert into 表名 [(列名列表)] values (，列名列表中不能有括号和?
+    private static final Pattern INSERT_VALUES = Pattern.compile(
+            "\\s*insert\\s+into\\s+[\\w.$\"`\\[\\]]+\\s*(\\([^()?']*\\))?\\s*values\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SUBQUERY = Pattern.compile("\\bselect\\b", Pattern.CASE_INSENSITIVE);
+
+    // values之前的部分，包括values关键字
+    private final String prefix;
+    // 一组值，包括两端的括号
+    private final String tuple;
+    private final int parameterCount;
+    // 最近一次生成的多行sql，满分段的行数不变，通常可以直接复用
+    private String lastSql;
+    private int lastRows;
+
+    private MultiRowInsert(String prefix, String tuple, int parameterCount) {
+        this.prefix = prefix;
+        this.tuple = tuple;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * @Description: 解析insert语句，不是简单的单行insert时返回null
+     * @author chenzq
+     * @date 2026年10月20日 上午9:27:45
+     * @param sql
+     * @return
+     */
+    static MultiRowInsert parse(String sql) {
+        if (sql == null || sql.contains("--") || sql.contains("/*")) {
+            return null;
+        }
+        Matcher m = INSERT_VALUES.matcher(sql);
+        if (!m.lookingAt()) {
+            return null;
+        }
+        int open = m.end() - 1;
+        int depth = 0;
+        int parameters = 0;
+        char quote = 0;
+        int close = -1;
+        for (int i = open; i < sql.length() && close < 0; i++) {
+            char ch = sql.charAt(i);
+            if (quote != 0) {
+                // 引号内，成对的引号转义在下一次遇到引号时重新进入，反斜杠的含义与数据库有关，不改写
+                if (ch == '\\') {
+                    return null;
+                } else if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '\'' || ch == '"' || ch == '`') {
+                quote = ch;
+            } else if (ch == '?') {
+                parameters++;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')' && --depth == 0) {
+                close = i;
+            }
+        }
+        if (close < 0 || parameters == 0) {
+            return null;
+        }
+        for (int i = close + 1; i < sql.length(); i++) {
+            if (!Character.isWhitespace(sql.charAt(i))) {
+                return null;
+            }
+        }
+        String tuple = sql.substring(open, close + 1);
+        // 值里有子查询时多行执行的语义可能不同（如依赖本表的max），不改写
+        if (SUBQUERY.matcher(tuple).find()) {
+            return null;
+        }
+        return new MultiRowInsert(sql.substring(0, open), tuple, parameters);
+    }
+
+    /**
+     * @Description: 生成rows行的insert语句，参数顺序为逐行的参数依次排列
+     * @author chenzq
+     * @date 2026年10月20日 上午9:30:20
+     * @param rows
+     * @return
+     */
+    String sql(int rows) {
+        if (rows == lastRows) {
+            return lastSql;
+        }
+        StringBuilder sb = new StringBuilder(prefix.length() + (tuple.length() + 2) * rows);
+        sb.append(prefix).append(tuple);
+        for (int i = 1; i < rows; i++) {
+            sb.append(", ").append(tuple);
+        }
+        String sql = sb.toString();
+        lastSql = sql;
+        lastRows = rows;
+        return sql;
+    }
+
+    // 每行的参数个数
+    int getParameterCount() {
+        return parameterCount;
+    }
+    // values之前部分的长度
+    int getPrefixLength() {
+        return prefix.length();
+    }
+    // 一组值的长度
+    int getTupleLength() {
+        return tuple.length();
+    }
+
+    /**
+     * @Description: 一条sql最多插入的行数
+     * @author chenzq
+     * @date 2026年10月20日 上午9:31:10
+     * @param maxParameters 一条sql的参数个数上限
+     * @param maxRows 数据库的VALUES行数上限
+     * @return
+     */
+    int maxRows(int maxParameters, int maxRows) {
+        return Math.max(1, Math.min(maxRows, maxParameters / parameterCount));
+    }
+
+    // 按数据库产品名取参数个数上限
+    static int defaultMaxParameters(String databaseProductName) {
+        String product = databaseProductName == null ? "" : databaseProductName.toLowerCase(Locale.ENGLISH);
+        if (product.contains("sql server")) {
+            return SQLSERVER_MAX_PARAMETERS;
+        } else if (product.contains("mysql") || product.contains("mariadb")) {
+            return MYSQL_MAX_PARAMETERS;
+        }
+        return DEFAULT_MAX_PARAMETERS;
+    }
+
+    // 按数据库产品名取VALUES的行数上限
+    static int defaultMaxRows(String databaseProductName) {
+        String product = databaseProductName == null ? "" : databaseProductName.toLowerCase(Locale.ENGLISH);
+        return product.contains("sql server") ? SQLSERVER_MAX_ROWS : Integer.MAX_VALUE;
+    }
+}
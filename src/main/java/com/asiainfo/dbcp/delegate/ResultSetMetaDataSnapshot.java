@@ -0,0 +1,267 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * @Description: 结果集元数据的不可变快照，创建时一次性读取驱动的ResultSetMetaData，之后不再访问驱动；
+ *             - 同时建立列标签到列序号的索引，先精确匹配，再按大写匹配，同名列取第一个（与JDBC findColumn的约定一致）；
+ *             - 索引只在创建时写入，之后只读，查找不会增加条目。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午6:52:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class ResultSetMetaDataSnapshot implements ResultSetMetaData {
+
+    private final int columnCount;
+    private final boolean[] autoIncrement;
+    private final boolean[] caseSensitive;
+    private final boolean[] searchable;
+    private final boolean[] currency;
+    private final int[] nullable;
+    private final boolean[] signed;
+    private final int[] columnDisplaySize;
+    private final String[] columnLabel;
+    private final String[] columnName;
+    private final String[] schemaName;
+    private final int[] precision;
+    private final int[] scale;
+    private final String[] tableName;
+    private final String[] catalogName;
+    private final int[] columnType;
+    private final String[] columnTypeName;
+    private final boolean[] readOnly;
+    private final boolean[] writable;
+    private final boolean[] definitelyWritable;
+    private final String[] columnClassName;
+    // 列标签到列序号（从1开始）的索引，快照在连接间共享，创建后只读
+    private final Map<String, Integer> labelIndex;
+    // 大写的列标签到列序号的索引，用于忽略大小写匹配
+    private final Map<String, Integer> upperLabelIndex;
+
+    public ResultSetMetaDataSnapshot(ResultSetMetaData md) throws SQLException {
+        int n = md.getColumnCount();
+        this.columnCount = n;
+        this.autoIncrement = new boolean[n];
+        this.caseSensitive = new boolean[n];
+        this.searchable = new boolean[n];
+        this.currency = new boolean[n];
+        this.nullable = new int[n];
+        this.signed = new boolean[n];
+        this.columnDisplaySize = new int[n];
+        this.columnLabel = new String[n];
+        this.columnName = new String[n];
+        this.schemaName = new String[n];
+        this.precision = new int[n];
+        this.scale = new int[n];
+        this.tableName = new String[n];
+        this.catalogName = new String[n];
+        this.columnType = new int[n];
+        this.columnTypeName = new String[n];
+        this.readOnly = new boolean[n];
+        this.writable = new boolean[n];
+        this.definitelyWritable = new boolean[n];
+        this.columnClassName = new String[n];
+        this.labelIndex = new HashMap<>(n * 2);
+        this.upperLabelIndex = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            int column = i + 1;
+            autoIncrement[i] = md.isAutoIncrement(column);
+            caseSensitive[i] = md.isCaseSensitive(column);
+            searchable[i] = md.isSearchable(column);
+            currency[i] = md.isCurrency(column);
+            nullable[i] = md.isNullable(column);
+            signed[i] = md.isSigned(column);
+            columnDisplaySize[i] = md.getColumnDisplaySize(column);
+            columnLabel[i] = md.getColumnLabel(column);
+            columnName[i] = md.getColumnName(column);
+            schemaName[i] = md.getSchemaName(column);
+            precision[i] = md.getPrecision(column);
+            scale[i] = md.getScale(column);
+            tableName[i] = md.getTableName(column);
+            catalogName[i] = md.getCatalogName(column);
+            columnType[i] = md.getColumnType(column);
+            columnTypeName[i] = md.getColumnTypeName(column);
+            readOnly[i] = md.isReadOnly(column);
+            writable[i] = md.isWritable(column);
+            definitelyWritable[i] = md.isDefinitelyWritable(column);
+            columnClassName[i] = md.getColumnClassName(column);
+            if (columnLabel[i] != null) {
+                labelIndex.putIfAbsent(columnLabel[i], column);
+                upperLabelIndex.putIfAbsent(columnLabel[i].toUpperCase(Locale.ROOT), column);
+            }
+        }
+    }
+
+    /**
+     * @Description: 按列标签查找列序号，先精确匹配再忽略大小写匹配，找不到时返回-1
+     * @author chenzq
+     * @date 2026年10月19日 下午6:55:32
+     * @param label
+     * @return
+     * @throws SQLException label为null
+     */
+    public int findColumn(String label) throws SQLException {
+        if (label == null) {
+            throw new SQLException("Column label is null");
+        }
+        Integer index = labelIndex.get(label);
+        if (index == null) {
+            index = upperLabelIndex.get(label.toUpperCase(Locale.ROOT));
+        }
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @Description: 快照是否仍然与驱动的元数据一致，逐列比较标签和类型，每个结果集只在第一次使用时校验一次
+     * @author chenzq
+     * @date 2026年10月19日 下午6:57:20
+     * @param md 当前结果集的元数据
+     * @return
+     * @throws SQLException
+     */
+    public boolean matches(ResultSetMetaData md) throws SQLException {
+        if (md.getColumnCount() != columnCount) {
+            return false;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            int column = i + 1;
+            if (md.getColumnType(column) != columnType[i] || !Objects.equals(md.getColumnLabel(column), columnLabel[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 列序号从1开始，超出范围时与驱动一样抛出SQLException
+    private int check(int column) throws SQLException {
+        if (column < 1 || column > columnCount) {
+            throw new SQLException("Invalid column index: " + column);
+        }
+        return column - 1;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public int getColumnCount() throws SQLException {
+        return columnCount;
+    }
+
+    @Override
+    public boolean isAutoIncrement(int column) throws SQLException {
+        return autoIncrement[check(column)];
+    }
+
+    @Override
+    public boolean isCaseSensitive(int column) throws SQLException {
+        return caseSensitive[check(column)];
+    }
+
+    @Override
+    public boolean isSearchable(int column) throws SQLException {
+        return searchable[check(column)];
+    }
+
+    @Override
+    public boolean isCurrency(int column) throws SQLException {
+        return currency[check(column)];
+    }
+
+    @Override
+    public int isNullable(int column) throws SQLException {
+        return nullable[check(column)];
+    }
+
+    @Override
+    public boolean isSigned(int column) throws SQLException {
+        return signed[check(column)];
+    }
+
+    @Override
+    public int getColumnDisplaySize(int column) throws SQLException {
+        return columnDisplaySize[check(column)];
+    }
+
+    @Override
+    public String getColumnLabel(int column) throws SQLException {
+        return columnLabel[check(column)];
+    }
+
+    @Override
+    public String getColumnName(int column) throws SQLException {
+        return columnName[check(column)];
+    }
+
+    @Override
+    public String getSchemaName(int column) throws SQLException {
+        return schemaName[check(column)];
+    }
+
+    @Override
+    public int getPrecision(int column) throws SQLException {
+        return precision[check(column)];
+    }
+
+    @Override
+    public int getScale(int column) throws SQLException {
+        return scale[check(column)];
+    }
+
+    @Override
+    public String getTableName(int column) throws SQLException {
+        return tableName[check(column)];
+    }
+
+    @Override
+    public String getCatalogName(int column) throws SQLException {
+        return catalogName[check(column)];
+    }
+
+    @Override
+    public int getColumnType(int column) throws SQLException {
+        return columnType[check(column)];
+    }
+
+    @Override
+    public String getColumnTypeName(int column) throws SQLException {
+        return columnTypeName[check(column)];
+    }
+
+    @Override
+    public boolean isReadOnly(int column) throws SQLException {
+        return readOnly[check(column)];
+    }
+
+    @Override
+    public boolean isWritable(int column) throws SQLException {
+        return writable[check(column)];
+    }
+
+    @Override
+    public boolean isDefinitelyWritable(int column) throws SQLException {
+        return definitelyWritable[check(column)];
+    }
+
+    @Override
+    public String getColumnClassName(int column) throws SQLException {
+        return columnClassName[check(column)];
+    }
+}
@@ -0,0 +1,299 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @Description: 连接池级别的sql元数据缓存，按会话的catalog/schema和sql文本缓存参数个数、结果集元数据快照和nativeSQL的结果，所有连接共享；
+ *             - 同一sql在不同catalog/schema下（USE db、setSchema、按租户分schema）是不同的条目；
+ *             - 超出最大条目数时淘汰任意一条，只保证总量有界；
+ *             - 结果集快照在每个结果集第一次使用时按列数、每一列的标签和类型校验，不一致（视图重定义、外部ALTER）时重建；
+ *             - 通过连接池执行的表、视图DDL（包括PreparedStatement执行的DDL）只删除sql文本中包含该表名的条目，其他DDL不影响缓存；
+ *             - PreparedStatement执行前的getMetaData()直接使用缓存的快照，外部修改表结构后到下一个结果集校验之前可能是旧的，需要时调用clear()。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午7:02:46
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class SqlMetadataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlMetadataCache.class);
+
+    // 未知的参数个数
+    private static final int UNKNOWN = -1;
+
+    private final int maxEntries;
+    // catalog/schema -> sql -> 元数据，两级索引，查找时不需要拼接key
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, SqlMetadata>> scopes = new ConcurrentHashMap<>();
+    // 全部scope的条目总数，并发时是近似值
+    private final AtomicInteger size = new AtomicInteger();
+
+    public SqlMetadataCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    // 单条sql的元数据
+    static final class SqlMetadata {
+        volatile ResultSetMetaDataSnapshot resultSetMetaData;
+        volatile boolean resultSetMetaDataUnsupported;
+        volatile int parameterCount = UNKNOWN;
+        volatile String nativeSql;
+    }
+
+    private SqlMetadata entry(String scope, String sql) {
+        ConcurrentHashMap<String, SqlMetadata> entries = scopes.get(scope);
+        if (entries == null) {
+            entries = scopes.computeIfAbsent(scope, k -> new ConcurrentHashMap<>());
+        }
+        SqlMetadata md = entries.get(sql);
+        if (md == null) {
+            if (size.get() >= maxEntries) {
+                evictOne();
+            }
+            SqlMetadata created = new SqlMetadata();
+            md = entries.putIfAbsent(sql, created);
+            if (md == null) {
+                size.incrementAndGet();
+                md = created;
+            }
+        }
+        return md;
+    }
+
+    // 淘汰任意一条，空的scope一并删除
+    private void evictOne() {
+        Iterator<ConcurrentHashMap<String, SqlMetadata>> scopeIt = scopes.values().iterator();
+        while (scopeIt.hasNext()) {
+            Iterator<String> it = scopeIt.next().keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+                size.decrementAndGet();
+                return;
+            }
+            scopeIt.remove();
+        }
+    }
+
+    /**
+     * @Description: 获取结果集元数据快照，缓存里没有或者列数、列标签、列类型与当前结果集不一致时，从驱动的元数据重新生成
+     * @author chenzq
+     * @date 2026年10月19日 下午7:05:12
+     * @param scope 会话的catalog/schema
+     * @param sql
+     * @param rs 当前结果集
+     * @return 驱动不支持生成快照时返回null
+     * @throws SQLException
+     */
+    public ResultSetMetaDataSnapshot resultSetMetaData(String scope, String sql, ResultSet rs) throws SQLException {
+        SqlMetadata md = entry(scope, sql);
+        if (md.resultSetMetaDataUnsupported) {
+            return null;
+        }
+        ResultSetMetaData driverMetaData = rs.getMetaData();
+        ResultSetMetaDataSnapshot snapshot = md.resultSetMetaData;
+        if (snapshot != null && snapshot.matches(driverMetaData)) {
+            return snapshot;
+        }
+        if (snapshot != null) {
+            logger.debug("result set metadata changed, rebuild snapshot, scope={}, sql={} ......", scope, sql);
+        }
+        return snapshot(md, sql, driverMetaData);
+    }
+
+    /**
+     * @Description: PreparedStatement执行前获取结果集元数据，缓存里没有时从驱动获取
+     * @author chenzq
+     * @date 2026年10月19日 下午7:06:30
+     * @param scope 会话的catalog/schema
+     * @param sql
+     * @param ps
+     * @return 驱动返回null或者不支持生成快照时返回null
+     * @throws SQLException
+     */
+    public ResultSetMetaDataSnapshot resultSetMetaData(String scope, String sql, PreparedStatement ps) throws SQLException {
+        SqlMetadata md = entry(scope, sql);
+        ResultSetMetaDataSnapshot snapshot = md.resultSetMetaData;
+        if (snapshot != null || md.resultSetMetaDataUnsupported) {
+            return snapshot;
+        }
+        ResultSetMetaData driverMetaData = ps.getMetaData();
+        return driverMetaData == null ? null : snapshot(md, sql, driverMetaData);
+    }
+
+    private ResultSetMetaDataSnapshot snapshot(SqlMetadata md, String sql, ResultSetMetaData driverMetaData) {
+        try {
+            ResultSetMetaDataSnapshot snapshot = new ResultSetMetaDataSnapshot(driverMetaData);
+            md.resultSetMetaData = snapshot;
+            return snapshot;
+        } catch (SQLException e) {
+            // 部分驱动不支持某些元数据方法，之后直接使用驱动的元数据
+            logger.debug("cannot snapshot result set metadata, sql={}, ex={} ......", sql, e.toString());
+            md.resultSetMetaDataUnsupported = true;
+            return null;
+        }
+    }
+
+    /**
+     * @Description: 获取sql的参数个数
+     * @author chenzq
+     * @date 2026年10月19日 下午7:08:02
+     * @param scope 会话的catalog/schema
+     * @param sql
+     * @param ps
+     * @return
+     * @throws SQLException
+     */
+    public int parameterCount(String scope, String sql, PreparedStatement ps) throws SQLException {
+        SqlMetadata md = entry(scope, sql);
+        int count = md.parameterCount;
+        if (count == UNKNOWN) {
+            count = ps.getParameterMetaData().getParameterCount();
+            md.parameterCount = count;
+        }
+        return count;
+    }
+
+    /**
+     * @Description: 获取驱动转换后的sql
+     * @author chenzq
+     * @date 2026年10月19日 下午7:08:40
+     * @param scope 会话的catalog/schema
+     * @param sql
+     * @param conn
+     * @return
+     * @throws SQLException
+     */
+    public String nativeSql(String scope, String sql, Connection conn) throws SQLException {
+        SqlMetadata md = entry(scope, sql);
+        String nativeSql = md.nativeSql;
+        if (nativeSql == null) {
+            nativeSql = conn.nativeSQL(sql);
+            md.nativeSql = nativeSql;
+        }
+        return nativeSql;
+    }
+
+    // 删除单条sql在所有catalog/schema下的元数据
+    public void invalidate(String sql) {
+        for (ConcurrentHashMap<String, SqlMetadata> entries : scopes.values()) {
+            if (entries.remove(sql) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    // 清空全部元数据，表结构变化后调用
+    public void clear() {
+        scopes.clear();
+        size.set(0);
+    }
+
+    /**
+     * @Description: 执行sql前调用，表、视图的DDL删除引用该表的条目；
+     *             - 按表名（不含schema、引号）在sql文本中忽略大小写查找，同名子串也会删除，只会多删不会漏删；
+     *             - TRUNCATE以及索引、序列、过程等DDL不改变结果集的列和参数，不删除条目，结果集快照仍由matches()校验。
+     * @author chenzq
+     * @date 2026年10月19日 下午7:10:15
+     * @param sql
+     * @return sql可能切换会话的catalog/schema时返回true，连接需要重新获取scope
+     */
+    boolean onExecute(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        if (isDdl(sql, i)) {
+            String table = size.get() > 0 && !sql.regionMatches(true, i, "truncate", 0, 8) ? ddlTable(sql, i) : null;
+            if (table != null) {
+                logger.debug("ddl executed, invalidate sql metadata of table {}, sql={} ......", table, sql);
+                invalidateTable(table);
+            }
+            // ALTER SESSION SET CURRENT_SCHEMA
+            return sql.regionMatches(true, i, "alter session", 0, 13);
+        }
+        return sql.regionMatches(true, i, "use ", 0, 4) || sql.regionMatches(true, i, "set schema", 0, 10)
+                || sql.regionMatches(true, i, "set search_path", 0, 15) || sql.regionMatches(true, i, "set current schema", 0, 18);
+    }
+
+    // 删除sql文本中包含表名的条目
+    private void invalidateTable(String table) {
+        for (ConcurrentHashMap<String, SqlMetadata> entries : scopes.values()) {
+            Iterator<String> it = entries.keySet().iterator();
+            while (it.hasNext()) {
+                if (contains(it.next(), table)) {
+                    it.remove();
+                    size.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    // 忽略大小写查找子串
+    private static boolean contains(String sql, String name) {
+        for (int i = 0, last = sql.length() - name.length(); i <= last; i++) {
+            if (sql.regionMatches(true, i, name, 0, name.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // DDL中TABLE、VIEW之后的对象名，去掉schema和引号；前几个单词里没有TABLE、VIEW时返回null
+    private static String ddlTable(String sql, int i) {
+        int n = sql.length();
+        boolean object = false;
+        for (int words = 0; words < 10 && i < n; words++) {
+            while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < n && !Character.isWhitespace(sql.charAt(i)) && sql.charAt(i) != '(' && sql.charAt(i) != ';') {
+                i++;
+            }
+            if (start == i) {
+                return null;
+            }
+            if (object) {
+                if (isWord(sql, start, i, "if") || isWord(sql, start, i, "not") || isWord(sql, start, i, "exists")) {
+                    continue;
+                }
+                // schema.table、"schema"."table"、`table`、[table]只保留表名
+                int dot = sql.lastIndexOf('.', i - 1);
+                String name = sql.substring(Math.max(dot + 1, start), i);
+                name = name.replace("\"", "").replace("`", "").replace("[", "").replace("]", "");
+                return name.isEmpty() ? null : name;
+            }
+            object = isWord(sql, start, i, "table") || isWord(sql, start, i, "view");
+        }
+        return null;
+    }
+
+    // sql中[start, end)是否为忽略大小写的关键字
+    private static boolean isWord(String sql, int start, int end, String keyword) {
+        return end - start == keyword.length() && sql.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    private static boolean isDdl(String sql, int i) {
+        return sql.regionMatches(true, i, "alter", 0, 5) || sql.regionMatches(true, i, "drop", 0, 4)
+                || sql.regionMatches(true, i, "create", 0, 6) || sql.regionMatches(true, i, "rename", 0, 6)
+                || sql.regionMatches(true, i, "truncate", 0, 8);
+    }
+
+    public int size() {
+        return size.get();
+    }
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
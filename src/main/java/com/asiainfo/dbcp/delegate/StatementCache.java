@@ -0,0 +1,283 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @Description: 连接级别的PreparedStatement缓存，只保存已经逻辑关闭的空闲statement；
+ *             - 借出时从缓存中移除，close时放回，超出连接的容量时淘汰sql使用频率最低的statement（频率相同时淘汰最久未使用的）；
+ *             - 新建的statement需要先占用连接池共享的StatementCacheBudget，预算不足时先淘汰更冷的statement，仍然不足则不缓存；
+ *             - 其他连接淘汰的statement只标记为已淘汰并释放预算，物理statement由所属连接在下一次访问缓存或者归还时关闭，
+ *               不在其他线程上关闭正在使用中的物理连接的statement；
+ *             - 同一个key同时只缓存一个空闲statement，重复放回的statement直接关闭。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午4:12:36
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class StatementCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    // 缓存的最大statement数
+    private final int maxStatements;
+    // 连接池共享的缓存预算
+    private final StatementCacheBudget budget;
+    // 空闲的statement，按放回顺序排列，头部为最久未使用
+    private final LinkedHashMap<StatementKey, DelegatingPreparedStatement> idle;
+    // 查找用的探测key，避免命中时分配key对象
+    private final StatementKey probe = new StatementKey();
+    // 其他连接淘汰冷statement时使用tryLock，不阻塞
+    private final ReentrantLock lock = new ReentrantLock();
+    // 已占用预算的statement数（包括借出的）
+    private int admitted;
+    // 被其他连接淘汰、等待所属连接关闭的statement，持有锁时访问，没有时为null
+    private ArrayList<DelegatingPreparedStatement> evicted;
+
+    public StatementCache(int maxStatements) {
+        this(maxStatements, new StatementCacheBudget(0, 0));
+    }
+    public StatementCache(int maxStatements, StatementCacheBudget budget) {
+        this.maxStatements = maxStatements;
+        this.budget = budget;
+        this.idle = new LinkedHashMap<>(Math.min(maxStatements, 64) * 2);
+        budget.register(this);
+    }
+
+    /**
+     * @Description: 记录sql使用频率并取出匹配的空闲statement，未命中时返回null
+     * @author chenzq
+     * @date 2026年10月19日 下午4:15:20
+     * @return
+     */
+    DelegatingPreparedStatement take(String sql, int resultSetType, int resultSetConcurrency,
+            int resultSetHoldability, int autoGeneratedKeys, int[] columnIndexes, String[] columnNames) {
+        budget.recordUse(sql);
+        lock.lock();
+        try {
+            closeEvictedLocked();
+            StatementKey key = probe.set(sql, resultSetType, resultSetConcurrency, resultSetHoldability,
+                    autoGeneratedKeys, columnIndexes, columnNames);
+            try {
+                return idle.remove(key);
+            } finally {
+                key.reset();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @Description: 未命中新建statement时申请缓存预算：超出连接容量或者共享预算时，先淘汰比当前sql更冷的空闲statement，
+     *             - 仍然无法申请到预算时返回false，新建的statement不缓存，关闭时直接关闭。
+     * @author chenzq
+     * @date 2026年10月19日 下午5:20:06
+     * @param key
+     * @return
+     */
+    boolean admit(StatementKey key) {
+        int frequency = budget.frequency(key.getSql());
+        int weight = StatementCacheBudget.estimateBytes(key);
+        lock.lock();
+        try {
+            closeEvictedLocked();
+            // 连接自身容量已满（借出的statement也占用容量）
+            while (admitted >= maxStatements) {
+                if (!evictColderThan(frequency, true)) {
+                    return false;
+                }
+            }
+            // 共享预算不足时优先淘汰本连接更冷的statement，再淘汰其他连接的
+            boolean acquired;
+            while (!(acquired = budget.tryAcquire(weight)) && evictColderThan(frequency, true)) {
+                // 继续申请预算
+            }
+            if (!acquired && !budget.acquireByEvicting(frequency, weight, this)) {
+                return false;
+            }
+            admitted++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @Description: 放回逻辑关闭的statement，缓存里已有相同key的statement时直接关闭
+     * @author chenzq
+     * @date 2026年10月19日 下午4:16:02
+     * @param ps
+     */
+    void offer(DelegatingPreparedStatement ps) {
+        StatementKey key = ps.getStatementKey();
+        lock.lock();
+        try {
+            closeEvictedLocked();
+            if (!idle.containsKey(key)) {
+                idle.put(key, ps);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(ps);
+    }
+
+    /**
+     * @Description: 关闭不再缓存的statement并释放预算
+     * @author chenzq
+     * @date 2026年10月19日 下午5:22:40
+     * @param ps
+     */
+    void discard(DelegatingPreparedStatement ps) {
+        StatementKey key = ps.getStatementKey();
+        ps.setStatementKey(null);
+        ps.reallyClose();
+        release(key);
+    }
+
+    // 释放statement占用的预算
+    void release(StatementKey key) {
+        lock.lock();
+        try {
+            admitted--;
+        } finally {
+            lock.unlock();
+        }
+        budget.release(StatementCacheBudget.estimateBytes(key));
+    }
+
+    /**
+     * @Description: 供其他连接调用，淘汰一个比指定频率更冷的空闲statement，缓存正在被使用时直接返回false；
+     *             - 被淘汰的statement只释放预算，物理statement等所属连接下一次访问缓存或者归还时关闭。
+     * @author chenzq
+     * @date 2026年10月19日 下午5:24:18
+     * @param frequency
+     * @return
+     */
+    boolean tryEvictColderThan(int frequency) {
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            return evictColderThan(frequency, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @Description: 关闭其他连接淘汰的statement，由所属连接在使用缓存或者归还时调用
+     * @author chenzq
+     * @date 2026年10月19日 下午5:26:30
+     */
+    public void closeEvicted() {
+        lock.lock();
+        try {
+            closeEvictedLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 持有锁时关闭已淘汰的statement
+    private void closeEvictedLocked() {
+        ArrayList<DelegatingPreparedStatement> list = evicted;
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).reallyClose();
+        }
+        list.clear();
+    }
+
+    /**
+     * @Description: 淘汰频率最低且低于指定频率的空闲statement，持有锁时调用
+     * @author chenzq
+     * @date 2026年10月19日 下午5:25:10
+     * @param frequency
+     * @param owner 是否所属连接调用，是时直接关闭，否则等所属连接关闭
+     * @return
+     */
+    private boolean evictColderThan(int frequency, boolean owner) {
+        DelegatingPreparedStatement victim = null;
+        int coldest = frequency;
+        // 按放回顺序遍历，频率相同时保留先遍历到的最久未使用statement
+        for (Map.Entry<StatementKey, DelegatingPreparedStatement> entry : idle.entrySet()) {
+            int f = budget.frequency(entry.getKey().getSql());
+            if (f < coldest) {
+                coldest = f;
+                victim = entry.getValue();
+            }
+        }
+        if (victim == null) {
+            return false;
+        }
+        StatementKey key = victim.getStatementKey();
+        idle.remove(key);
+        victim.setStatementKey(null);
+        if (owner) {
+            victim.reallyClose();
+        } else {
+            if (evicted == null) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(victim);
+        }
+        admitted--;
+        budget.release(StatementCacheBudget.estimateBytes(key));
+        return true;
+    }
+
+    /**
+     * @Description: 关闭并清空全部缓存的statement，物理连接关闭前调用
+     * @author chenzq
+     * @date 2026年10月19日 下午4:16:48
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            if (!idle.isEmpty()) {
+                logger.debug("clear statement cache, size={} ......", idle.size());
+            }
+            closeEvictedLocked();
+            Iterator<Map.Entry<StatementKey, DelegatingPreparedStatement>> it = idle.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<StatementKey, DelegatingPreparedStatement> entry = it.next();
+                it.remove();
+                entry.getValue().setStatementKey(null);
+                entry.getValue().reallyClose();
+                admitted--;
+                budget.release(StatementCacheBudget.estimateBytes(entry.getKey()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        budget.unregister(this);
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+    public StatementCacheBudget getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,218 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @Description: 连接池内所有连接共享的statement缓存预算，按缓存的statement总数和估算字节数限制；
+ *             - 同时记录每条sql在全部连接上的使用频率，超出预算时优先淘汰使用频率低的statement，热点sql在每个连接上都能保持缓存；
+ *             - 频率计数每累计一定次数后整体减半，减为0的sql从频率表中删除，避免动态拼接的sql导致频率表无限增长。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午5:02:18
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class StatementCacheBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCacheBudget.class);
+
+    // 单个statement的基础开销估算（驱动对象、服务端句柄等），加上sql文本及解析结果按长度估算
+    static final int STATEMENT_OVERHEAD_BYTES = 1024;
+    static final int BYTES_PER_SQL_CHAR = 4;
+    // 频率衰减的最小采样次数
+    private static final int MIN_DECAY_SAMPLES = 1000;
+
+    // 最大缓存statement总数，小于等于0表示不限制
+    private final int maxStatements;
+    // 最大估算字节数，小于等于0表示不限制
+    private final long maxBytes;
+    // 当前缓存的statement数和估算字节数
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    // sql使用频率
+    private final ConcurrentHashMap<String, AtomicInteger> frequencies = new ConcurrentHashMap<>();
+    // 距离上一次衰减的使用次数，以及衰减阈值
+    private final AtomicInteger samples = new AtomicInteger();
+    private final int decaySamples;
+    private final AtomicBoolean decaying = new AtomicBoolean();
+    // 共享预算的连接缓存，用于跨连接淘汰冷statement
+    private final Set<StatementCache> caches = ConcurrentHashMap.newKeySet();
+
+    public StatementCacheBudget(int maxStatements, long maxBytes) {
+        this.maxStatements = maxStatements;
+        this.maxBytes = maxBytes;
+        this.decaySamples = Math.max(MIN_DECAY_SAMPLES, maxStatements * 10);
+    }
+
+    /**
+     * @Description: 记录一次sql使用，返回记录后的频率
+     * @author chenzq
+     * @date 2026年10月19日 下午5:06:40
+     * @param sql
+     * @return
+     */
+    int recordUse(String sql) {
+        AtomicInteger counter = frequencies.get(sql);
+        if (counter == null) {
+            counter = frequencies.computeIfAbsent(sql, k -> new AtomicInteger());
+        }
+        int freq = counter.incrementAndGet();
+        if (samples.incrementAndGet() >= decaySamples) {
+            decay();
+        }
+        return freq;
+    }
+
+    // 当前sql的使用频率
+    int frequency(String sql) {
+        AtomicInteger counter = frequencies.get(sql);
+        return counter == null ? 0 : counter.get();
+    }
+
+    // 所有sql频率减半，删除减为0的sql
+    private void decay() {
+        if (!decaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            samples.set(0);
+            Iterator<AtomicInteger> it = frequencies.values().iterator();
+            while (it.hasNext()) {
+                AtomicInteger counter = it.next();
+                int freq = counter.get();
+                while (!counter.compareAndSet(freq, freq >>> 1)) {
+                    freq = counter.get();
+                }
+                if (freq >>> 1 == 0) {
+                    it.remove();
+                }
+            }
+        } finally {
+            decaying.set(false);
+        }
+    }
+
+    /**
+     * @Description: 按使用频率从高到低返回最热的sql
+     * @author chenzq
+     * @date 2026年10月19日 下午6:12:25
+     * @param limit
+     * @return
+     */
+    public List<String> hottest(int limit) {
+        List<Map.Entry<String, AtomicInteger>> entries = new ArrayList<>(frequencies.entrySet());
+        entries.sort((e1, e2) -> Integer.compare(e2.getValue().get(), e1.getValue().get()));
+        List<String> result = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            result.add(entries.get(i).getKey());
+        }
+        return result;
+    }
+
+    /**
+     * @Description: statement的估算字节数
+     * @author chenzq
+     * @date 2026年10月19日 下午5:08:12
+     * @param key
+     * @return
+     */
+    static int estimateBytes(StatementKey key) {
+        return STATEMENT_OVERHEAD_BYTES + BYTES_PER_SQL_CHAR * key.getSql().length();
+    }
+
+    /**
+     * @Description: 尝试占用一个statement的预算
+     * @author chenzq
+     * @date 2026年10月19日 下午5:09:35
+     * @param weight
+     * @return
+     */
+    boolean tryAcquire(int weight) {
+        if (maxStatements > 0) {
+            int n;
+            do {
+                n = statements.get();
+                if (n >= maxStatements) {
+                    return false;
+                }
+            } while (!statements.compareAndSet(n, n + 1));
+        } else {
+            statements.incrementAndGet();
+        }
+        if (maxBytes > 0) {
+            long b;
+            do {
+                b = bytes.get();
+                if (b + weight > maxBytes) {
+                    statements.decrementAndGet();
+                    return false;
+                }
+            } while (!bytes.compareAndSet(b, b + weight));
+        } else {
+            bytes.addAndGet(weight);
+        }
+        return true;
+    }
+
+    // 释放一个statement的预算
+    void release(int weight) {
+        statements.decrementAndGet();
+        bytes.addAndGet(-weight);
+    }
+
+    /**
+     * @Description: 预算不足时，从其他连接的缓存中淘汰比指定频率更冷的空闲statement，直到可以占用预算；
+     *             - 正在被其他线程访问的缓存直接跳过，不等待。
+     * @author chenzq
+     * @date 2026年10月19日 下午5:12:50
+     * @param frequency 候选statement的sql频率
+     * @param weight 候选statement的估算字节数
+     * @param requester 发起淘汰的缓存，不参与本次淘汰
+     * @return 是否已经为候选statement占用预算
+     */
+    boolean acquireByEvicting(int frequency, int weight, StatementCache requester) {
+        for (StatementCache cache : caches) {
+            if (cache == requester) {
+                continue;
+            }
+            while (cache.tryEvictColderThan(frequency)) {
+                if (tryAcquire(weight)) {
+                    return true;
+                }
+            }
+        }
+        logger.debug("statement cache budget exhausted, statements={}, bytes={} ......", statements.get(), bytes.get());
+        return false;
+    }
+
+    void register(StatementCache cache) {
+        caches.add(cache);
+    }
+    void unregister(StatementCache cache) {
+        caches.remove(cache);
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+    public int getStatements() {
+        return statements.get();
+    }
+    public long getBytes() {
+        return bytes.get();
+    }
+}
@@ -0,0 +1,165 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * @Description: statement缓存的key，由sql、结果集类型/并发/可保持性以及自动生成主键参数组成；
+ *             - 缓存查找时复用StatementCache持有的探测key，只有未命中新建statement时才分配不可变的key对象。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午4:05:12
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class StatementKey {
+
+    // 未指定的int参数
+    public static final int UNSPECIFIED = -1;
+
+    private String sql;
+    private int resultSetType;
+    private int resultSetConcurrency;
+    private int resultSetHoldability;
+    private int autoGeneratedKeys;
+    private int[] columnIndexes;
+    private String[] columnNames;
+    private int hash;
+
+    StatementKey() {}
+
+    // 新建statement时创建不可变的key，复制调用方传入的数组
+    static StatementKey of(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability,
+            int autoGeneratedKeys, int[] columnIndexes, String[] columnNames) {
+        return new StatementKey().set(sql, resultSetType, resultSetConcurrency, resultSetHoldability, autoGeneratedKeys,
+                columnIndexes == null ? null : columnIndexes.clone(), columnNames == null ? null : columnNames.clone());
+    }
+
+    // 设置key的全部字段并重新计算hash，只用于探测key
+    StatementKey set(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability,
+            int autoGeneratedKeys, int[] columnIndexes, String[] columnNames) {
+        this.sql = sql;
+        this.resultSetType = resultSetType;
+        this.resultSetConcurrency = resultSetConcurrency;
+        this.resultSetHoldability = resultSetHoldability;
+        this.autoGeneratedKeys = autoGeneratedKeys;
+        this.columnIndexes = columnIndexes;
+        this.columnNames = columnNames;
+        int h = sql.hashCode();
+        h = 31 * h + resultSetType;
+        h = 31 * h + resultSetConcurrency;
+        h = 31 * h + resultSetHoldability;
+        h = 31 * h + autoGeneratedKeys;
+        h = 31 * h + Arrays.hashCode(columnIndexes);
+        h = 31 * h + Arrays.hashCode(columnNames);
+        this.hash = h;
+        return this;
+    }
+
+    // 探测key使用完后释放对调用方数组的引用
+    void reset() {
+        this.sql = null;
+        this.columnIndexes = null;
+        this.columnNames = null;
+    }
+
+    /**
+     * @Description: 按key的参数调用驱动创建PreparedStatement
+     * @author chenzq
+     * @date 2026年10月19日 下午4:08:40
+     * @param conn
+     * @return
+     * @throws SQLException
+     */
+    public PreparedStatement prepareStatement(Connection conn) throws SQLException {
+        return prepareStatement(conn, sql, resultSetType, resultSetConcurrency, resultSetHoldability,
+                autoGeneratedKeys, columnIndexes, columnNames);
+    }
+
+    /**
+     * @Description: 根据指定的参数选择对应的Connection.prepareStatement重载方法
+     * @author chenzq
+     * @date 2026年10月19日 下午4:09:15
+     * @return
+     * @throws SQLException
+     */
+    static PreparedStatement prepareStatement(Connection conn, String sql, int resultSetType, int resultSetConcurrency,
+            int resultSetHoldability, int autoGeneratedKeys, int[] columnIndexes, String[] columnNames) throws SQLException {
+        if (columnIndexes != null) {
+            return conn.prepareStatement(sql, columnIndexes);
+        } else if (columnNames != null) {
+            return conn.prepareStatement(sql, columnNames);
+        } else if (autoGeneratedKeys != UNSPECIFIED) {
+            return conn.prepareStatement(sql, autoGeneratedKeys);
+        } else if (resultSetHoldability != UNSPECIFIED) {
+            return conn.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        } else if (resultSetType != UNSPECIFIED) {
+            return conn.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        }
+        return conn.prepareStatement(sql);
+    }
+
+    /**
+     * @Description: 根据指定的参数选择对应的Connection.prepareCall重载方法
+     * @author chenzq
+     * @date 2026年10月19日 下午5:46:02
+     * @return
+     * @throws SQLException
+     */
+    static CallableStatement prepareCall(Connection conn, String sql, int resultSetType, int resultSetConcurrency,
+            int resultSetHoldability) throws SQLException {
+        if (resultSetHoldability != UNSPECIFIED) {
+            return conn.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        } else if (resultSetType != UNSPECIFIED) {
+            return conn.prepareCall(sql, resultSetType, resultSetConcurrency);
+        }
+        return conn.prepareCall(sql);
+    }
+
+    // 是否为存储过程调用（{call ...}、{? = call ...}或者call ...）
+    static boolean isCall(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return sql.startsWith("{", i) || sql.regionMatches(true, i, "call ", 0, 5);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof StatementKey)) {
+            return false;
+        }
+        StatementKey other = (StatementKey) obj;
+        return hash == other.hash
+                && resultSetType == other.resultSetType
+                && resultSetConcurrency == other.resultSetConcurrency
+                && resultSetHoldability == other.resultSetHoldability
+                && autoGeneratedKeys == other.autoGeneratedKeys
+                && sql.equals(other.sql)
+                && Arrays.equals(columnIndexes, other.columnIndexes)
+                && Arrays.equals(columnNames, other.columnNames);
+    }
+
+    @Override
+    public String toString() {
+        return "StatementKey [sql=" + sql + ", resultSetType=" + resultSetType + ", resultSetConcurrency=" + resultSetConcurrency
+                + ", resultSetHoldability=" + resultSetHoldability + ", autoGeneratedKeys=" + autoGeneratedKeys
+                + ", columnIndexes=" + Arrays.toString(columnIndexes) + ", columnNames=" + Arrays.toString(columnNames) + "]";
+    }
+}
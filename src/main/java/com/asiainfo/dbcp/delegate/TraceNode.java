@@ -0,0 +1,20 @@
+package com.asiainfo.dbcp.delegate;
+
+/**
+ * @Description: Trace节点，被connection、statement跟踪的对象（statement、resultset）继承该类，
+ *             - 节点本身就是父trace链表的元素，只包含父节点和前后节点三个引用，不单独分配链表节点、锁或日志对象。
+ *             - 不会产生子trace的对象（如ResultSet）直接继承该类，需要跟踪子对象的继承AbandonedTrace。
+ * 
+ * @author chenzq  
+ * @date 2026年10月19日 下午1:42:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class TraceNode {
+
+    // 所属的父trace（创建当前对象的connection或statement），null表示未被跟踪
+    AbandonedTrace traceParent;
+    // 父trace链表中的前后节点
+    TraceNode tracePrev;
+    TraceNode traceNext;
+}
@@ -0,0 +1,312 @@
+package com.asiainfo.dbcp.lob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.asiainfo.dbcp.util.DirectBufferPool;
+
+/**
+ * @Description: LOB列与NIO通道之间的流式搬运，数据按块经过池化的直接缓冲区，整个LOB不会在堆上物化；
+ *             - 读取：transferTo把BLOB/二进制列写入WritableByteChannel（文件、socket），transferCharacters把CLOB/文本列按字符集编码后写入；
+ *             - 绑定：setBinaryStream/setCharacterStream把ReadableByteChannel包装成流绑定到参数，驱动在执行时按块拉取；
+ *             - JDBC只提供InputStream/Reader，驱动到缓冲区之间仍有一次块复制，通道之间的搬运不再经过JDK的临时直接缓冲区；
+ *             - 通道必须是阻塞模式，非阻塞的SocketChannel在写满或无数据时会忙等。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午11:24:40
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class LobChannels {
+
+    // 从驱动流读取的块大小
+    private static final int CHUNK_SIZE = 8192;
+
+    private LobChannels() {}
+
+    /**
+     * @Description: 把当前行的二进制列写入通道，不关闭通道
+     * @author chenzq
+     * @date 2026年10月19日 下午11:26:10
+     * @param rs
+     * @param columnIndex
+     * @param target
+     * @return 写入的字节数，列为null时返回-1
+     * @throws SQLException
+     * @throws IOException
+     */
+    public static long transferTo(ResultSet rs, int columnIndex, WritableByteChannel target) throws SQLException, IOException {
+        return transferTo(rs.getBinaryStream(columnIndex), target, DirectBufferPool.shared());
+    }
+
+    public static long transferTo(ResultSet rs, String columnLabel, WritableByteChannel target) throws SQLException, IOException {
+        return transferTo(rs.getBinaryStream(columnLabel), target, DirectBufferPool.shared());
+    }
+
+    /**
+     * @Description: 把当前行的文本列按指定字符集编码后写入通道，不关闭通道
+     * @author chenzq
+     * @date 2026年10月19日 下午11:27:35
+     * @param rs
+     * @param columnIndex
+     * @param target
+     * @param charset
+     * @return 写入的字节数，列为null时返回-1
+     * @throws SQLException
+     * @throws IOException
+     */
+    public static long transferCharacters(ResultSet rs, int columnIndex, WritableByteChannel target, Charset charset)
+            throws SQLException, IOException {
+        return transferCharacters(rs.getCharacterStream(columnIndex), target, charset, DirectBufferPool.shared());
+    }
+
+    public static long transferCharacters(ResultSet rs, String columnLabel, WritableByteChannel target, Charset charset)
+            throws SQLException, IOException {
+        return transferCharacters(rs.getCharacterStream(columnLabel), target, charset, DirectBufferPool.shared());
+    }
+
+    /**
+     * @Description: 把流的全部内容经池化的直接缓冲区写入通道，关闭输入流，不关闭通道
+     * @author chenzq
+     * @date 2026年10月19日 下午11:29:05
+     * @param in 为null时返回-1
+     * @param target
+     * @param pool
+     * @return
+     * @throws IOException
+     */
+    public static long transferTo(InputStream in, WritableByteChannel target, DirectBufferPool pool) throws IOException {
+        if (in == null) {
+            return -1L;
+        }
+        ByteBuffer buffer = pool.acquire();
+        try {
+            byte[] chunk = new byte[Math.min(CHUNK_SIZE, buffer.capacity())];
+            long total = 0;
+            int n;
+            while ((n = in.read(chunk, 0, Math.min(chunk.length, buffer.remaining()))) >= 0) {
+                buffer.put(chunk, 0, n);
+                total += n;
+                if (!buffer.hasRemaining()) {
+                    drain(buffer, target);
+                }
+            }
+            drain(buffer, target);
+            return total;
+        } finally {
+            pool.release(buffer);
+            in.close();
+        }
+    }
+
+    /**
+     * @Description: 把字符流编码后经池化的直接缓冲区写入通道，不可映射的字符按字符集的替换字节写入，关闭字符流，不关闭通道
+     * @author chenzq
+     * @date 2026年10月19日 下午11:31:20
+     * @param reader 为null时返回-1
+     * @param target
+     * @param charset
+     * @param pool
+     * @return
+     * @throws IOException
+     */
+    public static long transferCharacters(Reader reader, WritableByteChannel target, Charset charset, DirectBufferPool pool)
+            throws IOException {
+        if (reader == null) {
+            return -1L;
+        }
+        CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer buffer = pool.acquire();
+        try {
+            CharBuffer chars = CharBuffer.allocate(CHUNK_SIZE);
+            long total = 0;
+            boolean eof = false;
+            while (!eof) {
+                eof = reader.read(chars) < 0;
+                chars.flip();
+                total += encode(encoder, chars, buffer, target, eof);
+                chars.compact();
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                total += drain(buffer, target);
+            }
+            total += drain(buffer, target);
+            return total;
+        } finally {
+            pool.release(buffer);
+            reader.close();
+        }
+    }
+
+    // 编码到缓冲区，缓冲区满时写入通道，返回写入通道的字节数
+    private static long encode(CharsetEncoder encoder, CharBuffer chars, ByteBuffer buffer, WritableByteChannel target,
+            boolean endOfInput) throws IOException {
+        long written = 0;
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, endOfInput);
+            if (result.isOverflow()) {
+                written += drain(buffer, target);
+            } else if (result.isUnderflow()) {
+                return written;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    // 写出缓冲区的全部内容并clear，返回写出的字节数
+    private static int drain(ByteBuffer buffer, WritableByteChannel target) throws IOException {
+        buffer.flip();
+        int n = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+        return n;
+    }
+
+    /**
+     * @Description: 把通道绑定为二进制参数，驱动执行语句时按块读取；
+     *             SeekableByteChannel（如FileChannel）按剩余长度绑定，其他通道按未知长度绑定；
+     *             通道在读到结尾或驱动关闭流时关闭，语句执行完成之前不能关闭通道
+     * @author chenzq
+     * @date 2026年10月19日 下午11:34:50
+     * @param ps
+     * @param parameterIndex
+     * @param source
+     * @throws SQLException
+     */
+    public static void setBinaryStream(PreparedStatement ps, int parameterIndex, ReadableByteChannel source) throws SQLException {
+        long length = remaining(source);
+        InputStream in = new ChannelInputStream(source, DirectBufferPool.shared());
+        if (length >= 0) {
+            ps.setBinaryStream(parameterIndex, in, length);
+        } else {
+            ps.setBinaryStream(parameterIndex, in);
+        }
+    }
+
+    /**
+     * @Description: 把通道按指定字符集解码后绑定为文本参数，按未知长度绑定
+     * @author chenzq
+     * @date 2026年10月19日 下午11:36:15
+     * @param ps
+     * @param parameterIndex
+     * @param source
+     * @param charset
+     * @throws SQLException
+     */
+    public static void setCharacterStream(PreparedStatement ps, int parameterIndex, ReadableByteChannel source, Charset charset)
+            throws SQLException {
+        ps.setCharacterStream(parameterIndex, Channels.newReader(source, charset.newDecoder(), -1));
+    }
+
+    // 可定位通道的剩余字节数，未知时返回-1
+    private static long remaining(ReadableByteChannel source) throws SQLException {
+        if (!(source instanceof SeekableByteChannel)) {
+            return -1L;
+        }
+        try {
+            SeekableByteChannel seekable = (SeekableByteChannel) source;
+            return Math.max(0L, seekable.size() - seekable.position());
+        } catch (IOException e) {
+            throw new SQLException("Cannot determine channel length", e);
+        }
+    }
+
+    /**
+     * @Description: 通道到InputStream的适配，底层读入池化的直接缓冲区，读到结尾或关闭时归还缓冲区
+     *
+     * @author chenzq
+     * @date 2026年10月19日 下午11:38:40
+     * @version V1.0
+     * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+     */
+    static final class ChannelInputStream extends InputStream {
+
+        private final ReadableByteChannel source;
+        private final DirectBufferPool pool;
+        private ByteBuffer buffer;
+        private boolean eof;
+
+        ChannelInputStream(ReadableByteChannel source, DirectBufferPool pool) {
+            this.source = source;
+            this.pool = pool;
+        }
+
+        // 缓冲区为空时从通道读取，返回是否还有数据
+        private boolean fill() throws IOException {
+            if (buffer != null && buffer.hasRemaining()) {
+                return true;
+            }
+            if (eof) {
+                return false;
+            }
+            if (buffer == null) {
+                buffer = pool.acquire();
+            }
+            buffer.clear();
+            int n;
+            do {
+                n = source.read(buffer);
+            } while (n == 0);
+            buffer.flip();
+            if (n < 0) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer == null ? 0 : buffer.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (eof) {
+                return;
+            }
+            eof = true;
+            ByteBuffer b = buffer;
+            buffer = null;
+            pool.release(b);
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.asiainfo.dbcp.mapper;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.asiainfo.dbcp.delegate.DelegatingResultSet;
+
+/**
+ * @Description: 预编译的bean行映射器，替代每行都反射的BeanPropertyRowMapper，列与属性的匹配规则与BeanPropertyRowMapper一致
+ *             （列标签去掉空格后忽略大小写匹配属性名，或者匹配属性名的下划线形式）；
+ *             - 每个(结果集结构, 目标类)在第一次使用时生成映射计划，setter通过LambdaMetafactory生成，之后每行只按列序号取值并调用setter；
+ *             - 结果集来自连接池时映射计划按sql缓存，同一条sql的后续查询只校验列标签，不再匹配属性；
+ *             - 列值为null时引用类型属性设置为null；原始类型属性不调用setter，保持默认值（BeanPropertyRowMapper默认抛出异常）；
+ *             - 线程安全，可以作为静态常量在多个线程间共享。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午8:20:45
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BeanRowMapper<T> implements RowMapper<T> {
+
+    // 按sql缓存的映射计划最大数，超出时整体清空，避免动态拼接的sql导致无限增长
+    static final int MAX_PLANS = 256;
+
+    private final Class<T> mappedClass;
+    private final Supplier<Object> constructor;
+    // 属性名的小写形式及下划线形式到setter的映射
+    private final Map<String, Method> setters;
+    private final ConcurrentHashMap<String, MappingPlan> plans = new ConcurrentHashMap<>();
+    // 当前线程正在映射的结果集及其映射计划
+    private final ThreadLocal<Current> current = ThreadLocal.withInitial(Current::new);
+
+    public BeanRowMapper(Class<T> mappedClass) {
+        this.mappedClass = mappedClass;
+        this.constructor = PropertyBinding.constructor(mappedClass);
+        this.setters = introspect(mappedClass);
+    }
+
+    // 结果集结构对应的映射计划
+    static final class MappingPlan {
+        final ResultSetMetaData metaData;
+        final String[] labels;
+        final PropertyBinding[] bindings;
+        MappingPlan(ResultSetMetaData metaData, String[] labels, PropertyBinding[] bindings) {
+            this.metaData = metaData;
+            this.labels = labels;
+            this.bindings = bindings;
+        }
+    }
+
+    static final class Current {
+        ResultSet rs;
+        MappingPlan plan;
+    }
+
+    @Override
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Current c = current.get();
+        if (rowNum == 0 || c.rs != rs || c.plan == null) {
+            c.plan = plan(rs);
+            c.rs = rs;
+        }
+        Object target = constructor.get();
+        for (PropertyBinding binding : c.plan.bindings) {
+            binding.apply(rs, target);
+        }
+        return mappedClass.cast(target);
+    }
+
+    /**
+     * @Description: 获取结果集的映射计划，缓存的计划与当前结果集的列标签一致时直接使用
+     * @author chenzq
+     * @date 2026年10月19日 下午8:25:10
+     * @param rs
+     * @return
+     * @throws SQLException
+     */
+    MappingPlan plan(ResultSet rs) throws SQLException {
+        String sql = rs instanceof DelegatingResultSet ? ((DelegatingResultSet) rs).getSql() : null;
+        ResultSetMetaData md = rs.getMetaData();
+        if (sql != null) {
+            MappingPlan plan = plans.get(sql);
+            // 开启sql元数据缓存时元数据快照是同一个对象，否则比较列标签
+            if (plan != null && (plan.metaData == md || Arrays.equals(plan.labels, labels(md)))) {
+                return plan;
+            }
+        }
+        MappingPlan plan = compile(md);
+        if (sql != null) {
+            if (plans.size() >= MAX_PLANS) {
+                plans.clear();
+            }
+            plans.put(sql, plan);
+        }
+        return plan;
+    }
+
+    // 按列标签匹配属性，生成映射计划
+    private MappingPlan compile(ResultSetMetaData md) throws SQLException {
+        String[] labels = labels(md);
+        List<PropertyBinding> bindings = new ArrayList<>(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            String field = labels[i].replace(" ", "").toLowerCase(Locale.US);
+            Method setter = setters.get(field);
+            if (setter != null) {
+                bindings.add(PropertyBinding.of(i + 1, setter));
+            }
+        }
+        return new MappingPlan(md, labels, bindings.toArray(new PropertyBinding[0]));
+    }
+
+    private static String[] labels(ResultSetMetaData md) throws SQLException {
+        int count = md.getColumnCount();
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            String label = md.getColumnLabel(i + 1);
+            labels[i] = label == null || label.isEmpty() ? md.getColumnName(i + 1) : label;
+        }
+        return labels;
+    }
+
+    private static Map<String, Method> introspect(Class<?> type) {
+        BeanInfo info;
+        try {
+            info = Introspector.getBeanInfo(type);
+        } catch (IntrospectionException e) {
+            throw new IllegalArgumentException("Cannot introspect " + type.getName(), e);
+        }
+        Map<String, Method> setters = new HashMap<>();
+        for (PropertyDescriptor pd : info.getPropertyDescriptors()) {
+            Method setter = pd.getWriteMethod();
+            if (setter != null) {
+                setters.put(pd.getName().toLowerCase(Locale.US), setter);
+                String underscored = underscoreName(pd.getName());
+                if (!underscored.isEmpty()) {
+                    setters.put(underscored, setter);
+                }
+            }
+        }
+        return setters;
+    }
+
+    // userName -> user_name
+    static String underscoreName(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    sb.append('_');
+                }
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    public Class<T> getMappedClass() {
+        return mappedClass;
+    }
+}
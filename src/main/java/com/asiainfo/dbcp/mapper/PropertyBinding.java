@@ -0,0 +1,366 @@
+package com.asiainfo.dbcp.mapper;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * @Description: 结果集的一列到bean属性的绑定，setter通过LambdaMetafactory生成，int、long、double属性使用原始类型的函数接口避免装箱；
+ *             - 目标类对当前类加载器不可见或者LambdaMetafactory失败时，退回MethodHandle调用；
+ *             - 列值为null时，引用类型（包括包装类型）的属性用null调用setter，与BeanPropertyRowMapper一致；
+ *             - 原始类型的属性无法设置null，列值为null时不调用setter，属性保持构造后的默认值。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午8:05:36
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+abstract class PropertyBinding {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // 列序号，从1开始
+    protected final int column;
+
+    protected PropertyBinding(int column) {
+        this.column = column;
+    }
+
+    /**
+     * @Description: 读取当前行的列值并设置到目标对象
+     * @author chenzq
+     * @date 2026年10月19日 下午8:06:40
+     * @param rs
+     * @param target
+     * @throws SQLException
+     */
+    abstract void apply(ResultSet rs, Object target) throws SQLException;
+
+    // 按列读取值
+    @FunctionalInterface
+    interface ColumnReader {
+        Object read(ResultSet rs, int column) throws SQLException;
+    }
+
+    static final class IntBinding extends PropertyBinding {
+        private final ObjIntConsumer<Object> setter;
+        IntBinding(int column, ObjIntConsumer<Object> setter) {
+            super(column);
+            this.setter = setter;
+        }
+        @Override
+        void apply(ResultSet rs, Object target) throws SQLException {
+            int value = rs.getInt(column);
+            if (value != 0 || !rs.wasNull()) {
+                setter.accept(target, value);
+            }
+        }
+    }
+
+    static final class LongBinding extends PropertyBinding {
+        private final ObjLongConsumer<Object> setter;
+        LongBinding(int column, ObjLongConsumer<Object> setter) {
+            super(column);
+            this.setter = setter;
+        }
+        @Override
+        void apply(ResultSet rs, Object target) throws SQLException {
+            long value = rs.getLong(column);
+            if (value != 0L || !rs.wasNull()) {
+                setter.accept(target, value);
+            }
+        }
+    }
+
+    static final class DoubleBinding extends PropertyBinding {
+        private final ObjDoubleConsumer<Object> setter;
+        DoubleBinding(int column, ObjDoubleConsumer<Object> setter) {
+            super(column);
+            this.setter = setter;
+        }
+        @Override
+        void apply(ResultSet rs, Object target) throws SQLException {
+            double value = rs.getDouble(column);
+            if (value != 0D || !rs.wasNull()) {
+                setter.accept(target, value);
+            }
+        }
+    }
+
+    static final class ObjectBinding extends PropertyBinding {
+        private final ColumnReader reader;
+        private final BiConsumer<Object, Object> setter;
+        // 原始类型属性（boolean、short等）拆箱null会抛出异常，列值为null时跳过
+        private final boolean primitive;
+        ObjectBinding(int column, ColumnReader reader, BiConsumer<Object, Object> setter, boolean primitive) {
+            super(column);
+            this.reader = reader;
+            this.setter = setter;
+            this.primitive = primitive;
+        }
+        @Override
+        void apply(ResultSet rs, Object target) throws SQLException {
+            Object value = reader.read(rs, column);
+            if (value != null || !primitive) {
+                setter.accept(target, value);
+            }
+        }
+    }
+
+    /**
+     * @Description: 为setter生成列绑定
+     * @author chenzq
+     * @date 2026年10月19日 下午8:10:12
+     * @param column
+     * @param setter
+     * @return
+     */
+    static PropertyBinding of(int column, Method setter) {
+        Class<?> type = setter.getParameterTypes()[0];
+        MethodHandle mh;
+        try {
+            mh = LOOKUP.unreflect(setter);
+        } catch (IllegalAccessException e) {
+            setter.setAccessible(true);
+            try {
+                mh = LOOKUP.unreflect(setter);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Cannot access setter " + setter, ex);
+            }
+        }
+        boolean spin = isVisible(setter.getDeclaringClass()) && java.lang.reflect.Modifier.isPublic(setter.getModifiers())
+                && java.lang.reflect.Modifier.isPublic(setter.getDeclaringClass().getModifiers());
+        if (type == int.class) {
+            return new IntBinding(column, intSetter(mh, setter.getDeclaringClass(), spin));
+        } else if (type == long.class) {
+            return new LongBinding(column, longSetter(mh, setter.getDeclaringClass(), spin));
+        } else if (type == double.class) {
+            return new DoubleBinding(column, doubleSetter(mh, setter.getDeclaringClass(), spin));
+        }
+        return new ObjectBinding(column, reader(type), objectSetter(mh, setter.getDeclaringClass(), type, spin),
+                type.isPrimitive());
+    }
+
+    // 按属性类型选择结果集的取值方法，原始类型及其包装类型通过wasNull区分null
+    static ColumnReader reader(Class<?> type) {
+        if (type == String.class) {
+            return ResultSet::getString;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return (rs, c) -> {
+                boolean v = rs.getBoolean(c);
+                return !v && rs.wasNull() ? null : Boolean.valueOf(v);
+            };
+        } else if (type == int.class || type == Integer.class) {
+            return (rs, c) -> {
+                int v = rs.getInt(c);
+                return v == 0 && rs.wasNull() ? null : Integer.valueOf(v);
+            };
+        } else if (type == long.class || type == Long.class) {
+            return (rs, c) -> {
+                long v = rs.getLong(c);
+                return v == 0L && rs.wasNull() ? null : Long.valueOf(v);
+            };
+        } else if (type == short.class || type == Short.class) {
+            return (rs, c) -> {
+                short v = rs.getShort(c);
+                return v == 0 && rs.wasNull() ? null : Short.valueOf(v);
+            };
+        } else if (type == byte.class || type == Byte.class) {
+            return (rs, c) -> {
+                byte v = rs.getByte(c);
+                return v == 0 && rs.wasNull() ? null : Byte.valueOf(v);
+            };
+        } else if (type == float.class || type == Float.class) {
+            return (rs, c) -> {
+                float v = rs.getFloat(c);
+                return v == 0F && rs.wasNull() ? null : Float.valueOf(v);
+            };
+        } else if (type == double.class || type == Double.class) {
+            return (rs, c) -> {
+                double v = rs.getDouble(c);
+                return v == 0D && rs.wasNull() ? null : Double.valueOf(v);
+            };
+        } else if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        } else if (type == byte[].class) {
+            return ResultSet::getBytes;
+        } else if (type == java.sql.Timestamp.class || type == java.util.Date.class) {
+            return ResultSet::getTimestamp;
+        } else if (type == java.sql.Date.class) {
+            return ResultSet::getDate;
+        } else if (type == java.sql.Time.class) {
+            return ResultSet::getTime;
+        } else if (type.isEnum()) {
+            return (rs, c) -> {
+                String v = rs.getString(c);
+                return v == null ? null : enumValue(type, v);
+            };
+        }
+        return (rs, c) -> rs.getObject(c, type);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object enumValue(Class<?> type, String name) {
+        return Enum.valueOf((Class<Enum>) type, name.trim());
+    }
+
+    /**
+     * @Description: 生成无参构造函数的Supplier
+     * @author chenzq
+     * @date 2026年10月19日 下午8:14:30
+     * @param type
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> constructor(Class<?> type) {
+        MethodHandle ctor;
+        try {
+            ctor = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            try {
+                java.lang.reflect.Constructor<?> c = type.getDeclaredConstructor();
+                c.setAccessible(true);
+                ctor = LOOKUP.unreflectConstructor(c);
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalArgumentException("No accessible no-arg constructor for " + type.getName(), ex);
+            }
+        }
+        if (isVisible(type) && java.lang.reflect.Modifier.isPublic(type.getModifiers())) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), ctor, MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // 退回MethodHandle调用
+            }
+        }
+        MethodHandle generic = ctor.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return generic.invokeExact();
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjIntConsumer<Object> intSetter(MethodHandle mh, Class<?> owner, boolean spin) {
+        if (spin) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(ObjIntConsumer.class),
+                        MethodType.methodType(void.class, Object.class, int.class), mh,
+                        MethodType.methodType(void.class, owner, int.class));
+                return (ObjIntConsumer<Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // 退回MethodHandle调用
+            }
+        }
+        MethodHandle generic = mh.asType(MethodType.methodType(void.class, Object.class, int.class));
+        return (t, v) -> {
+            try {
+                generic.invokeExact(t, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjLongConsumer<Object> longSetter(MethodHandle mh, Class<?> owner, boolean spin) {
+        if (spin) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(ObjLongConsumer.class),
+                        MethodType.methodType(void.class, Object.class, long.class), mh,
+                        MethodType.methodType(void.class, owner, long.class));
+                return (ObjLongConsumer<Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // 退回MethodHandle调用
+            }
+        }
+        MethodHandle generic = mh.asType(MethodType.methodType(void.class, Object.class, long.class));
+        return (t, v) -> {
+            try {
+                generic.invokeExact(t, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjDoubleConsumer<Object> doubleSetter(MethodHandle mh, Class<?> owner, boolean spin) {
+        if (spin) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(ObjDoubleConsumer.class),
+                        MethodType.methodType(void.class, Object.class, double.class), mh,
+                        MethodType.methodType(void.class, owner, double.class));
+                return (ObjDoubleConsumer<Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // 退回MethodHandle调用
+            }
+        }
+        MethodHandle generic = mh.asType(MethodType.methodType(void.class, Object.class, double.class));
+        return (t, v) -> {
+            try {
+                generic.invokeExact(t, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> objectSetter(MethodHandle mh, Class<?> owner, Class<?> type, boolean spin) {
+        if (spin) {
+            try {
+                // 原始类型属性的实例化类型使用包装类型，由LambdaMetafactory完成拆箱
+                Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class), mh,
+                        MethodType.methodType(void.class, owner, boxed));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // 退回MethodHandle调用
+            }
+        }
+        MethodHandle generic = mh.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (t, v) -> {
+            try {
+                generic.invokeExact(t, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    // 生成的lambda类定义在当前类加载器里，目标类必须对当前类加载器可见
+    private static boolean isVisible(Class<?> type) {
+        ClassLoader loader = PropertyBinding.class.getClassLoader();
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+}
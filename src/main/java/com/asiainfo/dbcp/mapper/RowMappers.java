@@ -0,0 +1,34 @@
+package com.asiainfo.dbcp.mapper;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Description: 行映射器工厂，每个目标类只生成一个BeanRowMapper，映射计划在所有调用方之间共享
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午8:32:18
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class RowMappers {
+
+    private static final ConcurrentHashMap<Class<?>, BeanRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private RowMappers() {}
+
+    /**
+     * @Description: 获取目标类的行映射器
+     * @author chenzq
+     * @date 2026年10月19日 下午8:33:05
+     * @param mappedClass
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanRowMapper<T> beanMapper(Class<T> mappedClass) {
+        BeanRowMapper<?> mapper = MAPPERS.get(mappedClass);
+        if (mapper == null) {
+            mapper = MAPPERS.computeIfAbsent(mappedClass, BeanRowMapper::new);
+        }
+        return (BeanRowMapper<T>) mapper;
+    }
+}
@@ -1,111 +1,369 @@
-package com.asiainfo.dbcp.poolable;
-
-import java.sql.Connection;
-import java.sql.SQLException;
-
-import org.apache.commons.pool2.impl.GenericObjectPool;
-
-import com.asiainfo.dbcp.delegate.DelegatingConnection;
-
-/**
- * @Description: Poolable连接，可以存放在对象池中的代理连接对象，需要一个对象池和被缓存的连接对象（通常是DelegatingConnection），
- *             - Poolable连接的close方法会将连接返还对象池中而不是真的关闭。
- * 
- * @author chenzq  
- * @date 2019年5月2日 上午10:56:00
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
- */
-public class PoolableConnection extends DelegatingConnection {
-
-	protected GenericObjectPool<PoolableConnection> pool = null;
-	
-	public PoolableConnection(Connection conn) {
-        super(conn);
-    }
-	
-	/**
-	 * @Description: 设置连接对应的连接池，用于close时返还连接池
-	 * @author chenzq
-	 * @date 2019年5月2日 下午5:25:25
-	 * @param pool
-	 */
-	public void setPool(GenericObjectPool<PoolableConnection> pool) {
-	    this.pool = pool;
-	}
-	
-	@Override
-    public synchronized void close() throws SQLException {
-    	
-        if (closed) {
-            // already closed
-            return;
-        }
-
-        boolean isUnderlyingConectionClosed;
-        try {
-            // 持有的连接对象是否关闭
-            isUnderlyingConectionClosed = conn.isClosed();
-        } catch (SQLException e) {
-            // isClosed 出现异常，通常是连接失效
-            try {
-                // 调用对象池的invalidateObject处理失效的池对象，通常是destroy
-                pool.invalidateObject(this);
-            } catch (IllegalStateException ise) {
-                // pool is closed, so close the connection
-                // 连接池已关闭，清理代理的连接trace缓存，并关闭真正的连接
-                passivate();
-                getDelegateConnection().close();
-            } catch (Exception ie) {
-                // DO NOTHING the original exception will be rethrown
-            }
-            throw (SQLException) new SQLException("Cannot close connection (isClosed check failed)").initCause(e);
-        }
-
-        // 真正连接未关闭，返还当前的池连接到对象池中
-        if (!isUnderlyingConectionClosed) {
-            // Normal close: underlying connection is still open, 
-            // so we simply need to return this proxy to the pool
-            try {
-                pool.returnObject(this);
-            } catch(IllegalStateException e) {
-                // pool is closed, so close the connection
-                // 连接池已关闭，清理代理的连接trace缓存，并关闭真正的连接
-                passivate();
-                getDelegateConnection().close();
-            } catch(RuntimeException e) {
-                throw e;
-            } catch(Exception e) {
-                throw (SQLException) new SQLException("Cannot close connection (return to pool failed)").initCause(e);
-            }
-        // 真正连接已关闭
-        } else {
-            // Abnormal close: underlying connection closed unexpectedly, so we must destroy this proxy
-            try {
-                pool.invalidateObject(this);
-            } catch(IllegalStateException e) {
-                // pool is closed, so close the connection
-                // 连接池已关闭，清理代理的连接trace缓存，并关闭真正的连接
-                passivate();
-                getDelegateConnection().close();
-            } catch (Exception ie) {
-                // DO NOTHING, "Already closed" exception thrown below
-            }
-            throw new SQLException("Already closed.");
-        }
-    }
-	
-	/**
-	 * @Description: TODO
-	 * @author chenzq
-	 * @date 2019年5月2日 下午5:36:08
-	 * @throws SQLException
-	 */
-	public void reallyClose() throws SQLException {
-	    closed = true;
-	    // 清理trace缓存
-        passivate();
-        // 调用代理对象的close
-        getDelegateConnection().close();
-	}
-}
+package com.asiainfo.dbcp.poolable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.commons.pool2.TrackedUse;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+import com.asiainfo.dbcp.delegate.DelegatingConnection;
+
+/**
+ * @Description: Poolable连接，可以存放在对象池中的代理连接对象，需要一个对象池和被缓存的连接对象（通常是DelegatingConnection），
+ *             - Poolable连接的close方法会将连接返还对象池中而不是真的关闭。
+ *             - 实现TrackedUse，连接池根据最后使用时间（创建statement、执行sql时刷新）检测并回收废弃的连接。
+ * 
+ * @author chenzq  
+ * @date 2019年5月2日 上午10:56:00
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class PoolableConnection extends DelegatingConnection implements TrackedUse {
+
+	protected GenericObjectPool<PoolableConnection> pool = null;
+	// 延迟恢复会话状态：激活时只记录缺省状态，首次使用连接时与调用方的设置合并后再下发给驱动
+	protected boolean lazyStateRestore = false;
+	// 激活后连接是否已经被使用过（创建过statement或者提交/回滚过）
+	protected boolean used = true;
+	// 待下发的会话状态，null表示没有待下发的设置
+	protected Boolean pendingAutoCommit = null;
+	protected Integer pendingTransactionIsolation = null;
+	protected Boolean pendingReadOnly = null;
+	protected String pendingCatalog = null;
+	// 已知的物理连接会话状态，null表示未知，需要向驱动查询；
+	// 只记录通过JDBC方法所做的设置，直接执行SET autocommit、SET TRANSACTION ISOLATION、USE db等sql修改会话状态时不会更新，
+	// 之后按过期的值比较会跳过需要的恢复，延迟模式下只能通过JDBC方法修改这些会话状态
+	protected Boolean currentAutoCommit = null;
+	protected Integer currentTransactionIsolation = null;
+	protected Boolean currentReadOnly = null;
+	protected String currentCatalog = null;
+	// 借出连接时采样记录的调用栈，用于定位被回收的废弃连接，未采样时为null
+	protected volatile Throwable borrowStackTrace = null;
+	
+	public PoolableConnection(Connection conn) {
+        super(conn);
+    }
+	
+	@Override
+	public long getLastUsed() {
+	    return super.getLastUsed();
+	}
+	
+	public Throwable getBorrowStackTrace() {
+	    return borrowStackTrace;
+	}
+	public void setBorrowStackTrace(Throwable borrowStackTrace) {
+	    this.borrowStackTrace = borrowStackTrace;
+	}
+	
+	/**
+	 * @Description: 设置是否延迟恢复会话状态
+	 * @author chenzq
+	 * @date 2026年10月19日 上午10:20:41
+	 * @param lazyStateRestore
+	 */
+	public void setLazyStateRestore(boolean lazyStateRestore) {
+	    this.lazyStateRestore = lazyStateRestore;
+	}
+	
+	public boolean isLazyStateRestore() {
+	    return lazyStateRestore;
+	}
+	
+	/**
+	 * @Description: 激活时记录待恢复的缺省会话状态，延迟到首次使用连接时才下发给驱动
+	 * @author chenzq
+	 * @date 2026年10月19日 上午10:21:15
+	 * @param autoCommit
+	 * @param transactionIsolation 小于0表示不恢复
+	 * @param readOnly
+	 * @param catalog null表示不恢复
+	 */
+	public void setPendingState(boolean autoCommit, int transactionIsolation, boolean readOnly, String catalog) {
+	    this.used = false;
+	    this.pendingAutoCommit = autoCommit;
+	    this.pendingTransactionIsolation = transactionIsolation < 0 ? null : transactionIsolation;
+	    this.pendingReadOnly = readOnly;
+	    this.pendingCatalog = catalog;
+	}
+	
+	/**
+	 * @Description: 钝化时判断是否需要回滚；延迟模式下连接未被使用过时不可能有未提交的事务，直接丢弃待下发的状态
+	 * @author chenzq
+	 * @date 2026年10月19日 上午10:23:02
+	 * @return
+	 * @throws SQLException
+	 */
+	public boolean needsRollback() throws SQLException {
+	    if (!used) {
+	        clearPendingState();
+	        return false;
+	    }
+	    return !getAutoCommit() && !isReadOnly();
+	}
+	
+	/**
+	 * @Description: 返回物理连接，用于校验查询等不需要trace及会话状态处理的场景
+	 * @author chenzq
+	 * @date 2026年10月19日 上午10:24:37
+	 * @return
+	 */
+	Connection getPhysicalConnection() {
+	    return getDelegateConnection();
+	}
+	
+	/**
+	 * @Description: 首次使用连接时，将待下发的会话状态与已知的物理连接状态比较，只下发真正变化的设置
+	 * @author chenzq
+	 * @date 2026年10月19日 上午10:26:18
+	 * @throws SQLException
+	 */
+	@Override
+	protected void beforeUse() throws SQLException {
+	    if (used) {
+	        return;
+	    }
+	    used = true;
+	    if (pendingAutoCommit != null) {
+	        if (!pendingAutoCommit.equals(currentAutoCommit)) {
+	            conn.setAutoCommit(pendingAutoCommit);
+	        }
+	        currentAutoCommit = pendingAutoCommit;
+	    }
+	    if (pendingTransactionIsolation != null) {
+	        if (!pendingTransactionIsolation.equals(currentTransactionIsolation)) {
+	            conn.setTransactionIsolation(pendingTransactionIsolation);
+	        }
+	        currentTransactionIsolation = pendingTransactionIsolation;
+	    }
+	    if (pendingReadOnly != null) {
+	        if (!pendingReadOnly.equals(currentReadOnly)) {
+	            conn.setReadOnly(pendingReadOnly);
+	        }
+	        currentReadOnly = pendingReadOnly;
+	    }
+	    if (pendingCatalog != null) {
+	        if (!pendingCatalog.equals(currentCatalog)) {
+	            conn.setCatalog(pendingCatalog);
+	            resetMetadataScope();
+	        }
+	        currentCatalog = pendingCatalog;
+	    }
+	    clearPendingState();
+	}
+	
+	// 清空待下发的会话状态
+	protected void clearPendingState() {
+	    used = true;
+	    pendingAutoCommit = null;
+	    pendingTransactionIsolation = null;
+	    pendingReadOnly = null;
+	    pendingCatalog = null;
+	}
+	
+	// 延迟模式下，连接使用前的设置只记录不下发；使用后（可能已开启事务）直接下发，保证setAutoCommit(true)的提交语义
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException {
+	    if (!lazyStateRestore) {
+	        super.setAutoCommit(autoCommit);
+	    } else if (!used) {
+	        checkOpen();
+	        pendingAutoCommit = autoCommit;
+	    } else {
+	        super.setAutoCommit(autoCommit);
+	        currentAutoCommit = autoCommit;
+	    }
+	}
+	
+	@Override
+	public boolean getAutoCommit() throws SQLException {
+	    if (!lazyStateRestore) {
+	        return super.getAutoCommit();
+	    }
+	    if (pendingAutoCommit != null) {
+	        checkOpen();
+	        return pendingAutoCommit;
+	    }
+	    if (currentAutoCommit == null) {
+	        currentAutoCommit = super.getAutoCommit();
+	    }
+	    return currentAutoCommit;
+	}
+	
+	@Override
+	public void setTransactionIsolation(int level) throws SQLException {
+	    if (!lazyStateRestore) {
+	        super.setTransactionIsolation(level);
+	    } else if (!used) {
+	        checkOpen();
+	        pendingTransactionIsolation = level;
+	    } else {
+	        super.setTransactionIsolation(level);
+	        currentTransactionIsolation = level;
+	    }
+	}
+	
+	@Override
+	public int getTransactionIsolation() throws SQLException {
+	    if (!lazyStateRestore) {
+	        return super.getTransactionIsolation();
+	    }
+	    if (pendingTransactionIsolation != null) {
+	        checkOpen();
+	        return pendingTransactionIsolation;
+	    }
+	    if (currentTransactionIsolation == null) {
+	        currentTransactionIsolation = super.getTransactionIsolation();
+	    }
+	    return currentTransactionIsolation;
+	}
+	
+	@Override
+	public void setReadOnly(boolean readOnly) throws SQLException {
+	    if (!lazyStateRestore) {
+	        super.setReadOnly(readOnly);
+	    } else if (!used) {
+	        checkOpen();
+	        pendingReadOnly = readOnly;
+	    } else {
+	        super.setReadOnly(readOnly);
+	        currentReadOnly = readOnly;
+	    }
+	}
+	
+	@Override
+	public boolean isReadOnly() throws SQLException {
+	    if (!lazyStateRestore) {
+	        return super.isReadOnly();
+	    }
+	    if (pendingReadOnly != null) {
+	        checkOpen();
+	        return pendingReadOnly;
+	    }
+	    if (currentReadOnly == null) {
+	        currentReadOnly = super.isReadOnly();
+	    }
+	    return currentReadOnly;
+	}
+	
+	@Override
+	public void setCatalog(String catalog) throws SQLException {
+	    if (!lazyStateRestore) {
+	        super.setCatalog(catalog);
+	    } else if (!used && catalog != null) {
+	        checkOpen();
+	        pendingCatalog = catalog;
+	    } else {
+	        super.setCatalog(catalog);
+	        currentCatalog = catalog;
+	    }
+	}
+	
+	@Override
+	public String getCatalog() throws SQLException {
+	    if (!lazyStateRestore) {
+	        return super.getCatalog();
+	    }
+	    if (pendingCatalog != null) {
+	        checkOpen();
+	        return pendingCatalog;
+	    }
+	    if (currentCatalog == null) {
+	        currentCatalog = super.getCatalog();
+	    }
+	    return currentCatalog;
+	}
+	
+	/**
+	 * @Description: 设置连接对应的连接池，用于close时返还连接池
+	 * @author chenzq
+	 * @date 2019年5月2日 下午5:25:25
+	 * @param pool
+	 */
+	public void setPool(GenericObjectPool<PoolableConnection> pool) {
+	    this.pool = pool;
+	}
+	
+	@Override
+    public synchronized void close() throws SQLException {
+    	
+        if (closed) {
+            // already closed
+            return;
+        }
+
+        boolean isUnderlyingConectionClosed;
+        try {
+            // 持有的连接对象是否关闭
+            isUnderlyingConectionClosed = conn.isClosed();
+        } catch (SQLException e) {
+            // isClosed 出现异常，通常是连接失效
+            try {
+                // 调用对象池的invalidateObject处理失效的池对象，通常是destroy
+                pool.invalidateObject(this);
+            } catch (IllegalStateException ise) {
+                // pool is closed, so close the connection
+                // 连接池已关闭，清理代理的连接trace缓存，并关闭真正的连接
+                reallyClose();
+            } catch (Exception ie) {
+                // DO NOTHING the original exception will be rethrown
+            }
+            throw (SQLException) new SQLException("Cannot close connection (isClosed check failed)").initCause(e);
+        }
+
+        // 真正连接未关闭，返还当前的池连接到对象池中
+        if (!isUnderlyingConectionClosed) {
+            // Normal close: underlying connection is still open, 
+            // so we simply need to return this proxy to the pool
+            try {
+                pool.returnObject(this);
+            } catch(IllegalStateException e) {
+                // pool is closed, so close the connection
+                // 连接池已关闭，清理代理的连接trace缓存，并关闭真正的连接
+                reallyClose();
+            } catch(RuntimeException e) {
+                throw e;
+            } catch(Exception e) {
+                throw (SQLException) new SQLException("Cannot close connection (return to pool failed)").initCause(e);
+            }
+        // 真正连接已关闭
+        } else {
+            // Abnormal close: underlying connection closed unexpectedly, so we must destroy this proxy
+            try {
+                pool.invalidateObject(this);
+            } catch(IllegalStateException e) {
+                // pool is closed, so close the connection
+                // 连接池已关闭，清理代理的连接trace缓存，并关闭真正的连接
+                reallyClose();
+            } catch (Exception ie) {
+                // DO NOTHING, "Already closed" exception thrown below
+            }
+            throw new SQLException("Already closed.");
+        }
+    }
+	
+	// 新建连接进入连接池之前预热statement缓存，预热不算作连接的使用
+	void warmStatements(StatementWarmup warmup) {
+	    warmup.warm(this);
+	    setLastUsed(0);
+	}
+	
+	/**
+	 * @Description: 真正关闭连接，清理trace缓存后关闭物理连接
+	 * @author chenzq
+	 * @date 2019年5月2日 下午5:36:08
+	 * @throws SQLException
+	 */
+	public void reallyClose() throws SQLException {
+	    closed = true;
+	    try {
+	        // 清理trace缓存
+	        passivate();
+	    } finally {
+	        // 关闭缓存的statement
+	        clearStatementCache();
+	        // 调用代理对象的close
+	        getDelegateConnection().close();
+	    }
+	}
+}
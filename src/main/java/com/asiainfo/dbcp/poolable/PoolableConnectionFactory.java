@@ -1,167 +1,389 @@
-package com.asiainfo.dbcp.poolable;
-
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.pool2.PooledObject;
-import org.apache.commons.pool2.PooledObjectFactory;
-import org.apache.commons.pool2.impl.DefaultPooledObject;
-import org.apache.commons.pool2.impl.GenericObjectPool;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.asiainfo.dbcp.factory.ConnectionFactory;
-
-/**
- * @Description: poolable的连接对象工厂，通过持有真正的连接工厂和对象池，实现连接池的makeObject、activateObject、validateObject、passivateObject、destroyObject
- * 
- * @author chenzq  
- * @date 2019年5月2日 上午11:20:16
- * @version V1.0
- * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
- */
-public class PoolableConnectionFactory implements PooledObjectFactory<PoolableConnection> {
-
-	protected final Logger logger = LoggerFactory.getLogger(getClass());
-	
-	public static final int UNKNOWN_TRANSACTIONISOLATION = -1;
-	// 连接池
-	protected volatile GenericObjectPool<Connection> pool = null;
-	// 真正的连接工厂
-    protected volatile ConnectionFactory factory = null;
-    // 校验查询sql
-    protected volatile String validationQuery = null;
-    // 校验查询超时时间
-    protected volatile int validationQueryTimeout = -1;
-    // 缺省catalog
-    protected String defaultCatalog;
-    // 缺省只读配置
-    protected boolean defaultReadOnly = false;
-    // 缺省自动提交配置
-    protected boolean defaultAutoCommit = true;
-    // 缺省事务隔离级别
-    protected int defaultTransactionIsolation = UNKNOWN_TRANSACTIONISOLATION;
-    
-    public PoolableConnectionFactory(ConnectionFactory factory) {
-        this(factory, null, false, true);
-    }
-    public PoolableConnectionFactory(ConnectionFactory factory, 
-            String validationQuery, boolean defaultAutoCommit) {
-        this(factory, validationQuery, -1, false, defaultAutoCommit, null, UNKNOWN_TRANSACTIONISOLATION);
-    }
-	public PoolableConnectionFactory(ConnectionFactory factory, 
-    		String validationQuery, boolean defaultReadOnly, boolean defaultAutoCommit) {
-        this(factory, validationQuery, -1, defaultReadOnly, defaultAutoCommit, null, UNKNOWN_TRANSACTIONISOLATION);
-    }
-	public PoolableConnectionFactory(ConnectionFactory factory, 
-	        String validationQuery, int validationQueryTimeout, boolean defaultReadOnly, 
-	        boolean defaultAutoCommit, String defaultCatalog, int defaultTransactionIsolation) {
-	    this.factory = factory;
-	    this.validationQuery = validationQuery;
-	    this.validationQueryTimeout = validationQueryTimeout;
-	    this.defaultReadOnly = defaultReadOnly;
-	    this.defaultAutoCommit = defaultAutoCommit;
-	    this.defaultCatalog = defaultCatalog;
-	    this.defaultTransactionIsolation = defaultTransactionIsolation;
-    }
-
-    @Override
-    public PooledObject<PoolableConnection> makeObject() throws Exception {
-        logger.debug("makeObject() ......");
-        Connection conn = factory.createConnection();
-        if (conn == null) {
-            throw new IllegalStateException("Connection factory returned null from createConnection");
-        }
-        // 返回封装过的代理对象
-        return new DefaultPooledObject<>(new PoolableConnection(conn));
-    }
-
-    @Override
-    public void destroyObject(PooledObject<PoolableConnection> p) throws Exception {
-        logger.debug("destroyObject(), obj={} ......", p.getObject());
-        PoolableConnection conn = p.getObject();
-        // 调用代理的方法真正关闭连接
-        conn.reallyClose();
-    }
-
-    @Override
-    public boolean validateObject(PooledObject<PoolableConnection> p) {
-        logger.debug("validateObject(), obj={} ......", p.getObject());
-        PoolableConnection conn = p.getObject();
-        try {
-            if (conn.isClosed()) {
-                logger.error("connection:{} is closed!", conn);
-                return false;
-            }
-            if (StringUtils.isNotEmpty(validationQuery)) {
-                Statement stmt = null;
-                ResultSet rs = null;
-                try {
-                    stmt = conn.createStatement();
-                    if (validationQueryTimeout > 0) {
-                        stmt.setQueryTimeout(validationQueryTimeout);
-                    }
-                    rs = stmt.executeQuery(validationQuery);
-                    if (!rs.next()) {
-                        throw new SQLException("validationQuery didn't return a row");
-                    }
-                } finally {
-                    closeSilently(rs, stmt);
-                }
-            }
-            return true;
-        } catch (Exception e) {
-            // ignore
-        }
-        return false;
-    }
-
-    @Override
-    public void activateObject(PooledObject<PoolableConnection> p) throws Exception {
-        logger.debug("activateObject(), obj={} ......", p.getObject());
-        PoolableConnection conn = p.getObject();
-        if (conn.getAutoCommit() != defaultAutoCommit) {
-            conn.setAutoCommit(defaultAutoCommit);
-        }
-        if ((defaultTransactionIsolation != UNKNOWN_TRANSACTIONISOLATION) && 
-                (conn.getTransactionIsolation() != defaultTransactionIsolation)) {
-            conn.setTransactionIsolation(defaultTransactionIsolation);
-        }
-        if (conn.isReadOnly() != defaultReadOnly) {
-            conn.setReadOnly(defaultReadOnly);
-        }
-        if ((defaultCatalog != null) && (!defaultCatalog.equals(conn.getCatalog()))) {
-            conn.setCatalog(defaultCatalog);
-        }
-        // 激活时调用代理对象的activate
-        conn.activate();
-    }
-
-    @Override
-    public void passivateObject(PooledObject<PoolableConnection> p) throws Exception {
-        logger.debug("passivateObject(), obj={} ......", p.getObject());
-        PoolableConnection conn = p.getObject();
-        if (!conn.getAutoCommit() && !conn.isReadOnly()) {
-            conn.rollback();
-        }
-        conn.clearWarnings();
-        // 钝化时调用代理对象的passivate进行statement缓存清理
-        conn.passivate();
-    }
-    
-    //AutoCloseable关闭工具
-    protected void closeSilently(AutoCloseable... autoCloseables) {
-        if (null != autoCloseables) {
-            for (AutoCloseable closeable : autoCloseables) {
-                try {
-                    closeable.close();
-                } catch(Exception ex) {
-                    // ignore
-                }
-            }
-        }
-    }
-}
+package com.asiainfo.dbcp.poolable;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asiainfo.dbcp.delegate.FetchSizeAdvisor;
+import com.asiainfo.dbcp.delegate.SqlMetadataCache;
+import com.asiainfo.dbcp.delegate.StatementCache;
+import com.asiainfo.dbcp.delegate.StatementCacheBudget;
+import com.asiainfo.dbcp.factory.ConnectionFactory;
+
+/**
+ * @Description: poolable的连接对象工厂，通过持有真正的连接工厂和对象池，实现连接池的makeObject、activateObject、validateObject、passivateObject、destroyObject
+ * 
+ * @author chenzq  
+ * @date 2019年5月2日 上午11:20:16
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class PoolableConnectionFactory implements PooledObjectFactory<PoolableConnection> {
+
+	protected final Logger logger = LoggerFactory.getLogger(getClass());
+	
+	public static final int UNKNOWN_TRANSACTIONISOLATION = -1;
+	// 当前线程是否在借出连接，借出时新建的连接直接交给调用方，不在借出线程上预热
+	private static final ThreadLocal<Boolean> BORROWING = new ThreadLocal<>();
+	// 连接池
+	protected volatile GenericObjectPool<Connection> pool = null;
+	// 真正的连接工厂
+    protected volatile ConnectionFactory factory = null;
+    // 校验查询sql
+    protected volatile String validationQuery = null;
+    // 校验查询超时时间
+    protected volatile int validationQueryTimeout = -1;
+    // 缺省catalog
+    protected String defaultCatalog;
+    // 缺省只读配置
+    protected boolean defaultReadOnly = false;
+    // 缺省自动提交配置
+    protected boolean defaultAutoCommit = true;
+    // 缺省事务隔离级别
+    protected int defaultTransactionIsolation = UNKNOWN_TRANSACTIONISOLATION;
+    // 延迟恢复会话状态，激活时不立即重置autoCommit、隔离级别等，首次使用连接时合并调用方设置后再下发
+    protected boolean lazyStateRestore = false;
+    // 是否跟踪statement、resultset
+    protected boolean traceStatements = true;
+    // 是否为驱动具体类型生成特化的代理类
+    protected boolean generateProxies = false;
+    // 废弃连接超时时间（毫秒），小于等于0表示不检测
+    protected long removeAbandonedTimeoutMillis = -1;
+    // 是否缓存PreparedStatement
+    protected boolean poolPreparedStatements = false;
+    // 每个连接缓存的最大PreparedStatement数
+    protected int maxOpenPreparedStatements = 50;
+    // 每个连接缓存的最大CallableStatement数，以及复用时是否保留输出参数注册
+    protected int maxOpenCallableStatements = 20;
+    protected boolean retainOutParameters = false;
+    // 连接池共享的statement缓存预算
+    protected StatementCacheBudget statementCacheBudget = null;
+    // 新建连接的statement缓存预热
+    protected StatementWarmup statementWarmup = null;
+    // 连接池共享的sql元数据缓存
+    protected SqlMetadataCache sqlMetadataCache = null;
+    // statement默认的fetchSize，以及是否默认流式读取结果集、流式读取使用的fetchSize
+    protected int defaultFetchSize = 0;
+    protected boolean streamResults = false;
+    protected int streamingFetchSize = Integer.MIN_VALUE;
+    // 逐行流式读取的结果集未读完就关闭时是否先取消执行
+    protected boolean cancelAbandonedStreams = false;
+    // 连接池共享的自适应fetchSize
+    protected FetchSizeAdvisor fetchSizeAdvisor = null;
+    // 批处理的分段大小，以及是否把简单insert的批处理改写为多行insert
+    protected int maxBatchSize = 0;
+    protected boolean rewriteBatchedInserts = false;
+    // 改写的多行insert每条sql的参数个数上限和估算字节数上限
+    protected int rewriteMaxParameters = 0;
+    protected int rewriteMaxBytes = 1024 * 1024;
+    
+    public PoolableConnectionFactory(ConnectionFactory factory) {
+        this(factory, null, false, true);
+    }
+    public PoolableConnectionFactory(ConnectionFactory factory, 
+            String validationQuery, boolean defaultAutoCommit) {
+        this(factory, validationQuery, -1, false, defaultAutoCommit, null, UNKNOWN_TRANSACTIONISOLATION);
+    }
+	public PoolableConnectionFactory(ConnectionFactory factory, 
+    		String validationQuery, boolean defaultReadOnly, boolean defaultAutoCommit) {
+        this(factory, validationQuery, -1, defaultReadOnly, defaultAutoCommit, null, UNKNOWN_TRANSACTIONISOLATION);
+    }
+	public PoolableConnectionFactory(ConnectionFactory factory, 
+	        String validationQuery, int validationQueryTimeout, boolean defaultReadOnly, 
+	        boolean defaultAutoCommit, String defaultCatalog, int defaultTransactionIsolation) {
+	    this.factory = factory;
+	    this.validationQuery = validationQuery;
+	    this.validationQueryTimeout = validationQueryTimeout;
+	    this.defaultReadOnly = defaultReadOnly;
+	    this.defaultAutoCommit = defaultAutoCommit;
+	    this.defaultCatalog = defaultCatalog;
+	    this.defaultTransactionIsolation = defaultTransactionIsolation;
+    }
+	
+	public boolean isLazyStateRestore() {
+        return lazyStateRestore;
+    }
+    public void setLazyStateRestore(boolean lazyStateRestore) {
+        this.lazyStateRestore = lazyStateRestore;
+    }
+    public boolean isTraceStatements() {
+        return traceStatements;
+    }
+    public void setTraceStatements(boolean traceStatements) {
+        this.traceStatements = traceStatements;
+    }
+    public boolean isGenerateProxies() {
+        return generateProxies;
+    }
+    public void setGenerateProxies(boolean generateProxies) {
+        this.generateProxies = generateProxies;
+    }
+    public long getRemoveAbandonedTimeoutMillis() {
+        return removeAbandonedTimeoutMillis;
+    }
+    public void setRemoveAbandonedTimeoutMillis(long removeAbandonedTimeoutMillis) {
+        this.removeAbandonedTimeoutMillis = removeAbandonedTimeoutMillis;
+    }
+    public boolean isPoolPreparedStatements() {
+        return poolPreparedStatements;
+    }
+    public void setPoolPreparedStatements(boolean poolPreparedStatements) {
+        this.poolPreparedStatements = poolPreparedStatements;
+    }
+    public int getMaxOpenPreparedStatements() {
+        return maxOpenPreparedStatements;
+    }
+    public void setMaxOpenPreparedStatements(int maxOpenPreparedStatements) {
+        this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+    }
+    public int getMaxOpenCallableStatements() {
+        return maxOpenCallableStatements;
+    }
+    public void setMaxOpenCallableStatements(int maxOpenCallableStatements) {
+        this.maxOpenCallableStatements = maxOpenCallableStatements;
+    }
+    public boolean isRetainOutParameters() {
+        return retainOutParameters;
+    }
+    public void setRetainOutParameters(boolean retainOutParameters) {
+        this.retainOutParameters = retainOutParameters;
+    }
+    public int getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+    public void setDefaultFetchSize(int defaultFetchSize) {
+        this.defaultFetchSize = defaultFetchSize;
+    }
+    public boolean isStreamResults() {
+        return streamResults;
+    }
+    public void setStreamResults(boolean streamResults) {
+        this.streamResults = streamResults;
+    }
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+    public void setStreamingFetchSize(int streamingFetchSize) {
+        this.streamingFetchSize = streamingFetchSize;
+    }
+    public boolean isCancelAbandonedStreams() {
+        return cancelAbandonedStreams;
+    }
+    public void setCancelAbandonedStreams(boolean cancelAbandonedStreams) {
+        this.cancelAbandonedStreams = cancelAbandonedStreams;
+    }
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+    public boolean isRewriteBatchedInserts() {
+        return rewriteBatchedInserts;
+    }
+    public void setRewriteBatchedInserts(boolean rewriteBatchedInserts) {
+        this.rewriteBatchedInserts = rewriteBatchedInserts;
+    }
+    public int getRewriteMaxParameters() {
+        return rewriteMaxParameters;
+    }
+    public void setRewriteMaxParameters(int rewriteMaxParameters) {
+        this.rewriteMaxParameters = rewriteMaxParameters;
+    }
+    public int getRewriteMaxBytes() {
+        return rewriteMaxBytes;
+    }
+    public void setRewriteMaxBytes(int rewriteMaxBytes) {
+        this.rewriteMaxBytes = rewriteMaxBytes;
+    }
+    public FetchSizeAdvisor getFetchSizeAdvisor() {
+        return fetchSizeAdvisor;
+    }
+    public void setFetchSizeAdvisor(FetchSizeAdvisor fetchSizeAdvisor) {
+        this.fetchSizeAdvisor = fetchSizeAdvisor;
+    }
+    public SqlMetadataCache getSqlMetadataCache() {
+        return sqlMetadataCache;
+    }
+    public void setSqlMetadataCache(SqlMetadataCache sqlMetadataCache) {
+        this.sqlMetadataCache = sqlMetadataCache;
+    }
+    public StatementWarmup getStatementWarmup() {
+        return statementWarmup;
+    }
+    public void setStatementWarmup(StatementWarmup statementWarmup) {
+        this.statementWarmup = statementWarmup;
+    }
+    public StatementCacheBudget getStatementCacheBudget() {
+        return statementCacheBudget;
+    }
+    public void setStatementCacheBudget(StatementCacheBudget statementCacheBudget) {
+        this.statementCacheBudget = statementCacheBudget;
+    }
+
+    /**
+     * @Description: 标记当前线程是否在借出连接，借出期间新建的连接不预热statement缓存
+     * @author chenzq
+     * @date 2026年10月20日 下午12:20:15
+     * @param borrowing
+     */
+    public static void setBorrowing(boolean borrowing) {
+        BORROWING.set(borrowing ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    @Override
+    public PooledObject<PoolableConnection> makeObject() throws Exception {
+        logger.debug("makeObject() ......");
+        Connection conn = factory.createConnection();
+        if (conn == null) {
+            throw new IllegalStateException("Connection factory returned null from createConnection");
+        }
+        // 返回封装过的代理对象
+        PoolableConnection pc = new PoolableConnection(conn);
+        pc.setLazyStateRestore(lazyStateRestore);
+        pc.setTraceStatements(traceStatements);
+        pc.setGenerateProxies(generateProxies);
+        pc.setRetainOutParameters(retainOutParameters);
+        pc.setSqlMetadataCache(sqlMetadataCache);
+        pc.setDefaultFetchSize(defaultFetchSize);
+        pc.setStreamResults(streamResults);
+        pc.setStreamingFetchSize(streamingFetchSize);
+        pc.setCancelAbandonedStreams(cancelAbandonedStreams);
+        pc.setFetchSizeAdvisor(fetchSizeAdvisor);
+        pc.setMaxBatchSize(maxBatchSize);
+        pc.setRewriteBatchedInserts(rewriteBatchedInserts);
+        pc.setRewriteMaxParameters(rewriteMaxParameters);
+        pc.setRewriteMaxBytes(rewriteMaxBytes);
+        if (poolPreparedStatements) {
+            // PreparedStatement和CallableStatement使用独立的缓存，共享同一个预算
+            StatementCacheBudget budget = statementCacheBudget != null ? statementCacheBudget : new StatementCacheBudget(0, 0);
+            if (maxOpenPreparedStatements > 0) {
+                pc.setStatementCache(new StatementCache(maxOpenPreparedStatements, budget));
+            }
+            if (maxOpenCallableStatements > 0) {
+                pc.setCallableStatementCache(new StatementCache(maxOpenCallableStatements, budget));
+            }
+            // 进入连接池之前预热statement缓存，只预热initialSize、minIdle补充的连接（在初始化或者evictor线程里执行）；
+            // 借出时新建的连接不预热，避免借出线程等待预热的prepare，缓存在使用中逐步填充
+            if (statementWarmup != null && BORROWING.get() != Boolean.TRUE) {
+                pc.warmStatements(statementWarmup);
+            }
+        }
+        return new DefaultPooledObject<>(pc);
+    }
+
+    @Override
+    public void destroyObject(PooledObject<PoolableConnection> p) throws Exception {
+        logger.debug("destroyObject(), obj={} ......", p.getObject());
+        PoolableConnection conn = p.getObject();
+        // 借出未归还（钝化时lastUsed会被重置为0）、且超过废弃超时时间未使用的连接，是被连接池回收的废弃连接
+        long lastUsed = conn.getLastUsed();
+        if (removeAbandonedTimeoutMillis > 0 && lastUsed > 0
+                && System.currentTimeMillis() - lastUsed >= removeAbandonedTimeoutMillis) {
+            Throwable borrowStackTrace = conn.getBorrowStackTrace();
+            if (borrowStackTrace != null) {
+                logger.warn("abandoned connection reclaimed, last used at {}: {}", lastUsed, conn, borrowStackTrace);
+            } else {
+                logger.warn("abandoned connection reclaimed, last used at {} (borrow stack not sampled): {}", lastUsed, conn);
+            }
+        }
+        // 调用代理的方法真正关闭连接
+        conn.reallyClose();
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<PoolableConnection> p) {
+        logger.debug("validateObject(), obj={} ......", p.getObject());
+        PoolableConnection conn = p.getObject();
+        try {
+            if (conn.isClosed()) {
+                logger.error("connection:{} is closed!", conn);
+                return false;
+            }
+            if (StringUtils.isNotEmpty(validationQuery)) {
+                Statement stmt = null;
+                ResultSet rs = null;
+                try {
+                    // 校验查询直接在物理连接上执行，不经过trace，也不会触发延迟会话状态的下发
+                    stmt = conn.getPhysicalConnection().createStatement();
+                    if (validationQueryTimeout > 0) {
+                        stmt.setQueryTimeout(validationQueryTimeout);
+                    }
+                    rs = stmt.executeQuery(validationQuery);
+                    if (!rs.next()) {
+                        throw new SQLException("validationQuery didn't return a row");
+                    }
+                } finally {
+                    closeSilently(rs, stmt);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            // ignore
+        }
+        return false;
+    }
+
+    @Override
+    public void activateObject(PooledObject<PoolableConnection> p) throws Exception {
+        logger.debug("activateObject(), obj={} ......", p.getObject());
+        PoolableConnection conn = p.getObject();
+        if (lazyStateRestore) {
+            // 只记录缺省状态，首次使用连接时再与调用方的设置合并下发
+            conn.setPendingState(defaultAutoCommit, defaultTransactionIsolation, defaultReadOnly, defaultCatalog);
+            conn.activate();
+            return;
+        }
+        if (conn.getAutoCommit() != defaultAutoCommit) {
+            conn.setAutoCommit(defaultAutoCommit);
+        }
+        if ((defaultTransactionIsolation != UNKNOWN_TRANSACTIONISOLATION) && 
+                (conn.getTransactionIsolation() != defaultTransactionIsolation)) {
+            conn.setTransactionIsolation(defaultTransactionIsolation);
+        }
+        if (conn.isReadOnly() != defaultReadOnly) {
+            conn.setReadOnly(defaultReadOnly);
+        }
+        if ((defaultCatalog != null) && (!defaultCatalog.equals(conn.getCatalog()))) {
+            conn.setCatalog(defaultCatalog);
+        }
+        // 激活时调用代理对象的activate
+        conn.activate();
+    }
+
+    @Override
+    public void passivateObject(PooledObject<PoolableConnection> p) throws Exception {
+        logger.debug("passivateObject(), obj={} ......", p.getObject());
+        PoolableConnection conn = p.getObject();
+        // 清除本次借出采样的调用栈，下次借出未采样时不会报告过期的调用栈
+        conn.setBorrowStackTrace(null);
+        if (conn.needsRollback()) {
+            conn.rollback();
+        }
+        conn.clearWarnings();
+        // 钝化时调用代理对象的passivate进行statement缓存清理
+        conn.passivate();
+    }
+    
+    //AutoCloseable关闭工具
+    protected void closeSilently(AutoCloseable... autoCloseables) {
+        if (null != autoCloseables) {
+            for (AutoCloseable closeable : autoCloseables) {
+                try {
+                    closeable.close();
+                } catch(Exception ex) {
+                    // ignore
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.asiainfo.dbcp.poolable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asiainfo.dbcp.delegate.DelegatingConnection;
+import com.asiainfo.dbcp.delegate.StatementCacheBudget;
+
+/**
+ * @Description: 新建物理连接的statement缓存预热，预热的sql由三部分合并：
+ *             - 配置的热点sql列表；
+ *             - 上一次运行学习并保存在本地文件里的热点sql（启动时加载，运行中定期、数据源关闭时按使用频率重新保存）；
+ *             - 开启学习时，当前运行中所有连接上使用频率最高的sql（故障切换后新建的连接可以直接使用）。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午6:20:08
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class StatementWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementWarmup.class);
+
+    // 配置的热点sql
+    private final List<String> statements;
+    // 学习到的热点sql保存文件，为null时不保存
+    private final Path file;
+    // 是否从statement缓存的使用频率学习热点sql
+    private final boolean learn;
+    // 预热的最大sql数
+    private final int limit;
+    // 单个连接预热的最长时间
+    private final long timeoutMillis;
+    // 连接池共享的缓存预算，记录sql使用频率
+    private final StatementCacheBudget budget;
+    // 从文件加载的热点sql
+    private volatile List<String> loaded = Collections.emptyList();
+
+    public StatementWarmup(List<String> statements, String file, boolean learn, int limit,
+            long timeoutMillis, StatementCacheBudget budget) {
+        this.statements = statements == null ? Collections.<String>emptyList() : new ArrayList<>(statements);
+        this.file = file == null || file.isEmpty() ? null : Paths.get(file);
+        this.learn = learn;
+        this.limit = limit;
+        this.timeoutMillis = timeoutMillis;
+        this.budget = budget;
+    }
+
+    /**
+     * @Description: 加载上一次保存的热点sql，文件不存在或者读取失败时忽略
+     * @author chenzq
+     * @date 2026年10月19日 下午6:24:15
+     */
+    public void load() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            List<String> result = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                if (!line.isEmpty()) {
+                    result.add(unescape(line));
+                }
+            }
+            loaded = result;
+            logger.info("loaded {} warmup statement(s) from {}", result.size(), file);
+        } catch (IOException e) {
+            logger.warn("cannot load warmup statements from {}: {}", file, e.toString());
+        }
+    }
+
+    /**
+     * @Description: 保存当前使用频率最高的sql，本次运行没有使用记录时保留上一次的结果；定期保存和关闭时的保存可能并发，同步执行
+     * @author chenzq
+     * @date 2026年10月19日 下午6:25:02
+     */
+    public synchronized void save() {
+        if (file == null || budget == null) {
+            return;
+        }
+        List<String> hottest = budget.hottest(limit);
+        if (hottest.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(hottest.size());
+        for (String sql : hottest) {
+            lines.add(escape(sql));
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // 先写临时文件再替换，避免进程退出时留下不完整的文件
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("saved {} warmup statement(s) to {} ......", lines.size(), file);
+        } catch (IOException e) {
+            logger.warn("cannot save warmup statements to {}: {}", file, e.toString());
+        }
+    }
+
+    /**
+     * @Description: 合并配置、文件和学习到的热点sql，去重后最多返回limit条
+     * @author chenzq
+     * @date 2026年10月19日 下午6:26:40
+     * @return
+     */
+    public List<String> statements() {
+        Set<String> result = new LinkedHashSet<>(statements);
+        result.addAll(loaded);
+        if (learn && budget != null) {
+            result.addAll(budget.hottest(limit));
+        }
+        List<String> list = new ArrayList<>(result);
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    /**
+     * @Description: 在initialSize、minIdle新建的连接进入连接池之前预热statement缓存，单条sql失败时跳过，超过预热时间后停止
+     * @author chenzq
+     * @date 2026年10月19日 下午6:28:12
+     * @param conn
+     */
+    public void warm(DelegatingConnection conn) {
+        List<String> sqls = statements();
+        if (sqls.isEmpty()) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        int warmed = 0;
+        for (String sql : sqls) {
+            if (timeoutMillis > 0 && System.currentTimeMillis() > deadline) {
+                logger.debug("warmup timed out after {} statement(s) ......", warmed);
+                break;
+            }
+            try {
+                if (conn.warmStatement(sql)) {
+                    warmed++;
+                }
+            } catch (SQLException e) {
+                logger.debug("warmup statement failed, sql={}, ex={} ......", sql, e.toString());
+            }
+        }
+        logger.debug("warmed {}/{} statement(s) on {} ......", warmed, sqls.size(), conn);
+    }
+
+    // 一行保存一条sql，转义换行符和反斜杠
+    static String escape(String sql) {
+        return sql.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+    static String unescape(String line) {
+        StringBuilder sb = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char n = line.charAt(++i);
+                sb.append(n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,286 @@
+package com.asiainfo.dbcp.reactive;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.asiainfo.dbcp.delegate.DelegatingConnection;
+
+/**
+ * @Description: 查询结果的发布者，冷发布：每次订阅借出一个连接执行一次查询，按订阅者的需求逐行推送；
+ *             - 实现org.reactivestreams.Publisher，可以直接交给Reactor（Flux.from）、RxJava（Flowable.fromPublisher）等使用；
+ *             - 阻塞的驱动调用（借出连接、执行、next、关闭）都在有界的executor上执行，不占用调用方线程；
+ *             - 需求驱动fetchSize：执行前按当前需求设置，之后需求变化时调整结果集的fetchSize，需求无界时取maxFetchSize；
+ *               连接池已经设置了逐行流式读取（Integer.MIN_VALUE）时保持不变，改为正数会让MySQL驱动把整个结果集读入内存；
+ *             - 需求满足后释放executor线程，连接保持到取完、出错或取消；
+ *             - cancel()时如果没有正在进行的取行，在调用线程立即关闭结果集、语句并归还连接，否则由取行线程在当前的取行返回后归还；
+ *               只有逐行流式读取并且连接池开启了cancelAbandonedStreams时才cancel语句打断阻塞的取行，
+ *               PostgreSQL的cancel是异步的，MySQL的KILL QUERY也可能晚到，归还后可能误取消下一个借出方的sql。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午12:14:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class ResultSetPublisher<T> implements Publisher<T> {
+
+    // 需求无界时的默认fetchSize上限
+    public static final int DEFAULT_MAX_FETCH_SIZE = 1000;
+
+    private final DataSource dataSource;
+    private final String sql;
+    private final RowMapper<T> mapper;
+    private final Object[] args;
+    private final Executor executor;
+    private final int maxFetchSize;
+
+    public ResultSetPublisher(DataSource dataSource, String sql, RowMapper<T> mapper, Object[] args, 
+            Executor executor, int maxFetchSize) {
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.mapper = mapper;
+        this.args = args;
+        this.executor = executor;
+        this.maxFetchSize = Math.max(1, maxFetchSize);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        RowSubscription<T> subscription = new RowSubscription<>(this, subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * @Description: 一次订阅的状态，所有推送在drain循环里串行进行，wip计数保证同一时刻只有一个线程在drain
+     *
+     * @author chenzq
+     * @date 2026年10月20日 上午12:18:05
+     * @version V1.0
+     * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+     */
+    static final class RowSubscription<T> implements Subscription, Runnable {
+
+        private final ResultSetPublisher<T> publisher;
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        // 只在drain线程中访问，wip计数保证跨线程可见
+        private Connection conn;
+        private volatile PreparedStatement ps;
+        private ResultSet rs;
+        private int fetchSize;
+        // 连接池设置了逐行流式读取，不调整fetchSize
+        private boolean streaming;
+        // 取消时是否可以cancel正在执行的语句
+        private volatile boolean cancellable;
+        private int rowNum;
+        private boolean done;
+
+        RowSubscription(ResultSetPublisher<T> publisher, Subscriber<? super T> subscriber) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("request must be positive: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                    next = current + n;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                } while (!requested.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (wip.getAndIncrement() == 0) {
+                // 没有正在进行的取行，在当前线程立即归还连接
+                release();
+                return;
+            }
+            // 打断阻塞中的执行或取行，drain循环检测到取消后归还连接
+            PreparedStatement statement = ps;
+            if (statement != null && cancellable) {
+                try {
+                    statement.cancel();
+                } catch (SQLException | RuntimeException e) {
+                    // ignore
+                }
+            }
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    publisher.executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    release();
+                    done = true;
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            try {
+                for (;;) {
+                    if (done) {
+                        return;
+                    }
+                    if (cancelled) {
+                        release();
+                        return;
+                    }
+                    Throwable invalid = invalidRequest;
+                    if (invalid != null) {
+                        terminate(invalid);
+                        return;
+                    }
+                    long r = requested.get();
+                    if (r > 0) {
+                        if (rs == null) {
+                            open(r);
+                        } else if (!streaming) {
+                            adjustFetchSize(r);
+                        }
+                    }
+                    long emitted = 0;
+                    while (emitted != r) {
+                        if (cancelled) {
+                            release();
+                            return;
+                        }
+                        if (!rs.next()) {
+                            done = true;
+                            release();
+                            subscriber.onComplete();
+                            return;
+                        }
+                        subscriber.onNext(publisher.mapper.mapRow(rs, rowNum++));
+                        emitted++;
+                    }
+                    if (emitted > 0 && r != Long.MAX_VALUE) {
+                        requested.addAndGet(-emitted);
+                    }
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        return;
+                    }
+                }
+            } catch (SQLException e) {
+                terminate(cancelled ? null : new UncategorizedSQLException("ResultSet publisher", publisher.sql, e));
+            } catch (Throwable e) {
+                terminate(cancelled ? null : e);
+            }
+        }
+
+        // 出错终止，取消之后的错误不再通知
+        private void terminate(Throwable error) {
+            done = true;
+            release();
+            if (error != null) {
+                subscriber.onError(error);
+            }
+        }
+
+        // 借出连接并按当前需求执行查询
+        private void open(long demand) throws SQLException {
+            conn = publisher.dataSource.getConnection();
+            PreparedStatement statement = conn.prepareStatement(publisher.sql, 
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps = statement;
+            if (statement.getFetchSize() == Integer.MIN_VALUE) {
+                streaming = true;
+                cancellable = conn.isWrapperFor(DelegatingConnection.class) 
+                        && conn.unwrap(DelegatingConnection.class).isCancelAbandonedStreams();
+            } else {
+                fetchSize = fetchSizeFor(demand);
+                statement.setFetchSize(fetchSize);
+            }
+            Object[] args = publisher.args;
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+            }
+            rs = statement.executeQuery();
+        }
+
+        // 需求变化时调整下一次网络往返的行数
+        private void adjustFetchSize(long demand) throws SQLException {
+            int size = fetchSizeFor(demand);
+            if (size != fetchSize) {
+                fetchSize = size;
+                rs.setFetchSize(size);
+            }
+        }
+
+        private int fetchSizeFor(long demand) {
+            return (int) Math.max(1L, Math.min(demand, publisher.maxFetchSize));
+        }
+
+        // 关闭结果集、语句并归还连接，可以重复调用
+        private synchronized void release() {
+            if (rs != null) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    // ignore
+                }
+                rs = null;
+            }
+            PreparedStatement statement = ps;
+            ps = null;
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // ignore
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    // ignore
+                }
+                conn = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.asiainfo.dbcp.spill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.asiainfo.dbcp.util.DirectBuffers;
+
+/**
+ * @Description: 按固定大小分段内存映射的临时文件，顺序追加写入，按文件偏移随机读取；
+ *             - 数据在操作系统的页缓存里，不占用java堆，超出物理内存时由操作系统换出到磁盘；
+ *             - 跨段的值按字节拼接读取，段内的值直接读取；
+ *             - close()时解除映射并删除文件，使用方必须关闭；不注册deleteOnExit，JVM会为每个注册的文件保留路径直到退出，
+ *               长期运行时持续增长。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:40:15
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+final class MappedFile implements AutoCloseable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    // 已经写入的字节数
+    private long length;
+    // 当前写入的段
+    private MappedByteBuffer tail;
+
+    MappedFile(Path path, int segmentSize) throws IOException {
+        this.path = path;
+        this.segmentSize = segmentSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // 映射下一个段，映射时文件自动扩展到段的结尾
+    private MappedByteBuffer nextSegment() throws IOException {
+        long position = (long) segments.size() * segmentSize;
+        MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize);
+        segment.order(ByteOrder.nativeOrder());
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * @Description: 追加写入缓冲区的剩余字节，返回写入位置的文件偏移
+     * @author chenzq
+     * @date 2026年10月19日 下午10:43:30
+     * @param src
+     * @return
+     * @throws IOException
+     */
+    long append(ByteBuffer src) throws IOException {
+        long position = length;
+        while (src.hasRemaining()) {
+            if (tail == null || !tail.hasRemaining()) {
+                tail = nextSegment();
+            }
+            int n = Math.min(src.remaining(), tail.remaining());
+            ByteBuffer part = src.duplicate();
+            part.limit(part.position() + n);
+            tail.put(part);
+            src.position(src.position() + n);
+            length += n;
+        }
+        return position;
+    }
+
+    // 追加一个long，段大小是8的倍数，long不会跨段
+    long appendLong(long value) throws IOException {
+        if (tail == null || !tail.hasRemaining()) {
+            tail = nextSegment();
+        }
+        long position = length;
+        tail.putLong(value);
+        length += 8;
+        return position;
+    }
+
+    byte getByte(long position) {
+        return segments.get((int) (position / segmentSize)).get((int) (position % segmentSize));
+    }
+
+    int getInt(long position) {
+        int offset = (int) (position % segmentSize);
+        if (offset + 4 <= segmentSize) {
+            return segments.get((int) (position / segmentSize)).getInt(offset);
+        }
+        return wrap(position, 4).getInt();
+    }
+
+    long getLong(long position) {
+        int offset = (int) (position % segmentSize);
+        if (offset + 8 <= segmentSize) {
+            return segments.get((int) (position / segmentSize)).getLong(offset);
+        }
+        return wrap(position, 8).getLong();
+    }
+
+    double getDouble(long position) {
+        return Double.longBitsToDouble(getLong(position));
+    }
+
+    // 读取指定偏移开始的字节
+    void get(long position, byte[] dst, int offset, int length) {
+        while (length > 0) {
+            MappedByteBuffer segment = segments.get((int) (position / segmentSize));
+            int start = (int) (position % segmentSize);
+            int n = Math.min(length, segmentSize - start);
+            ByteBuffer src = segment.duplicate();
+            src.position(start);
+            src.get(dst, offset, n);
+            position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    // 跨段的值复制到临时缓冲区
+    private ByteBuffer wrap(long position, int n) {
+        byte[] bytes = new byte[n];
+        get(position, bytes, 0, n);
+        return ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    long length() {
+        return length;
+    }
+
+    @Override
+    public void close() {
+        for (MappedByteBuffer segment : segments) {
+            unmap(segment);
+        }
+        segments.clear();
+        tail = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // 映射没有解除时部分系统不能删除，留在临时目录
+        }
+    }
+
+    // 解除内存映射，不可用时等待GC回收
+    static void unmap(MappedByteBuffer buffer) {
+        DirectBuffers.free(buffer);
+    }
+}
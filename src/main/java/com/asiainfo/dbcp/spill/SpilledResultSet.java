@@ -0,0 +1,1683 @@
+package com.asiainfo.dbcp.spill;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.Map;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import com.asiainfo.dbcp.delegate.ResultSetMetaDataSnapshot;
+
+/**
+ * @Description: 客户端的可滚动结果集，从驱动的结果集逐行读出后写入内存映射的临时文件，之后所有的定位和取值都在临时文件上完成；
+ *             - 行数据顺序写入数据文件，每行的文件偏移写入索引文件，absolute/relative定位只读取索引，不随行数增加堆内存；
+ *             - 读取完成后与驱动的结果集和连接无关，连接可以立即归还连接池，结果集在客户端慢慢扫描；
+ *             - 只读，TYPE_SCROLL_INSENSITIVE；getStatement()返回null；不再使用时必须close()，解除映射并删除临时文件；
+ *             - 没有特化编码的类型（ARRAY、驱动自定义类型等）按getString()的结果保存。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午10:52:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class SpilledResultSet implements ResultSet {
+
+    // 默认的映射段大小，64MB
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    // 列的存储编码
+    private static final byte BOOLEAN = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte DECIMAL = 4;
+    private static final byte DATE = 5;
+    private static final byte TIME = 6;
+    private static final byte TIMESTAMP = 7;
+    private static final byte STRING = 8;
+    private static final byte BYTES = 9;
+
+    private final ResultSetMetaDataSnapshot metaData;
+    private final byte[] encodings;
+    private final int columnCount;
+    // 行数据和行偏移索引
+    private final MappedFile data;
+    private final MappedFile index;
+    private int rowCount;
+    // 当前行号，从1开始，0为第一行之前，rowCount + 1为最后一行之后
+    private int row;
+    // 当前行各列的文件偏移和null标记，定位时解析一次，复用数组不分配对象
+    private final long[] offsets;
+    private final boolean[] nulls;
+    private boolean wasNull;
+    private boolean closed;
+    private int fetchSize;
+
+    private SpilledResultSet(ResultSetMetaData md, Path dir, int segmentSize) throws SQLException, IOException {
+        this.metaData = new ResultSetMetaDataSnapshot(md);
+        this.columnCount = metaData.getColumnCount();
+        this.encodings = new byte[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            encodings[i] = encoding(metaData.getColumnType(i + 1));
+        }
+        this.offsets = new long[columnCount];
+        this.nulls = new boolean[columnCount];
+        Path dataFile = Files.createTempFile(dir, "spill-", ".dat");
+        Path indexFile = Files.createTempFile(dir, "spill-", ".idx");
+        MappedFile d = null;
+        try {
+            d = new MappedFile(dataFile, segmentSize);
+            this.index = new MappedFile(indexFile, segmentSize);
+        } catch (IOException e) {
+            if (d != null) {
+                d.close();
+            }
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(indexFile);
+            throw e;
+        }
+        this.data = d;
+    }
+
+    /**
+     * @Description: 读取结果集的全部剩余行写入系统临时目录，不关闭驱动的结果集
+     * @author chenzq
+     * @date 2026年10月19日 下午10:55:10
+     * @param rs
+     * @return
+     * @throws SQLException
+     */
+    public static SpilledResultSet spill(ResultSet rs) throws SQLException {
+        return spill(rs, Paths.get(System.getProperty("java.io.tmpdir")), DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @Description: 读取结果集的全部剩余行写入指定目录的临时文件
+     * @author chenzq
+     * @date 2026年10月19日 下午10:56:20
+     * @param rs
+     * @param dir 临时文件目录
+     * @param segmentSize 映射段大小，必须是8的倍数
+     * @return
+     * @throws SQLException
+     */
+    public static SpilledResultSet spill(ResultSet rs, Path dir, int segmentSize) throws SQLException {
+        if (segmentSize <= 0 || (segmentSize & 7) != 0) {
+            throw new IllegalArgumentException("segmentSize must be a positive multiple of 8: " + segmentSize);
+        }
+        SpilledResultSet spilled;
+        try {
+            spilled = new SpilledResultSet(rs.getMetaData(), dir, segmentSize);
+        } catch (IOException e) {
+            throw new SQLException("Cannot create spill file in " + dir, e);
+        }
+        try {
+            spilled.write(rs);
+            return spilled;
+        } catch (SQLException | RuntimeException e) {
+            spilled.close();
+            throw e;
+        } catch (IOException e) {
+            spilled.close();
+            throw new SQLException("Cannot write spill file", e);
+        }
+    }
+
+    private static byte encoding(int sqlType) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return INT;
+            case Types.BIGINT:
+                return LONG;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return DECIMAL;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+                return TIME;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return BYTES;
+            default:
+                return STRING;
+        }
+    }
+
+    // 逐行编码写入数据文件：null位图 + 非null列的值，变长值前面是长度
+    private void write(ResultSet rs) throws SQLException, IOException {
+        int bitmapBytes = (columnCount + 7) >>> 3;
+        ByteBuffer buf = ByteBuffer.allocate(Math.max(256, bitmapBytes + columnCount * 16)).order(ByteOrder.nativeOrder());
+        while (rs.next()) {
+            buf.clear();
+            for (int i = 0; i < bitmapBytes; i++) {
+                buf.put((byte) 0);
+            }
+            for (int i = 0; i < columnCount; i++) {
+                int column = i + 1;
+                boolean isNull;
+                switch (encodings[i]) {
+                    case BOOLEAN: {
+                        boolean v = rs.getBoolean(column);
+                        isNull = rs.wasNull();
+                        buf = ensure(buf, 1);
+                        if (!isNull) {
+                            buf.put((byte) (v ? 1 : 0));
+                        }
+                        break;
+                    }
+                    case INT: {
+                        int v = rs.getInt(column);
+                        isNull = rs.wasNull();
+                        buf = ensure(buf, 4);
+                        if (!isNull) {
+                            buf.putInt(v);
+                        }
+                        break;
+                    }
+                    case LONG: {
+                        long v = rs.getLong(column);
+                        isNull = rs.wasNull();
+                        buf = ensure(buf, 8);
+                        if (!isNull) {
+                            buf.putLong(v);
+                        }
+                        break;
+                    }
+                    case DOUBLE: {
+                        double v = rs.getDouble(column);
+                        isNull = rs.wasNull();
+                        buf = ensure(buf, 8);
+                        if (!isNull) {
+                            buf.putDouble(v);
+                        }
+                        break;
+                    }
+                    case DECIMAL: {
+                        BigDecimal v = rs.getBigDecimal(column);
+                        isNull = v == null;
+                        if (!isNull) {
+                            byte[] unscaled = v.unscaledValue().toByteArray();
+                            buf = ensure(buf, 8 + unscaled.length);
+                            buf.putInt(v.scale()).putInt(unscaled.length).put(unscaled);
+                        }
+                        break;
+                    }
+                    case DATE: {
+                        Date v = rs.getDate(column);
+                        isNull = v == null;
+                        buf = ensure(buf, 8);
+                        if (!isNull) {
+                            buf.putLong(v.toLocalDate().toEpochDay());
+                        }
+                        break;
+                    }
+                    case TIME: {
+                        Time v = rs.getTime(column);
+                        isNull = v == null;
+                        buf = ensure(buf, 8);
+                        if (!isNull) {
+                            buf.putLong(v.getTime());
+                        }
+                        break;
+                    }
+                    case TIMESTAMP: {
+                        Timestamp v = rs.getTimestamp(column);
+                        isNull = v == null;
+                        buf = ensure(buf, 12);
+                        if (!isNull) {
+                            buf.putLong(v.getTime()).putInt(v.getNanos());
+                        }
+                        break;
+                    }
+                    case BYTES: {
+                        byte[] v = rs.getBytes(column);
+                        isNull = v == null;
+                        if (!isNull) {
+                            buf = ensure(buf, 4 + v.length);
+                            buf.putInt(v.length).put(v);
+                        }
+                        break;
+                    }
+                    default: {
+                        String v = rs.getString(column);
+                        isNull = v == null;
+                        if (!isNull) {
+                            byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+                            buf = ensure(buf, 4 + bytes.length);
+                            buf.putInt(bytes.length).put(bytes);
+                        }
+                        break;
+                    }
+                }
+                if (isNull) {
+                    buf.put(i >>> 3, (byte) (buf.get(i >>> 3) | (1 << (i & 7))));
+                }
+            }
+            buf.flip();
+            index.appendLong(data.append(buf));
+            rowCount++;
+        }
+    }
+
+    // 行缓冲区不足时扩容
+    private static ByteBuffer ensure(ByteBuffer buf, int n) {
+        if (buf.remaining() >= n) {
+            return buf;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buf.capacity() << 1, buf.position() + n)).order(ByteOrder.nativeOrder());
+        buf.flip();
+        larger.put(buf);
+        return larger;
+    }
+
+    // 定位到指定行并解析各列的偏移
+    private boolean moveTo(int target) {
+        row = Math.max(0, Math.min(rowCount + 1, target));
+        if (row < 1 || row > rowCount) {
+            return false;
+        }
+        long position = index.getLong((row - 1) * 8L);
+        int bitmapBytes = (columnCount + 7) >>> 3;
+        long p = position + bitmapBytes;
+        for (int i = 0; i < columnCount; i++) {
+            boolean isNull = (data.getByte(position + (i >>> 3)) & (1 << (i & 7))) != 0;
+            nulls[i] = isNull;
+            offsets[i] = p;
+            if (!isNull) {
+                p += width(encodings[i], p);
+            }
+        }
+        return true;
+    }
+
+    // 列值占用的字节数
+    private int width(byte encoding, long p) {
+        switch (encoding) {
+            case BOOLEAN:
+                return 1;
+            case INT:
+                return 4;
+            case LONG:
+            case DOUBLE:
+            case DATE:
+            case TIME:
+                return 8;
+            case TIMESTAMP:
+                return 12;
+            case DECIMAL:
+                return 8 + data.getInt(p + 4);
+            default:
+                return 4 + data.getInt(p);
+        }
+    }
+
+    // 检查当前行和列序号，返回列下标，同时记录wasNull
+    private int column(int columnIndex) throws SQLException {
+        checkOpen();
+        if (row < 1 || row > rowCount) {
+            throw new SQLException("Result set is not positioned on a row");
+        }
+        if (columnIndex < 1 || columnIndex > columnCount) {
+            throw new SQLException("Invalid column index: " + columnIndex);
+        }
+        int i = columnIndex - 1;
+        wasNull = nulls[i];
+        return i;
+    }
+
+    private byte[] bytesAt(long p) {
+        byte[] bytes = new byte[data.getInt(p)];
+        data.get(p + 4, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private BigDecimal decimalAt(long p) {
+        int scale = data.getInt(p);
+        byte[] unscaled = new byte[data.getInt(p + 4)];
+        data.get(p + 8, unscaled, 0, unscaled.length);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private Timestamp timestampAt(long p) {
+        Timestamp ts = new Timestamp(data.getLong(p));
+        ts.setNanos(data.getInt(p + 8));
+        return ts;
+    }
+
+    private SQLException conversion(int i, String type) throws SQLException {
+        return new SQLException("Cannot convert column " + metaData.getColumnLabel(i + 1) + " to " + type);
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Result set is closed.");
+        }
+    }
+
+    private SQLException readOnly() {
+        return new SQLFeatureNotSupportedException("Spilled result set is read only");
+    }
+
+    // 按列标签查找列序号
+    private int columnIndex(String columnLabel) throws SQLException {
+        int index = metaData.findColumn(columnLabel);
+        if (index < 0) {
+            throw new SQLException("Invalid column label: " + columnLabel);
+        }
+        return index;
+    }
+
+    // 将本地时区的日期时间按指定日历的时区重新解释
+    private static long shift(long millis, Calendar cal) {
+        if (cal == null) {
+            return millis;
+        }
+        java.time.LocalDateTime local = java.time.LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(millis),
+                java.time.ZoneId.systemDefault());
+        return local.atZone(cal.getTimeZone().toZoneId()).toInstant().toEpochMilli();
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // 临时文件占用的字节数
+    public long bytes() {
+        return data.length() + index.length();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        checkOpen();
+        return moveTo(row + 1);
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        checkOpen();
+        return moveTo(row - 1);
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        checkOpen();
+        return moveTo(1);
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        checkOpen();
+        return moveTo(rowCount);
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        checkOpen();
+        moveTo(0);
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        checkOpen();
+        moveTo(rowCount + 1);
+    }
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        checkOpen();
+        return moveTo(row >= 0 ? row : rowCount + 1 + row);
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        checkOpen();
+        return moveTo((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, (long) row + rows)));
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        checkOpen();
+        return row == 0 && rowCount > 0;
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        checkOpen();
+        return row == rowCount + 1 && rowCount > 0;
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        checkOpen();
+        return row == 1 && rowCount > 0;
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        checkOpen();
+        return row == rowCount && rowCount > 0;
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        checkOpen();
+        return row >= 1 && row <= rowCount ? row : 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        data.close();
+        index.close();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed;
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        return wasNull;
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return null;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case STRING:
+                return new String(bytesAt(p), StandardCharsets.UTF_8);
+            case DECIMAL:
+                return decimalAt(p).toPlainString();
+            case BYTES:
+                throw conversion(i, "String");
+            default:
+                return String.valueOf(getObject(columnIndex));
+        }
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return false;
+        }
+        switch (encodings[i]) {
+            case BOOLEAN:
+                return data.getByte(offsets[i]) != 0;
+            case STRING:
+                String s = getString(columnIndex).trim();
+                return "1".equals(s) || "true".equalsIgnoreCase(s) || "y".equalsIgnoreCase(s);
+            default:
+                return getLong(columnIndex) != 0;
+        }
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        return (byte) getLong(columnIndex);
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        return (short) getLong(columnIndex);
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return 0;
+        }
+        return encodings[i] == INT ? data.getInt(offsets[i]) : (int) getLong(columnIndex);
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return 0L;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case BOOLEAN:
+                return data.getByte(p);
+            case INT:
+                return data.getInt(p);
+            case LONG:
+                return data.getLong(p);
+            case DOUBLE:
+                return (long) data.getDouble(p);
+            case DECIMAL:
+                return decimalAt(p).longValue();
+            case STRING:
+                try {
+                    return new BigDecimal(new String(bytesAt(p), StandardCharsets.UTF_8).trim()).longValue();
+                } catch (NumberFormatException e) {
+                    throw conversion(i, "long");
+                }
+            default:
+                throw conversion(i, "long");
+        }
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        return (float) getDouble(columnIndex);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return 0D;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case DOUBLE:
+                return data.getDouble(p);
+            case DECIMAL:
+                return decimalAt(p).doubleValue();
+            case STRING:
+                try {
+                    return Double.parseDouble(new String(bytesAt(p), StandardCharsets.UTF_8).trim());
+                } catch (NumberFormatException e) {
+                    throw conversion(i, "double");
+                }
+            default:
+                return getLong(columnIndex);
+        }
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return null;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case DECIMAL:
+                return decimalAt(p);
+            case DOUBLE:
+                return BigDecimal.valueOf(data.getDouble(p));
+            case STRING:
+                try {
+                    return new BigDecimal(new String(bytesAt(p), StandardCharsets.UTF_8).trim());
+                } catch (NumberFormatException e) {
+                    throw conversion(i, "BigDecimal");
+                }
+            default:
+                return BigDecimal.valueOf(getLong(columnIndex));
+        }
+    }
+
+    @Override
+    @Deprecated
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        BigDecimal value = getBigDecimal(columnIndex);
+        return value == null ? null : value.setScale(scale, BigDecimal.ROUND_HALF_UP);
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return null;
+        }
+        switch (encodings[i]) {
+            case BYTES:
+            case STRING:
+                return bytesAt(offsets[i]);
+            default:
+                throw conversion(i, "byte[]");
+        }
+    }
+
+    @Override
+    public Date getDate(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return null;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case DATE:
+                return Date.valueOf(java.time.LocalDate.ofEpochDay(data.getLong(p)));
+            case TIMESTAMP:
+                return Date.valueOf(timestampAt(p).toLocalDateTime().toLocalDate());
+            case STRING:
+                try {
+                    return Date.valueOf(getString(columnIndex).trim());
+                } catch (IllegalArgumentException e) {
+                    throw conversion(i, "Date");
+                }
+            default:
+                throw conversion(i, "Date");
+        }
+    }
+
+    @Override
+    public Time getTime(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return null;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case TIME:
+                return new Time(data.getLong(p));
+            case TIMESTAMP:
+                return new Time(data.getLong(p));
+            case STRING:
+                try {
+                    return Time.valueOf(getString(columnIndex).trim());
+                } catch (IllegalArgumentException e) {
+                    throw conversion(i, "Time");
+                }
+            default:
+                throw conversion(i, "Time");
+        }
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return null;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case TIMESTAMP:
+                return timestampAt(p);
+            case DATE:
+                return Timestamp.valueOf(java.time.LocalDate.ofEpochDay(data.getLong(p)).atStartOfDay());
+            case TIME:
+                return new Timestamp(data.getLong(p));
+            case STRING:
+                try {
+                    return Timestamp.valueOf(getString(columnIndex).trim());
+                } catch (IllegalArgumentException e) {
+                    throw conversion(i, "Timestamp");
+                }
+            default:
+                throw conversion(i, "Timestamp");
+        }
+    }
+
+    @Override
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        Date value = getDate(columnIndex);
+        return value == null || cal == null ? value : new Date(shift(value.getTime(), cal));
+    }
+
+    @Override
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        Time value = getTime(columnIndex);
+        return value == null || cal == null ? value : new Time(shift(value.getTime(), cal));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        Timestamp value = getTimestamp(columnIndex);
+        if (value == null || cal == null) {
+            return value;
+        }
+        Timestamp shifted = new Timestamp(shift(value.getTime(), cal));
+        shifted.setNanos(value.getNanos());
+        return shifted;
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        int i = column(columnIndex);
+        if (wasNull) {
+            return null;
+        }
+        long p = offsets[i];
+        switch (encodings[i]) {
+            case BOOLEAN:
+                return data.getByte(p) != 0;
+            case INT:
+                return data.getInt(p);
+            case LONG:
+                return data.getLong(p);
+            case DOUBLE:
+                return metaData.getColumnType(columnIndex) == Types.REAL 
+                        ? Float.valueOf((float) data.getDouble(p)) : Double.valueOf(data.getDouble(p));
+            case DECIMAL:
+                return decimalAt(p);
+            case DATE:
+                return getDate(columnIndex);
+            case TIME:
+                return getTime(columnIndex);
+            case TIMESTAMP:
+                return timestampAt(p);
+            case BYTES:
+                return bytesAt(p);
+            default:
+                return new String(bytesAt(p), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+        return getObject(columnIndex);
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        Object value;
+        if (type == String.class) {
+            value = getString(columnIndex);
+        } else if (type == Integer.class) {
+            value = getInt(columnIndex);
+        } else if (type == Long.class) {
+            value = getLong(columnIndex);
+        } else if (type == Double.class) {
+            value = getDouble(columnIndex);
+        } else if (type == Float.class) {
+            value = getFloat(columnIndex);
+        } else if (type == Short.class) {
+            value = getShort(columnIndex);
+        } else if (type == Byte.class) {
+            value = getByte(columnIndex);
+        } else if (type == Boolean.class) {
+            value = getBoolean(columnIndex);
+        } else if (type == BigDecimal.class) {
+            value = getBigDecimal(columnIndex);
+        } else if (type == byte[].class) {
+            value = getBytes(columnIndex);
+        } else if (type == Date.class) {
+            value = getDate(columnIndex);
+        } else if (type == Time.class) {
+            value = getTime(columnIndex);
+        } else if (type == Timestamp.class) {
+            value = getTimestamp(columnIndex);
+        } else if (type == java.time.LocalDate.class) {
+            Date d = getDate(columnIndex);
+            value = d == null ? null : d.toLocalDate();
+        } else if (type == java.time.LocalDateTime.class) {
+            Timestamp ts = getTimestamp(columnIndex);
+            value = ts == null ? null : ts.toLocalDateTime();
+        } else if (type == java.time.LocalTime.class) {
+            Time t = getTime(columnIndex);
+            value = t == null ? null : t.toLocalTime();
+        } else {
+            value = getObject(columnIndex);
+        }
+        if (wasNull) {
+            return null;
+        }
+        if (!type.isInstance(value)) {
+            throw conversion(columnIndex - 1, type.getName());
+        }
+        return type.cast(value);
+    }
+
+    @Override
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        String value = getString(columnIndex);
+        return value == null ? null : new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    @Deprecated
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        String value = getString(columnIndex);
+        return value == null ? null : new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_16BE));
+    }
+
+    @Override
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        byte[] value = getBytes(columnIndex);
+        return value == null ? null : new ByteArrayInputStream(value);
+    }
+
+    @Override
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        String value = getString(columnIndex);
+        return value == null ? null : new StringReader(value);
+    }
+
+    @Override
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        return getCharacterStream(columnIndex);
+    }
+
+    @Override
+    public String getNString(int columnIndex) throws SQLException {
+        return getString(columnIndex);
+    }
+
+    @Override
+    public Blob getBlob(int columnIndex) throws SQLException {
+        byte[] value = getBytes(columnIndex);
+        return value == null ? null : new SerialBlob(value);
+    }
+
+    @Override
+    public Clob getClob(int columnIndex) throws SQLException {
+        String value = getString(columnIndex);
+        return value == null ? null : new SerialClob(value.toCharArray());
+    }
+
+    @Override
+    public NClob getNClob(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getNClob");
+    }
+
+    @Override
+    public URL getURL(int columnIndex) throws SQLException {
+        String value = getString(columnIndex);
+        try {
+            return value == null ? null : new URL(value);
+        } catch (MalformedURLException e) {
+            throw new SQLException("Invalid URL: " + value, e);
+        }
+    }
+
+    @Override
+    public Array getArray(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getArray");
+    }
+
+    @Override
+    public Ref getRef(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getRef");
+    }
+
+    @Override
+    public RowId getRowId(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getRowId");
+    }
+
+    @Override
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getSQLXML");
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        return getString(columnIndex(columnLabel));
+    }
+
+    @Override
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return getBoolean(columnIndex(columnLabel));
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        return getByte(columnIndex(columnLabel));
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        return getShort(columnIndex(columnLabel));
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(columnIndex(columnLabel));
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        return getLong(columnIndex(columnLabel));
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        return getFloat(columnIndex(columnLabel));
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        return getDouble(columnIndex(columnLabel));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return getBigDecimal(columnIndex(columnLabel));
+    }
+
+    @Override
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        return getBytes(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Date getDate(String columnLabel) throws SQLException {
+        return getDate(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Time getTime(String columnLabel) throws SQLException {
+        return getTime(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return getTimestamp(columnIndex(columnLabel));
+    }
+
+    @Override
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        return getAsciiStream(columnIndex(columnLabel));
+    }
+
+    @Override
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        return getBinaryStream(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        return getCharacterStream(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        return getNCharacterStream(columnIndex(columnLabel));
+    }
+
+    @Override
+    public String getNString(String columnLabel) throws SQLException {
+        return getNString(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        return getObject(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Blob getBlob(String columnLabel) throws SQLException {
+        return getBlob(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Clob getClob(String columnLabel) throws SQLException {
+        return getClob(columnIndex(columnLabel));
+    }
+
+    @Override
+    public NClob getNClob(String columnLabel) throws SQLException {
+        return getNClob(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Array getArray(String columnLabel) throws SQLException {
+        return getArray(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Ref getRef(String columnLabel) throws SQLException {
+        return getRef(columnIndex(columnLabel));
+    }
+
+    @Override
+    public RowId getRowId(String columnLabel) throws SQLException {
+        return getRowId(columnIndex(columnLabel));
+    }
+
+    @Override
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        return getSQLXML(columnIndex(columnLabel));
+    }
+
+    @Override
+    public URL getURL(String columnLabel) throws SQLException {
+        return getURL(columnIndex(columnLabel));
+    }
+
+    @Override
+    @Deprecated
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        return getBigDecimal(columnIndex(columnLabel), scale);
+    }
+
+    @Override
+    @Deprecated
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        return getUnicodeStream(columnIndex(columnLabel));
+    }
+
+    @Override
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        return getDate(columnIndex(columnLabel), cal);
+    }
+
+    @Override
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        return getTime(columnIndex(columnLabel), cal);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        return getTimestamp(columnIndex(columnLabel), cal);
+    }
+
+    @Override
+    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+        return getObject(columnIndex(columnLabel), map);
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return getObject(columnIndex(columnLabel), type);
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        checkOpen();
+        return columnIndex(columnLabel);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        checkOpen();
+        return metaData;
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        checkOpen();
+        return null;
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        checkOpen();
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        throw new SQLFeatureNotSupportedException("getCursorName");
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        checkOpen();
+        if (direction != FETCH_FORWARD && direction != FETCH_REVERSE && direction != FETCH_UNKNOWN) {
+            throw new SQLException("Invalid fetch direction: " + direction);
+        }
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        checkOpen();
+        return FETCH_FORWARD;
+    }
+
+    // 数据已经在本地，fetchSize只记录不生效
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        checkOpen();
+        if (rows < 0) {
+            throw new SQLException("Invalid fetch size: " + rows);
+        }
+        this.fetchSize = rows;
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        checkOpen();
+        return fetchSize;
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        checkOpen();
+        return TYPE_SCROLL_INSENSITIVE;
+    }
+
+    @Override
+    public int getConcurrency() throws SQLException {
+        checkOpen();
+        return CONCUR_READ_ONLY;
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        checkOpen();
+        return HOLD_CURSORS_OVER_COMMIT;
+    }
+
+    // 与生成它的语句无关
+    @Override
+    public Statement getStatement() throws SQLException {
+        checkOpen();
+        return null;
+    }
+
+    @Override
+    public boolean rowUpdated() throws SQLException {
+        checkOpen();
+        return false;
+    }
+
+    @Override
+    public boolean rowInserted() throws SQLException {
+        checkOpen();
+        return false;
+    }
+
+    @Override
+    public boolean rowDeleted() throws SQLException {
+        checkOpen();
+        return false;
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void refreshRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void cancelRowUpdates() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void moveToCurrentRow() throws SQLException {
+        checkOpen();
+    }
+
+    @Override
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream inputStream) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream inputStream) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream inputStream, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream inputStream, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream inputStream, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream inputStream, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream inputStream) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream inputStream) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream inputStream, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream inputStream, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream inputStream, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream inputStream, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader reader, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateInt(String columnLabel, int x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateInt(int columnIndex, int x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateLong(String columnLabel, long x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateLong(int columnIndex, long x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, NClob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, NClob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNString(String columnLabel, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNString(int columnIndex, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNull(String columnLabel) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNull(int columnIndex) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateSQLXML(String columnLabel, SQLXML x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateSQLXML(int columnIndex, SQLXML x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateShort(String columnLabel, short x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateShort(int columnIndex, short x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateString(String columnLabel, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateString(int columnIndex, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+        throw readOnly();
+    }
+}
@@ -1,15 +1,23 @@
-package com.asiainfo.dbcp.test;
-
-/**
- * @Description: TODO
- * 
- * @author       zq
- * @date         2017年5月10日  下午12:10:10
- * Copyright: 	  北京亚信智慧数据科技有限公司
- */
-public interface IUserDao {
-
-	public User queryByUserId(int userId);
-	
-	public void save(User user);
-}
+package com.asiainfo.dbcp.test;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @Description: TODO
+ * 
+ * @author       zq
+ * @date         2017年5月10日  下午12:10:10
+ * Copyright: 	  北京亚信智慧数据科技有限公司
+ */
+public interface IUserDao {
+
+	public User queryByUserId(int userId);
+	
+	public void save(User user);
+	
+	public long saveAll(Iterator<User> users) throws SQLException;
+	
+	public CompletableFuture<Void> saveAsync(User user);
+}
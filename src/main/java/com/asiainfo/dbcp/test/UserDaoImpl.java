@@ -1,40 +1,118 @@
-package com.asiainfo.dbcp.test;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.stereotype.Repository;
-
-/**
- * @Description: TODO
- * 
- * @author       zq
- * @date         2017年5月10日  下午12:12:30
- * Copyright: 	  北京亚信智慧数据科技有限公司
- */
-@Repository
-public class UserDaoImpl implements IUserDao {
-
-	protected final Logger logger = LoggerFactory.getLogger(getClass());
-	
-	@Autowired
-	private JdbcTemplate jdbcTemplate;
-	
-	@Override
-	public User queryByUserId(int userId) {
-		
-		String sql = "select user_id, user_name from user where user_id=?";
-		logger.debug("sql={}", sql);
-		return this.jdbcTemplate.queryForObject(sql, new Object[] {userId}, new BeanPropertyRowMapper<User>(User.class));
-	}
-
-	@Override
-	public void save(User user) {
-
-		String sql = "insert into user(user_id, user_name) values(?, ?)";
-		logger.debug("sql={}", sql);
-		this.jdbcTemplate.update(sql, new Object[] {user.getUserId(), user.getUserName()});
-	}
-}
+package com.asiainfo.dbcp.test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.asiainfo.dbcp.bulk.BulkImporter;
+import com.asiainfo.dbcp.bulk.ImportProgress;
+import com.asiainfo.dbcp.bulk.WriteBehindWriter;
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+import com.asiainfo.dbcp.mapper.RowMappers;
+
+/**
+ * @Description: TODO
+ * 
+ * @author       zq
+ * @date         2017年5月10日  下午12:12:30
+ * Copyright: 	  北京亚信智慧数据科技有限公司
+ */
+@Repository
+public class UserDaoImpl implements IUserDao {
+
+	private static final RowMapper<User> USER_MAPPER = RowMappers.beanMapper(User.class);
+	private static final ParameterizedPreparedStatementSetter<User> USER_SETTER = (ps, user) -> {
+		ps.setInt(1, user.getUserId());
+		ps.setString(2, user.getUserName());
+	};
+
+	protected final Logger logger = LoggerFactory.getLogger(getClass());
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	// 后写写入器，第一次saveAsync时创建
+	private volatile WriteBehindWriter<User> userWriter;
+	
+	@Override
+	public User queryByUserId(int userId) {
+		
+		String sql = "select user_id, user_name from user where user_id=?";
+		logger.debug("sql={}", sql);
+		return this.jdbcTemplate.queryForObject(sql, new Object[] {userId}, USER_MAPPER);
+	}
+
+	@Override
+	public void save(User user) {
+
+		String sql = "insert into user(user_id, user_name) values(?, ?)";
+		logger.debug("sql={}", sql);
+		this.jdbcTemplate.update(sql, new Object[] {user.getUserId(), user.getUserName()});
+	}
+
+	// 批量保存：分块executeBatch，在多个连接上并行提交
+	@Override
+	public long saveAll(Iterator<User> users) throws SQLException {
+
+		String sql = "insert into user(user_id, user_name) values(?, ?)";
+		logger.debug("sql={}", sql);
+		DataSource dataSource = this.jdbcTemplate.getDataSource();
+		if (!(dataSource instanceof SimpleDataSource)) {
+			List<User> list = new ArrayList<>();
+			users.forEachRemaining(list::add);
+			this.jdbcTemplate.batchUpdate(sql, list, BulkImporter.DEFAULT_BATCH_SIZE, USER_SETTER);
+			return list.size();
+		}
+		BulkImporter importer = ((SimpleDataSource) dataSource).createImporter();
+		ImportProgress progress = importer.importRows(sql, users, USER_SETTER);
+		logger.debug("saveAll: {}", progress);
+		return progress.getRowsCommitted();
+	}
+
+	// 高并发单行保存：放入后写队列，所在批次提交后future完成
+	@Override
+	public CompletableFuture<Void> saveAsync(User user) {
+
+		DataSource dataSource = this.jdbcTemplate.getDataSource();
+		if (!(dataSource instanceof SimpleDataSource)) {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			try {
+				save(user);
+				future.complete(null);
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+			return future;
+		}
+		WriteBehindWriter<User> writer = userWriter;
+		if (writer == null) {
+			synchronized (this) {
+				writer = userWriter;
+				if (writer == null) {
+					String sql = "insert into user(user_id, user_name) values(?, ?)";
+					logger.debug("sql={}", sql);
+					try {
+						writer = ((SimpleDataSource) dataSource).createWriteBehindWriter(sql, USER_SETTER);
+					} catch (SQLException e) {
+						CompletableFuture<Void> future = new CompletableFuture<>();
+						future.completeExceptionally(e);
+						return future;
+					}
+					userWriter = writer;
+				}
+			}
+		}
+		return writer.write(user);
+	}
+}
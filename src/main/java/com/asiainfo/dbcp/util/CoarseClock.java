@@ -0,0 +1,48 @@
+package com.asiainfo.dbcp.util;
+
+/**
+ * @Description: 粗粒度时钟，由后台守护线程按固定精度刷新当前时间，
+ *             - 用于lastUsed等只需要毫秒级近似值的热点路径，避免每次调用System.currentTimeMillis()。
+ * 
+ * @author chenzq  
+ * @date 2026年10月19日 上午10:48:12
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class CoarseClock {
+
+    // 时钟刷新间隔（毫秒）
+    public static final long RESOLUTION_MILLIS = 10L;
+    
+    private static volatile long now = System.currentTimeMillis();
+    
+    static {
+        Thread ticker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    now = System.currentTimeMillis();
+                    try {
+                        Thread.sleep(RESOLUTION_MILLIS);
+                    } catch (InterruptedException e) {
+                        // ignore, keep ticking
+                    }
+                }
+            }
+        }, "mydbcp-coarse-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+    
+    private CoarseClock() {}
+    
+    /**
+     * @Description: 返回当前时间的近似值，误差不超过RESOLUTION_MILLIS
+     * @author chenzq
+     * @date 2026年10月19日 上午10:49:30
+     * @return
+     */
+    public static long currentTimeMillis() {
+        return now;
+    }
+}
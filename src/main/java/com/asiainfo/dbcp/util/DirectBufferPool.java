@@ -0,0 +1,72 @@
+package com.asiainfo.dbcp.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * @Description: 固定大小的直接缓冲区池，用于LOB、导入导出等大块数据在通道之间搬运；
+ *             - 池中最多保留maxIdle个空闲缓冲区，池空时新分配，池满时归还的缓冲区直接丢弃由GC回收；
+ *             - 直接缓冲区写入FileChannel/SocketChannel时不再经过JDK按线程缓存的临时直接缓冲区，直接内存占用有上限。
+ *
+ * @author chenzq
+ * @date 2026年10月19日 下午11:20:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class DirectBufferPool {
+
+    // 默认缓冲区大小，64KB
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // 默认最多保留的空闲缓冲区个数
+    public static final int DEFAULT_MAX_IDLE = 16;
+
+    private static final DirectBufferPool SHARED = new DirectBufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_IDLE);
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> idle;
+
+    public DirectBufferPool(int bufferSize, int maxIdle) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    // 进程内共享的默认池
+    public static DirectBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * @Description: 借出一个已经clear的缓冲区，用完后必须release
+     * @author chenzq
+     * @date 2026年10月19日 下午11:21:30
+     * @return
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    // 归还缓冲区，不是本池大小的缓冲区忽略
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || buffer.capacity() != bufferSize) {
+            return;
+        }
+        buffer.clear();
+        idle.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
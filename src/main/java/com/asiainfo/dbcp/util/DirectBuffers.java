@@ -0,0 +1,73 @@
+package com.asiainfo.dbcp.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * @Description: 立即释放直接缓冲区和内存映射，不等待GC：Java 9以上使用Unsafe.invokeCleaner，Java 8使用DirectBuffer.cleaner()，
+ *             都不可用时等待GC回收；
+ *             - 只能释放allocateDirect、map直接返回的缓冲区，duplicate、slice等视图不能释放；
+ *             - 释放后原缓冲区及其所有视图都不能再访问，否则会读写已经释放的内存导致JVM崩溃。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午2:30:15
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public final class DirectBuffers {
+
+    // Java 9以上的Unsafe.invokeCleaner及Unsafe实例，不可用时为null
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (Exception | LinkageError e) {
+            // Java 8
+            invokeCleaner = null;
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private DirectBuffers() {}
+
+    /**
+     * @Description: 释放直接缓冲区占用的内存，不是直接缓冲区或者释放失败时忽略
+     * @author chenzq
+     * @date 2026年10月20日 下午2:32:40
+     * @param buffer
+     */
+    public static void free(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return;
+            } catch (Exception | LinkageError e) {
+                // 视图缓冲区或者已经释放，等待GC回收
+                return;
+            }
+        }
+        try {
+            Method cleaner = buffer.getClass().getMethod("cleaner");
+            cleaner.setAccessible(true);
+            Object c = cleaner.invoke(buffer);
+            if (c != null) {
+                c.getClass().getMethod("clean").invoke(c);
+            }
+        } catch (Exception | LinkageError e) {
+            // 等待GC回收
+        }
+    }
+}
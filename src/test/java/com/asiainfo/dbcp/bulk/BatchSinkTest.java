@@ -0,0 +1,109 @@
+package com.asiainfo.dbcp.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @Description: BatchSink的重试测试：commit时连接断开结果未知，不重试；瞬时错误回滚后重试
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午2:10:35
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BatchSinkTest {
+
+    private JdbcDataSource h2;
+    private final AtomicInteger commits = new AtomicInteger();
+
+    @Before
+    public void setUp() throws SQLException {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:batchsink;DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        try (Connection conn = h2.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("create table if not exists event(id int)");
+            stmt.execute("delete from event");
+        }
+    }
+
+    @Test
+    public void connectionErrorOnCommitIsNotRetried() throws Exception {
+        // 第一次提交成功之后连接断开，调用方收不到确认
+        DataSource ds = failingCommit(new SQLRecoverableException("connection reset", "08006"), true);
+        AtomicLong retries = new AtomicLong();
+        BatchSink<Integer> sink = new BatchSink<>(ds, "insert into event(id) values (?)", 
+                (ps, id) -> ps.setInt(1, id), 3, 0L, retries);
+        SQLException error = sink.commit(Arrays.asList(1, 2));
+        sink.close();
+        assertNotNull(error);
+        assertEquals(0, retries.get());
+        assertEquals(2, count());
+    }
+
+    @Test
+    public void transientErrorOnCommitIsRetried() throws Exception {
+        DataSource ds = failingCommit(new SQLTransientException("serialization failure", "40001"), false);
+        AtomicLong retries = new AtomicLong();
+        BatchSink<Integer> sink = new BatchSink<>(ds, "insert into event(id) values (?)", 
+                (ps, id) -> ps.setInt(1, id), 3, 0L, retries);
+        assertNull(sink.commit(Arrays.asList(1, 2)));
+        sink.close();
+        assertEquals(1, retries.get());
+        assertEquals(2, count());
+    }
+
+    // 第一次commit抛出error，commitFirst时先真正提交再抛出
+    private DataSource failingCommit(SQLException error, boolean commitFirst) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { DataSource.class }, 
+                (proxy, method, args) -> {
+                    if (!"getConnection".equals(method.getName())) {
+                        return method.invoke(h2, args);
+                    }
+                    Connection conn = h2.getConnection();
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, 
+                            (p, m, a) -> {
+                                if ("commit".equals(m.getName()) && commits.getAndIncrement() == 0) {
+                                    if (commitFirst) {
+                                        conn.commit();
+                                    } else {
+                                        conn.rollback();
+                                    }
+                                    throw error;
+                                }
+                                try {
+                                    return m.invoke(conn, a);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            });
+                });
+    }
+
+    private int count() throws SQLException {
+        try (Connection conn = h2.getConnection(); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("select count(*) from event")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
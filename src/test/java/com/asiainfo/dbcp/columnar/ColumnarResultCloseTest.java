@@ -0,0 +1,79 @@
+package com.asiainfo.dbcp.columnar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.IntBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @Description: ColumnarResult关闭后的访问测试，取值方法抛出异常，已经取得的缓冲区视图仍然可以读取，不会访问已经释放的内存
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午4:10:25
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class ColumnarResultCloseTest {
+
+    private static final int ROWS = 1000;
+
+    private Connection conn;
+    private ColumnarResult result;
+
+    @Before
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:columnarclose", "sa", "");
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("select cast(x as int) from system_range(1, " + ROWS + ")")) {
+            // 初始容量小于行数，装载时会扩容
+            result = ColumnarResult.read(rs, 16, Integer.MAX_VALUE);
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        result.close();
+        conn.close();
+    }
+
+    @Test
+    public void readAfterCloseThrows() {
+        IntColumn column = (IntColumn) result.column(1);
+        assertEquals(1, column.getInt(0));
+        result.close();
+        try {
+            column.getInt(0);
+            fail("getInt after close");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        try {
+            column.buffer();
+            fail("buffer after close");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void viewOutlivesClose() {
+        IntColumn column = (IntColumn) result.column(1);
+        IntBuffer view = column.buffer();
+        result.close();
+        System.gc();
+        long sum = 0;
+        for (int i = 0; i < view.limit(); i++) {
+            sum += view.get(i);
+        }
+        assertEquals((long) ROWS * (ROWS + 1) / 2, sum);
+    }
+}
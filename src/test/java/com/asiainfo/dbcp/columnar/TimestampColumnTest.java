@@ -0,0 +1,58 @@
+package com.asiainfo.dbcp.columnar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import org.junit.Test;
+
+/**
+ * @Description: TimestampColumn的取值范围测试，纪元纳秒的long只能表示1677年到2262年
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午11:02:36
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class TimestampColumnTest {
+
+    private static final String[] VALUES = {
+        "0001-01-01 00:00:00.0",
+        "1969-12-31 23:59:59.999999999",
+        "1970-01-01 00:00:00.000000001",
+        "2019-05-01 22:09:45.123456789",
+        "9999-12-31 23:59:59.999999999"
+    };
+
+    @Test
+    public void readsFullTimestampRange() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:timestamp", "sa", "");
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("create table ts(v timestamp(9))");
+            for (String value : VALUES) {
+                stmt.execute("insert into ts values(timestamp '" + value + "')");
+            }
+            stmt.execute("insert into ts values(null)");
+            try (ResultSet rs = stmt.executeQuery("select v from ts");
+                    ColumnarResult result = ColumnarResult.read(rs)) {
+                Column column = result.column(1);
+                assertTrue(column instanceof TimestampColumn);
+                TimestampColumn ts = (TimestampColumn) column;
+                for (int row = 0; row < VALUES.length; row++) {
+                    Timestamp expected = Timestamp.valueOf(VALUES[row]);
+                    assertEquals(expected, ts.getTimestamp(row));
+                    assertEquals(expected.getNanos(), ts.getNanos(row));
+                }
+                assertNull(ts.getTimestamp(VALUES.length));
+                assertEquals(VALUES.length + 1, ts.nanosBuffer().remaining());
+            }
+        }
+    }
+}
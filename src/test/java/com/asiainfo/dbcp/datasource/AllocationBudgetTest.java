@@ -0,0 +1,104 @@
+package com.asiainfo.dbcp.datasource;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @Description: 借出连接、执行查询、归还连接的热路径分配测试，按ThreadMXBean统计的线程分配字节数与直接使用驱动比较；
+ *             - 开启延迟恢复会话状态、不跟踪statement时，每个循环超出驱动的分配不能超过预算；
+ *             - 预算包括PreparedStatement和ResultSet代理，以及commons-pool归还时分配的IdentityWrapper和队列节点。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午11:20:16
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class AllocationBudgetTest {
+
+    // 每个循环超出驱动的分配预算
+    private static final long BUDGET_BYTES_PER_CYCLE = 256;
+    private static final int WARMUP_CYCLES = 100000;
+    private static final int MEASURED_CYCLES = 100000;
+    private static final String URL = "jdbc:h2:mem:allocation;DB_CLOSE_DELAY=-1";
+
+    interface Cycle {
+        void run() throws SQLException;
+    }
+
+    private com.sun.management.ThreadMXBean threads;
+    private Connection raw;
+    private SimpleDataSource ds;
+
+    @Before
+    public void setUp() throws SQLException {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(mx instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) mx;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        raw = DriverManager.getConnection(URL, "sa", "");
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl(URL);
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(1);
+        ds.setLazyStateRestore(true);
+        ds.setTraceStatements(false);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (ds != null) {
+            ds.close();
+        }
+        if (raw != null) {
+            raw.close();
+        }
+    }
+
+    @Test
+    public void borrowExecuteReturnStaysWithinBudget() throws SQLException {
+        Cycle driver = () -> {
+            try (PreparedStatement ps = raw.prepareStatement("select 1"); ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+        };
+        Cycle pooled = () -> {
+            try (Connection conn = ds.getConnection();
+                    PreparedStatement ps = conn.prepareStatement("select 1");
+                    ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+        };
+        double driverBytes = bytesPerCycle(driver);
+        double pooledBytes = bytesPerCycle(pooled);
+        double overhead = pooledBytes - driverBytes;
+        assertTrue(String.format("pool allocates %.1f bytes/cycle beyond the driver (driver %.1f, pooled %.1f), budget %d",
+                overhead, driverBytes, pooledBytes, BUDGET_BYTES_PER_CYCLE), overhead <= BUDGET_BYTES_PER_CYCLE);
+    }
+
+    private double bytesPerCycle(Cycle cycle) throws SQLException {
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            cycle.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_CYCLES; i++) {
+            cycle.run();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / (double) MEASURED_CYCLES;
+    }
+}
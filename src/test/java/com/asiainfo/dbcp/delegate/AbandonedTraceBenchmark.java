@@ -0,0 +1,180 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @Description: trace链表的基准测试，比较侵入式双向链表的AbandonedTrace和原来基于ArrayList、ReentrantLock的实现；
+ *             - openClose：已有open个子trace时增加并删除一个子trace，对应打开、关闭一个statement，原实现按equals从头查找；
+ *             - closeAll：增加open个子trace后逐个关闭，对应归还连接时关闭未关闭的statement，每个子trace关闭时从父trace删除自己，
+ *               原实现复制列表后逐个关闭再clear，删除为线性查找；
+ *             - 运行：mvn test-compile exec:exec -Pbenchmark -Dbenchmark=AbandonedTraceBenchmark
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午3:10:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AbandonedTraceBenchmark {
+
+    // 父trace已经打开的子trace个数
+    @Param({ "1", "64", "1024" })
+    public int open;
+
+    private AbandonedTrace intrusive;
+    private TraceNode intrusiveChild;
+    // closeAll使用的子trace，与openClose的父trace无关
+    private TraceNode[] intrusiveChildren;
+
+    private ListTrace list;
+    private ListTrace listChild;
+    private ListTrace[] listChildren;
+
+    @Setup
+    public void setUp() {
+        intrusive = new AbandonedTrace();
+        list = new ListTrace();
+        // openClose的父trace保持open个子trace
+        for (int i = 0; i < open; i++) {
+            intrusive.addTrace(new TraceNode());
+            list.addTrace(new ListTrace());
+        }
+        intrusiveChild = new TraceNode();
+        listChild = new ListTrace();
+        intrusiveChildren = new TraceNode[open];
+        listChildren = new ListTrace[open];
+        for (int i = 0; i < open; i++) {
+            intrusiveChildren[i] = new TraceNode();
+            listChildren[i] = new ListTrace();
+        }
+    }
+
+    @Benchmark
+    public AbandonedTrace openCloseIntrusive() {
+        intrusive.addTrace(intrusiveChild);
+        intrusive.removeTrace(intrusiveChild);
+        return intrusive;
+    }
+
+    @Benchmark
+    public ListTrace openCloseList() {
+        list.addTrace(listChild);
+        list.removeTrace(listChild);
+        return list;
+    }
+
+    @Benchmark
+    public int closeAllIntrusive() {
+        AbandonedTrace parent = new AbandonedTrace();
+        for (TraceNode child : intrusiveChildren) {
+            parent.addTrace(child);
+        }
+        int closed = 0;
+        TraceNode trace;
+        while ((trace = parent.pollTrace()) != null) {
+            // 子trace关闭时从父trace删除自己，已经取出的节点直接忽略
+            parent.removeTrace(trace);
+            closed++;
+        }
+        return closed;
+    }
+
+    @Benchmark
+    public int closeAllList() {
+        ListTrace parent = new ListTrace();
+        for (ListTrace child : listChildren) {
+            parent.addTrace(child);
+        }
+        List<ListTrace> traces = parent.getTrace();
+        for (ListTrace trace : traces) {
+            parent.removeTrace(trace);
+        }
+        parent.clearTrace();
+        return traces.size();
+    }
+
+    /**
+     * @Description: 原来的AbandonedTrace实现，每个对象分配列表、锁和日志对象，删除时按equals线性查找
+     *
+     * @author chenzq
+     * @date 2026年10月20日 下午3:12:40
+     * @version V1.0
+     * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+     */
+    static class ListTrace {
+
+        protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+        private final List<ListTrace> traceList = new ArrayList<ListTrace>();
+        private final Lock lock = new ReentrantLock();
+        private long lastUsed = 0;
+
+        protected void setLastUsed() {
+            this.lastUsed = System.currentTimeMillis();
+            logger.debug("setLastUsed={} ......", this.lastUsed);
+        }
+
+        protected List<ListTrace> getTrace() {
+            lock.lock();
+            try {
+                return new ArrayList<ListTrace>(traceList);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        protected void addTrace(ListTrace trace) {
+            logger.debug("addTrace={} ......", trace);
+            lock.lock();
+            try {
+                this.traceList.add(trace);
+                setLastUsed();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        protected void removeTrace(ListTrace trace) {
+            logger.debug("removeTrace={} ......", trace);
+            lock.lock();
+            try {
+                this.traceList.remove(trace);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        protected void clearTrace() {
+            logger.debug("clearTrace ......");
+            lock.lock();
+            try {
+                this.traceList.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
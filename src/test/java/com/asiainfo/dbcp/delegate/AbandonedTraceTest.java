@@ -0,0 +1,70 @@
+package com.asiainfo.dbcp.delegate;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * @Description: 侵入式trace链表的测试，节点按引用增删，不属于当前父trace的节点直接忽略
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午3:20:45
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class AbandonedTraceTest {
+
+    @Test
+    public void removeKeepsOtherTraces() {
+        AbandonedTrace parent = new AbandonedTrace();
+        TraceNode first = new TraceNode();
+        TraceNode middle = new TraceNode();
+        TraceNode last = new TraceNode();
+        parent.addTrace(first);
+        parent.addTrace(middle);
+        parent.addTrace(last);
+
+        parent.removeTrace(middle);
+        assertNull(middle.traceParent);
+        // 后加入的先取出
+        assertSame(last, parent.pollTrace());
+        assertSame(first, parent.pollTrace());
+        assertNull(parent.pollTrace());
+    }
+
+    @Test
+    public void foreignTraceIsIgnored() {
+        AbandonedTrace parent = new AbandonedTrace();
+        AbandonedTrace other = new AbandonedTrace();
+        TraceNode mine = new TraceNode();
+        TraceNode theirs = new TraceNode();
+        parent.addTrace(mine);
+        other.addTrace(theirs);
+
+        // 其他父trace的节点和已经删除的节点都不修改当前链表
+        parent.removeTrace(theirs);
+        parent.removeTrace(new TraceNode());
+        assertSame(other, theirs.traceParent);
+        assertSame(mine, parent.pollTrace());
+        assertNull(parent.pollTrace());
+        assertSame(theirs, other.pollTrace());
+    }
+
+    @Test
+    public void clearUnlinksAllTraces() {
+        AbandonedTrace parent = new AbandonedTrace();
+        TraceNode[] traces = new TraceNode[100];
+        for (int i = 0; i < traces.length; i++) {
+            traces[i] = new TraceNode();
+            parent.addTrace(traces[i]);
+        }
+        parent.clearTrace();
+        for (TraceNode trace : traces) {
+            assertNull(trace.traceParent);
+            assertNull(trace.tracePrev);
+            assertNull(trace.traceNext);
+        }
+        assertNull(parent.pollTrace());
+    }
+}
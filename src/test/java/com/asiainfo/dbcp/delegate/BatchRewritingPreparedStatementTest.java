@@ -0,0 +1,133 @@
+package com.asiainfo.dbcp.delegate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+
+/**
+ * @Description: 批处理改写为多行insert的测试
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午11:45:20
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BatchRewritingPreparedStatementTest {
+
+    private static final String URL = "jdbc:h2:mem:rewrite;DB_CLOSE_DELAY=-1";
+    private static final String INSERT = "insert into item(id, name) values (?, ?)";
+
+    private SimpleDataSource ds;
+
+    @Before
+    public void setUp() throws SQLException {
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl(URL);
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(1);
+        ds.setPoolPreparedStatements(true);
+        ds.setMaxOpenPreparedStatements(50);
+        ds.setRewriteBatchedInserts(true);
+        // 建表不经过连接池，各用例在取连接之前设置改写的上限
+        try (Connection conn = DriverManager.getConnection(URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("create table if not exists item(id int primary key, name varchar(200))");
+            stmt.execute("delete from item");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        ds.close();
+    }
+
+    @Test
+    public void quotedBackslashIsNotRewritten() {
+        assertNull(MultiRowInsert.parse("insert into item(id, name) values (?, 'a\\'?')"));
+        assertNotNull(MultiRowInsert.parse("insert into item(id, name) values (?, 'it''s ?')"));
+    }
+
+    @Test
+    public void dialectLimits() {
+        MultiRowInsert insert = MultiRowInsert.parse(INSERT);
+        assertEquals(1000, insert.maxRows(MultiRowInsert.defaultMaxParameters("Microsoft SQL Server"),
+                MultiRowInsert.defaultMaxRows("Microsoft SQL Server")));
+        assertEquals(525, MultiRowInsert.parse("insert into t values (?, ?, ?, ?)").maxRows(
+                MultiRowInsert.defaultMaxParameters("Microsoft SQL Server"), Integer.MAX_VALUE));
+        assertEquals(32767, insert.maxRows(MultiRowInsert.defaultMaxParameters("MySQL"), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void chunksArePowersOfTwoWithDriverBatchRemainder() throws SQLException {
+        ds.setRewriteMaxParameters(40);
+        int[] counts = insertRows(45, "x");
+        int[] expected = new int[45];
+        Arrays.fill(expected, 1);
+        assertArrayEquals(expected, counts);
+        assertEquals(45, countRows());
+        // 20行的上限按2的幂执行16、16、8行，剩余5行使用驱动的批处理
+        for (String sql : hottestSql()) {
+            int tuples = sql.split("\\(\\?, \\?\\)", -1).length - 1;
+            assertTrue(sql, tuples == 1 || tuples == 8 || tuples == 16);
+        }
+    }
+
+    @Test
+    public void chunksAreLimitedByEstimatedBytes() throws SQLException {
+        ds.setRewriteMaxBytes(8 * 1024);
+        char[] name = new char[150];
+        Arrays.fill(name, 'n');
+        int[] counts = insertRows(100, new String(name));
+        assertEquals(100, counts.length);
+        assertEquals(100, countRows());
+        // 每行估算约330字节，8K的上限每条sql不超过16行
+        for (String sql : hottestSql()) {
+            int tuples = sql.split("\\(\\?, \\?\\)", -1).length - 1;
+            assertTrue(sql, tuples <= 16);
+        }
+    }
+
+    private int[] insertRows(int n, String name) throws SQLException {
+        try (Connection conn = ds.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            assertTrue(ps instanceof BatchRewritingPreparedStatement);
+            for (int i = 0; i < n; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, name);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        }
+    }
+
+    private int countRows() throws SQLException {
+        try (Connection conn = ds.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("select count(*) from item")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private Iterable<String> hottestSql() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            return conn.unwrap(DelegatingConnection.class).getStatementCache().getBudget().hottest(100);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+
+/**
+ * @Description: 为驱动类生成的特化代理与普通Delegating*代理的基准测试，按列序号读取10000行×10列结果集、绑定参数；
+ *             - drivers=1：进程中只有H2一种驱动类型，Delegating*中的调用点是单态的，两种代理应当接近；
+ *             - drivers=4：预热前先用3种其他ResultSet、PreparedStatement实现调用Delegating*的转发方法，
+ *               模拟同一进程使用多种驱动，普通代理的调用点变成megamorphic，生成的代理每个类只看到一种驱动类型；
+ *             - 运行：mvn test-compile exec:exec -Pbenchmark -Dbenchmark=DelegateProxyBenchmark
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午3:35:10
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DelegateProxyBenchmark {
+
+    private static final int ROWS = 10000;
+    private static final int COLUMNS = 10;
+    private static final int POLLUTION_CALLS = 20000;
+    private static final String URL = "jdbc:h2:mem:proxies;DB_CLOSE_DELAY=-1";
+    private static final String INSERT = "insert into narrow values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // delegate：普通Delegating*代理；generated：生成的特化代理
+    @Param({ "delegate", "generated" })
+    public String proxies;
+
+    // 进程中使用的驱动类型个数
+    @Param({ "1", "4" })
+    public int drivers;
+
+    private Connection keepAlive;
+    private SimpleDataSource ds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        keepAlive = DriverManager.getConnection(URL, "sa", "");
+        StringBuilder ddl = new StringBuilder("create table if not exists narrow(");
+        StringBuilder insert = new StringBuilder("insert into narrow select ");
+        for (int i = 0; i < COLUMNS; i++) {
+            String sep = i > 0 ? ", " : "";
+            ddl.append(sep).append("COL_").append(i).append(i % 2 == 0 ? " int" : " varchar(16)");
+            insert.append(sep).append(i % 2 == 0 ? "x" : "'v' || x");
+        }
+        ddl.append(")");
+        insert.append(" from system_range(1, ").append(ROWS).append(")");
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute(ddl.toString());
+            try (ResultSet rs = stmt.executeQuery("select count(*) from narrow")) {
+                rs.next();
+                if (rs.getInt(1) == 0) {
+                    stmt.execute(insert.toString());
+                }
+            }
+        }
+        if (drivers > 1) {
+            pollute(drivers - 1);
+        }
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl(URL);
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(1);
+        ds.setPoolPreparedStatements(true);
+        ds.setMaxOpenPreparedStatements(10);
+        ds.setGenerateProxies("generated".equals(proxies));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        ds.close();
+        keepAlive.close();
+    }
+
+    @Benchmark
+    public long readByIndex() throws SQLException {
+        long sink = 0;
+        try (Connection conn = ds.getConnection();
+                PreparedStatement ps = conn.prepareStatement("select * from narrow");
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                for (int i = 1; i <= COLUMNS; i++) {
+                    sink += i % 2 == 1 ? rs.getInt(i) : rs.getString(i).length();
+                }
+            }
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public int bindParameters() throws SQLException {
+        int bound = 0;
+        try (Connection conn = ds.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int i = 1; i <= COLUMNS; i++) {
+                    if (i % 2 == 1) {
+                        ps.setInt(i, row);
+                    } else {
+                        ps.setString(i, "v");
+                    }
+                }
+                ps.clearParameters();
+                bound += COLUMNS;
+            }
+        }
+        return bound;
+    }
+
+    // 用types种其他驱动类型调用普通代理的转发方法，使调用点的类型profile包含多种类型
+    private void pollute(int types) throws SQLException {
+        DelegatingConnection conn = new DelegatingConnection(keepAlive);
+        conn.setTraceStatements(false);
+        DelegatingStatement stmt = new DelegatingStatement(conn, keepAlive.createStatement());
+        for (int t = 0; t < types; t++) {
+            ResultSet rs = fake(ResultSet.class, t);
+            PreparedStatement ps = fake(PreparedStatement.class, t);
+            DelegatingResultSet drs = new DelegatingResultSet(stmt, rs);
+            DelegatingPreparedStatement dps = new DelegatingPreparedStatement(conn, ps);
+            for (int i = 0; i < POLLUTION_CALLS; i++) {
+                drs.next();
+                drs.getInt(1);
+                drs.getString(2);
+                dps.setInt(1, i);
+                dps.setString(2, "v");
+                dps.clearParameters();
+            }
+        }
+    }
+
+    // 每个序号生成一个不同的动态代理类，只用于pollute调用的方法，返回默认值
+    private static <T> T fake(Class<T> type, int ordinal) {
+        Class<?>[] interfaces = new Class<?>[] { type, Runnable.class, Comparable.class, AutoCloseable.class };
+        Class<?>[] selected = new Class<?>[ordinal + 1];
+        System.arraycopy(interfaces, 0, selected, 0, selected.length);
+        InvocationHandler handler = (proxy, method, args) -> {
+            Class<?> r = method.getReturnType();
+            if (r == boolean.class) {
+                return Boolean.FALSE;
+            } else if (r == int.class) {
+                return 0;
+            }
+            return null;
+        };
+        return type.cast(Proxy.newProxyInstance(DelegateProxyBenchmark.class.getClassLoader(), selected, handler));
+    }
+}
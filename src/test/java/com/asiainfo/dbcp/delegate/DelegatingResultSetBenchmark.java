@@ -0,0 +1,111 @@
+package com.asiainfo.dbcp.delegate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+
+/**
+ * @Description: 按列标签读取100000行×30列结果集的基准测试，比较驱动按标签查找列和共享快照的标签索引；
+ *             - 运行：mvn test-compile exec:exec -Pbenchmark -Dbenchmark=DelegatingResultSetBenchmark
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午10:12:40
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DelegatingResultSetBenchmark {
+
+    private static final int ROWS = 100000;
+    private static final int COLUMNS = 30;
+    private static final String URL = "jdbc:h2:mem:wide;DB_CLOSE_DELAY=-1";
+
+    // driver：驱动按标签查找列；labelIndex：sql元数据缓存的标签索引；labelIndexProxies：同时使用生成的特化代理
+    @Param({ "driver", "labelIndex", "labelIndexProxies" })
+    public String mode;
+
+    // 调用方的标签大小写，与H2的大写列名不同时驱动需要忽略大小写查找
+    @Param({ "col_", "COL_" })
+    public String labelPrefix;
+
+    private final String[] labels = new String[COLUMNS];
+    private Connection keepAlive;
+    private SimpleDataSource ds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        keepAlive = DriverManager.getConnection(URL, "sa", "");
+        StringBuilder ddl = new StringBuilder("create table if not exists wide(");
+        StringBuilder insert = new StringBuilder("insert into wide select ");
+        for (int i = 0; i < COLUMNS; i++) {
+            String sep = i > 0 ? ", " : "";
+            ddl.append(sep).append("COL_").append(i).append(i % 2 == 0 ? " int" : " varchar(16)");
+            insert.append(sep).append(i % 2 == 0 ? "x" : "'v' || x");
+            labels[i] = labelPrefix + i;
+        }
+        ddl.append(")");
+        insert.append(" from system_range(1, ").append(ROWS).append(")");
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute(ddl.toString());
+            try (ResultSet rs = stmt.executeQuery("select count(*) from wide")) {
+                rs.next();
+                if (rs.getInt(1) == 0) {
+                    stmt.execute(insert.toString());
+                }
+            }
+        }
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl(URL);
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(1);
+        ds.setCacheSqlMetadata(!"driver".equals(mode));
+        ds.setGenerateProxies("labelIndexProxies".equals(mode));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        ds.close();
+        keepAlive.close();
+    }
+
+    @Benchmark
+    public long readByLabel() throws SQLException {
+        long sink = 0;
+        try (Connection conn = ds.getConnection();
+                PreparedStatement ps = conn.prepareStatement("select * from wide");
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                for (int i = 0; i < COLUMNS; i++) {
+                    sink += i % 2 == 0 ? rs.getInt(labels[i]) : rs.getString(labels[i]).length();
+                }
+            }
+        }
+        return sink;
+    }
+}
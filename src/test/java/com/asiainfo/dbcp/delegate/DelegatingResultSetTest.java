@@ -0,0 +1,165 @@
+package com.asiainfo.dbcp.delegate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+
+/**
+ * @Description: DelegatingResultSet按标签取值的测试，开启sql元数据缓存时标签通过共享快照转换为列序号
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午10:05:12
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class DelegatingResultSetTest {
+
+    private SimpleDataSource ds;
+
+    @Before
+    public void setUp() throws SQLException {
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        // H2按sql文本缓存查询计划，不区分schema，关闭后才能验证切换schema
+        ds.setUrl("jdbc:h2:mem:resultset;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=0");
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(1);
+        ds.setCacheSqlMetadata(true);
+        try (Connection conn = ds.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("create schema if not exists t1");
+            stmt.execute("create schema if not exists t2");
+            stmt.execute("create table if not exists t1.account(id int, amount decimal(10, 4))");
+            stmt.execute("create table if not exists t2.account(amount decimal(10, 4), id int)");
+            stmt.execute("merge into t1.account key(id) values(1, 12.3456)");
+            stmt.execute("merge into t2.account key(id) values(65.4321, 2)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        ds.close();
+    }
+
+    @Test
+    public void getBigDecimalByLabelKeepsScale() throws SQLException {
+        try (Connection conn = ds.getConnection();
+                PreparedStatement ps = conn.prepareStatement("select amount from t1.account");
+                ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            @SuppressWarnings("deprecation")
+            BigDecimal amount = rs.getBigDecimal("amount", 2);
+            assertEquals(2, amount.scale());
+            assertEquals(new BigDecimal("12.35"), amount);
+        }
+    }
+
+    @Test
+    public void labelLookupFollowsSchemaSwitch() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            conn.setSchema("T1");
+            assertEquals(new BigDecimal("12.3456"), amount(conn));
+            conn.setSchema("T2");
+            assertEquals(new BigDecimal("65.4321"), amount(conn));
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("set schema t1");
+            }
+            assertEquals(new BigDecimal("12.3456"), amount(conn));
+        }
+    }
+
+    @Test
+    public void labelLookupFollowsDdlThroughPreparedStatement() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("create table if not exists t1.renamed(a int, b int)");
+                stmt.execute("merge into t1.renamed key(a) values(1, 2)");
+            }
+            assertEquals(2, intColumn(conn, "b"));
+            try (PreparedStatement ps = conn.prepareStatement("alter table t1.renamed alter column a rename to c")) {
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("alter table t1.renamed alter column b rename to a")) {
+                ps.executeUpdate();
+            }
+            // 列数不变，只有标签变化，旧快照的索引会把a指向第1列
+            assertEquals(2, intColumn(conn, "a"));
+        }
+    }
+
+    @Test
+    public void labelLookupIgnoresCase() throws SQLException {
+        try (Connection conn = ds.getConnection();
+                PreparedStatement ps = conn.prepareStatement("select id, amount from t1.account");
+                ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            assertEquals(1, rs.getInt("ID"));
+            assertEquals(1, rs.getInt("id"));
+            assertEquals(2, rs.findColumn("Amount"));
+            ResultSetMetaDataSnapshot snapshot = (ResultSetMetaDataSnapshot) rs.getMetaData();
+            assertEquals(1, snapshot.findColumn("iD"));
+            assertEquals(-1, snapshot.findColumn("missing"));
+        }
+    }
+
+    @Test
+    public void nullLabelThrowsSQLException() throws SQLException {
+        try (Connection conn = ds.getConnection();
+                PreparedStatement ps = conn.prepareStatement("select id from t1.account");
+                ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            try {
+                rs.getInt(null);
+                fail("getInt(null)");
+            } catch (SQLException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void closedResultSetStaysClosedAfterReexecute() throws SQLException {
+        try (Connection conn = ds.getConnection();
+                PreparedStatement ps = conn.prepareStatement("select id from t1.account")) {
+            ResultSet first = ps.executeQuery();
+            first.close();
+            try (ResultSet second = ps.executeQuery()) {
+                assertNotSame(first, second);
+                assertTrue(first.isClosed());
+                // 旧引用再次关闭不影响新的结果集
+                first.close();
+                assertFalse(second.isClosed());
+                assertTrue(second.next());
+            }
+        }
+    }
+
+    private static BigDecimal amount(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("select * from account"); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getBigDecimal("amount");
+        }
+    }
+
+    private static int intColumn(Connection conn, String label) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("select * from t1.renamed"); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(label);
+        }
+    }
+}
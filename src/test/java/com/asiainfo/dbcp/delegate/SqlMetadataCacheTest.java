@@ -0,0 +1,70 @@
+package com.asiainfo.dbcp.delegate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @Description: SqlMetadataCache的DDL失效测试，表、视图的DDL只删除引用该表的条目，其他DDL不影响缓存
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午4:40:18
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class SqlMetadataCacheTest {
+
+    private static final String SCOPE = "PUBLIC";
+    private static final String ACCOUNT = "select * from t1.account where id = ?";
+    private static final String ORDERS = "select * from \"ORDERS\"";
+
+    private Connection conn;
+    private SqlMetadataCache cache;
+
+    @Before
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:metadatacache", "sa", "");
+        cache = new SqlMetadataCache(16);
+        cache.nativeSql(SCOPE, ACCOUNT, conn);
+        cache.nativeSql(SCOPE, ORDERS, conn);
+        cache.nativeSql("OTHER", ACCOUNT, conn);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    public void alterTableEvictsOnlyReferencingEntries() {
+        assertEquals(3, cache.size());
+        assertFalse(cache.onExecute("alter table T1.ACCOUNT add column note varchar(16)"));
+        assertEquals(1, cache.size());
+        assertFalse(cache.onExecute("drop view if exists `orders`"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void ddlWithoutTableKeepsEntries() {
+        cache.onExecute("create index idx_account on t1.account(id)");
+        cache.onExecute("truncate table t1.account");
+        cache.onExecute("create sequence seq_account");
+        assertEquals(3, cache.size());
+        assertTrue(cache.onExecute("alter session set current_schema = t1"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void createTableEvictsSameName() {
+        cache.onExecute("create table if not exists orders(id int)");
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.asiainfo.dbcp.delegate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.h2.jdbc.JdbcPreparedStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+
+/**
+ * @Description: StatementCache的测试：其他连接淘汰的statement由所属连接关闭；每次借出使用新的代理，
+ *             关闭过的旧引用不影响下一个使用者；放回缓存时恢复调用方修改过的设置
+ *
+ * @author chenzq
+ * @date 2026年10月20日 上午10:40:18
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class StatementCacheTest {
+
+    private SimpleDataSource ds;
+
+    @Before
+    public void setUp() {
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl("jdbc:h2:mem:statementcache;DB_CLOSE_DELAY=-1");
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(2);
+        ds.setPoolPreparedStatements(true);
+        ds.setMaxOpenPreparedStatements(10);
+        // 整个连接池只能缓存一个statement
+        ds.setMaxTotalPreparedStatements(1);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        ds.close();
+    }
+
+    @Test
+    public void evictedStatementIsClosedByOwner() throws SQLException {
+        try (Connection owner = ds.getConnection(); Connection other = ds.getConnection()) {
+            JdbcPreparedStatement cold;
+            try (PreparedStatement ps = owner.prepareStatement("select 1")) {
+                cold = ps.unwrap(JdbcPreparedStatement.class);
+            }
+            // 第二次使用时频率高于select 1，从owner的缓存淘汰select 1
+            other.prepareStatement("select 2").close();
+            other.prepareStatement("select 2").close();
+            StatementCacheBudget budget = owner.unwrap(DelegatingConnection.class).getStatementCache().getBudget();
+            assertEquals(1, budget.getStatements());
+            // 淘汰线程不关闭其他连接的物理statement
+            assertFalse(cold.isClosed());
+
+            // 所属连接下一次访问缓存时关闭
+            owner.prepareStatement("select 3").close();
+            assertTrue(cold.isClosed());
+        }
+    }
+
+    @Test
+    public void evictedStatementIsClosedOnReturn() throws SQLException {
+        JdbcPreparedStatement cold;
+        Connection owner = ds.getConnection();
+        try (PreparedStatement ps = owner.prepareStatement("select 1")) {
+            cold = ps.unwrap(JdbcPreparedStatement.class);
+        }
+        try (Connection other = ds.getConnection()) {
+            other.prepareStatement("select 2").close();
+            other.prepareStatement("select 2").close();
+        }
+        assertFalse(cold.isClosed());
+        owner.close();
+        assertTrue(cold.isClosed());
+    }
+
+    @Test
+    public void staleHandleDoesNotAffectNextBorrower() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            PreparedStatement first = conn.prepareStatement("select ?");
+            JdbcPreparedStatement physical = first.unwrap(JdbcPreparedStatement.class);
+            first.close();
+            PreparedStatement second = conn.prepareStatement("select ?");
+            assertNotSame(first, second);
+            assertSame(physical, second.unwrap(JdbcPreparedStatement.class));
+            assertTrue(first.isClosed());
+
+            // 旧引用再次关闭不影响新的使用者
+            first.close();
+            assertFalse(second.isClosed());
+            second.setInt(1, 7);
+            try (ResultSet rs = second.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(7, rs.getInt(1));
+            }
+            second.close();
+        }
+    }
+
+    @Test
+    public void changedSettingsAreReset() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            PreparedStatement first = conn.prepareStatement("select 1");
+            JdbcPreparedStatement physical = first.unwrap(JdbcPreparedStatement.class);
+            first.setQueryTimeout(7);
+            first.setMaxRows(1);
+            first.setMaxFieldSize(100);
+            first.close();
+            try (PreparedStatement second = conn.prepareStatement("select 1")) {
+                assertSame(physical, second.unwrap(JdbcPreparedStatement.class));
+                assertEquals(0, second.getQueryTimeout());
+                assertEquals(0, second.getMaxRows());
+                assertEquals(0, second.getMaxFieldSize());
+            }
+        }
+    }
+
+    @Test
+    public void notPoolableStatementIsNotCached() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            PreparedStatement first = conn.prepareStatement("select 1");
+            JdbcPreparedStatement physical = first.unwrap(JdbcPreparedStatement.class);
+            first.setPoolable(false);
+            first.close();
+            assertTrue(physical.isClosed());
+            assertEquals(0, conn.unwrap(DelegatingConnection.class).getStatementCache().size());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.asiainfo.dbcp.delegate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * @Description: 代理对象的内存占用测试，使用JOL统计每个代理对象的字节数；
+ *             - 对象头、字段的浅大小不能超过预算（压缩指针下），新增字段时需要同时调整预算；
+ *             - 创建代理对象、加入connection或statement的trace链表时，除代理对象本身外不能分配其他对象（链表节点、锁、日志等），
+ *               按创建前后从connection可达的对象图的大小差值统计。
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午2:50:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class WrapperFootprintTest {
+
+    // 压缩指针下各代理对象的浅大小预算
+    private static final long TRACE_NODE_BYTES = 24;
+    private static final long STATEMENT_BYTES = 88;
+    private static final long PREPARED_STATEMENT_BYTES = 96;
+    private static final long RESULT_SET_BYTES = 48;
+
+    private Connection raw;
+    private DelegatingConnection conn;
+
+    @Before
+    public void setUp() throws SQLException {
+        // 预算按压缩指针计算，关闭压缩指针或JOL不支持当前JVM时跳过
+        try {
+            Assume.assumeTrue(ClassLayout.parseClass(Object.class).headerSize() == 12);
+        } catch (RuntimeException | LinkageError e) {
+            Assume.assumeNoException(e);
+        }
+        raw = DriverManager.getConnection("jdbc:h2:mem:footprint", "sa", "");
+        conn = new DelegatingConnection(raw);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (raw != null) {
+            raw.close();
+        }
+    }
+
+    @Test
+    public void shallowSizeWithinBudget() {
+        assertBudget(TraceNode.class, TRACE_NODE_BYTES);
+        assertBudget(DelegatingStatement.class, STATEMENT_BYTES);
+        assertBudget(DelegatingPreparedStatement.class, PREPARED_STATEMENT_BYTES);
+        assertBudget(DelegatingResultSet.class, RESULT_SET_BYTES);
+    }
+
+    @Test
+    public void tracedStatementAllocatesOnlyItself() throws SQLException {
+        conn.setTraceStatements(true);
+        // 链表里已经有其他statement时，新的statement只修改相邻节点的引用
+        new DelegatingStatement(conn, raw.createStatement());
+        Statement stmt = raw.createStatement();
+        long before = GraphLayout.parseInstance(conn, stmt).totalSize();
+        DelegatingStatement wrapper = new DelegatingStatement(conn, stmt);
+        long after = GraphLayout.parseInstance(conn, stmt).totalSize();
+        assertEquals(ClassLayout.parseInstance(wrapper).instanceSize(), after - before);
+    }
+
+    @Test
+    public void untracedPreparedStatementAllocatesOnlyItself() throws SQLException {
+        conn.setTraceStatements(false);
+        PreparedStatement ps = raw.prepareStatement("select 1");
+        long before = GraphLayout.parseInstance(conn, ps).totalSize();
+        DelegatingPreparedStatement wrapper = new DelegatingPreparedStatement(conn, ps);
+        // 不跟踪时connection不引用statement，从statement统计
+        long after = GraphLayout.parseInstance(conn, ps, wrapper).totalSize();
+        assertEquals(ClassLayout.parseInstance(wrapper).instanceSize(), after - before);
+    }
+
+    @Test
+    public void tracedResultSetAllocatesOnlyItself() throws SQLException {
+        conn.setTraceStatements(true);
+        Statement delegate = raw.createStatement();
+        DelegatingStatement stmt = new DelegatingStatement(conn, delegate);
+        ResultSet rs = delegate.executeQuery("select 1");
+        long before = GraphLayout.parseInstance(conn, rs).totalSize();
+        DelegatingResultSet wrapper = new DelegatingResultSet(stmt, rs);
+        long after = GraphLayout.parseInstance(conn, rs).totalSize();
+        assertEquals(ClassLayout.parseInstance(wrapper).instanceSize(), after - before);
+    }
+
+    private static void assertBudget(Class<?> type, long budget) {
+        long size = ClassLayout.parseClass(type).instanceSize();
+        assertTrue(type.getSimpleName() + " is " + size + " bytes, budget " + budget, size <= budget);
+    }
+}
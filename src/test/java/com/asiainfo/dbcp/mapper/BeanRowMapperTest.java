@@ -0,0 +1,78 @@
+package com.asiainfo.dbcp.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Test;
+
+/**
+ * @Description: BeanRowMapper对null列值的处理：引用类型属性设置为null，原始类型属性保持默认值
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午12:05:30
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class BeanRowMapperTest {
+
+    @Test
+    public void nullColumnClearsReferenceProperties() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:mapper", "sa", "");
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("select cast(null as varchar) name, cast(null as int) age, "
+                        + "cast(null as int) count, cast(null as boolean) active, cast(null as boolean) flag")) {
+            rs.next();
+            Item item = RowMappers.beanMapper(Item.class).mapRow(rs, 0);
+            assertNull(item.getName());
+            assertNull(item.getAge());
+            assertNull(item.getActive());
+            assertEquals(7, item.getCount());
+            assertEquals(true, item.isFlag());
+        }
+    }
+
+    public static class Item {
+        private String name = "default";
+        private Integer age = 5;
+        private int count = 7;
+        private Boolean active = Boolean.TRUE;
+        private boolean flag = true;
+
+        public String getName() {
+            return name;
+        }
+        public void setName(String name) {
+            this.name = name;
+        }
+        public Integer getAge() {
+            return age;
+        }
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+        public int getCount() {
+            return count;
+        }
+        public void setCount(int count) {
+            this.count = count;
+        }
+        public Boolean getActive() {
+            return active;
+        }
+        public void setActive(Boolean active) {
+            this.active = active;
+        }
+        public boolean isFlag() {
+            return flag;
+        }
+        public void setFlag(boolean flag) {
+            this.flag = flag;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.asiainfo.dbcp.poolable;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.h2.jdbc.JdbcConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+
+/**
+ * @Description: 延迟恢复会话状态的测试：任何使用物理连接的方法之前都先下发待恢复的会话状态
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午1:10:25
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class PoolableConnectionTest {
+
+    private SimpleDataSource ds;
+
+    @Before
+    public void setUp() {
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl("jdbc:h2:mem:lazystate;DB_CLOSE_DELAY=-1");
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(1);
+        ds.setAutoCommit(false);
+        ds.setLazyStateRestore(true);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        ds.close();
+    }
+
+    @Test
+    public void metadataAppliesPendingState() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            assertTrue(conn.unwrap(JdbcConnection.class).getAutoCommit());
+            conn.getMetaData();
+            assertFalse(conn.unwrap(JdbcConnection.class).getAutoCommit());
+        }
+    }
+
+    @Test
+    public void schemaAppliesPendingState() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            conn.setSchema("PUBLIC");
+            assertFalse(conn.unwrap(JdbcConnection.class).getAutoCommit());
+        }
+    }
+
+    @Test
+    public void lobFactoryAppliesPendingState() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            conn.createClob().free();
+            assertFalse(conn.unwrap(JdbcConnection.class).getAutoCommit());
+        }
+    }
+
+    @Test
+    public void passivateClearsBorrowStackTrace() throws SQLException {
+        ds.setLogAbandoned(true);
+        ds.setAbandonedStackSampleRate(1);
+        PoolableConnection pc;
+        try (Connection conn = ds.getConnection()) {
+            pc = (PoolableConnection) conn;
+            assertNotNull(pc.getBorrowStackTrace());
+        }
+        assertNull(pc.getBorrowStackTrace());
+    }
+}
@@ -0,0 +1,89 @@
+package com.asiainfo.dbcp.poolable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.asiainfo.dbcp.datasource.SimpleDataSource;
+import com.asiainfo.dbcp.delegate.DelegatingConnection;
+
+/**
+ * @Description: statement缓存预热的测试：只预热initialSize、minIdle新建的连接，学习到的热点sql定期保存
+ *
+ * @author chenzq
+ * @date 2026年10月20日 下午12:30:40
+ * @version V1.0
+ * @Copyright: Copyright(c) 2019 jaesonchen.com Inc. All rights reserved.
+ */
+public class StatementWarmupTest {
+
+    private SimpleDataSource ds;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("warmup", ".sql");
+        file.delete();
+        ds = new SimpleDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl("jdbc:h2:mem:warmup;DB_CLOSE_DELAY=-1");
+        ds.setUsername("sa");
+        ds.setPassword("");
+        ds.setMaxTotal(1);
+        ds.setPoolPreparedStatements(true);
+        ds.setWarmupStatements(Collections.singletonList("select 1"));
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        ds.close();
+        file.delete();
+    }
+
+    @Test
+    public void initialConnectionsAreWarmed() throws SQLException {
+        ds.setInitialSize(1);
+        try (Connection conn = ds.getConnection()) {
+            assertEquals(1, cachedStatements(conn));
+        }
+    }
+
+    @Test
+    public void borrowedConnectionsAreNotWarmed() throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            assertEquals(0, cachedStatements(conn));
+        }
+    }
+
+    @Test
+    public void learnedStatementsAreSavedPeriodically() throws Exception {
+        ds.setWarmupFile(file.getPath());
+        ds.setLearnWarmupStatements(true);
+        ds.setWarmupSaveIntervalMillis(50);
+        try (Connection conn = ds.getConnection()) {
+            conn.prepareStatement("select 2").close();
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!file.exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        // 数据源没有关闭，文件由定期保存写入
+        assertTrue(file.exists());
+        assertTrue(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).contains("select 2"));
+    }
+
+    private static int cachedStatements(Connection conn) throws SQLException {
+        return conn.unwrap(DelegatingConnection.class).getStatementCache().getBudget().getStatements();
+    }
+}